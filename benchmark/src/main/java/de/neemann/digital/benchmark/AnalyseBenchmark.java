@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.analyse.ModelAnalyser;
+import de.neemann.digital.analyse.TruthTable;
+import de.neemann.digital.analyse.parser.Parser;
+import de.neemann.digital.builder.circuit.CircuitBuilder;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.ModelCreator;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of a truth table by the {@link ModelAnalyser}.
+ * The 'simple' circuit has outputs which depend on all inputs, so the simple filler is used.
+ * In the 'dependant' circuit every output depends only on a few inputs, so the dependant filler is used.
+ * The 'threads' parameter sets the number of model copies used to fill the table in parallel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnalyseBenchmark {
+    private static final String[] SIMPLE = {
+            "A^B^C^D^E^F^G^H^I^J^K^L^M^N",
+            "(A+B)(C+D)(E+F)(G+H)(I+J)(K+L)(M+N)",
+            "A B C D E F G + H I J K L M N",
+            "!A!B + C!D + E F !G + H !I J + K L !M N"};
+    private static final String[] DEPENDANT = {
+            "A B + C", "B C + D", "C D + E", "D E + F", "E F + G", "F G + H",
+            "G H + I", "H I + J", "I J + K", "J K + L", "K L + M", "L M + A"};
+
+    @Param({"simple", "dependant"})
+    private String filler;
+    @Param({"1", "4"})
+    private int threads;
+
+    private Circuit circuit;
+    private ElementLibrary library;
+
+    /**
+     * Creates the circuit
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        library = new ElementLibrary();
+        CircuitBuilder cb = new CircuitBuilder(new ShapeFactory(library));
+        String[] functions = filler.equals("simple") ? SIMPLE : DEPENDANT;
+        for (int i = 0; i < functions.length; i++)
+            cb.addCombinatorial("Y" + i, new Parser(functions[i]).parse().get(0));
+        circuit = cb.createCircuit();
+    }
+
+    /**
+     * Analyses the circuit
+     *
+     * @return the truth table
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public TruthTable analyse() throws Exception {
+        return new ModelAnalyser(new ModelCreator(circuit, library).createModel(false))
+                .setParallel(() -> new ModelCreator(circuit, library).createModel(false), threads)
+                .analyse();
+    }
+}
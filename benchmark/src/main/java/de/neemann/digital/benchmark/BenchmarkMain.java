@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks.
+ * Accepts the usual JMH command line options. If no result format is given, the results
+ * are written in JSON format to the file 'jmh-result.json', so they can be compared
+ * between releases.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * The main method
+     *
+     * @param args the JMH command line arguments
+     * @throws CommandLineOptionException CommandLineOptionException
+     * @throws RunnerException            RunnerException
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        OptionsBuilder ob = new OptionsBuilder();
+        if (!cmd.getResultFormat().hasValue())
+            ob.resultFormat(ResultFormatType.JSON);
+        if (!cmd.getResult().hasValue())
+            ob.result("jmh-result.json");
+        new Runner(ob.parent(cmd).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.wiring.bus.DataBus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of a wide data bus with many tri-state drivers.
+ * In every operation the active driver is released and the next one drives a new value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BusBenchmark {
+
+    @Param({"4", "16", "64"})
+    private int driverCount;
+
+    private ObservableValue[] drivers;
+    private ObservableValue bus;
+    private int active;
+
+    /**
+     * Creates the bus
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        drivers = new ObservableValue[driverCount];
+        for (int i = 0; i < driverCount; i++)
+            drivers[i] = new ObservableValue("d" + i, 32).setToHighZ();
+        bus = new DataBus(null, new Model(), drivers).getReadableOutput();
+    }
+
+    /**
+     * Switches to the next driver
+     *
+     * @return the value of the bus
+     */
+    @Benchmark
+    public long nextDriver() {
+        drivers[active].setToHighZ();
+        active = (active + 1) % driverCount;
+        drivers[active].setValue(active * 0x01010101L);
+        return bus.getValue();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.analyse.parser.Parser;
+import de.neemann.digital.builder.circuit.CircuitBuilder;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.ModelCreator;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import de.neemann.digital.testing.TestCaseDescription;
+import de.neemann.digital.testing.TestExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a test case which checks all 4096 input combinations of a
+ * combinational circuit made of single bit gates.
+ * The creation of the model is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombinationalTestBenchmark {
+    private ElementLibrary library;
+    private Circuit circuit;
+    private TestCaseDescription testCase;
+
+    /**
+     * Creates the circuit
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        library = new ElementLibrary();
+        CircuitBuilder cb = new CircuitBuilder(new ShapeFactory(library));
+        cb.addCombinatorial("Y", new Parser("(A*B+C*D)^(E*F+G*H)^(I+J)*(K^L)").parse().get(0));
+        circuit = cb.createCircuit();
+        testCase = new TestCaseDescription("A B C D E F G H I J K L Y\n"
+                + "loop(n,4096)\n"
+                + "bits(12,n) X\n"
+                + "end loop\n");
+    }
+
+    /**
+     * Runs the test case
+     *
+     * @return the number of result rows
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public int runTest() throws Exception {
+        TestExecutor te = new TestExecutor(testCase).create(new ModelCreator(circuit, library).createModel(false));
+        if (!te.allPassed())
+            throw new IllegalStateException("test failed");
+        return te.getResult().getRows();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.ObservableValues;
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.core.basic.FanIn;
+import de.neemann.digital.core.basic.Or;
+import de.neemann.digital.core.basic.XOr;
+import de.neemann.digital.core.element.ElementAttributes;
+import de.neemann.digital.core.element.Keys;
+
+/**
+ * Builds large circuits made of single bit gates from the basic package.
+ */
+public final class GateCircuits {
+    private final Model model;
+    private final ObservableValue[] a;
+    private final ObservableValue[] b;
+    private ObservableValue[] result;
+
+    private GateCircuits(int bitsA, int bitsB) {
+        model = new Model();
+        a = createInputs("a", bitsA);
+        b = createInputs("b", bitsB);
+    }
+
+    /**
+     * Creates a ripple carry adder
+     *
+     * @param bits the number of bits
+     * @return the circuit
+     * @throws NodeException NodeException
+     */
+    public static GateCircuits createRippleCarryAdder(int bits) throws NodeException {
+        GateCircuits c = new GateCircuits(bits, bits);
+        c.result = c.add(c.a, c.b);
+        c.model.init();
+        return c;
+    }
+
+    /**
+     * Creates an array multiplier
+     *
+     * @param bits the number of bits
+     * @return the circuit
+     * @throws NodeException NodeException
+     */
+    public static GateCircuits createMultiplier(int bits) throws NodeException {
+        GateCircuits c = new GateCircuits(bits, bits);
+        ObservableValue zero = new ObservableValue("zero", 1);
+        ObservableValue[] res = new ObservableValue[bits * 2];
+        ObservableValue[] acc = new ObservableValue[bits];
+        for (int i = 0; i < bits; i++)
+            acc[i] = zero;
+        for (int row = 0; row < bits; row++) {
+            ObservableValue[] pp = new ObservableValue[bits];
+            for (int i = 0; i < bits; i++)
+                pp[i] = c.gate(new And(attr(2)), c.a[i], c.b[row]);
+            ObservableValue[] sum = c.add(acc, pp);
+            res[row] = sum[0];
+            System.arraycopy(sum, 1, acc, 0, bits);
+        }
+        System.arraycopy(acc, 0, res, bits, bits);
+        c.result = res;
+        c.model.init();
+        return c;
+    }
+
+    private static ObservableValue[] createInputs(String name, int bits) {
+        ObservableValue[] in = new ObservableValue[bits];
+        for (int i = 0; i < bits; i++)
+            in[i] = new ObservableValue(name + i, 1);
+        return in;
+    }
+
+    private static ElementAttributes attr(int inputs) {
+        return new ElementAttributes().set(Keys.INPUT_COUNT, inputs);
+    }
+
+    /**
+     * Adds the given values
+     *
+     * @return the sum, which has one bit more than the inputs
+     */
+    private ObservableValue[] add(ObservableValue[] x, ObservableValue[] y) throws NodeException {
+        ObservableValue[] sum = new ObservableValue[x.length + 1];
+        ObservableValue carry = null;
+        for (int i = 0; i < x.length; i++) {
+            if (carry == null) {
+                sum[i] = gate(new XOr(attr(2)), x[i], y[i]);
+                carry = gate(new And(attr(2)), x[i], y[i]);
+            } else {
+                ObservableValue ha = gate(new XOr(attr(2)), x[i], y[i]);
+                sum[i] = gate(new XOr(attr(2)), ha, carry);
+                carry = gate(new Or(attr(2)),
+                        gate(new And(attr(2)), x[i], y[i]),
+                        gate(new And(attr(2)), ha, carry));
+            }
+        }
+        sum[x.length] = carry;
+        return sum;
+    }
+
+    private ObservableValue gate(FanIn gate, ObservableValue... in) throws NodeException {
+        model.add(gate);
+        gate.setInputs(new ObservableValues(in));
+        return gate.getOutput();
+    }
+
+    /**
+     * Sets the inputs of the circuit
+     *
+     * @param valA the value of the a input
+     * @param valB the value of the b input
+     */
+    public void setInputs(long valA, long valB) {
+        for (int i = 0; i < a.length; i++)
+            a[i].setValue(valA >>> i);
+        for (int i = 0; i < b.length; i++)
+            b[i].setValue(valB >>> i);
+    }
+
+    /**
+     * @return the result of the calculation, only the lower 64 bits are returned
+     */
+    public long getResult() {
+        long r = 0;
+        for (int i = 0; i < result.length && i < 64; i++)
+            r |= result[i].getValue() << i;
+        return r;
+    }
+
+    /**
+     * @return the model
+     */
+    public Model getModel() {
+        return model;
+    }
+}
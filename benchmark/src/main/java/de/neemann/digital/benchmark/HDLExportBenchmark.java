@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.hdl.printer.CodePrinterStr;
+import de.neemann.digital.hdl.verilog2.VerilogGenerator;
+import de.neemann.digital.hdl.vhdl2.VHDLGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the export of circuits to VHDL and Verilog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HDLExportBenchmark {
+
+    @Param({"dig/hdl/adder4b.dig", "dig/test/vhdl/FullAdderCLA.dig", "dig/test/vhdl/lightChase.dig",
+            "../../main/dig/processor/HDLExample.dig"})
+    private String circuit;
+
+    private Resources resources;
+    private Circuit circ;
+
+    /**
+     * Loads the circuit
+     *
+     * @throws IOException IOException
+     */
+    @Setup
+    public void setup() throws IOException {
+        resources = new Resources(circuit);
+        circ = resources.loadCircuit();
+    }
+
+    /**
+     * Exports the circuit to VHDL
+     *
+     * @return the generated code
+     * @throws IOException IOException
+     */
+    @Benchmark
+    public String vhdl() throws IOException {
+        CodePrinterStr out = new CodePrinterStr();
+        new VHDLGenerator(resources.getLibrary(), out).disableClockIntegration().export(circ);
+        return out.toString();
+    }
+
+    /**
+     * Exports the circuit to Verilog
+     *
+     * @return the generated code
+     * @throws IOException IOException
+     */
+    @Benchmark
+    public String verilog() throws IOException {
+        CodePrinterStr out = new CodePrinterStr();
+        new VerilogGenerator(resources.getLibrary(), out).disableClockIntegration().export(circ);
+        return out.toString();
+    }
+}
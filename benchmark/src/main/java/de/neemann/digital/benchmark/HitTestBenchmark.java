@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.shapes.Drawable;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the queries used by the editor on every mouse move on a large sheet.
+ * The sheet is a grid of AND gates, every gate has a wire at its output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HitTestBenchmark {
+    private static final int GRID = 200;
+    private static final int QUERIES = 100;
+
+    @Param({"1000", "20000"})
+    private int elements;
+
+    private Circuit circuit;
+    private Vector[] positions;
+
+    /**
+     * Creates the circuit
+     */
+    @Setup
+    public void setup() {
+        ShapeFactory shapeFactory = new ShapeFactory(new ElementLibrary());
+        circuit = new Circuit();
+        final int columns = (int) Math.sqrt(elements);
+        ArrayList<Wire> wires = circuit.getWires();
+        for (int i = 0; i < elements; i++) {
+            Vector pos = new Vector((i % columns) * GRID, (i / columns) * GRID);
+            circuit.add(new VisualElement(And.DESCRIPTION.getName()).setShapeFactory(shapeFactory).setPos(pos));
+            wires.add(new Wire(pos.add(60, 20), pos.add(120, 20)));
+        }
+
+        Random r = new Random(1);
+        positions = new Vector[QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+            positions[i] = new Vector(r.nextInt(columns * GRID), r.nextInt(columns * GRID));
+    }
+
+    /**
+     * Looks up the element and the wire at some positions
+     *
+     * @return the number of hits
+     */
+    @Benchmark
+    public int elementAndWireAt() {
+        int hits = 0;
+        for (Vector p : positions) {
+            if (circuit.getElementAt(p) != null)
+                hits++;
+            if (circuit.getWireAt(p, 5) != null)
+                hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Looks up the elements in some small rectangles
+     *
+     * @return the number of hits
+     */
+    @Benchmark
+    public int elementsToHighlight() {
+        int hits = 0;
+        for (Vector p : positions) {
+            List<Drawable> l = circuit.getElementsToHighlight(p, p.add(GRID, GRID));
+            if (l != null)
+                hits += l.size();
+        }
+        return hits;
+    }
+}
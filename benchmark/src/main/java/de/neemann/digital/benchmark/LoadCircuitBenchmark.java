@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loading of circuit files by XStream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoadCircuitBenchmark {
+
+    @Param({"dig/backtrack/AllComponents.dig", "dig/test/74xx/74181-74182.dig", "dig/shapes.dig"})
+    private String circuit;
+
+    private Resources resources;
+
+    /**
+     * Creates the library
+     *
+     * @throws IOException IOException
+     */
+    @Setup
+    public void setup() throws IOException {
+        resources = new Resources(circuit);
+    }
+
+    /**
+     * Loads the circuit
+     *
+     * @return the circuit
+     * @throws IOException IOException
+     */
+    @Benchmark
+    public Circuit load() throws IOException {
+        return resources.loadCircuit();
+    }
+}
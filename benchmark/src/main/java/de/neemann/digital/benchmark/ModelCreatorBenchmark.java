@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.Pin;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementNotFoundException;
+import de.neemann.digital.draw.model.ModelCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the flattening of a circuit which contains many instances of the same
+ * nested circuit. Every pin of an instance is connected to a short wire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelCreatorBenchmark {
+    private static final int GRID = 20;
+
+    @Param({"100", "1000"})
+    private int instances;
+
+    private Resources resources;
+    private Circuit circuit;
+
+    /**
+     * Creates the circuit
+     *
+     * @throws IOException IOException
+     */
+    @Setup
+    public void setup() throws IOException {
+        resources = new Resources("dig/MS-JK.dig");
+        circuit = new Circuit();
+        for (int i = 0; i < instances; i++) {
+            VisualElement ve = new VisualElement("MS-JK.dig")
+                    .setShapeFactory(resources.getShapeFactory())
+                    .setPos(new Vector(0, i * GRID * 10));
+            circuit.add(ve);
+            for (Pin p : ve.getPins())
+                circuit.getWires().add(new Wire(p.getPos(), p.getPos().add(GRID, 0)));
+        }
+    }
+
+    /**
+     * Creates the model creator
+     *
+     * @return the model creator
+     * @throws PinException             PinException
+     * @throws NodeException            NodeException
+     * @throws ElementNotFoundException ElementNotFoundException
+     */
+    @Benchmark
+    public ModelCreator create() throws PinException, NodeException, ElementNotFoundException {
+        return new ModelCreator(circuit, resources.getLibrary());
+    }
+}
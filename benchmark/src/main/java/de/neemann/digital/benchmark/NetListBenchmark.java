@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.element.Keys;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.elements.Tunnel;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.model.NetList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of the net list of large generated circuits.
+ * Every net is a chain of wires with a tunnel at its start, and two nets
+ * share the same tunnel label. The wires are added in random order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NetListBenchmark {
+    private static final int WIRES_PER_NET = 10;
+    private static final int GRID = 20;
+
+    @Param({"1000", "20000"})
+    private int wires;
+
+    private Circuit circuit;
+    private ArrayList<Vector> pinPositions;
+
+    /**
+     * Creates the circuit
+     */
+    @Setup
+    public void setup() {
+        circuit = new Circuit();
+        pinPositions = new ArrayList<>();
+        ArrayList<Wire> list = new ArrayList<>();
+        final int nets = wires / WIRES_PER_NET;
+        for (int n = 0; n < nets; n++) {
+            final int y = n * GRID;
+            for (int i = 0; i < WIRES_PER_NET; i++)
+                list.add(new Wire(new Vector(i * GRID, y), new Vector((i + 1) * GRID, y)));
+            VisualElement tunnel = new VisualElement(Tunnel.DESCRIPTION.getName()).setPos(new Vector(0, y));
+            tunnel.getElementAttributes().set(Keys.NETNAME, "n" + n / 2);
+            circuit.add(tunnel);
+            pinPositions.add(new Vector(WIRES_PER_NET * GRID, y));
+        }
+        Collections.shuffle(list, new Random(1));
+        // bypasses the wire consistency check, which would join the segments of a chain
+        circuit.getWires().addAll(list);
+    }
+
+    /**
+     * Creates the net list and looks up the net of a pin of every net
+     *
+     * @return the net list
+     * @throws PinException PinException
+     */
+    @Benchmark
+    public NetList createNetList() throws PinException {
+        NetList netList = new NetList(circuit);
+        for (Vector p : pinPositions)
+            if (netList.getNetOfPos(p) == null)
+                throw new IllegalStateException("net not found");
+        return netList;
+    }
+}
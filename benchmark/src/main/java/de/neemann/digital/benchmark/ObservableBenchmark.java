@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.NodeException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the propagation of a change of the inputs through circuits made of basic gates.
+ * This covers {@link de.neemann.digital.core.ObservableValue#set(long, long)}, the observer
+ * dispatch and the scheduling of the nodes in the model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObservableBenchmark {
+    private static final int VECTORS = 1024;
+
+    private GateCircuits adder;
+    private GateCircuits multiplier;
+    private long[] valuesA;
+    private long[] valuesB;
+    private int n;
+
+    /**
+     * Creates the circuits
+     *
+     * @throws NodeException NodeException
+     */
+    @Setup
+    public void setup() throws NodeException {
+        adder = GateCircuits.createRippleCarryAdder(64);
+        multiplier = GateCircuits.createMultiplier(32);
+        Random r = new Random(1);
+        valuesA = new long[VECTORS];
+        valuesB = new long[VECTORS];
+        for (int i = 0; i < VECTORS; i++) {
+            valuesA[i] = r.nextLong();
+            valuesB[i] = r.nextLong();
+        }
+
+        if (rippleCarryAdder64() != valuesA[n] + valuesB[n])
+            throw new IllegalStateException("adder does not work");
+        if (multiplier32x32() != (valuesA[n] & 0xffffffffL) * (valuesB[n] & 0xffffffffL))
+            throw new IllegalStateException("multiplier does not work");
+    }
+
+    /**
+     * Adds two 64 bit values
+     *
+     * @return the sum
+     * @throws NodeException NodeException
+     */
+    @Benchmark
+    public long rippleCarryAdder64() throws NodeException {
+        n = (n + 1) % VECTORS;
+        adder.setInputs(valuesA[n], valuesB[n]);
+        adder.getModel().doStep();
+        return adder.getResult();
+    }
+
+    /**
+     * Multiplies two 32 bit values
+     *
+     * @return the product
+     * @throws NodeException NodeException
+     */
+    @Benchmark
+    public long multiplier32x32() throws NodeException {
+        n = (n + 1) % VECTORS;
+        multiplier.setInputs(valuesA[n], valuesB[n]);
+        multiplier.getModel().doStep();
+        return multiplier.getResult();
+    }
+}
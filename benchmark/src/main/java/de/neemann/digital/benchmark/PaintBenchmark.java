@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.SyncAccess;
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.CircuitPainter;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.elements.Wire;
+import de.neemann.digital.draw.graphics.GraphicSwing;
+import de.neemann.digital.draw.graphics.Style;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.shapes.Drawable;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the repaint of a large circuit if only a part of it is visible.
+ * The sheet is a grid of AND gates, every gate has a wire at its output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaintBenchmark {
+    private static final int GRID = 200;
+    private static final Set<Drawable> NONE = Collections.emptySet();
+
+    @Param({"1000", "20000"})
+    private int elements;
+
+    private Circuit circuit;
+    private ObservableValue[] values;
+    private Graphics2D gr2;
+    private GraphicSwing graphic;
+    private Vector max;
+    private CircuitPainter painter;
+    private int step;
+
+    /**
+     * Creates the circuit
+     */
+    @Setup
+    public void setup() {
+        ShapeFactory shapeFactory = new ShapeFactory(new ElementLibrary());
+        circuit = new Circuit();
+        values = new ObservableValue[elements];
+        final int columns = (int) Math.sqrt(elements);
+        for (int i = 0; i < elements; i++) {
+            Vector pos = new Vector((i % columns) * GRID, (i / columns) * GRID);
+            circuit.add(new VisualElement(And.DESCRIPTION.getName()).setShapeFactory(shapeFactory).setPos(pos));
+            Wire w = new Wire(pos.add(60, 20), pos.add(120, 20));
+            values[i] = new ObservableValue("v" + i, 1);
+            w.setValue(values[i]);
+            circuit.getWires().add(w);
+        }
+
+        BufferedImage image = new BufferedImage(1600, 1000, BufferedImage.TYPE_INT_RGB);
+        gr2 = image.createGraphics();
+        gr2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphic = new GraphicSwing(gr2, 2);
+        max = new Vector(image.getWidth(), image.getHeight());
+        painter = new CircuitPainter();
+        painter.paint(circuit, graphic, new Vector(0, 0), max, NONE, Style.HIGHLIGHT, SyncAccess.NOSYNC);
+    }
+
+    /**
+     * Draws the whole circuit
+     */
+    @Benchmark
+    public void drawAll() {
+        circuit.drawTo(graphic, NONE, Style.HIGHLIGHT, SyncAccess.NOSYNC);
+    }
+
+    /**
+     * Draws the visible part of the circuit
+     */
+    @Benchmark
+    public void paintVisible() {
+        painter.paint(circuit, graphic, new Vector(0, 0), max, NONE, Style.HIGHLIGHT, SyncAccess.NOSYNC);
+    }
+
+    /**
+     * Changes a single visible value and redraws the dirty regions
+     */
+    @Benchmark
+    public void redrawChanged() {
+        values[0].setValue(++step & 1);
+        for (CircuitPainter.Region r : painter.update(NONE, Style.HIGHLIGHT, SyncAccess.NOSYNC))
+            painter.redraw(graphic, r);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.PartitionedModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the calculation of a large multiplier by the {@link PartitionedModel}.
+ * A single thread means the event driven {@link de.neemann.digital.core.Model#doStep()} is used.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PartitionedBenchmark {
+    private static final int VECTORS = 1024;
+
+    @Param({"1", "2", "4"})
+    private int threads;
+
+    private GateCircuits multiplier;
+    private PartitionedModel partitionedModel;
+    private long[] valuesA;
+    private long[] valuesB;
+    private int n;
+
+    /**
+     * Creates the circuit
+     *
+     * @throws NodeException NodeException
+     */
+    @Setup
+    public void setup() throws NodeException {
+        multiplier = GateCircuits.createMultiplier(32);
+        if (threads > 1) {
+            partitionedModel = new PartitionedModel(multiplier.getModel(), threads);
+            if (!partitionedModel.isPartitioned())
+                throw new IllegalStateException(partitionedModel.getNotPartitionedReason());
+        }
+        Random r = new Random(1);
+        valuesA = new long[VECTORS];
+        valuesB = new long[VECTORS];
+        for (int i = 0; i < VECTORS; i++) {
+            valuesA[i] = r.nextLong();
+            valuesB[i] = r.nextLong();
+        }
+
+        if (multiplier32x32() != (valuesA[n] & 0xffffffffL) * (valuesB[n] & 0xffffffffL))
+            throw new IllegalStateException("multiplier does not work");
+    }
+
+    /**
+     * Stops the threads
+     */
+    @TearDown
+    public void tearDown() {
+        if (partitionedModel != null)
+            partitionedModel.close();
+    }
+
+    /**
+     * Multiplies two 32 bit values
+     *
+     * @return the product
+     * @throws NodeException NodeException
+     */
+    @Benchmark
+    public long multiplier32x32() throws NodeException {
+        n = (n + 1) % VECTORS;
+        multiplier.setInputs(valuesA[n], valuesB[n]);
+        if (partitionedModel == null)
+            multiplier.getModel().doStep();
+        else
+            partitionedModel.doStep();
+        return multiplier.getResult();
+    }
+}
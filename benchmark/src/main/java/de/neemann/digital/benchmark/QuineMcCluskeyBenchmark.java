@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the minimization of random truth tables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuineMcCluskeyBenchmark {
+
+    @Param({"6", "8", "10"})
+    private int variables;
+
+    private ArrayList<Variable> vars;
+    private BoolTableByteArray table;
+
+    /**
+     * Creates the table
+     */
+    @Setup
+    public void setup() {
+        vars = new ArrayList<>();
+        for (int i = 0; i < variables; i++)
+            vars.add(new Variable("v" + i));
+        int rows = 1 << variables;
+        table = new BoolTableByteArray(rows);
+        Random r = new Random(variables);
+        for (int i = 0; i < rows; i++)
+            table.set(i, r.nextInt(3) == 0);
+    }
+
+    /**
+     * Simplifies the table
+     *
+     * @return the minimized expression
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public Expression simplify() throws Exception {
+        return new QuineMcCluskey(vars)
+                .fillTableWith(table)
+                .simplify()
+                .getExpression();
+    }
+}
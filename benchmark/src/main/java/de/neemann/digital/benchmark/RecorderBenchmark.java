@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.ModelEvent;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.Signal;
+import de.neemann.digital.gui.components.data.ValueTableObserver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the recording of 64 signals at every micro step, if the number of samples is limited.
+ * In every step only a few of the signals change, which is typical for the gate level recording.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecorderBenchmark {
+    private static final int SIGNALS = 64;
+
+    @Param({"1000", "100000"})
+    private int maxSize;
+
+    private ObservableValue[] values;
+    private ValueTableObserver observer;
+    private int step;
+
+    /**
+     * Creates the signals and fills the recorder
+     */
+    @Setup
+    public void setup() {
+        values = new ObservableValue[SIGNALS];
+        ArrayList<Signal> signals = new ArrayList<>();
+        for (int i = 0; i < SIGNALS; i++) {
+            values[i] = new ObservableValue("s" + i, 8);
+            signals.add(new Signal("s" + i, values[i]));
+        }
+        observer = new ValueTableObserver(true, signals, maxSize);
+        for (int i = 0; i < maxSize; i++)
+            sample();
+    }
+
+    /**
+     * Changes some signals and records a sample
+     *
+     * @return the number of stored samples
+     */
+    @Benchmark
+    public int sample() {
+        step++;
+        values[step % SIGNALS].setValue(step);
+        values[(step * 7) % SIGNALS].setValue(step >> 3);
+        observer.handleEvent(ModelEvent.MICROSTEP);
+        return observer.getLogData().getRows();
+    }
+}
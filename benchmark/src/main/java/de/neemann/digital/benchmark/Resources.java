@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Loads the circuits used by the benchmarks.
+ * The circuits are taken from the test resources of the simulator. The folder can be
+ * set by the system property 'testdata'.
+ */
+public final class Resources {
+    private final File file;
+    private final ElementLibrary library;
+    private final ShapeFactory shapeFactory;
+
+    /**
+     * Creates a new instance
+     *
+     * @param name the name of the circuit relative to the test resources folder
+     * @throws IOException IOException
+     */
+    public Resources(String name) throws IOException {
+        file = new File(getRoot(), name);
+        library = new ElementLibrary();
+        library.setRootFilePath(file.getParentFile());
+        shapeFactory = new ShapeFactory(library);
+    }
+
+    /**
+     * @return the folder containing the test resources
+     */
+    public static File getRoot() {
+        return new File(System.getProperty("testdata", "../src/test/resources"));
+    }
+
+    /**
+     * Loads the circuit
+     *
+     * @return the circuit
+     * @throws IOException IOException
+     */
+    public Circuit loadCircuit() throws IOException {
+        return Circuit.loadCircuit(file, shapeFactory);
+    }
+
+    /**
+     * @return the circuit file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the library
+     */
+    public ElementLibrary getLibrary() {
+        return library;
+    }
+
+    /**
+     * @return the shape factory
+     */
+    public ShapeFactory getShapeFactory() {
+        return shapeFactory;
+    }
+}
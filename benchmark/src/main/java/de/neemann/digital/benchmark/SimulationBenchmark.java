@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.CompiledModel;
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.draw.model.ModelCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a clock cycle of the example circuits.
+ * The event driven {@link Model#doStep()} is compared to the levelized {@link CompiledModel}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark {
+
+    @Param({"dig/CounterSplitter.dig", "dig/runToBreak.dig", "dig/analyze/multiBitCounter.dig"})
+    private String circuit;
+
+    @Param({"event", "levelized"})
+    private String engine;
+
+    private Model model;
+    private CompiledModel compiledModel;
+    private ObservableValue clock;
+
+    /**
+     * Creates the model
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        Resources r = new Resources(circuit);
+        model = new ModelCreator(r.loadCircuit(), r.getLibrary()).createModel(false);
+        model.init();
+        clock = model.getClocks().get(0).getClockOutput();
+        if (engine.equals("levelized")) {
+            compiledModel = new CompiledModel(model);
+            if (!compiledModel.isCompiled())
+                throw new IllegalStateException(compiledModel.getNotCompiledReason());
+        }
+    }
+
+    /**
+     * Closes the model
+     */
+    @TearDown
+    public void tearDown() {
+        model.close();
+    }
+
+    /**
+     * Performs a full clock cycle
+     *
+     * @return the clock value
+     * @throws NodeException NodeException
+     */
+    @Benchmark
+    public long clockCycle() throws NodeException {
+        for (int i = 0; i < 2; i++) {
+            clock.setBool(!clock.getBool());
+            if (compiledModel == null)
+                model.doStep();
+            else
+                compiledModel.doStep();
+        }
+        return clock.getValue();
+    }
+}
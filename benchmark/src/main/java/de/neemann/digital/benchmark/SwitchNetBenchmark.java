@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.Signal;
+import de.neemann.digital.draw.model.ModelCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures transistor and relay level circuits, which open and close many switches in every step.
+ * Each operation applies the next input combination and calculates the new state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwitchNetBenchmark {
+
+    @Param({"dig/test/fet/cmosMirrorFullAdder.dig", "dig/test/switch/relayFullAdder.dig"})
+    private String circuit;
+
+    private Model model;
+    private ArrayList<ObservableValue> inputs;
+    private long count;
+
+    /**
+     * Creates the model
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        Resources r = new Resources(circuit);
+        model = new ModelCreator(r.loadCircuit(), r.getLibrary()).createModel(false);
+        model.init();
+        inputs = new ArrayList<>();
+        for (Signal s : model.getInputs())
+            inputs.add(s.getValue());
+    }
+
+    /**
+     * Closes the model
+     */
+    @TearDown
+    public void tearDown() {
+        model.close();
+    }
+
+    /**
+     * Applies the next input combination
+     *
+     * @return the counter
+     * @throws NodeException NodeException
+     */
+    @Benchmark
+    public long step() throws NodeException {
+        count++;
+        for (int i = 0; i < inputs.size(); i++)
+            inputs.get(i).setValue((count >> i) & 1);
+        model.doStep();
+        return count;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.testing.parser.Context;
+import de.neemann.digital.testing.parser.LineEmitter;
+import de.neemann.digital.testing.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generation of the test rows by the test data parser without any simulation.
+ * The test data consists of nested loops with some variables, which is the typical
+ * structure of an exhaustive test of an arithmetic circuit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TestDataBenchmark {
+    private static final String TEST_DATA = "C A B Y\n"
+            + "let m = 255;\n"
+            + "loop(a,256)\n"
+            + "  loop(b,256)\n"
+            + "    let s = (a + b) & m;\n"
+            + "    let c = ite(a + b > m, 1, 0);\n"
+            + "    (c) (a) (b) (s ^ (c << 3))\n"
+            + "  end loop\n"
+            + "end loop\n";
+
+    private LineEmitter lines;
+
+    /**
+     * Parses the test data
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        lines = new Parser(TEST_DATA).parse().getLines();
+    }
+
+    /**
+     * Emits all rows of the test data
+     *
+     * @return the sum of the last column
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public long emitRows() throws Exception {
+        final long[] sum = new long[1];
+        lines.emitLines(values -> sum[0] += values[3].getValue(), new Context());
+        return sum[0];
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.benchmark;
+
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.model.ModelCreator;
+import de.neemann.digital.testing.TestCaseDescription;
+import de.neemann.digital.testing.TestCaseElement;
+import de.neemann.digital.testing.TestExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the execution of the test cases embedded in the example circuits.
+ * The creation of the model is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TestExecutorBenchmark {
+
+    @Param({"dig/hdl/adder4b.dig", "dig/test/vhdl/FullAdderCLA.dig", "dig/test/vhdl/lightChase.dig", "dig/test/ram.dig"})
+    private String circuit;
+
+    private Resources resources;
+    private Circuit circ;
+    private ArrayList<TestCaseDescription> testCases;
+
+    /**
+     * Loads the circuit
+     *
+     * @throws Exception Exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        resources = new Resources(circuit);
+        circ = resources.loadCircuit();
+        testCases = new ArrayList<>();
+        for (VisualElement el : circ.getElements())
+            if (el.equalsDescription(TestCaseElement.TESTCASEDESCRIPTION))
+                testCases.add(el.getElementAttributes().get(TestCaseElement.TESTDATA));
+        if (testCases.isEmpty())
+            throw new IllegalStateException("no test cases found in " + circuit);
+    }
+
+    /**
+     * Runs all test cases of the circuit
+     *
+     * @return the number of passed test cases
+     * @throws Exception Exception
+     */
+    @Benchmark
+    public int runTests() throws Exception {
+        int passed = 0;
+        for (TestCaseDescription tc : testCases) {
+            TestExecutor te = new TestExecutor(tc).create(new ModelCreator(circ, resources.getLibrary()).createModel(false));
+            if (te.allPassed())
+                passed++;
+        }
+        if (passed != testCases.size())
+            throw new IllegalStateException("test failed in " + circuit);
+        return passed;
+    }
+}
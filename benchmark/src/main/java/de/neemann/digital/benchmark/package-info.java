@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+
+/**
+ * JMH benchmarks of the simulator
+ */
+package de.neemann.digital.benchmark;
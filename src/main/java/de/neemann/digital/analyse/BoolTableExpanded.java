@@ -7,7 +7,7 @@ package de.neemann.digital.analyse;
 
 import de.neemann.digital.analyse.expression.Variable;
 import de.neemann.digital.analyse.quinemc.BoolTable;
-import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.EditableBoolTable;
 import de.neemann.digital.analyse.quinemc.ThreeStateValue;
 import de.neemann.digital.core.Bits;
 import de.neemann.digital.core.Signal;
@@ -18,7 +18,7 @@ import java.util.ArrayList;
  * Creates a bool table which represents an expression which does not depend on all variables.
  */
 public class BoolTableExpanded implements BoolTable {
-    private final BoolTableByteArray e;
+    private final EditableBoolTable e;
     private final ArrayList<Variable> vars;
     private final int[] bitsToRemove;
     private final int bitRemoveCount;
@@ -31,7 +31,7 @@ public class BoolTableExpanded implements BoolTable {
      * @param inputs         the variables the expression relay depends on
      * @param originalInputs all variables
      */
-    public BoolTableExpanded(BoolTableByteArray e, ArrayList<Signal> inputs, ArrayList<Signal> originalInputs) {
+    public BoolTableExpanded(EditableBoolTable e, ArrayList<Signal> inputs, ArrayList<Signal> originalInputs) {
         this.e = e;
         bitRemoveCount = originalInputs.size() - inputs.size();
         bitsToRemove = new int[bitRemoveCount];
@@ -68,7 +68,7 @@ public class BoolTableExpanded implements BoolTable {
     /**
      * @return the bool table
      */
-    public BoolTableByteArray getBoolTable() {
+    public EditableBoolTable getBoolTable() {
         return e;
     }
 
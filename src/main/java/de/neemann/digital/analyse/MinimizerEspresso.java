@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse;
+
+import de.neemann.digital.analyse.expression.Constant;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.expression.format.FormatterException;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.Espresso;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
+import de.neemann.digital.analyse.quinemc.TableRow;
+import de.neemann.digital.gui.components.table.ExpressionListener;
+import de.neemann.digital.lang.Lang;
+
+import java.util.List;
+
+/**
+ * The heuristic minimizer.
+ * Used for tables which are to large to be minimized by the QMC minimizer.
+ * Only a single solution is reported, which is not necessarily the minimal one.
+ */
+public class MinimizerEspresso implements MinimizerInterface {
+    @Override
+    public void minimize(List<Variable> vars, BoolTable boolTable, String resultName, ExpressionListener listener) throws ExpressionException, FormatterException {
+        if (boolTable.size() != 1 << vars.size())
+            throw new ExpressionException(Lang.get("err_exact_N0_valuesNecessaryNot_N1", 1 << vars.size(), boolTable.size()));
+
+        List<TableRow> rows = new Espresso(vars.size(), boolTable).minimize();
+        Expression e = QuineMcCluskey.addAnd(null, rows, vars);
+        if (e == null)
+            e = Constant.ZERO;
+        listener.resultFound(resultName, e);
+    }
+}
@@ -12,7 +12,7 @@ import de.neemann.digital.analyse.expression.format.FormatterException;
 import de.neemann.digital.analyse.quinemc.BoolTable;
 import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
 import de.neemann.digital.analyse.quinemc.TableRow;
-import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelector;
+import de.neemann.digital.analyse.quinemc.primeselector.BranchAndBound;
 import de.neemann.digital.analyse.quinemc.primeselector.PrimeSelectorDefault;
 import de.neemann.digital.gui.components.table.ExpressionListener;
 
@@ -23,12 +23,34 @@ import java.util.List;
  * The normal QMC minimizer.
  */
 public class MinimizerQuineMcCluskey implements MinimizerInterface {
+    private long maxSearchNodes = BranchAndBound.DEFAULT_MAX_NODES;
+    private boolean minimal = true;
+
+    /**
+     * Sets the maximum number of search nodes used to select the primes
+     *
+     * @param maxSearchNodes the maximum number of search nodes
+     * @return this for chained calls
+     */
+    public MinimizerQuineMcCluskey setMaxSearchNodes(long maxSearchNodes) {
+        this.maxSearchNodes = maxSearchNodes;
+        return this;
+    }
+
+    /**
+     * @return false if the search was stopped by the node limit, so the last result may not be minimal
+     */
+    public boolean isMinimal() {
+        return minimal;
+    }
+
     @Override
     public void minimize(List<Variable> vars, BoolTable boolTable, String resultName, ExpressionListener listener) throws ExpressionException, FormatterException {
         QuineMcCluskey qmc = createQuineMcCluskey(vars)
                 .fillTableWith(boolTable);
-        PrimeSelector ps = new PrimeSelectorDefault();
+        PrimeSelectorDefault ps = new PrimeSelectorDefault(maxSearchNodes);
         Expression e = qmc.simplify(ps).getExpression();
+        minimal = ps.isMinimal();
 
         if (ps.getAllSolutions() != null) {
             for (ArrayList<TableRow> i : ps.getAllSolutions()) {
@@ -6,7 +6,7 @@
 package de.neemann.digital.analyse;
 
 import de.neemann.digital.analyse.expression.BitSetter;
-import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.EditableBoolTable;
 import de.neemann.digital.core.*;
 import de.neemann.digital.core.basic.And;
 import de.neemann.digital.core.basic.Not;
@@ -19,6 +19,7 @@ import de.neemann.digital.core.switching.*;
 import de.neemann.digital.core.wiring.Clock;
 import de.neemann.digital.core.wiring.Splitter;
 import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.draw.library.ElementNotFoundException;
 import de.neemann.digital.gui.Main;
 import de.neemann.digital.lang.Lang;
 import org.slf4j.Logger;
@@ -26,6 +27,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Analyses a given model.
@@ -34,12 +40,15 @@ import java.util.List;
 public class ModelAnalyser {
     private static final Logger LOGGER = LoggerFactory.getLogger(ModelAnalyser.class);
     private static final int MAX_INPUTS_ALLOWED = 24;
+    private static final int MIN_ROWS_PER_THREAD = 1 << 12;
 
     private final Model model;
     private final ArrayList<Signal> inputs;
     private final ArrayList<Signal> outputs;
     private int uniqueIndex = 0;
     private ModelAnalyserInfo modelAnalyzerInfo;
+    private ModelFactory modelFactory;
+    private int threads = 1;
 
     /**
      * Creates a new instance
@@ -108,6 +117,21 @@ public class ModelAnalyser {
             throw new AnalyseException(Lang.get("err_analyseNoOutputs"));
     }
 
+    /**
+     * Enables the parallel filling of the truth table.
+     * Every worker thread uses its own copy of the model, which is created by the given factory.
+     * The factory has to create a model of the same circuit this analyser was created from.
+     *
+     * @param modelFactory the factory used to create the model copies
+     * @param threads      the number of threads to use
+     * @return this for chained calls
+     */
+    public ModelAnalyser setParallel(ModelFactory modelFactory, int threads) {
+        this.modelFactory = modelFactory;
+        this.threads = threads;
+        return this;
+    }
+
     private ModelAnalyserInfo getModelAnalyzerInfo() {
         return modelAnalyzerInfo;
     }
@@ -397,7 +421,36 @@ public class ModelAnalyser {
         if (inputs.size() > MAX_INPUTS_ALLOWED)
             throw new AnalyseException(Lang.get("err_toManyInputs_max_N0_is_N1", MAX_INPUTS_ALLOWED, inputs.size()));
 
+        int rows = 1 << inputs.size();
+        ArrayList<EditableBoolTable> data = new ArrayList<>();
+        for (Signal s : outputs) {
+            EditableBoolTable e = EditableBoolTable.create(rows);
+            data.add(e);
+            tt.addResult(s.getName(), e);
+        }
 
+        int workerCount = Math.min(threads, rows / MIN_ROWS_PER_THREAD);
+        List<ModelAnalyser> workers = createWorkers(workerCount);
+        if (workers == null) {
+            model.init();
+            fillRows(data, 0, rows);
+        } else {
+            ArrayList<Callable<Void>> tasks = new ArrayList<>();
+            for (int w = 0; w < workerCount; w++) {
+                final ModelAnalyser worker = workers.get(w);
+                // the ranges are aligned to 64 rows, so two workers never write to the same word of a bit packed table
+                final int from = (int) ((long) rows * w / workerCount) & ~63;
+                final int to = w == workerCount - 1 ? rows : (int) ((long) rows * (w + 1) / workerCount) & ~63;
+                tasks.add(() -> {
+                    worker.fillRows(data, from, to);
+                    return null;
+                });
+            }
+            runParallel(workers, tasks);
+        }
+    }
+
+    private void fillRows(ArrayList<EditableBoolTable> data, int from, int to) throws NodeException {
         BitSetter bitsetter = new BitSetter(inputs.size()) {
             @Override
             public void setBit(int row, int bit, boolean value) {
@@ -405,16 +458,7 @@ public class ModelAnalyser {
             }
         };
 
-        int rows = 1 << inputs.size();
-        ArrayList<BoolTableByteArray> data = new ArrayList<>();
-        for (Signal s : outputs) {
-            BoolTableByteArray e = new BoolTableByteArray(rows);
-            data.add(e);
-            tt.addResult(s.getName(), e);
-        }
-
-        model.init();
-        for (int row = 0; row < rows; row++) {
+        for (int row = from; row < to; row++) {
             bitsetter.fill(row);
             model.doStep();
             for (int i = 0; i < outputs.size(); i++) {
@@ -424,32 +468,130 @@ public class ModelAnalyser {
     }
 
     private void dependantFiller(TruthTable tt, DependencyAnalyser da) throws NodeException, AnalyseException {
-        model.init();
+        ArrayList<ArrayList<Signal>> insList = new ArrayList<>();
+        int maxRows = 0;
         for (Signal out : outputs) {
-
             ArrayList<Signal> ins = reorder(da.getInputs(out), inputs);
             if (ins.size() > MAX_INPUTS_ALLOWED)
                 throw new AnalyseException(Lang.get("err_toManyInputs_max_N0_is_N1", MAX_INPUTS_ALLOWED, ins.size()));
+            insList.add(ins);
+            maxRows = Math.max(maxRows, 1 << ins.size());
+        }
 
-            int rows = 1 << ins.size();
-            BoolTableByteArray e = new BoolTableByteArray(rows);
-            BitSetter bitsetter = new BitSetter(ins.size()) {
-                @Override
-                public void setBit(int row, int bit, boolean value) {
-                    ins.get(bit).getValue().setBool(value);
-                }
-            };
+        EditableBoolTable[] results = new EditableBoolTable[outputs.size()];
+        int workerCount = Math.min(Math.min(threads, outputs.size()), maxRows / MIN_ROWS_PER_THREAD);
+        List<ModelAnalyser> workers = createWorkers(workerCount);
+        if (workers == null) {
+            model.init();
+            for (int o = 0; o < outputs.size(); o++)
+                results[o] = fillOutput(o, insList.get(o));
+        } else {
+            final AtomicInteger nextOutput = new AtomicInteger();
+            ArrayList<Callable<Void>> tasks = new ArrayList<>();
+            for (ModelAnalyser worker : workers)
+                tasks.add(() -> {
+                    int o;
+                    while ((o = nextOutput.getAndIncrement()) < outputs.size())
+                        results[o] = worker.fillOutput(o, worker.translate(insList.get(o), inputs));
+                    return null;
+                });
+            runParallel(workers, tasks);
+        }
+
+        for (int o = 0; o < outputs.size(); o++)
+            tt.addResult(outputs.get(o).getName(), new BoolTableExpanded(results[o], insList.get(o), inputs));
+    }
+
+    private EditableBoolTable fillOutput(int outputIndex, ArrayList<Signal> ins) throws NodeException {
+        final Signal out = outputs.get(outputIndex);
+        int rows = 1 << ins.size();
+        EditableBoolTable e = EditableBoolTable.create(rows);
+        BitSetter bitsetter = new BitSetter(ins.size()) {
+            @Override
+            public void setBit(int row, int bit, boolean value) {
+                ins.get(bit).getValue().setBool(value);
+            }
+        };
+
+        for (int row = 0; row < rows; row++) {
+            bitsetter.fill(row);
+            model.doStep();
+            e.set(row, out.getValue().getBool());
+        }
+        return e;
+    }
+
+    /**
+     * Maps the given signals of an other analyser to the signals of this analyser.
+     * Both analysers are created from the same circuit, so the signals have the same index.
+     */
+    private ArrayList<Signal> translate(ArrayList<Signal> signals, ArrayList<Signal> otherInputs) {
+        ArrayList<Signal> list = new ArrayList<>(signals.size());
+        for (Signal s : signals)
+            list.add(inputs.get(otherInputs.indexOf(s)));
+        return list;
+    }
+
+    /**
+     * Creates the analysers used by the worker threads.
+     * The models are created in the calling thread, because the element library is not thread safe.
+     * Returns null if the table is to be filled by this analyser itself.
+     */
+    private List<ModelAnalyser> createWorkers(int workerCount) throws AnalyseException, NodeException {
+        if (modelFactory == null || workerCount < 2 || modelContainsSwitches())
+            return null;
 
-            for (int row = 0; row < rows; row++) {
-                bitsetter.fill(row);
-                model.doStep();
-                e.set(row, out.getValue().getBool());
+        ArrayList<ModelAnalyser> workers = new ArrayList<>(workerCount);
+        try {
+            for (int w = 0; w < workerCount; w++) {
+                ModelAnalyser worker = new ModelAnalyser(modelFactory.createModel());
+                workers.add(worker);
+                if (!worker.inputs.equals(inputs) || !worker.outputs.equals(outputs)) {
+                    LOGGER.warn("model copy differs from the analysed model, parallel analysis disabled");
+                    closeAll(workers);
+                    return null;
+                }
+                worker.model.init();
             }
+        } catch (PinException | ElementNotFoundException e) {
+            closeAll(workers);
+            throw new AnalyseException(e);
+        } catch (NodeException | AnalyseException | RuntimeException e) {
+            closeAll(workers);
+            throw e;
+        }
+        LOGGER.debug("analyse the model using " + workerCount + " threads");
+        return workers;
+    }
 
-            tt.addResult(out.getName(), new BoolTableExpanded(e, ins, inputs));
+    private void runParallel(List<ModelAnalyser> workers, List<Callable<Void>> tasks) throws NodeException, AnalyseException {
+        ForkJoinPool pool = new ForkJoinPool(tasks.size());
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks))
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalyseException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NodeException)
+                throw (NodeException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new AnalyseException(e);
+        } finally {
+            pool.shutdown();
+            closeAll(workers);
         }
     }
 
+    private static void closeAll(List<ModelAnalyser> workers) {
+        for (ModelAnalyser w : workers)
+            w.model.close();
+    }
+
     private ArrayList<Signal> reorder(ArrayList<Signal> ins, ArrayList<Signal> originalOrder) {
         ArrayList<Signal> newList = new ArrayList<>();
         for (Signal i : originalOrder)
@@ -458,4 +600,20 @@ public class ModelAnalyser {
         return newList;
     }
 
+    /**
+     * Creates a new model of the circuit to analyse.
+     */
+    public interface ModelFactory {
+        /**
+         * Creates a new model.
+         * Every call has to return a new and independent model instance.
+         *
+         * @return the model
+         * @throws PinException             PinException
+         * @throws NodeException            NodeException
+         * @throws ElementNotFoundException ElementNotFoundException
+         */
+        Model createModel() throws PinException, NodeException, ElementNotFoundException;
+    }
+
 }
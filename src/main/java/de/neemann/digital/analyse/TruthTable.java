@@ -13,17 +13,25 @@ import de.neemann.digital.analyse.expression.Context;
 import de.neemann.digital.analyse.expression.ExpressionException;
 import de.neemann.digital.analyse.expression.Variable;
 import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.BoolTableBitArray;
 import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.EditableBoolTable;
 import de.neemann.digital.analyse.quinemc.ThreeStateValue;
 import de.neemann.digital.lang.Lang;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * The description of a truth table.
  */
 public class TruthTable {
+    private static final String BINARY_MAGIC = "DigitalTruthTable";
+    private static final int BINARY_VERSION = 1;
+    // the largest table created by the model analyser
+    private static final int BINARY_MAX_VARS = 24;
 
     private final ArrayList<Variable> variables;
     private final ArrayList<Result> results;
@@ -31,31 +39,135 @@ public class TruthTable {
     private transient ModelAnalyserInfo modelAnalyzerInfo;
 
     /**
-     * Load the given file and returns a truth table instance
+     * Load the given file and returns a truth table instance.
+     * The file can be stored in the xml or in the binary format.
      *
      * @param filename filename
      * @return the {@link TruthTable}
      * @throws IOException IOException
      */
     public static TruthTable readFromFile(File filename) throws IOException {
-        XStream xStream = getxStream();
-        try (InputStream in = new FileInputStream(filename)) {
-            return (TruthTable) xStream.fromXML(in);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(filename))) {
+            in.mark(2);
+            int b0 = in.read();
+            int b1 = in.read();
+            in.reset();
+            if (b0 == (GZIPInputStream.GZIP_MAGIC & 0xff) && b1 == (GZIPInputStream.GZIP_MAGIC >> 8))
+                return readBinary(in);
+            else
+                return (TruthTable) getxStream().fromXML(in);
         }
     }
 
     /**
      * Writes the table to the given file.
+     * Tables with many rows are stored in the binary format, all other tables in the xml format.
      *
      * @param filename the file
      * @throws IOException IOException
      */
     public void save(File filename) throws IOException {
-        XStream xStream = getxStream();
-        try (Writer out = new OutputStreamWriter(new FileOutputStream(filename), "utf-8")) {
-            out.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
-            xStream.marshal(this, new PrettyPrintWriter(out));
+        if (getRows() >= EditableBoolTable.BIT_ARRAY_THRESHOLD) {
+            try (OutputStream out = new FileOutputStream(filename)) {
+                saveBinary(out);
+            }
+        } else {
+            XStream xStream = getxStream();
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(filename), "utf-8")) {
+                out.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+                xStream.marshal(this, new PrettyPrintWriter(out));
+            }
+        }
+    }
+
+    /**
+     * Writes the table in the binary format.
+     * The variables and result names are followed by the bit planes of the results.
+     * Every result column is stored with two bits per row, and the whole stream is gzip compressed.
+     *
+     * @param out the stream to write to, is not closed
+     * @throws IOException IOException
+     */
+    public void saveBinary(OutputStream out) throws IOException {
+        GZIPOutputStream zip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(zip));
+        data.writeUTF(BINARY_MAGIC);
+        data.writeInt(BINARY_VERSION);
+        data.writeInt(variables.size());
+        for (Variable v : variables)
+            data.writeUTF(v.getIdentifier());
+        data.writeInt(results.size());
+        for (Result r : results) {
+            data.writeUTF(r.getName());
+            BoolTableBitArray bits = toBitArray(r.getValues());
+            for (int w = 0; w < bits.getWordCount(); w++) {
+                data.writeLong(bits.getOnesWord(w));
+                data.writeLong(bits.getDontCareWord(w));
+            }
+        }
+        data.flush();
+        zip.finish();
+    }
+
+    private static BoolTableBitArray toBitArray(BoolTable values) {
+        if (values instanceof BoolTableBitArray)
+            return (BoolTableBitArray) values;
+        BoolTableBitArray bits = new BoolTableBitArray(values.size());
+        for (int i = 0; i < values.size(); i++)
+            bits.set(i, values.get(i).asInt());
+        return bits;
+    }
+
+    /**
+     * Reads a table stored in the binary format.
+     *
+     * @param in the stream to read from
+     * @return the table
+     * @throws IOException IOException
+     */
+    public static TruthTable readBinary(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+        if (!data.readUTF().equals(BINARY_MAGIC))
+            throw new IOException("not a truth table file");
+        int version = data.readInt();
+        if (version != BINARY_VERSION)
+            throw new IOException("unsupported truth table version " + version);
+
+        int varCount = data.readInt();
+        if (varCount < 0 || varCount > BINARY_MAX_VARS)
+            throw new IOException("unsupported number of truth table variables " + varCount);
+        ArrayList<Variable> vars = new ArrayList<>(varCount);
+        for (int i = 0; i < varCount; i++)
+            vars.add(new Variable(data.readUTF()));
+        TruthTable tt = new TruthTable(vars);
+
+        int rows = tt.getRows();
+        int words = (rows + 63) >>> 6;
+        int resultCount = data.readInt();
+        if (resultCount < 0)
+            throw new IOException("invalid number of truth table results " + resultCount);
+        for (int r = 0; r < resultCount; r++) {
+            String name = data.readUTF();
+            long[] ones = new long[words];
+            long[] dontCare = new long[words];
+            for (int w = 0; w < words; w++) {
+                ones[w] = data.readLong();
+                dontCare[w] = data.readLong();
+            }
+            BoolTableBitArray bits = new BoolTableBitArray(rows, ones, dontCare);
+            if (rows >= EditableBoolTable.BIT_ARRAY_THRESHOLD)
+                tt.addResult(name, bits);
+            else
+                tt.addResult(name, copy(bits));
         }
+        return tt;
+    }
+
+    private static EditableBoolTable copy(BoolTable values) {
+        EditableBoolTable t = EditableBoolTable.create(values.size());
+        for (int i = 0; i < values.size(); i++)
+            t.set(i, values.get(i).asInt());
+        return t;
     }
 
     /**
@@ -104,6 +216,7 @@ public class TruthTable {
         xStream.aliasAttribute(Variable.class, "identifier", "name");
         xStream.alias("result", Result.class);
         xStream.alias("BoolTable", BoolTableByteArray.class);
+        xStream.alias("BoolTableBits", BoolTableBitArray.class);
         xStream.alias("BoolTableEx", BoolTableExpanded.class);
         return xStream;
     }
@@ -143,7 +256,7 @@ public class TruthTable {
     public TruthTable(ArrayList<Variable> newVars, TruthTable oldTable) {
         this(newVars);
         for (int i = 0; i < oldTable.getResultCount(); i++) {
-            addResult(oldTable.results.get(i).getName(), new BoolTableByteArray(getRows()));
+            addResult(oldTable.results.get(i).getName(), EditableBoolTable.create(getRows()));
         }
     }
 
@@ -184,7 +297,7 @@ public class TruthTable {
      * @return this for call chaining
      */
     public TruthTable addResult(String name) {
-        results.add(new Result(name, new BoolTableByteArray(getRows())));
+        results.add(new Result(name, EditableBoolTable.create(getRows())));
         return this;
     }
 
@@ -218,11 +331,21 @@ public class TruthTable {
     public void addVariable(Variable var) {
         variables.add(var);
         for (Result r : results)
-            r.setValues(BoolTableByteArray.createDoubledValues(r.getValues()));
+            r.setValues(createDoubledValues(r.getValues()));
 
         bitSetter = null;
     }
 
+    private static EditableBoolTable createDoubledValues(BoolTable values) {
+        EditableBoolTable t = EditableBoolTable.create(values.size() * 2);
+        for (int i = 0; i < values.size(); i++) {
+            int v = values.get(i).asInt();
+            t.set(i * 2, v);
+            t.set(i * 2 + 1, v);
+        }
+        return t;
+    }
+
     private BitSetter getBitSetter() {
         if (bitSetter == null)
             bitSetter = new DummyBitSetter(variables.size());
@@ -312,7 +435,7 @@ public class TruthTable {
             return false;
         else {
             BoolTable v = results.get(columnIndex - variables.size()).getValues();
-            return v instanceof BoolTableByteArray;
+            return v instanceof EditableBoolTable;
         }
     }
 
@@ -326,8 +449,8 @@ public class TruthTable {
     public void setValue(int rowIndex, int columnIndex, int aValue) {
         if (columnIndex >= variables.size()) {
             BoolTable v = results.get(columnIndex - variables.size()).getValues();
-            if (v instanceof BoolTableByteArray)
-                ((BoolTableByteArray) v).set(rowIndex, aValue);
+            if (v instanceof EditableBoolTable)
+                ((EditableBoolTable) v).set(rowIndex, aValue);
         }
     }
 
@@ -374,8 +497,8 @@ public class TruthTable {
      */
     public void setByContext(int result, Context context, int value) throws ExpressionException {
         BoolTable v = results.get(result).getValues();
-        if (v instanceof BoolTableByteArray)
-            ((BoolTableByteArray) v).set(getIndexByContext(context), value);
+        if (v instanceof EditableBoolTable)
+            ((EditableBoolTable) v).set(getIndexByContext(context), value);
     }
 
     private int getIndexByContext(Context context) throws ExpressionException {
@@ -447,8 +570,8 @@ public class TruthTable {
     public void setXto(boolean b) {
         for (Result r : results) {
             BoolTable bt = r.getValues();
-            if (bt instanceof BoolTableByteArray)
-                ((BoolTableByteArray) bt).setXTo(b ? 1 : 0);
+            if (bt instanceof EditableBoolTable)
+                ((EditableBoolTable) bt).setXTo(b ? 1 : 0);
         }
     }
 
@@ -461,8 +584,8 @@ public class TruthTable {
     public void setAllTo(int value) {
         for (Result r : results) {
             BoolTable bt = r.getValues();
-            if (bt instanceof BoolTableByteArray)
-                ((BoolTableByteArray) bt).setAllTo(value);
+            if (bt instanceof EditableBoolTable)
+                ((EditableBoolTable) bt).setAllTo(value);
         }
     }
 
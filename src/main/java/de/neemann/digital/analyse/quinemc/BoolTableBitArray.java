@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+/**
+ * A bit packed bool table which uses two bits per row.
+ * The first bit plane holds the rows which are one, the second plane the rows which are "don't care".
+ * A row is never set in both planes, and the unused bits of the last word are always zero, so the
+ * planes can be scanned word by word.
+ */
+public class BoolTableBitArray implements EditableBoolTable {
+
+    private final int size;
+    private final long[] ones;
+    private final long[] dontCare;
+
+    /**
+     * Creates a new instance
+     *
+     * @param rows the number of rows
+     */
+    public BoolTableBitArray(int rows) {
+        this(rows, new long[(rows + 63) >>> 6], new long[(rows + 63) >>> 6]);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param rows     the number of rows
+     * @param ones     the rows which are one
+     * @param dontCare the rows which are "don't care"
+     */
+    public BoolTableBitArray(int rows, long[] ones, long[] dontCare) {
+        final int words = (rows + 63) >>> 6;
+        if (ones.length != words || dontCare.length != words)
+            throw new IllegalArgumentException("wrong number of words");
+        this.size = rows;
+        this.ones = ones;
+        this.dontCare = dontCare;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ThreeStateValue get(int i) {
+        final long bit = 1L << i;
+        if ((dontCare[i >>> 6] & bit) != 0)
+            return ThreeStateValue.dontCare;
+        if ((ones[i >>> 6] & bit) != 0)
+            return ThreeStateValue.one;
+        return ThreeStateValue.zero;
+    }
+
+    @Override
+    public void set(int row, int value) {
+        final int word = row >>> 6;
+        final long bit = 1L << row;
+        switch (value) {
+            case 0:
+                ones[word] &= ~bit;
+                dontCare[word] &= ~bit;
+                break;
+            case 1:
+                ones[word] |= bit;
+                dontCare[word] &= ~bit;
+                break;
+            default:
+                ones[word] &= ~bit;
+                dontCare[word] |= bit;
+        }
+    }
+
+    @Override
+    public void setXTo(int value) {
+        for (int w = 0; w < ones.length; w++) {
+            if (value == 1)
+                ones[w] |= dontCare[w];
+            dontCare[w] = 0;
+        }
+    }
+
+    @Override
+    public void setAllTo(int value) {
+        for (int w = 0; w < ones.length; w++) {
+            final long all = getValidBits(w);
+            switch (value) {
+                case 0:
+                    ones[w] = 0;
+                    dontCare[w] = 0;
+                    break;
+                case 1:
+                    ones[w] = all;
+                    dontCare[w] = 0;
+                    break;
+                default:
+                    ones[w] = 0;
+                    dontCare[w] = all;
+            }
+        }
+    }
+
+    private long getValidBits(int word) {
+        final int bits = size - (word << 6);
+        if (bits >= 64)
+            return -1L;
+        return (1L << bits) - 1;
+    }
+
+    /**
+     * @return the number of 64 bit words used by each bit plane
+     */
+    public int getWordCount() {
+        return ones.length;
+    }
+
+    /**
+     * Returns the given word of the plane which holds the rows which are one.
+     * Bit n of word w represents row w*64+n.
+     *
+     * @param word the word index
+     * @return the rows which are one
+     */
+    public long getOnesWord(int word) {
+        return ones[word];
+    }
+
+    /**
+     * Returns the given word of the plane which holds the rows which are "don't care".
+     * Bit n of word w represents row w*64+n.
+     *
+     * @param word the word index
+     * @return the rows which are "don't care"
+     */
+    public long getDontCareWord(int word) {
+        return dontCare[word];
+    }
+}
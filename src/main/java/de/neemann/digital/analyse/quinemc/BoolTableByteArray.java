@@ -10,7 +10,7 @@ package de.neemann.digital.analyse.quinemc;
  * A byte array.
  * Zero and one behave as expected, any other value represents "don't care"
  */
-public class BoolTableByteArray implements BoolTable {
+public class BoolTableByteArray implements EditableBoolTable {
 
     private final byte[] table;
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The prime implicant chart stored as bit sets.
+ * For every prime the covered columns are stored, and for every column the primes covering it.
+ * The columns are numbered in ascending order of their source index.
+ */
+final class CoverTable {
+    private final int[] columns;
+    private final long[][] columnsOfPrime;
+    private final long[][] primesOfColumn;
+
+    /**
+     * Creates a new instance
+     *
+     * @param primes  the primes
+     * @param columns the columns in ascending order
+     */
+    CoverTable(List<TableRow> primes, Collection<Integer> columns) {
+        this.columns = new int[columns.size()];
+        int n = 0;
+        for (int c : columns)
+            this.columns[n++] = c;
+
+        final int colWords = (n + 63) >>> 6;
+        final int primeWords = (primes.size() + 63) >>> 6;
+        columnsOfPrime = new long[primes.size()][colWords];
+        primesOfColumn = new long[n][primeWords];
+        for (int p = 0; p < primes.size(); p++)
+            for (int source : primes.get(p).getSource()) {
+                int c = Arrays.binarySearch(this.columns, source);
+                if (c >= 0) {
+                    columnsOfPrime[p][c >>> 6] |= 1L << c;
+                    primesOfColumn[c][p >>> 6] |= 1L << p;
+                }
+            }
+    }
+
+    /**
+     * @return the number of columns
+     */
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the source index of the given column
+     *
+     * @param c the column number
+     * @return the source index
+     */
+    int getColumn(int c) {
+        return columns[c];
+    }
+
+    /**
+     * Returns true if the prime p1 covers all columns the prime p2 covers
+     *
+     * @param p1 the first prime
+     * @param p2 the second prime
+     * @return true if p1 contains p2
+     */
+    boolean primeContainsPrime(int p1, int p2) {
+        return isSubset(columnsOfPrime[p2], columnsOfPrime[p1]);
+    }
+
+    /**
+     * Returns true if every prime which covers the column c1 also covers the column c2
+     *
+     * @param c1 the first column
+     * @param c2 the second column
+     * @return true if c2 is covered if c1 is covered
+     */
+    boolean columnIsCoveredBy(int c1, int c2) {
+        return isSubset(primesOfColumn[c1], primesOfColumn[c2]);
+    }
+
+    private static boolean isSubset(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++)
+            if ((a[w] & ~b[w]) != 0)
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+/**
+ * A bool table which values can be modified.
+ * Zero and one behave as expected, any other value represents "don't care"
+ */
+public interface EditableBoolTable extends BoolTable {
+    /**
+     * Tables with at least this number of rows are created as bit packed tables.
+     */
+    int BIT_ARRAY_THRESHOLD = 1 << 16;
+
+    /**
+     * Creates a new table.
+     * Large tables are created as {@link BoolTableBitArray}, small tables as {@link BoolTableByteArray}.
+     *
+     * @param rows the number of rows
+     * @return the table
+     */
+    static EditableBoolTable create(int rows) {
+        if (rows >= BIT_ARRAY_THRESHOLD)
+            return new BoolTableBitArray(rows);
+        else
+            return new BoolTableByteArray(rows);
+    }
+
+    /**
+     * Sets a table value
+     *
+     * @param row  the row
+     * @param bool the value
+     */
+    default void set(int row, boolean bool) {
+        set(row, bool ? 1 : 0);
+    }
+
+    /**
+     * Sets a table value
+     *
+     * @param row   the row
+     * @param value the value
+     */
+    void set(int row, int value);
+
+    /**
+     * Sets the don't cares to the given value
+     *
+     * @param value the value
+     */
+    void setXTo(int value);
+
+    /**
+     * Sets all entries to the given value
+     *
+     * @param value the value
+     */
+    void setAllTo(int value);
+}
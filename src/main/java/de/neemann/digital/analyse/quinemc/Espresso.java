@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.lang.Lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A heuristic two level minimizer in the style of Espresso.
+ * The cover is improved by a loop of expand, irredundant and reduce steps as long as
+ * its cost decreases. The result is not guaranteed to be minimal, but the effort grows
+ * with the size of the table and not with the number of prime implicants.
+ * <p>
+ * A cube is stored as a pair of longs in the bit order of the table row index:
+ * The fixed bits contain the variables used in the cube, the value bits contain their values.
+ */
+public final class Espresso {
+    /**
+     * The maximum number of variables.
+     * The minimizer works on explicit tables, so larger tables do not fit into the memory.
+     */
+    public static final int MAX_VARS = 24;
+    private static final int MAX_ITERATIONS = 16;
+
+    private final int vars;
+    private final long all;
+    private final long[] on;
+    private final long[] dc;
+    private int[] count;
+
+    /**
+     * Creates a new instance
+     *
+     * @param vars  the number of variables
+     * @param table the table to minimize
+     * @throws ExpressionException if there are more than {@link #MAX_VARS} variables
+     */
+    public Espresso(int vars, BoolTable table) throws ExpressionException {
+        if (vars > MAX_VARS)
+            throw new ExpressionException(Lang.get("err_heuristicMinimizerToManyVars_N0_N1", MAX_VARS, vars));
+        this.vars = vars;
+        this.all = (1L << vars) - 1;
+        final int rows = 1 << vars;
+        final int words = (rows + 63) >>> 6;
+        if (table instanceof BoolTableBitArray) {
+            BoolTableBitArray bits = (BoolTableBitArray) table;
+            on = new long[words];
+            dc = new long[words];
+            for (int w = 0; w < words; w++) {
+                on[w] = bits.getOnesWord(w);
+                dc[w] = bits.getDontCareWord(w);
+            }
+        } else {
+            on = new long[words];
+            dc = new long[words];
+            for (int i = 0; i < rows; i++)
+                switch (table.get(i)) {
+                    case one:
+                        on[i >>> 6] |= 1L << i;
+                        break;
+                    case dontCare:
+                        dc[i >>> 6] |= 1L << i;
+                        break;
+                    default:
+                }
+        }
+    }
+
+    /**
+     * Minimizes the table
+     *
+     * @return the rows of the minimized sum of products in the order of {@link TableRow#compareTo(TableRow)}
+     */
+    public List<TableRow> minimize() {
+        count = new int[1 << vars];
+        Cover cover = initialCover();
+        irredundant(cover);
+        Cover best = cover.copy();
+
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            reduce(cover);
+            expand(cover, (i & 1) == 0);
+            irredundant(cover);
+            if (cover.compareCost(best) < 0)
+                best = cover.copy();
+            else
+                break;
+        }
+        count = null;
+
+        ArrayList<TableRow> rows = new ArrayList<>(best.size);
+        for (int c = 0; c < best.size; c++)
+            rows.add(createRow(best.fixed[c], best.value[c]));
+        rows.sort(TableRow::compareTo);
+        return rows;
+    }
+
+    private TableRow createRow(long fixed, long value) {
+        long state = 0;
+        long optimized = 0;
+        for (int v = 0; v < vars; v++) {
+            final long rowBit = 1L << (vars - 1 - v);
+            if ((fixed & rowBit) == 0)
+                optimized |= 1L << v;
+            else if ((value & rowBit) != 0)
+                state |= 1L << v;
+        }
+        return new TableRow(vars, state, optimized);
+    }
+
+    /**
+     * Every minterm which is not yet covered is expanded to a maximal cube.
+     */
+    private Cover initialCover() {
+        Cover cover = new Cover();
+        long[] covered = new long[on.length];
+        for (int w = 0; w < on.length; w++) {
+            long bits = on[w] & ~covered[w];
+            while (bits != 0) {
+                final int row = (w << 6) + Long.numberOfTrailingZeros(bits);
+                long fixed = expand(all, row, true);
+                long value = row & fixed;
+                cover.add(fixed, value);
+                final long free = ~fixed & all;
+                long sub = 0;
+                do {
+                    final int r = (int) (value | sub);
+                    covered[r >>> 6] |= 1L << r;
+                    sub = (sub - free) & free;
+                } while (sub != 0);
+                bits = on[w] & ~covered[w];
+            }
+        }
+        return cover;
+    }
+
+    private void expand(Cover cover, boolean ascending) {
+        for (int c = 0; c < cover.size; c++) {
+            final long fixed = expand(cover.fixed[c], cover.value[c], ascending);
+            cover.fixed[c] = fixed;
+            cover.value[c] &= fixed;
+        }
+    }
+
+    /**
+     * Removes variables from the cube as long as it does not cover a row of the off set.
+     *
+     * @return the new fixed bits
+     */
+    private long expand(long fixed, long value, boolean ascending) {
+        for (int i = 0; i < vars; i++) {
+            final long bit = 1L << (ascending ? i : vars - 1 - i);
+            if ((fixed & bit) != 0 && !containsOff(fixed, (value ^ bit) & fixed))
+                fixed &= ~bit;
+        }
+        return fixed;
+    }
+
+    private boolean containsOff(long fixed, long value) {
+        final long free = ~fixed & all;
+        long sub = 0;
+        do {
+            final int r = (int) (value | sub);
+            final long bit = 1L << r;
+            if (((on[r >>> 6] | dc[r >>> 6]) & bit) == 0)
+                return true;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        return false;
+    }
+
+    private void countCover(Cover cover) {
+        Arrays.fill(count, 0);
+        for (int c = 0; c < cover.size; c++)
+            addCount(cover.fixed[c], cover.value[c], 1);
+    }
+
+    private void addCount(long fixed, long value, int delta) {
+        final long free = ~fixed & all;
+        long sub = 0;
+        do {
+            final int r = (int) (value | sub);
+            if ((on[r >>> 6] & (1L << r)) != 0)
+                count[r] += delta;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+    }
+
+    /**
+     * Returns true if all minterms of the cube are covered at least twice
+     */
+    private boolean isRedundant(long fixed, long value) {
+        final long free = ~fixed & all;
+        long sub = 0;
+        do {
+            final int r = (int) (value | sub);
+            if (count[r] == 1)
+                return false;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        return true;
+    }
+
+    /**
+     * Removes the cubes which are not needed. The small cubes are removed first.
+     */
+    private void irredundant(Cover cover) {
+        cover.removeDuplicates();
+        countCover(cover);
+        Integer[] order = cover.orderBySize(true);
+        boolean[] remove = new boolean[cover.size];
+        for (int c : order)
+            if (isRedundant(cover.fixed[c], cover.value[c])) {
+                addCount(cover.fixed[c], cover.value[c], -1);
+                remove[c] = true;
+            }
+        cover.remove(remove);
+    }
+
+    /**
+     * Reduces every cube to the smallest cube which contains all minterms covered only by this cube.
+     * The large cubes are reduced first.
+     */
+    private void reduce(Cover cover) {
+        countCover(cover);
+        Integer[] order = cover.orderBySize(false);
+        boolean[] remove = new boolean[cover.size];
+        for (int c : order) {
+            final long fixed = cover.fixed[c];
+            final long value = cover.value[c];
+            final long free = ~fixed & all;
+            long and = all;
+            long or = 0;
+            boolean found = false;
+            long sub = 0;
+            do {
+                final int r = (int) (value | sub);
+                if (count[r] == 1) {
+                    and &= r;
+                    or |= r;
+                    found = true;
+                }
+                sub = (sub - free) & free;
+            } while (sub != 0);
+
+            addCount(fixed, value, -1);
+            if (found) {
+                final long newFixed = ~(and ^ or) & all;
+                cover.fixed[c] = newFixed;
+                cover.value[c] = and & newFixed;
+                addCount(newFixed, and & newFixed, 1);
+            } else
+                remove[c] = true;
+        }
+        cover.remove(remove);
+    }
+
+    /**
+     * A list of cubes
+     */
+    private static final class Cover {
+        private long[] fixed = new long[16];
+        private long[] value = new long[16];
+        private int size;
+
+        private void add(long f, long v) {
+            if (size == fixed.length) {
+                fixed = Arrays.copyOf(fixed, size * 2);
+                value = Arrays.copyOf(value, size * 2);
+            }
+            fixed[size] = f;
+            value[size] = v;
+            size++;
+        }
+
+        private Cover copy() {
+            Cover c = new Cover();
+            c.fixed = Arrays.copyOf(fixed, Math.max(size, 1));
+            c.value = Arrays.copyOf(value, Math.max(size, 1));
+            c.size = size;
+            return c;
+        }
+
+        private void remove(boolean[] remove) {
+            int n = 0;
+            for (int c = 0; c < size; c++)
+                if (!remove[c]) {
+                    fixed[n] = fixed[c];
+                    value[n] = value[c];
+                    n++;
+                }
+            size = n;
+        }
+
+        private void removeDuplicates() {
+            boolean[] remove = new boolean[size];
+            for (int i = 0; i < size; i++)
+                for (int j = 0; j < size; j++)
+                    if (i != j && !remove[i] && !remove[j] && contains(j, i) && (!contains(i, j) || i < j))
+                        remove[i] = true;
+            remove(remove);
+        }
+
+        /**
+         * @return true if cube a contains cube b
+         */
+        private boolean contains(int a, int b) {
+            return (fixed[a] & ~fixed[b]) == 0 && (value[b] & fixed[a]) == value[a];
+        }
+
+        private Integer[] orderBySize(boolean smallFirst) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++)
+                order[i] = i;
+            // more fixed bits means a smaller cube
+            Arrays.sort(order, (a, b) -> {
+                int ca = Long.bitCount(fixed[a]);
+                int cb = Long.bitCount(fixed[b]);
+                return smallFirst ? Integer.compare(cb, ca) : Integer.compare(ca, cb);
+            });
+            return order;
+        }
+
+        private int literals() {
+            int l = 0;
+            for (int c = 0; c < size; c++)
+                l += Long.bitCount(fixed[c]);
+            return l;
+        }
+
+        private int compareCost(Cover other) {
+            int c = Integer.compare(size, other.size);
+            if (c != 0)
+                return c;
+            return Integer.compare(literals(), other.literals());
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A single level of the Quine-McCluskey table.
+ * The rows are stored as primitive pairs of the optimized flags (the mask) and the state.
+ * Rows with the same mask form a group. The groups are ordered by their mask, and inside a group
+ * the rows keep the order in which they are added. This is the same order {@link TableRows} uses.
+ * <p>
+ * The source indices of a row are not stored. Every row of a combined level only stores the two
+ * rows of the previous level it was created from. The sources are only collected if a row
+ * is converted to a {@link TableRow}, which is usually only done for the primes.
+ */
+final class ImplicantTable {
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+    private static final int CHUNK_SIZE = 1 << 10;
+
+    private final int cols;
+    private final int size;
+    private final long[] mask;
+    private final long[] state;
+    private final long[] hasCare;
+    private final long[] used;
+    private final int[] groupStart;
+    private final int[] hash;
+    private final int hashMask;
+
+    // only used by the first level
+    private final int[] sourceStart;
+    private final int[] sourceData;
+
+    // only used by combined levels
+    private final ImplicantTable parentLevel;
+    private final int[] parentA;
+    private final int[] parentB;
+
+    private ImplicantTable(int cols, Builder b) {
+        this.cols = cols;
+        this.size = b.size;
+        this.parentLevel = b.parentLevel;
+
+        // stable sort of the rows by their mask
+        long[] masks = Arrays.copyOf(b.mask, size);
+        Arrays.sort(masks);
+        int distinct = 0;
+        for (int i = 0; i < size; i++)
+            if (i == 0 || masks[i] != masks[distinct - 1])
+                masks[distinct++] = masks[i];
+        groupStart = new int[distinct + 1];
+        int[] group = new int[size];
+        for (int i = 0; i < size; i++) {
+            group[i] = Arrays.binarySearch(masks, 0, distinct, b.mask[i]);
+            groupStart[group[i] + 1]++;
+        }
+        for (int g = 0; g < distinct; g++)
+            groupStart[g + 1] += groupStart[g];
+        int[] fill = Arrays.copyOf(groupStart, distinct);
+
+        mask = new long[size];
+        state = new long[size];
+        hasCare = new long[(size + 63) >>> 6];
+        used = new long[(size + 63) >>> 6];
+        int[] newIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            int n = fill[group[i]]++;
+            newIndex[i] = n;
+            mask[n] = b.mask[i];
+            state[n] = b.state[i];
+            if (isSet(b.hasCare, i))
+                set(hasCare, n);
+        }
+
+        if (parentLevel == null) {
+            sourceStart = new int[size + 1];
+            for (int i = 0; i < size; i++)
+                sourceStart[newIndex[i] + 1] = b.sourceStart[i + 1] - b.sourceStart[i];
+            for (int i = 0; i < size; i++)
+                sourceStart[i + 1] += sourceStart[i];
+            sourceData = new int[sourceStart[size]];
+            for (int i = 0; i < size; i++) {
+                int from = b.sourceStart[i];
+                int len = b.sourceStart[i + 1] - from;
+                System.arraycopy(b.sourceData, from, sourceData, sourceStart[newIndex[i]], len);
+            }
+            parentA = null;
+            parentB = null;
+        } else {
+            parentA = new int[size];
+            parentB = new int[size];
+            for (int i = 0; i < size; i++) {
+                parentA[newIndex[i]] = b.parentA[i];
+                parentB[newIndex[i]] = b.parentB[i];
+            }
+            sourceStart = null;
+            sourceData = null;
+        }
+
+        int cap = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) * 2;
+        hash = new int[cap];
+        hashMask = cap - 1;
+        for (int i = 0; i < size; i++) {
+            int h = hash(mask[i], state[i]) & hashMask;
+            while (hash[h] != 0)
+                h = (h + 1) & hashMask;
+            hash[h] = i + 1;
+        }
+    }
+
+    /**
+     * Creates a table containing the given rows
+     *
+     * @param cols the number of columns
+     * @param rows the rows
+     * @return the table
+     */
+    static ImplicantTable create(int cols, Iterable<TableRow> rows) {
+        Builder b = new Builder(cols, null);
+        if (rows != null)
+            for (TableRow r : rows)
+                b.add(r.getOptimizedFlags(), r.getState(), r.getSource());
+        return b.build();
+    }
+
+    /**
+     * @return the number of rows
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the given row was not combined with an other row during the
+     * last call of {@link #combine()} and the row covers at least one source row.
+     *
+     * @param i the row index
+     * @return true if the row is a prime
+     */
+    boolean isPrime(int i) {
+        return !isSet(used, i) && isSet(hasCare, i);
+    }
+
+    /**
+     * Creates a {@link TableRow} representing the given row
+     *
+     * @param i the row index
+     * @return the table row
+     */
+    TableRow createRow(int i) {
+        TableRow r = new TableRow(cols, state[i], mask[i]);
+        collectSources(i, r.getSource());
+        return r;
+    }
+
+    /**
+     * @return all rows of this table as {@link TableRows}
+     */
+    TableRows createRows() {
+        TableRows rows = new TableRows();
+        for (int i = 0; i < size; i++)
+            rows.add(createRow(i));
+        return rows;
+    }
+
+    private void collectSources(int i, Collection<Integer> sources) {
+        if (parentLevel == null) {
+            for (int k = sourceStart[i]; k < sourceStart[i + 1]; k++)
+                sources.add(sourceData[k]);
+        } else {
+            parentLevel.collectSources(parentA[i], sources);
+            parentLevel.collectSources(parentB[i], sources);
+        }
+    }
+
+    /**
+     * Combines all rows of this table which differ in a single column only.
+     * The rows which are combined with an other row are marked as used.
+     *
+     * @return the table containing the combined rows
+     */
+    ImplicantTable combine() {
+        Arrays.fill(used, 0);
+        Builder b = new Builder(cols, this);
+        for (int g = 0; g < groupStart.length - 1; g++) {
+            final int from = groupStart[g];
+            final int to = groupStart[g + 1];
+            if (to - from >= PARALLEL_THRESHOLD)
+                addPairsParallel(b, from, to);
+            else {
+                IntList pairs = new IntList();
+                findPairs(from, to, pairs);
+                addPairs(b, pairs);
+            }
+        }
+        return b.build();
+    }
+
+    /**
+     * Searches the pairs in parallel. The pairs found in the chunks are added in order,
+     * so the result does not depend on the number of threads.
+     */
+    private void addPairsParallel(Builder b, int from, int to) {
+        ArrayList<Callable<IntList>> tasks = new ArrayList<>();
+        for (int c = from; c < to; c += CHUNK_SIZE) {
+            final int chunkFrom = c;
+            final int chunkTo = Math.min(c + CHUNK_SIZE, to);
+            tasks.add(() -> {
+                IntList pairs = new IntList();
+                findPairs(chunkFrom, chunkTo, pairs);
+                return pairs;
+            });
+        }
+        List<Future<IntList>> results = ForkJoinPool.commonPool().invokeAll(tasks);
+        try {
+            for (Future<IntList> f : results)
+                addPairs(b, f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Finds all pairs (i,j) with i in the given range and i&lt;j which differ in a single column.
+     * The pairs are ordered by i and j, which is the order a nested loop would create.
+     */
+    private void findPairs(int from, int to, IntList pairs) {
+        final long colMask = cols >= 64 ? -1L : (1L << cols) - 1;
+        int[] partner = new int[cols];
+        for (int i = from; i < to; i++) {
+            final long m = mask[i];
+            final long s = state[i];
+            int count = 0;
+            long free = ~m & colMask;
+            while (free != 0) {
+                final long bit = Long.lowestOneBit(free);
+                free ^= bit;
+                int j = find(m, s ^ bit);
+                if (j > i) {
+                    // insertion sort, there are at most cols partners
+                    int p = count++;
+                    while (p > 0 && partner[p - 1] > j) {
+                        partner[p] = partner[p - 1];
+                        p--;
+                    }
+                    partner[p] = j;
+                }
+            }
+            for (int p = 0; p < count; p++) {
+                pairs.add(i);
+                pairs.add(partner[p]);
+            }
+        }
+    }
+
+    private void addPairs(Builder b, IntList pairs) {
+        for (int k = 0; k < pairs.size; k += 2) {
+            final int i = pairs.data[k];
+            final int j = pairs.data[k + 1];
+            set(used, i);
+            set(used, j);
+            final long bit = state[i] ^ state[j];
+            b.addCombined(mask[i] | bit, state[i] & ~bit, i, j, isSet(hasCare, i) || isSet(hasCare, j));
+        }
+    }
+
+    private int find(long m, long s) {
+        int h = hash(m, s) & hashMask;
+        int i;
+        while ((i = hash[h]) != 0) {
+            i--;
+            if (mask[i] == m && state[i] == s)
+                return i;
+            h = (h + 1) & hashMask;
+        }
+        return -1;
+    }
+
+    private static int hash(long m, long s) {
+        long h = (m * 0x9E3779B97F4A7C15L) ^ s;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static boolean isSet(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Collects the rows of a new table
+     */
+    static final class Builder {
+        private final int cols;
+        private final ImplicantTable parentLevel;
+        private int size;
+        private long[] mask = new long[16];
+        private long[] state = new long[16];
+        private long[] hasCare = new long[1];
+        private int[] sourceStart = new int[17];
+        private int[] sourceData = new int[16];
+        private int[] parentA = new int[16];
+        private int[] parentB = new int[16];
+        private int[] hash = new int[32];
+
+        /**
+         * Creates a new builder
+         *
+         * @param cols        the number of columns
+         * @param parentLevel the level the new rows are created from, null if the rows are added directly
+         */
+        Builder(int cols, ImplicantTable parentLevel) {
+            this.cols = cols;
+            this.parentLevel = parentLevel;
+        }
+
+        /**
+         * @return the number of rows added
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Adds a row of the first level
+         *
+         * @param m       the mask
+         * @param s       the state
+         * @param sources the source indices of this row
+         */
+        void add(long m, long s, Collection<Integer> sources) {
+            int n = append(m, s, !sources.isEmpty());
+            int start = sourceStart[n];
+            ensureSources(start + sources.size());
+            for (int src : sources)
+                sourceData[start++] = src;
+            sourceStart[n + 1] = start;
+        }
+
+        /**
+         * Adds a row of the first level
+         *
+         * @param m      the mask
+         * @param s      the state
+         * @param source the source index, only used if the row is not a don't care
+         * @param dontCare true if the row is a don't care
+         */
+        void add(long m, long s, int source, boolean dontCare) {
+            int n = append(m, s, !dontCare);
+            int start = sourceStart[n];
+            if (!dontCare) {
+                ensureSources(start + 1);
+                sourceData[start++] = source;
+            }
+            sourceStart[n + 1] = start;
+        }
+
+        private void addCombined(long m, long s, int a, int b, boolean care) {
+            if (size * 2 >= hash.length)
+                rehash(hash.length * 2);
+            int h = hash(m, s) & (hash.length - 1);
+            int i;
+            while ((i = hash[h]) != 0) {
+                i--;
+                if (mask[i] == m && state[i] == s) {
+                    // the sources of a row are the sources of the first pair it was created from
+                    return;
+                }
+                h = (h + 1) & (hash.length - 1);
+            }
+            int n = append(m, s, care);
+            hash[h] = n + 1;
+            parentA[n] = a;
+            parentB[n] = b;
+        }
+
+        private void rehash(int newSize) {
+            hash = new int[newSize];
+            for (int i = 0; i < size; i++) {
+                int h = hash(mask[i], state[i]) & (newSize - 1);
+                while (hash[h] != 0)
+                    h = (h + 1) & (newSize - 1);
+                hash[h] = i + 1;
+            }
+        }
+
+        private int append(long m, long s, boolean care) {
+            if (size == mask.length) {
+                int newLen = size * 2;
+                mask = Arrays.copyOf(mask, newLen);
+                state = Arrays.copyOf(state, newLen);
+                hasCare = Arrays.copyOf(hasCare, (newLen + 63) >>> 6);
+                if (parentLevel == null)
+                    sourceStart = Arrays.copyOf(sourceStart, newLen + 1);
+                else {
+                    parentA = Arrays.copyOf(parentA, newLen);
+                    parentB = Arrays.copyOf(parentB, newLen);
+                }
+            }
+            int n = size++;
+            mask[n] = m;
+            state[n] = s;
+            if (care)
+                set(hasCare, n);
+            return n;
+        }
+
+        private void ensureSources(int len) {
+            if (len > sourceData.length)
+                sourceData = Arrays.copyOf(sourceData, Math.max(len, sourceData.length * 2));
+        }
+
+        /**
+         * @return the table
+         */
+        ImplicantTable build() {
+            return new ImplicantTable(cols, this);
+        }
+    }
+
+    private static final class IntList {
+        private int[] data = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+    }
+}
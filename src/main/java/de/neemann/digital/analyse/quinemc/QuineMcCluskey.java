@@ -25,7 +25,8 @@ public class QuineMcCluskey {
 
     private final List<Variable> variables;
     private final ArrayList<TableRow> primes;
-    private TableRows rows;
+    private ImplicantTable rows;
+    private ImplicantTable.Builder builder;
 
     /**
      * Creates a new instance
@@ -34,13 +35,13 @@ public class QuineMcCluskey {
      */
     public QuineMcCluskey(List<Variable> variables) {
         this.variables = variables;
-        this.rows = new TableRows();
+        this.builder = new ImplicantTable.Builder(variables.size(), null);
         this.primes = new ArrayList<>();
     }
 
     QuineMcCluskey(List<Variable> variables, TableRows rows, ArrayList<TableRow> primes) {
         this.variables = variables;
-        this.rows = rows;
+        this.rows = ImplicantTable.create(variables.size(), rows);
         this.primes = primes;
     }
 
@@ -54,7 +55,7 @@ public class QuineMcCluskey {
     public QuineMcCluskey(Expression expression) throws ExpressionException {
         ContextFiller context = new ContextFiller(expression);
         variables = context.getVariables();
-        rows = new TableRows();
+        builder = new ImplicantTable.Builder(variables.size(), null);
         fillTableWith(new BoolTableExpression(expression, context));
         primes = new ArrayList<>();
     }
@@ -70,18 +71,52 @@ public class QuineMcCluskey {
         int n = 1 << variables.size();
         if (n != values.size())
             throw new ExpressionException(Lang.get("err_exact_N0_valuesNecessaryNot_N1", n, values.size()));
-        for (int i = 0; i < n; i++) {
-            ThreeStateValue value = values.get(i);
-            if (!value.equals(ThreeStateValue.zero)) {
-                add(i, value.equals(ThreeStateValue.dontCare));
+        if (values instanceof BoolTableBitArray)
+            fillTableWith((BoolTableBitArray) values);
+        else
+            for (int i = 0; i < n; i++) {
+                ThreeStateValue value = values.get(i);
+                if (!value.equals(ThreeStateValue.zero)) {
+                    add(i, value.equals(ThreeStateValue.dontCare));
+                }
             }
-        }
         return this;
     }
 
+    /**
+     * Scans the bit planes word by word, so the zero rows are skipped without looking at them.
+     */
+    private void fillTableWith(BoolTableBitArray values) {
+        for (int w = 0; w < values.getWordCount(); w++) {
+            final long dc = values.getDontCareWord(w);
+            long set = values.getOnesWord(w) | dc;
+            while (set != 0) {
+                final long lowest = Long.lowestOneBit(set);
+                add((w << 6) + Long.numberOfTrailingZeros(lowest), (dc & lowest) != 0);
+                set ^= lowest;
+            }
+        }
+    }
+
 
     private void add(int i, boolean dontCare) {
-        rows.add(new TableRow(variables.size(), i, rows.size() + 1, dontCare));
+        if (builder == null) {
+            builder = new ImplicantTable.Builder(variables.size(), null);
+            for (int r = 0; r < rows.size(); r++) {
+                TableRow row = rows.createRow(r);
+                builder.add(row.getOptimizedFlags(), row.getState(), row.getSource());
+            }
+        }
+        final int cols = variables.size();
+        builder.add(0, Integer.reverse(i) >>> (32 - cols), builder.size() + 1, dontCare);
+    }
+
+    private ImplicantTable table() {
+        if (builder != null) {
+            rows = builder.build();
+            builder = null;
+        }
+        return rows;
     }
 
     /**
@@ -124,7 +159,7 @@ public class QuineMcCluskey {
      */
     public QuineMcCluskey simplify(PrimeSelector ps) {
         while (!isFinished()) {
-            LOGGER.debug("QMC rows " + rows.size());
+            LOGGER.debug("QMC rows " + table().size());
             simplifyStep();
         }
         simplifyPrimes(ps);
@@ -137,33 +172,12 @@ public class QuineMcCluskey {
      * a single simplification iteration
      */
     public void simplifyStep() {
-        TableRows newRows = new TableRows();
-
-        for (TableRows.InnerList list : rows.listIterable())
-            for (int i = 0; i < list.size() - 1; i++)
-                for (int j = i + 1; j < list.size(); j++) {
-                    TableRow r1 = list.get(i);
-                    TableRow r2 = list.get(j);
-
-                    int index = r1.checkCompatible(r2);
-                    if (index >= 0) {
-                        // can optimize;
-                        TableRow newRow = new TableRow(r1);
-                        newRow.setToOptimized(index);
-
-                        if (!newRows.contains(newRow)) {
-                            newRow.addSource(r1.getSource());
-                            newRow.addSource(r2.getSource());
-                            newRows.add(newRow);
-                        }
-                        r1.setUsed();
-                        r2.setUsed();
-                    }
-                }
+        ImplicantTable act = table();
+        ImplicantTable newRows = act.combine();
 
-        for (TableRow row : rows)
-            if (!row.isUsed() && row.getSource().size() > 0)
-                primes.add(row);
+        for (int i = 0; i < act.size(); i++)
+            if (act.isPrime(i))
+                primes.add(act.createRow(i));
 
         rows = newRows;
     }
@@ -172,14 +186,17 @@ public class QuineMcCluskey {
      * @return true id simplification is complete
      */
     public boolean isFinished() {
-        return rows.isEmpty();
+        return table().size() == 0;
     }
 
     /**
+     * Returns the actual table rows.
+     * The rows are created on every call, so modifications of the returned rows have no effect.
+     *
      * @return the actual table rows
      */
     public TableRows getRows() {
-        return rows;
+        return table().createRows();
     }
 
     /**
@@ -188,14 +205,15 @@ public class QuineMcCluskey {
      * @param rows the rows to use
      */
     public void setRows(TableRows rows) {
-        this.rows = rows;
+        this.builder = null;
+        this.rows = ImplicantTable.create(variables.size(), rows);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         ArrayList<TableRow> newList = new ArrayList<>();
-        for (TableRow r : rows) {
+        for (TableRow r : getRows()) {
             newList.add(r);
         }
         Collections.sort(newList);
@@ -224,11 +242,11 @@ public class QuineMcCluskey {
      * @return the simplified expression which represent this table
      */
     public Expression getExpression() {
-        if (primes.isEmpty() && rows.isEmpty())
+        if (primes.isEmpty() && isFinished())
             return Constant.ZERO;
 
         Expression e = addAnd(null, primes, variables);
-        return addAnd(e, rows, variables);
+        return addAnd(e, getRows(), variables);
     }
 
     /**
@@ -265,22 +283,31 @@ public class QuineMcCluskey {
 
         // remove all primes which are easy to remove
         while (true) {
+            CoverTable cover = new CoverTable(primes, columns);
+
             // find rows to delete
             HashSet<TableRow> rowsToDelete = new HashSet<>();
-            for (TableRow r1 : primes)
-                for (TableRow r2 : primes) {
-                    if ((r1 != r2) && !rowsToDelete.contains(r1) && r1.getSource().containsAll(r2.getSource()))
-                        rowsToDelete.add(r2);
+            long[] rowDeleted = new long[(primes.size() + 63) >>> 6];
+            for (int r1 = 0; r1 < primes.size(); r1++)
+                for (int r2 = 0; r2 < primes.size(); r2++) {
+                    if ((r1 != r2) && !isSet(rowDeleted, r1) && cover.primeContainsPrime(r1, r2)) {
+                        rowDeleted[r2 >>> 6] |= 1L << r2;
+                        rowsToDelete.add(primes.get(r2));
+                    }
                 }
 
             primes.removeAll(rowsToDelete);
+            cover = new CoverTable(primes, columns);
 
             // find the cols to delete
             HashSet<Integer> colsToDelete = new HashSet<>();
-            for (int c1 : columns) {
-                for (int c2 : columns) {
-                    if ((c1 != c2) && !colsToDelete.contains(c1) && smaller(c1, c2, primes))
-                        colsToDelete.add(c2);
+            long[] colDeleted = new long[(cover.getColumnCount() + 63) >>> 6];
+            for (int c1 = 0; c1 < cover.getColumnCount(); c1++) {
+                for (int c2 = 0; c2 < cover.getColumnCount(); c2++) {
+                    if ((c1 != c2) && !isSet(colDeleted, c1) && cover.columnIsCoveredBy(c1, c2)) {
+                        colDeleted[c2 >>> 6] |= 1L << c2;
+                        colsToDelete.add(cover.getColumn(c2));
+                    }
                 }
             }
 
@@ -305,12 +332,7 @@ public class QuineMcCluskey {
         }
     }
 
-    private boolean smaller(int c1, int c2, ArrayList<TableRow> primes) {
-        for (TableRow r : primes) {
-            Collection<Integer> s = r.getSource();
-            if (s.contains(c1) && !s.contains(c2))
-                return false;
-        }
-        return true;
+    private static boolean isSet(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
     }
 }
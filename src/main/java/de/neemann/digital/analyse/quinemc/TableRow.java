@@ -77,6 +77,19 @@ public final class TableRow implements Comparable<TableRow> {
     }
 
 
+    /**
+     * Creates a new row
+     *
+     * @param cols           the number of columns
+     * @param state          the state of the columns
+     * @param optimizedFlags the optimized columns
+     */
+    TableRow(int cols, long state, long optimizedFlags) {
+        this(cols);
+        this.state = state;
+        this.optimizedFlags = optimizedFlags;
+    }
+
     /**
      * Sets the given index to optimized
      *
@@ -97,6 +110,13 @@ public final class TableRow implements Comparable<TableRow> {
         return optimizedFlags;
     }
 
+    /**
+     * @return the state of the columns which are not optimized
+     */
+    long getState() {
+        return state;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
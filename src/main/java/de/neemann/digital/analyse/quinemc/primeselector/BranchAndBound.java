@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc.primeselector;
+
+import de.neemann.digital.analyse.quinemc.TableRow;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+/**
+ * Finds the minimal selections of primes by a branch and bound search.
+ * The search is bounded in the number of search nodes visited and in the number of
+ * solutions collected. If the node budget is exhausted, the best selections found so
+ * far are used, which are not necessarily minimal.
+ */
+public class BranchAndBound implements PrimeSelector {
+    /**
+     * The default maximum number of search nodes
+     */
+    public static final long DEFAULT_MAX_NODES = 1000000;
+    /**
+     * The default maximum number of solutions collected
+     */
+    public static final int DEFAULT_MAX_SOLUTIONS = 1000;
+
+    private final long maxNodes;
+    private final int maxSolutions;
+    private ArrayList<ArrayList<TableRow>> foundSolutions;
+    private boolean budgetExhausted;
+
+    /**
+     * Creates a new instance with the default limits
+     */
+    public BranchAndBound() {
+        this(DEFAULT_MAX_NODES, DEFAULT_MAX_SOLUTIONS);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param maxNodes     the maximum number of search nodes to visit
+     * @param maxSolutions the maximum number of minimal solutions to collect
+     */
+    public BranchAndBound(long maxNodes, int maxSolutions) {
+        this.maxNodes = maxNodes;
+        this.maxSolutions = maxSolutions;
+    }
+
+    @Override
+    public void select(ArrayList<TableRow> primes, ArrayList<TableRow> primesAvail, TreeSet<Integer> termIndices) {
+        CoverSearch search = new CoverSearch(primesAvail, termIndices, maxNodes, maxSolutions);
+        ArrayList<int[]> solutions = search.search();
+        budgetExhausted = search.isBudgetExhausted();
+
+        foundSolutions = new ArrayList<>(solutions.size());
+        for (int[] s : solutions) {
+            ArrayList<TableRow> singleSolution = new ArrayList<>(primes);
+            for (int p : s)
+                singleSolution.add(primesAvail.get(p));
+            foundSolutions.add(singleSolution);
+        }
+        primes.clear();
+        primes.addAll(foundSolutions.get(0));
+    }
+
+    @Override
+    public ArrayList<ArrayList<TableRow>> getAllSolutions() {
+        return foundSolutions;
+    }
+
+    /**
+     * @return true if the last selection was stopped because the node budget was exhausted,
+     * so the selection may not be minimal
+     */
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+}
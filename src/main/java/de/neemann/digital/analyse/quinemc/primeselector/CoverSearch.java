@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc.primeselector;
+
+import de.neemann.digital.analyse.quinemc.TableRow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Solves the set cover problem of the prime implicant chart by a branch and bound search.
+ * The primes are the rows, the term indices are the columns of the chart. Both are
+ * stored as bit sets, so the covering of columns is a simple and-not operation.
+ * <p>
+ * The search always branches on the uncovered column with the fewest primes available,
+ * which makes essential primes a branch without alternatives. A prime is excluded in all
+ * later siblings of its branch, so every cover is visited only once. A branch is cut if
+ * the number of pairwise independent uncovered columns shows that it can not beat the
+ * best cover found so far.
+ * <p>
+ * The effort is bounded by the number of search nodes visited, so the result
+ * only depends on the chart and not on the speed of the machine.
+ */
+final class CoverSearch {
+
+    private final int primeCount;
+    private final int colCount;
+    private final long[][] primeCols;
+    private final int[][] colPrimes;
+    private final long maxNodes;
+    private final int maxSolutions;
+    private final boolean[] excluded;
+    private final long[] used;
+    private final int[] chosen;
+    private final long[][] uncoveredStack;
+    private final ArrayList<int[]> solutions;
+    private int chosenCount;
+    private int best;
+    private long nodes;
+    private boolean budgetExhausted;
+
+    /**
+     * Creates a new instance
+     *
+     * @param primes       the available primes
+     * @param columns      the term indices to cover
+     * @param maxNodes     the maximum number of search nodes to visit
+     * @param maxSolutions the maximum number of minimal solutions to collect
+     */
+    CoverSearch(List<TableRow> primes, Collection<Integer> columns, long maxNodes, int maxSolutions) {
+        this.maxNodes = maxNodes;
+        this.maxSolutions = Math.max(1, maxSolutions);
+        primeCount = primes.size();
+        colCount = columns.size();
+
+        HashMap<Integer, Integer> colIndex = new HashMap<>();
+        for (int c : columns)
+            colIndex.put(c, colIndex.size());
+
+        final int words = (colCount + 63) >>> 6;
+        primeCols = new long[primeCount][words];
+        int[] colPrimeCount = new int[colCount];
+        for (int p = 0; p < primeCount; p++)
+            for (int s : primes.get(p).getSource()) {
+                Integer c = colIndex.get(s);
+                if (c != null && (primeCols[p][c >>> 6] & (1L << c)) == 0) {
+                    primeCols[p][c >>> 6] |= 1L << c;
+                    colPrimeCount[c]++;
+                }
+            }
+
+        colPrimes = new int[colCount][];
+        for (int c = 0; c < colCount; c++)
+            colPrimes[c] = new int[colPrimeCount[c]];
+        Arrays.fill(colPrimeCount, 0);
+        for (int p = 0; p < primeCount; p++)
+            for (int c = 0; c < colCount; c++)
+                if ((primeCols[p][c >>> 6] & (1L << c)) != 0)
+                    colPrimes[c][colPrimeCount[c]++] = p;
+
+        excluded = new boolean[primeCount];
+        used = new long[(primeCount + 63) >>> 6];
+        chosen = new int[primeCount];
+        uncoveredStack = new long[primeCount + 1][words];
+        solutions = new ArrayList<>();
+    }
+
+    /**
+     * Searches the minimal covers.
+     * If the node budget is exhausted, the best covers found so far are returned.
+     *
+     * @return the minimal covers found, every cover given by the ascending indices of its primes
+     */
+    ArrayList<int[]> search() {
+        long[] uncovered = uncoveredStack[0];
+        for (int c = 0; c < colCount; c++)
+            uncovered[c >>> 6] |= 1L << c;
+
+        removeDominatedColumns(uncovered);
+        if (maxSolutions == 1)
+            excludeDominatedPrimes(uncovered);
+
+        int[] greedy = greedy(uncovered);
+        if (greedy == null)
+            throw new RuntimeException("primes do not cover all terms");
+        best = greedy.length;
+
+        branch(0);
+
+        if (solutions.isEmpty())
+            solutions.add(greedy);
+        solutions.sort(CoverSearch::compareSolutions);
+        return solutions;
+    }
+
+    /**
+     * @return true if the search was stopped because the node budget was exhausted
+     */
+    boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    private void branch(int depth) {
+        if (budgetExhausted)
+            return;
+        if (++nodes > maxNodes) {
+            budgetExhausted = true;
+            return;
+        }
+
+        final long[] uncovered = uncoveredStack[depth];
+        int col = -1;
+        int minCount = Integer.MAX_VALUE;
+        for (int w = 0; w < uncovered.length && minCount > 0; w++) {
+            long bits = uncovered[w];
+            while (bits != 0) {
+                final int c = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                final int count = availablePrimes(c);
+                if (count < minCount) {
+                    minCount = count;
+                    col = c;
+                }
+            }
+        }
+
+        if (col < 0) {
+            foundSolution();
+            return;
+        }
+        if (minCount == 0)
+            return;
+        // excluding primes never lowers the bound, so it holds for all siblings
+        final int bound = chosenCount + lowerBound(uncovered);
+        if (cut(bound))
+            return;
+
+        int[] candidates = sortedCandidates(col, uncovered);
+        final long[] next = uncoveredStack[depth + 1];
+        int excludedHere = 0;
+        for (int p : candidates) {
+            for (int w = 0; w < next.length; w++)
+                next[w] = uncovered[w] & ~primeCols[p][w];
+            chosen[chosenCount++] = p;
+            branch(depth + 1);
+            chosenCount--;
+
+            excluded[p] = true;
+            excludedHere++;
+            if (budgetExhausted || cut(bound))
+                break;
+        }
+        for (int i = 0; i < excludedHere; i++)
+            excluded[candidates[i]] = false;
+    }
+
+    private boolean cut(int cost) {
+        if (solutions.size() >= maxSolutions)
+            return cost >= best;
+        return cost > best;
+    }
+
+    private void foundSolution() {
+        if (chosenCount < best) {
+            best = chosenCount;
+            solutions.clear();
+        }
+        if (chosenCount == best && solutions.size() < maxSolutions) {
+            int[] s = Arrays.copyOf(chosen, chosenCount);
+            Arrays.sort(s);
+            solutions.add(s);
+        }
+    }
+
+    private int availablePrimes(int col) {
+        int count = 0;
+        for (int p : colPrimes[col])
+            if (!excluded[p])
+                count++;
+        return count;
+    }
+
+    private int coverCount(int p, long[] uncovered) {
+        int count = 0;
+        for (int w = 0; w < uncovered.length; w++)
+            count += Long.bitCount(primeCols[p][w] & uncovered[w]);
+        return count;
+    }
+
+    /**
+     * The available primes covering the given column, the primes covering the most
+     * uncovered columns come first.
+     */
+    private int[] sortedCandidates(int col, long[] uncovered) {
+        int n = 0;
+        long[] keys = new long[colPrimes[col].length];
+        for (int p : colPrimes[col])
+            if (!excluded[p])
+                keys[n++] = ((long) (colCount - coverCount(p, uncovered)) << 32) | p;
+        Arrays.sort(keys, 0, n);
+        int[] candidates = new int[n];
+        for (int i = 0; i < n; i++)
+            candidates[i] = (int) keys[i];
+        return candidates;
+    }
+
+    /**
+     * Counts uncovered columns which do not share an available prime.
+     * Every one of them needs a prime of its own.
+     */
+    private int lowerBound(long[] uncovered) {
+        Arrays.fill(used, 0);
+        int count = 0;
+        for (int w = 0; w < uncovered.length; w++) {
+            long bits = uncovered[w];
+            while (bits != 0) {
+                final int c = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (isIndependent(c)) {
+                    count++;
+                    for (int p : colPrimes[c])
+                        used[p >>> 6] |= 1L << p;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean isIndependent(int col) {
+        for (int p : colPrimes[col])
+            if (!excluded[p] && (used[p >>> 6] & (1L << p)) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * A column which is covered by every prime covering an other column is
+     * covered automatically and needs not to be considered.
+     */
+    private void removeDominatedColumns(long[] uncovered) {
+        for (int c1 = 0; c1 < colCount; c1++) {
+            if ((uncovered[c1 >>> 6] & (1L << c1)) == 0)
+                continue;
+            for (int c2 = 0; c2 < colCount; c2++)
+                if (c1 != c2 && (uncovered[c2 >>> 6] & (1L << c2)) != 0 && isCoveredWith(c1, c2))
+                    uncovered[c2 >>> 6] &= ~(1L << c2);
+        }
+    }
+
+    private boolean isCoveredWith(int c1, int c2) {
+        for (int p : colPrimes[c1])
+            if ((primeCols[p][c2 >>> 6] & (1L << c2)) == 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * A prime which covers only columns which are also covered by an other prime is not used.
+     * This does not change the size of the minimal cover, but it hides some of the
+     * alternative solutions. So it is only done if a single solution is requested.
+     */
+    private void excludeDominatedPrimes(long[] uncovered) {
+        for (int p1 = 0; p1 < primeCount; p1++) {
+            if (excluded[p1])
+                continue;
+            for (int p2 = 0; p2 < primeCount; p2++)
+                if (p1 != p2 && !excluded[p2] && containsPrime(p1, p2, uncovered))
+                    excluded[p2] = true;
+        }
+    }
+
+    private boolean containsPrime(int p1, int p2, long[] uncovered) {
+        for (int w = 0; w < uncovered.length; w++)
+            if ((primeCols[p2][w] & uncovered[w] & ~primeCols[p1][w]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Creates an initial cover by always taking the prime which covers the most columns.
+     */
+    private int[] greedy(long[] uncoveredStart) {
+        long[] uncovered = uncoveredStart.clone();
+        ArrayList<Integer> cover = new ArrayList<>();
+        while (!isEmpty(uncovered)) {
+            int bestPrime = -1;
+            int bestCount = 0;
+            for (int p = 0; p < primeCount; p++)
+                if (!excluded[p]) {
+                    final int count = coverCount(p, uncovered);
+                    if (count > bestCount) {
+                        bestCount = count;
+                        bestPrime = p;
+                    }
+                }
+            if (bestPrime < 0)
+                return null;
+            cover.add(bestPrime);
+            for (int w = 0; w < uncovered.length; w++)
+                uncovered[w] &= ~primeCols[bestPrime][w];
+        }
+        int[] s = new int[cover.size()];
+        for (int i = 0; i < s.length; i++)
+            s[i] = cover.get(i);
+        Arrays.sort(s);
+        return s;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long b : bits)
+            if (b != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Orders the solutions like masks of the used primes, where the first prime is the least significant bit.
+     */
+    private static int compareSolutions(int[] a, int[] b) {
+        if (a.length != b.length)
+            return Integer.compare(a.length, b.length);
+        for (int i = a.length - 1; i >= 0; i--)
+            if (a[i] != b[i])
+                return Integer.compare(a[i], b[i]);
+        return 0;
+    }
+}
@@ -11,19 +11,34 @@ import java.util.ArrayList;
 import java.util.TreeSet;
 
 /**
+ * The default prime selector.
+ * Uses a branch and bound search with a limited number of search nodes which collects all
+ * minimal solutions.
  */
 public class PrimeSelectorDefault implements PrimeSelector {
 
-    private PrimeSelector ps;
+    private final long maxNodes;
+    private BranchAndBound ps;
+
+    /**
+     * Creates a new instance with the default node budget
+     */
+    public PrimeSelectorDefault() {
+        this(BranchAndBound.DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param maxNodes the maximum number of search nodes
+     */
+    public PrimeSelectorDefault(long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
 
     @Override
     public void select(ArrayList<TableRow> primes, ArrayList<TableRow> primesAvail, TreeSet<Integer> termIndices) {
-        int count = primesAvail.size();
-        if (count <= 22) {
-            ps = new BruteForceGetAll();
-        } else {
-            ps = new LargestFirst();
-        }
+        ps = new BranchAndBound(maxNodes, BranchAndBound.DEFAULT_MAX_SOLUTIONS);
         ps.select(primes, primesAvail, termIndices);
     }
 
@@ -35,4 +50,11 @@ public class PrimeSelectorDefault implements PrimeSelector {
             return ps.getAllSolutions();
     }
 
+    /**
+     * @return true if the last selection is known to be minimal
+     */
+    public boolean isMinimal() {
+        return ps == null || !ps.isBudgetExhausted();
+    }
+
 }
@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.basic.*;
+import de.neemann.digital.core.wiring.bus.BusModelStateObserver;
+import de.neemann.digital.core.wiring.bus.CommonBusValue;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.lang.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A levelized execution engine for purely synchronous circuits.
+ * <p>
+ * The netlist of an already initialized {@link Model} is levelized once. After that a step is calculated by
+ * evaluating the combinatorial part of the circuit in topological order, followed by all nodes which have
+ * a state. This is repeated until no state changes anymore.
+ * The gates from the {@link de.neemann.digital.core.basic} package are compiled to operations on flat
+ * <code>long[]</code> value/highZ arrays, so there are no observer callbacks needed to propagate their results.
+ * All other nodes are called by their {@link Node#readInputs()} and {@link Node#writeOutputs()} methods.
+ * <p>
+ * Since every node is evaluated only once in a topological order, glitches are not simulated, and the gate
+ * delays are ignored. If the model contains feedback loops which are not broken by a node with a state,
+ * switches or busses, the levelized engine can not be used. In this case all calls are delegated to the
+ * event driven {@link Model#doStep()}.
+ */
+public final class CompiledModel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledModel.class);
+    private static final int MAX_LOOP_COUNTER = 1000;
+
+    private static final int OP_AND = 0;
+    private static final int OP_NAND = 1;
+    private static final int OP_OR = 2;
+    private static final int OP_NOR = 3;
+    private static final int OP_XOR = 4;
+    private static final int OP_XNOR = 5;
+    private static final int OP_NOT = 6;
+    private static final int OP_NODE = 7;
+    private static final int OP_WITHOUT_DELAY = 8;
+
+    private final Model model;
+    private final boolean compiled;
+    private final String notCompiledReason;
+
+    // the values
+    private ObservableValue[] values;
+    private long[] value;
+    private long[] highZ;
+    private long[] mask;
+    private boolean[] fire;
+    private int[][] dependents;
+    private int[] sources;
+
+    // the vertices, the combinatorial ones are sorted topologically, followed by the nodes with state
+    private int combCount;
+    private int[] op;
+    private int[][] in;
+    private int[][] out;
+    private NodeInterface[] nodes;
+    private int[] nodeVertex;
+    private boolean[] dirty;
+    private int firstDirty;
+    private int[] dirtyState;
+    private int[] dirtyStateAct;
+    private int dirtyStateCount;
+
+    /**
+     * Creates a new instance.
+     * The given model has to be initialized.
+     *
+     * @param model the model to execute
+     */
+    public CompiledModel(Model model) {
+        this.model = model;
+        String reason = null;
+        try {
+            reason = compile();
+        } catch (PinException e) {
+            reason = e.getMessage();
+        }
+        notCompiledReason = reason;
+        compiled = reason == null;
+        if (compiled)
+            LOGGER.debug("levelized " + nodes.length + " nodes and " + values.length + " values");
+        else
+            LOGGER.debug("levelized engine not usable: " + reason);
+    }
+
+    /**
+     * @return true if the levelized engine is used, false if the event driven model is used
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * @return the reason why the levelized engine can not be used, null if it is used
+     */
+    public String getNotCompiledReason() {
+        return notCompiledReason;
+    }
+
+    /**
+     * @return the model executed
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    private String compile() throws PinException {
+        if (model.getObserver(BusModelStateObserver.class) != null)
+            return "model contains switches";
+
+        HashMap<ObservableValue, Integer> valueMap = new HashMap<>();
+        ArrayList<ObservableValue> valueList = new ArrayList<>();
+        HashMap<NodeInterface, Integer> vertexMap = new HashMap<>();
+        ArrayList<NodeInterface> vertexList = new ArrayList<>();
+
+        for (Node n : model)
+            addVertex(n, vertexMap, vertexList, valueMap, valueList);
+        for (Signal s : model.getSignals())
+            addValue(s.getValue(), valueMap, valueList);
+
+        // collect the nodes without a delay by following the observers of all values
+        for (int v = 0; v < valueList.size(); v++) {
+            ObservableValue ov = valueList.get(v);
+            if (ov instanceof CommonBusValue)
+                return "model contains a bus";
+            for (Observer o : ov.getObservers()) {
+                if (o instanceof NodeWithoutDelay)
+                    addVertex((NodeInterface) o, vertexMap, vertexList, valueMap, valueList);
+                else if (o instanceof NodeInterface && !(o instanceof Node))
+                    return "model contains unsupported element " + o.getClass().getSimpleName();
+            }
+        }
+
+        final int vertexCount = vertexList.size();
+        final int valueCount = valueList.size();
+
+        // find the driver and the dependants of each value
+        int[] driver = new int[valueCount];
+        Arrays.fill(driver, -1);
+        for (int i = 0; i < vertexCount; i++)
+            for (ObservableValue ov : vertexList.get(i).getOutputs()) {
+                int v = valueMap.get(ov);
+                // the parts of a splitter output are written by different nodes without delay
+                if (driver[v] >= 0 && !(vertexList.get(i) instanceof NodeWithoutDelay && vertexList.get(driver[v]) instanceof NodeWithoutDelay))
+                    return "value " + ov.getName() + " has more than one driver";
+                driver[v] = i;
+            }
+
+        ArrayList<ArrayList<Integer>> deps = new ArrayList<>(valueCount);
+        for (ObservableValue ov : valueList) {
+            ArrayList<Integer> d = new ArrayList<>();
+            for (Observer o : ov.getObservers()) {
+                Integer vertex = vertexMap.get(o);
+                if (vertex != null)
+                    d.add(vertex);
+            }
+            deps.add(d);
+        }
+
+        // sort the combinatorial vertices topologically, the outputs of nodes with a state are sources
+        boolean[] isState = new boolean[vertexCount];
+        int stateCount = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            NodeInterface n = vertexList.get(i);
+            if (n instanceof Node && ((Node) n).hasState()) {
+                isState[i] = true;
+                stateCount++;
+            }
+        }
+
+        int[] order = sortTopological(vertexList, isState, stateCount, deps, valueMap);
+        if (order == null)
+            return "model contains a combinatorial feedback loop";
+
+        int[] newIndex = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++)
+            newIndex[order[i]] = i;
+
+        // create the flat representation
+        combCount = vertexCount - stateCount;
+        values = valueList.toArray(new ObservableValue[valueCount]);
+        value = new long[valueCount];
+        highZ = new long[valueCount];
+        mask = new long[valueCount];
+        fire = new boolean[valueCount];
+        dependents = new int[valueCount][];
+        int sourceCount = 0;
+        for (int v = 0; v < valueCount; v++) {
+            ObservableValue ov = values[v];
+            value[v] = ov.getValue();
+            highZ[v] = ov.getHighZ();
+            mask[v] = Bits.mask(ov.getBits());
+            ArrayList<Integer> d = deps.get(v);
+            dependents[v] = new int[d.size()];
+            for (int j = 0; j < d.size(); j++)
+                dependents[v][j] = newIndex[d.get(j)];
+            if (driver[v] < 0 && d.size() > 0)
+                sourceCount++;
+        }
+        sources = new int[sourceCount];
+        sourceCount = 0;
+        for (int v = 0; v < valueCount; v++)
+            if (driver[v] < 0 && dependents[v].length > 0)
+                sources[sourceCount++] = v;
+
+        op = new int[vertexCount];
+        in = new int[vertexCount][];
+        out = new int[vertexCount][];
+        nodes = new NodeInterface[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            NodeInterface n = vertexList.get(order[i]);
+            nodes[i] = n;
+            out[i] = indicesOf(n.getOutputs(), valueMap);
+            op[i] = getOperation(n);
+            if (op[i] == OP_NOT)
+                in[i] = new int[]{valueMap.get(((Not) n).getInput())};
+            else if (op[i] < OP_NOT)
+                in[i] = indicesOf(((FanIn) n).getInputs(), valueMap);
+        }
+
+        // values only observed by compiled gates are updated without firing an event
+        for (int v = 0; v < valueCount; v++)
+            for (Observer o : values[v].getObservers()) {
+                Integer vertex = vertexMap.get(o);
+                if (vertex == null || op[newIndex[vertex]] >= OP_NODE)
+                    fire[v] = true;
+            }
+
+        nodeVertex = new int[model.size()];
+        Arrays.fill(nodeVertex, -1);
+        for (int i = 0; i < vertexCount; i++)
+            if (nodes[i] instanceof Node)
+                nodeVertex[((Node) nodes[i]).getId()] = i;
+
+        dirty = new boolean[vertexCount];
+        firstDirty = combCount;
+        dirtyState = new int[stateCount];
+        dirtyStateAct = new int[stateCount];
+        return null;
+    }
+
+    private static int[] sortTopological(ArrayList<NodeInterface> vertexList, boolean[] isState, int stateCount,
+                                         ArrayList<ArrayList<Integer>> deps, HashMap<ObservableValue, Integer> valueMap) throws PinException {
+        final int vertexCount = vertexList.size();
+        int[] inDegree = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++)
+            if (!isState[i])
+                for (ObservableValue ov : vertexList.get(i).getOutputs())
+                    for (int d : deps.get(valueMap.get(ov)))
+                        if (!isState[d])
+                            inDegree[d]++;
+
+        int[] order = new int[vertexCount];
+        int ordered = 0;
+        for (int i = 0; i < vertexCount; i++)
+            if (!isState[i] && inDegree[i] == 0)
+                order[ordered++] = i;
+        int pos = 0;
+        while (pos < ordered) {
+            int i = order[pos++];
+            for (ObservableValue ov : vertexList.get(i).getOutputs())
+                for (int d : deps.get(valueMap.get(ov)))
+                    if (!isState[d] && --inDegree[d] == 0)
+                        order[ordered++] = d;
+        }
+        if (ordered + stateCount < vertexCount)
+            return null;
+        for (int i = 0; i < vertexCount; i++)
+            if (isState[i])
+                order[ordered++] = i;
+
+        return order;
+    }
+
+    private static void addVertex(NodeInterface n, HashMap<NodeInterface, Integer> vertexMap, ArrayList<NodeInterface> vertexList,
+                                  HashMap<ObservableValue, Integer> valueMap, ArrayList<ObservableValue> valueList) throws PinException {
+        if (vertexMap.containsKey(n))
+            return;
+        vertexMap.put(n, vertexList.size());
+        vertexList.add(n);
+        for (ObservableValue ov : n.getOutputs())
+            addValue(ov, valueMap, valueList);
+        if (getOperation(n) == OP_NOT)
+            addValue(((Not) n).getInput(), valueMap, valueList);
+        else if (getOperation(n) < OP_NOT)
+            for (ObservableValue ov : ((FanIn) n).getInputs())
+                addValue(ov, valueMap, valueList);
+    }
+
+    private static void addValue(ObservableValue ov, HashMap<ObservableValue, Integer> valueMap, ArrayList<ObservableValue> valueList) {
+        if (!valueMap.containsKey(ov)) {
+            valueMap.put(ov, valueList.size());
+            valueList.add(ov);
+        }
+    }
+
+    private static int[] indicesOf(Iterable<ObservableValue> list, HashMap<ObservableValue, Integer> valueMap) {
+        ArrayList<Integer> l = new ArrayList<>();
+        for (ObservableValue ov : list)
+            l.add(valueMap.get(ov));
+        int[] a = new int[l.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = l.get(i);
+        return a;
+    }
+
+    private static int getOperation(NodeInterface n) {
+        Class<?> c = n.getClass();
+        if (c == And.class) return OP_AND;
+        if (c == NAnd.class) return OP_NAND;
+        if (c == Or.class) return OP_OR;
+        if (c == NOr.class) return OP_NOR;
+        if (c == XOr.class) return OP_XOR;
+        if (c == XNOr.class) return OP_XNOR;
+        if (c == Not.class) return OP_NOT;
+        if (n instanceof NodeWithoutDelay) return OP_WITHOUT_DELAY;
+        return OP_NODE;
+    }
+
+    /**
+     * Performs a step.
+     * All changes of the inputs are propagated through the whole model.
+     *
+     * @throws NodeException NodeException
+     */
+    public void doStep() throws NodeException {
+        if (!compiled) {
+            model.doStep();
+            return;
+        }
+
+        NodeScheduler scheduler = model.getScheduler();
+        final int[] next = scheduler.getNext();
+        for (int j = 0; j < scheduler.getNextSize(); j++) {
+            int i = nodeVertex[next[j]];
+            if (i >= 0)
+                markDirty(i);
+        }
+        for (int v : sources)
+            readValue(v);
+
+        int counter = 0;
+        while (firstDirty < combCount || dirtyStateCount > 0) {
+            if (counter++ > MAX_LOOP_COUNTER)
+                throw new NodeException(Lang.get("err_seemsToOscillate"));
+            calcCombinatorial();
+            calcState();
+        }
+
+        // every pass through the levelized netlist counts as a micro step
+        model.stepCompleted(counter);
+    }
+
+    private void calcCombinatorial() throws NodeException {
+        for (int i = firstDirty; i < combCount; i++) {
+            if (dirty[i]) {
+                dirty[i] = false;
+                switch (op[i]) {
+                    case OP_NODE:
+                        Node n = (Node) nodes[i];
+                        n.readInputs();
+                        n.writeOutputs();
+                        readOutputs(i);
+                        break;
+                    case OP_WITHOUT_DELAY:
+                        readOutputs(i);
+                        break;
+                    default:
+                        calcGate(i);
+                }
+            }
+        }
+        firstDirty = combCount;
+    }
+
+    private void calcState() throws NodeException {
+        if (dirtyStateCount > 0) {
+            int[] act = dirtyState;
+            dirtyState = dirtyStateAct;
+            dirtyStateAct = act;
+            int count = dirtyStateCount;
+            dirtyStateCount = 0;
+
+            for (int j = 0; j < count; j++) {
+                dirty[act[j]] = false;
+                ((Node) nodes[act[j]]).readInputs();
+            }
+            for (int j = 0; j < count; j++)
+                ((Node) nodes[act[j]]).writeOutputs();
+            for (int j = 0; j < count; j++)
+                readOutputs(act[j]);
+        }
+    }
+
+    private void calcGate(int i) {
+        // the int arithmetic is the same as used by the gates in the basic package
+        final int[] inputs = in[i];
+        final long r;
+        int f;
+        switch (op[i]) {
+            case OP_AND:
+            case OP_NAND:
+                f = -1;
+                for (int v : inputs)
+                    f &= value[v];
+                r = op[i] == OP_AND ? f : ~f;
+                break;
+            case OP_OR:
+            case OP_NOR:
+                f = 0;
+                for (int v : inputs)
+                    f |= value[v];
+                r = op[i] == OP_OR ? f : ~f;
+                break;
+            case OP_XOR:
+            case OP_XNOR:
+                f = 0;
+                for (int v : inputs)
+                    f ^= value[v];
+                r = op[i] == OP_XOR ? f : ~f;
+                break;
+            default:
+                r = ~value[inputs[0]];
+        }
+
+        final int o = out[i][0];
+        final long val = r & mask[o];
+        if (highZ[o] != 0 || val != value[o]) {
+            value[o] = val;
+            highZ[o] = 0;
+            if (fire[o])
+                values[o].set(val, 0);
+            else
+                values[o].setSilent(val, 0);
+            markDependents(o);
+        }
+    }
+
+    private void readOutputs(int i) {
+        for (int o : out[i])
+            readValue(o);
+    }
+
+    private void readValue(int v) {
+        ObservableValue ov = values[v];
+        long z = ov.getHighZ();
+        long val = ov.getValue();
+        if (z != highZ[v] || val != value[v]) {
+            value[v] = val;
+            highZ[v] = z;
+            markDependents(v);
+        }
+    }
+
+    private void markDependents(int v) {
+        for (int d : dependents[v])
+            markDirty(d);
+    }
+
+    private void markDirty(int d) {
+        if (!dirty[d]) {
+            dirty[d] = true;
+            if (d < combCount) {
+                if (d < firstDirty)
+                    firstDirty = d;
+            } else
+                dirtyState[dirtyStateCount++] = d;
+        }
+    }
+
+}
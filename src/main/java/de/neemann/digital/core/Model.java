@@ -10,6 +10,7 @@ import de.neemann.digital.core.wiring.AsyncSeq;
 import de.neemann.digital.core.wiring.Break;
 import de.neemann.digital.core.wiring.Clock;
 import de.neemann.digital.core.wiring.Reset;
+import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.gui.components.WindowPosManager;
 import de.neemann.digital.lang.Lang;
 import org.slf4j.Logger;
@@ -67,14 +68,21 @@ public class Model implements Iterable<Node>, SyncAccess {
     private final ArrayList<Signal> outputs;
 
     private final ArrayList<Node> nodes;
-    private ArrayList<Node> nodesToUpdateAct;
-    private ArrayList<Node> nodesToUpdateNext;
+    private Node[] nodeArray;
+    private NodeScheduler scheduler;
+    private NodeScheduler[] nodeSchedulers;
+    private Random random;
     private int version;
+    private int microSteps;
+    private int microStepsOfLastStep;
+    private int highWaterMarkOfLastStep;
     private WindowPosManager windowPosManager;
     private HashSet<Node> oscillatingNodes;
     private boolean isInvalidSignal = false;
     private AsyncSeq asyncInfos;
     private boolean asyncMode = false;
+    private int partitions = 1;
+    private PartitionedModel partitionedModel;
 
     private final ArrayList<ModelStateObserver> observers;
     private ArrayList<ModelStateObserver> observersStep;
@@ -92,8 +100,6 @@ public class Model implements Iterable<Node>, SyncAccess {
         this.outputs = new ArrayList<>();
         this.inputs = new ArrayList<>();
         this.nodes = new ArrayList<>();
-        this.nodesToUpdateAct = new ArrayList<>();
-        this.nodesToUpdateNext = new ArrayList<>();
         this.observers = new ArrayList<>();
     }
 
@@ -108,6 +114,46 @@ public class Model implements Iterable<Node>, SyncAccess {
         return this;
     }
 
+    /**
+     * Sets the number of threads used to calculate a step.
+     * If more than one thread is requested, the model is split into partitions by the
+     * {@link PartitionedModel} after it is initialized. The event driven calculation is used
+     * instead if the model can not be partitioned, in async mode, if micro step observers are
+     * registered and if a step is calculated with noise or in micro steps.
+     *
+     * @param partitions the number of threads
+     * @return this for chained calls
+     */
+    public Model setPartitions(int partitions) {
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * @return true if the steps are calculated by several threads
+     */
+    boolean isPartitioned() {
+        return partitionedModel != null;
+    }
+
+    private void startPartitioning() {
+        if (partitions > 1 && !asyncMode && observersMicroStep == null) {
+            PartitionedModel pm = new PartitionedModel(this, partitions);
+            if (pm.isPartitioned())
+                partitionedModel = pm;
+        }
+    }
+
+    /**
+     * Stops the threads of the partitioned model, if any, and continues with the event driven calculation.
+     */
+    private void stopPartitioning() {
+        if (partitionedModel != null) {
+            partitionedModel.close();
+            partitionedModel = null;
+        }
+    }
+
     /**
      * Sets the window position manager.
      * Allows the model to place new and close old gui windows.
@@ -139,6 +185,27 @@ public class Model implements Iterable<Node>, SyncAccess {
         return version;
     }
 
+    /**
+     * Returns the number of micro steps the last step has taken.
+     * Can be used by observers of the {@link ModelEvent#STEP} event to
+     * obtain the propagation depth of the step.
+     *
+     * @return the number of micro steps of the last step
+     */
+    public int getMicroStepsOfLastStep() {
+        return microStepsOfLastStep;
+    }
+
+    /**
+     * Returns the maximum number of nodes which were scheduled for a single micro step during the last step.
+     * Can be used by observers of the {@link ModelEvent#STEP} event.
+     *
+     * @return the high water mark of the update queue during the last step
+     */
+    public int getQueueHighWaterMarkOfLastStep() {
+        return highWaterMarkOfLastStep;
+    }
+
     /**
      * Adds a node to the model
      *
@@ -174,7 +241,23 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @throws NodeException NodeException
      */
     public void init(boolean noise) throws NodeException {
-        nodesToUpdateNext.addAll(nodes);
+        stopPartitioning();
+        nodeArray = nodes.toArray(new Node[nodes.size()]);
+        scheduler = new NodeScheduler(nodeArray.length);
+        nodeSchedulers = null;
+        for (int i = 0; i < nodeArray.length; i++) {
+            nodeArray[i].setId(i);
+            scheduler.add(i);
+        }
+        try {
+            for (Node n : nodeArray)
+                for (ObservableValue v : n.getOutputs())
+                    v.freeze(scheduler);
+        } catch (PinException e) {
+            throw new NodeException(e.getMessage(), e);
+        }
+        for (Signal s : signals)
+            s.getValue().freeze(scheduler);
         state = State.INITIALIZING;
         doStep(noise);
         if (!resets.isEmpty()) {
@@ -186,6 +269,7 @@ public class Model implements Iterable<Node>, SyncAccess {
                 doMicroStep(false);
         }
         LOGGER.debug("stabilizing took " + version + " micro steps");
+        startPartitioning();
         state = State.RUNNING;
         fireEvent(ModelEvent.STARTED);
     }
@@ -195,6 +279,7 @@ public class Model implements Iterable<Node>, SyncAccess {
      * A STOPPED event is fired.
      */
     public void close() {
+        stopPartitioning();
         if (state == State.RUNNING) {
             state = State.CLOSED;
             int obs = observers.size();
@@ -216,11 +301,22 @@ public class Model implements Iterable<Node>, SyncAccess {
 
     /**
      * Adds a node to the update list.
+     * If the node is already in the list, nothing is done.
+     * Before the model is initialized, all calls are ignored because all nodes are updated
+     * by the first step anyway.
      *
      * @param node the node
      */
     final void addToUpdateList(Node node) {
-        nodesToUpdateNext.add(node);
+        if (scheduler != null) {
+            final int id = node.getId();
+            if (id < 0 || id >= nodeArray.length || nodeArray[id] != node)
+                throw new RuntimeException("node is not part of the model");
+            if (nodeSchedulers == null)
+                scheduler.add(id);
+            else
+                nodeSchedulers[id].add(id);
+        }
     }
 
     /**
@@ -242,6 +338,13 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @throws NodeException NodeException
      */
     public void doStep(boolean noise) throws NodeException {
+        if (partitionedModel != null) {
+            if (!noise) {
+                partitionedModel.doStep();
+                return;
+            }
+            stopPartitioning();
+        }
         if (needsUpdate()) {
             int counter = 0;
             while (needsUpdate()) {
@@ -253,13 +356,15 @@ public class Model implements Iterable<Node>, SyncAccess {
                         oscillatingNodes = null;
                         throw seemsToOscillate;
                     } else {
-                        oscillatingNodes.addAll(nodesToUpdateNext);
+                        final int[] next = scheduler.getNext();
+                        for (int i = 0; i < scheduler.getNextSize(); i++)
+                            oscillatingNodes.add(nodeArray[next[i]]);
                     }
                 }
                 doMicroStep(noise);
             }
         } else
-            fireEvent(ModelEvent.STEP);
+            fireStepEvent();
     }
 
     /**
@@ -275,33 +380,72 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @throws NodeException NodeException
      */
     public void doMicroStep(boolean noise) throws NodeException {
+        stopPartitioning();
         version++;
-        // swap lists
-        ArrayList<Node> nl = nodesToUpdateNext;
-        nodesToUpdateNext = nodesToUpdateAct;
-        nodesToUpdateAct = nl;
-
-        nodesToUpdateNext.clear();
+        microSteps++;
+        scheduler.nextMicroStep();
+        final int[] act = scheduler.getAct();
+        final int size = scheduler.getActSize();
 
         if (noise) {
-            Collections.shuffle(nodesToUpdateAct);
-            for (Node n : nodesToUpdateAct) {
+            if (random == null)
+                random = new Random();
+            scheduler.shuffleAct(random);
+            for (int i = 0; i < size; i++) {
+                Node n = nodeArray[act[i]];
                 n.readInputs();
                 n.writeOutputs();
             }
         } else {
-            for (Node n : nodesToUpdateAct) {
-                n.readInputs();
-            }
-            for (Node n : nodesToUpdateAct) {
-                n.writeOutputs();
-            }
+            for (int i = 0; i < size; i++)
+                nodeArray[act[i]].readInputs();
+            for (int i = 0; i < size; i++)
+                nodeArray[act[i]].writeOutputs();
         }
         if (observersMicroStep != null)
             fireEvent(ModelEvent.MICROSTEP);
 
-        if (nodesToUpdateNext.isEmpty())
-            fireEvent(ModelEvent.STEP);
+        if (scheduler.getNextSize() == 0)
+            fireStepEvent();
+    }
+
+    private void fireStepEvent() {
+        microStepsOfLastStep = microSteps;
+        microSteps = 0;
+        if (scheduler != null)
+            highWaterMarkOfLastStep = scheduler.getAndResetHighWaterMark();
+        fireEvent(ModelEvent.STEP);
+    }
+
+    /**
+     * Is called by the {@link CompiledModel} and the {@link PartitionedModel} if a step is completed.
+     * The nodes scheduled by the values modified during the step are already calculated.
+     *
+     * @param microSteps the number of micro steps the step took, zero if there was nothing to do
+     */
+    void stepCompleted(int microSteps) {
+        version += microSteps;
+        this.microSteps = microSteps;
+        scheduler.clearNext();
+        fireStepEvent();
+    }
+
+    /**
+     * Sets the schedulers used by {@link #addToUpdateList(Node)}.
+     * Is used by the {@link PartitionedModel} to collect the nodes scheduled by a partition
+     * in the partitions own scheduler.
+     *
+     * @param nodeSchedulers the scheduler to use for each node id, null to use the scheduler of the model
+     */
+    void setNodeSchedulers(NodeScheduler[] nodeSchedulers) {
+        this.nodeSchedulers = nodeSchedulers;
+    }
+
+    /**
+     * @return the scheduler which holds the nodes to update, null if model is not initialized
+     */
+    NodeScheduler getScheduler() {
+        return scheduler;
     }
 
     /**
@@ -357,14 +501,26 @@ public class Model implements Iterable<Node>, SyncAccess {
      * @return true if model has more nodes to update
      */
     public boolean needsUpdate() {
-        return !nodesToUpdateNext.isEmpty();
+        if (partitionedModel != null)
+            return partitionedModel.needsUpdate();
+        return scheduler != null && scheduler.getNextSize() > 0;
     }
 
     /**
+     * Returns the nodes to update in the next micro step.
+     * If the model is partitioned, the event driven calculation is used afterwards.
+     *
      * @return the nodes to update in the next step
      */
     public Collection<Node> nodesToUpdate() {
-        return nodesToUpdateNext;
+        stopPartitioning();
+        ArrayList<Node> list = new ArrayList<>();
+        if (scheduler != null) {
+            final int[] next = scheduler.getNext();
+            for (int i = 0; i < scheduler.getNextSize(); i++)
+                list.add(nodeArray[next[i]]);
+        }
+        return list;
     }
 
     /**
@@ -401,6 +557,7 @@ public class Model implements Iterable<Node>, SyncAccess {
                 observersStep = new ArrayList<>();
             obs = observersStep;
         } else if (event == ModelEvent.MICROSTEP) {
+            stopPartitioning();
             if (observersMicroStep == null)
                 observersMicroStep = new ArrayList<>();
             obs = observersMicroStep;
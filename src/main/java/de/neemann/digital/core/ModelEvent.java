@@ -24,6 +24,8 @@ public enum ModelEvent {
      * Is fired if the model had performed a full step.
      * This means a change is propagated through all nodes, and the model has
      * become stable again.
+     * The propagation depth of the step can be obtained by {@link Model#getMicroStepsOfLastStep()}
+     * and {@link Model#getQueueHighWaterMarkOfLastStep()}.
      */
     STEP,
 
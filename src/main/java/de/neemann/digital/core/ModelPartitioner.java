@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Splits a hypergraph into partitions of nearly the same weight with a small number of cut nets.
+ * The vertices are clusters of nodes which have to be calculated by the same thread, the nets
+ * connect the driver of a value with the clusters observing it.
+ * <p>
+ * The partitions are grown one after the other by a breadth first search starting at the lowest
+ * unassigned cluster. Since the model creator adds the nodes of a nested circuit one after the other,
+ * this keeps the nested circuits together. After that, clusters are moved to the partition which
+ * reduces the number of partitions spanned by their nets, as long as the balance allows it.
+ */
+final class ModelPartitioner {
+    // nets with more members, e.g. a clock or a reset net, are ignored while growing a partition
+    private static final int MAX_GROW_NET = 64;
+    private static final int REFINEMENT_PASSES = 8;
+
+    private final int clusterCount;
+    private final int[] weight;
+    private final boolean[] pinned;
+    private final ArrayList<int[]> nets;
+    private int cutNets;
+
+    /**
+     * Creates a new instance
+     *
+     * @param clusterCount the number of clusters
+     */
+    ModelPartitioner(int clusterCount) {
+        this.clusterCount = clusterCount;
+        weight = new int[clusterCount];
+        pinned = new boolean[clusterCount];
+        nets = new ArrayList<>();
+    }
+
+    /**
+     * Adds a weight to a cluster
+     *
+     * @param cluster the cluster
+     * @param w       the weight to add
+     */
+    void addWeight(int cluster, int w) {
+        weight[cluster] += w;
+    }
+
+    /**
+     * Pins the cluster to the first partition
+     *
+     * @param cluster the cluster
+     */
+    void pin(int cluster) {
+        pinned[cluster] = true;
+    }
+
+    /**
+     * Adds a net
+     *
+     * @param clusters the distinct clusters connected by the net
+     */
+    void addNet(int[] clusters) {
+        if (clusters.length > 1)
+            nets.add(clusters);
+    }
+
+    /**
+     * Creates the partitions
+     *
+     * @param partitions the number of partitions
+     * @return the partition of each cluster
+     */
+    int[] partition(int partitions) {
+        int[][] clusterNets = createClusterNets();
+
+        long total = 0;
+        int maxWeight = 0;
+        for (int w : weight) {
+            total += w;
+            maxWeight = Math.max(maxWeight, w);
+        }
+        final int target = (int) ((total + partitions - 1) / partitions);
+        final int tolerance = Math.max(target / 20, maxWeight) + 1;
+
+        int[] part = grow(partitions, target, clusterNets);
+        refine(part, partitions, target, tolerance, clusterNets);
+
+        cutNets = 0;
+        for (int[] net : nets)
+            for (int c : net)
+                if (part[c] != part[net[0]]) {
+                    cutNets++;
+                    break;
+                }
+        return part;
+    }
+
+    private int[][] createClusterNets() {
+        int[] count = new int[clusterCount];
+        for (int[] net : nets)
+            for (int c : net)
+                count[c]++;
+        int[][] clusterNets = new int[clusterCount][];
+        for (int c = 0; c < clusterCount; c++)
+            clusterNets[c] = new int[count[c]];
+        Arrays.fill(count, 0);
+        for (int n = 0; n < nets.size(); n++)
+            for (int c : nets.get(n))
+                clusterNets[c][count[c]++] = n;
+        return clusterNets;
+    }
+
+    private int[] grow(int partitions, int target, int[][] clusterNets) {
+        int[] part = new int[clusterCount];
+        Arrays.fill(part, -1);
+        int[] partWeight = new int[partitions];
+        int[] queue = new int[clusterCount];
+        int seed = 0;
+        for (int p = 0; p < partitions; p++) {
+            final boolean last = p == partitions - 1;
+            int head = 0;
+            int tail = 0;
+            if (p == 0)
+                for (int c = 0; c < clusterCount; c++)
+                    if (pinned[c]) {
+                        part[c] = 0;
+                        partWeight[0] += weight[c];
+                        queue[tail++] = c;
+                    }
+
+            while (last || partWeight[p] < target) {
+                if (head == tail) {
+                    while (seed < clusterCount && part[seed] >= 0)
+                        seed++;
+                    if (seed == clusterCount)
+                        break;
+                    part[seed] = p;
+                    partWeight[p] += weight[seed];
+                    queue[tail++] = seed;
+                } else {
+                    int c = queue[head++];
+                    for (int n : clusterNets[c]) {
+                        int[] net = nets.get(n);
+                        if (net.length <= MAX_GROW_NET)
+                            for (int d : net)
+                                if (part[d] < 0 && (last || partWeight[p] < target)) {
+                                    part[d] = p;
+                                    partWeight[p] += weight[d];
+                                    queue[tail++] = d;
+                                }
+                    }
+                }
+            }
+        }
+        return part;
+    }
+
+    private void refine(int[] part, int partitions, int target, int tolerance, int[][] clusterNets) {
+        int[] partWeight = new int[partitions];
+        for (int c = 0; c < clusterCount; c++)
+            partWeight[part[c]] += weight[c];
+        int[] counts = new int[nets.size() * partitions];
+        for (int n = 0; n < nets.size(); n++)
+            for (int c : nets.get(n))
+                counts[n * partitions + part[c]]++;
+
+        int[] present = new int[partitions];
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            int moved = 0;
+            for (int c = 0; c < clusterCount; c++) {
+                final int a = part[c];
+                final int w = weight[c];
+                if (pinned[c] || partWeight[a] - w < target - tolerance)
+                    continue;
+
+                // the nets which are no longer spanning partition a if c is moved away
+                int gain = 0;
+                Arrays.fill(present, 0);
+                for (int n : clusterNets[c]) {
+                    final int base = n * partitions;
+                    if (counts[base + a] == 1)
+                        gain++;
+                    for (int b = 0; b < partitions; b++)
+                        if (counts[base + b] > 0)
+                            present[b]++;
+                }
+
+                // moving c to partition b adds partition b to all nets of c which do not span b yet
+                int best = -1;
+                int bestGain = 0;
+                for (int b = 0; b < partitions; b++)
+                    if (b != a && present[b] > 0 && partWeight[b] + w <= target + tolerance) {
+                        int g = gain - (clusterNets[c].length - present[b]);
+                        if (g > bestGain || (g == bestGain && best >= 0 && partWeight[b] < partWeight[best])) {
+                            best = b;
+                            bestGain = g;
+                        }
+                    }
+
+                if (best >= 0) {
+                    for (int n : clusterNets[c]) {
+                        counts[n * partitions + a]--;
+                        counts[n * partitions + best]++;
+                    }
+                    part[c] = best;
+                    partWeight[a] -= w;
+                    partWeight[best] += w;
+                    moved++;
+                }
+            }
+            if (moved == 0)
+                break;
+        }
+    }
+
+    /**
+     * @return the number of nets which connect more than one partition
+     */
+    int getCutNets() {
+        return cutNets;
+    }
+}
@@ -23,7 +23,7 @@ public abstract class Node implements NodeInterface {
 
     private final boolean hasState;
     private Model model;
-    private int version;
+    private int id = -1;
     // used to store the origin of this node
     // only used to create better error messages
     private File origin;
@@ -58,10 +58,24 @@ public abstract class Node implements NodeInterface {
         if (model == null)
             throw new RuntimeException("noModelSet");
 
-        if (model.getStepCounter() != version) {
-            model.addToUpdateList(this);
-            version = model.getStepCounter();
-        }
+        model.addToUpdateList(this);
+    }
+
+    /**
+     * Sets the id of this node.
+     * The id is the index of the node in the model and is set during the initialization of the model.
+     *
+     * @param id the id
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the id of this node, -1 if the model is not initialized
+     */
+    int getId() {
+        return id;
     }
 
     /**
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import java.util.Random;
+
+/**
+ * Holds the nodes which are to update in the next micro step.
+ * The nodes are identified by their id, which is the index of the node in the model.
+ * A bit set is used to avoid duplicate entries, and the ids are stored in a ring of
+ * preallocated index arrays. So scheduling a node and performing a micro step does not
+ * allocate memory or resize any list.
+ */
+final class NodeScheduler {
+    private static final int RING_SIZE = 2;
+
+    private final NodeScheduler root;
+    private final long[] pending;
+    private final int[][] ring;
+    private final int[] ringSize;
+    private int next;
+    private int highWaterMark;
+
+    /**
+     * Creates a new instance
+     *
+     * @param nodeCount the number of nodes in the model
+     */
+    NodeScheduler(int nodeCount) {
+        this(nodeCount, null);
+    }
+
+    /**
+     * Creates a scheduler which collects the nodes scheduled by a part of the model.
+     * Used by the {@link PartitionedModel}.
+     *
+     * @param root the scheduler of the model
+     */
+    NodeScheduler(NodeScheduler root) {
+        this(root.ring[0].length, root);
+    }
+
+    private NodeScheduler(int nodeCount, NodeScheduler root) {
+        this.root = root == null ? this : root;
+        pending = new long[(nodeCount + 63) >>> 6];
+        ring = new int[RING_SIZE][nodeCount];
+        ringSize = new int[RING_SIZE];
+    }
+
+    /**
+     * @return the scheduler of the model
+     */
+    NodeScheduler getRoot() {
+        return root;
+    }
+
+    /**
+     * Schedules the node with the given id.
+     * If the node is already scheduled for the next micro step, nothing is done.
+     *
+     * @param id the id of the node
+     */
+    void add(int id) {
+        final int word = id >>> 6;
+        final long bit = 1L << id;
+        if ((pending[word] & bit) == 0) {
+            pending[word] |= bit;
+            final int size = ringSize[next]++;
+            ring[next][size] = id;
+            if (size >= highWaterMark)
+                highWaterMark = size + 1;
+        }
+    }
+
+    /**
+     * Moves to the next slot of the ring.
+     * The nodes scheduled so far become the actual nodes, which can be
+     * obtained by {@link #getAct()} and {@link #getActSize()}. They are removed from
+     * the pending set, so they can be scheduled again during their own calculation.
+     */
+    void nextMicroStep() {
+        final int[] act = ring[next];
+        final int size = ringSize[next];
+        for (int i = 0; i < size; i++)
+            pending[act[i] >>> 6] &= ~(1L << act[i]);
+        next = (next + 1) % RING_SIZE;
+        ringSize[next] = 0;
+    }
+
+    /**
+     * @return the ids of the nodes to update in the actual micro step
+     */
+    int[] getAct() {
+        return ring[(next + RING_SIZE - 1) % RING_SIZE];
+    }
+
+    /**
+     * @return the number of nodes to update in the actual micro step
+     */
+    int getActSize() {
+        return ringSize[(next + RING_SIZE - 1) % RING_SIZE];
+    }
+
+    /**
+     * Shuffles the nodes of the actual micro step.
+     *
+     * @param random the random number generator to use
+     */
+    void shuffleAct(Random random) {
+        final int[] act = getAct();
+        for (int i = getActSize() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = act[i];
+            act[i] = act[j];
+            act[j] = t;
+        }
+    }
+
+    /**
+     * @return the ids of the nodes scheduled for the next micro step
+     */
+    int[] getNext() {
+        return ring[next];
+    }
+
+    /**
+     * @return the number of nodes scheduled for the next micro step
+     */
+    int getNextSize() {
+        return ringSize[next];
+    }
+
+    /**
+     * Removes all nodes scheduled for the next micro step.
+     */
+    void clearNext() {
+        final int[] n = ring[next];
+        final int size = ringSize[next];
+        for (int i = 0; i < size; i++)
+            pending[n[i] >>> 6] &= ~(1L << n[i]);
+        ringSize[next] = 0;
+    }
+
+    /**
+     * Returns the maximum number of nodes scheduled at once since the last call of this method.
+     *
+     * @return the high water mark of the queue
+     */
+    int getAndResetHighWaterMark() {
+        int hwm = highWaterMark;
+        highWaterMark = ringSize[next];
+        return hwm;
+    }
+}
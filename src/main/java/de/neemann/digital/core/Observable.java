@@ -6,12 +6,25 @@
 package de.neemann.digital.core;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 
 /**
- * A simple observable
+ * A simple observable.
+ * <p>
+ * After the model is initialized, the observers are stored in a frozen table: The nodes of the model
+ * are stored by their ids, so they can be scheduled directly without calling their
+ * {@link Observer#hasChanged()} method. All other observers are stored in a plain array.
+ * The table is rebuilt if observers are added or removed later on.
  */
 public class Observable {
+    private static final int SET_THRESHOLD = 16;
+    private static final int[] NO_IDS = new int[0];
+
     private final ArrayList<Observer> observers;
+    private HashSet<Observer> observerSet;
+    private NodeScheduler scheduler;
+    private int[] nodeIds;
+    private Observer[] otherObservers;
 
     /**
      * Creates a new instance
@@ -27,8 +40,14 @@ public class Observable {
      * @return observer the observer to add
      */
     public Observer addObserver(Observer observer) {
-        if (observer != null && !observers.contains(observer))
+        if (observer != null && !hasObserver(observer)) {
             observers.add(observer);
+            if (observerSet != null)
+                observerSet.add(observer);
+            else if (observers.size() > SET_THRESHOLD)
+                observerSet = new HashSet<>(observers);
+            observersModified();
+        }
         return observer;
     }
 
@@ -45,7 +64,11 @@ public class Observable {
      * @param observer the observer to use
      */
     public void removeObserver(Observer observer) {
-        observers.remove(observer);
+        if (observers.remove(observer)) {
+            if (observerSet != null)
+                observerSet.remove(observer);
+            observersModified();
+        }
     }
 
     /**
@@ -54,17 +77,70 @@ public class Observable {
      * @param observerClass the class of observers to remove
      */
     public void removeObserver(Class<? extends Observer> observerClass) {
-        observers.removeIf(observer -> observer.getClass() == observerClass);
+        if (observers.removeIf(observer -> observer.getClass() == observerClass)) {
+            if (observerSet != null)
+                observerSet.removeIf(observer -> observer.getClass() == observerClass);
+            observersModified();
+        }
     }
 
     /**
      * Fires a has changed event to all observers
      */
     public void fireHasChanged() {
+        if (nodeIds == null) {
+            for (Observer o : observers)
+                o.hasChanged();
+        } else {
+            for (int id : nodeIds)
+                scheduler.add(id);
+            for (Observer o : otherObservers)
+                o.hasChanged();
+        }
+    }
+
+    /**
+     * Builds the frozen observer table.
+     * Is called by the model during its initialization.
+     *
+     * @param scheduler the scheduler of the model or of a part of the model
+     */
+    void freeze(NodeScheduler scheduler) {
+        this.scheduler = scheduler;
+        int nodes = 0;
         for (Observer o : observers)
-            o.hasChanged();
+            if (isScheduledNode(o))
+                nodes++;
+
+        if (nodes == 0) {
+            nodeIds = NO_IDS;
+            otherObservers = observers.toArray(new Observer[observers.size()]);
+        } else {
+            nodeIds = new int[nodes];
+            otherObservers = new Observer[observers.size() - nodes];
+            int n = 0;
+            int o = 0;
+            for (Observer obs : observers)
+                if (isScheduledNode(obs))
+                    nodeIds[n++] = ((Node) obs).getId();
+                else
+                    otherObservers[o++] = obs;
+        }
     }
 
+    private boolean isScheduledNode(Observer o) {
+        if (o instanceof Node) {
+            Node n = (Node) o;
+            Model m = n.getModel();
+            return m != null && m.getScheduler() == scheduler.getRoot() && n.getId() >= 0;
+        }
+        return false;
+    }
+
+    private void observersModified() {
+        if (scheduler != null)
+            freeze(scheduler);
+    }
 
     /**
      * Returns true if the given observer observes this observable
@@ -73,6 +149,8 @@ public class Observable {
      * @return true if the given observer observes this observable
      */
     public boolean hasObserver(Observer observer) {
+        if (observerSet != null)
+            return observerSet.contains(observer);
         return observers.contains(observer);
     }
 
@@ -99,6 +99,18 @@ public class ObservableValue extends Observable implements PinDescription {
         return this;
     }
 
+    /**
+     * Sets the value and highZ state without notifying the observers.
+     * Is used by the {@link CompiledModel} if all observers are notified by other means.
+     *
+     * @param value the value
+     * @param highZ highZ state
+     */
+    void setSilent(long value, long highZ) {
+        this.highZ = highZ;
+        this.value = value & (~highZ);
+    }
+
     /**
      * Adds an observer to this value.
      *
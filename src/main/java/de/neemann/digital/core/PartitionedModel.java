@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.wiring.bus.BusModelStateObserver;
+import de.neemann.digital.core.wiring.bus.CommonBusValue;
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.lang.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Calculates the micro steps of an already initialized {@link Model} on several threads.
+ * <p>
+ * The nodes of the model are split into partitions with a small number of nets connecting different
+ * partitions. Every partition is calculated by its own thread, the first one by the thread calling
+ * {@link #doStep()}. A micro step is performed in the same two phases as in {@link Model#doMicroStep(boolean)}:
+ * At first all threads call {@link Node#readInputs()} of their scheduled nodes, and after all threads
+ * have finished, {@link Node#writeOutputs()} is called. Every value is frozen with the scheduler of the
+ * partition writing it, so a thread never modifies data of another thread during a phase, and the
+ * nodes scheduled by the other partitions are collected at the start of the next micro step.
+ * So the results are the same as the results of {@link Model#doStep()} without noise.
+ * <p>
+ * A node without delay, like a splitter, is calculated by the thread writing its input values, so it is
+ * placed in the partition of the nodes driving its inputs. Nodes which are not part of the core package
+ * may access the GUI or an external process, so they are always placed in the first partition.
+ * If the model contains switches or busses, all calls are delegated to {@link Model#doStep()}.
+ * <p>
+ * The model uses this class if more than one thread is requested by {@link Model#setPartitions(int)}.
+ * MICROSTEP events are not fired, so the model falls back to the event driven calculation if a
+ * micro step observer is registered.
+ */
+public final class PartitionedModel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedModel.class);
+    private static final int MAX_LOOP_COUNTER = 1000;
+    private static final int SPIN_LIMIT = 1000;
+    private static final int IDLE_SPIN_LIMIT = 100000;
+
+    private final Model model;
+    private final boolean partitioned;
+    private final String notPartitionedReason;
+
+    private int partitions;
+    private int cutNets;
+    private Node[] nodes;
+    private int[] partitionOf;
+    private ObservableValue[] values;
+    private NodeScheduler[] schedulers;
+    private int[][] act;
+    private boolean[] inAct;
+    private Barrier barrier;
+    private Worker[] workers;
+    private final Runnable microStepCompleted = this::microStepCompleted;
+
+    private volatile int stepCounter;
+    private volatile boolean closed;
+    private volatile Throwable error;
+    // written by the last thread arriving at the barrier, read by all threads after the barrier
+    private boolean more;
+    private int microSteps;
+
+    /**
+     * Creates a new instance.
+     * The given model has to be initialized. The threads are started immediately and are
+     * running until {@link #close()} is called.
+     *
+     * @param model      the model to execute
+     * @param partitions the number of partitions, which is also the maximum number of threads used
+     */
+    public PartitionedModel(Model model, int partitions) {
+        this.model = model;
+        String reason = null;
+        try {
+            reason = partition(partitions);
+        } catch (PinException e) {
+            reason = e.getMessage();
+        }
+        notPartitionedReason = reason;
+        partitioned = reason == null;
+        if (partitioned) {
+            LOGGER.debug("partitioned " + nodes.length + " nodes into " + this.partitions + " partitions with " + cutNets + " cut nets");
+            startWorkers();
+        } else
+            LOGGER.debug("partitioned engine not usable: " + reason);
+    }
+
+    /**
+     * @return true if the model is calculated by several threads, false if the event driven model is used
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * @return the reason why the model is not partitioned, null if it is partitioned
+     */
+    public String getNotPartitionedReason() {
+        return notPartitionedReason;
+    }
+
+    /**
+     * @return the number of partitions, which is also the number of threads used
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return the number of nets connecting more than one partition
+     */
+    public int getCutNets() {
+        return cutNets;
+    }
+
+    /**
+     * @return the model executed
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    private String partition(int requested) throws PinException {
+        if (requested < 2)
+            return "only one partition requested";
+        if (model.getObserver(BusModelStateObserver.class) != null)
+            return "model contains switches";
+
+        nodes = model.getNodes().toArray(new Node[0]);
+        HashMap<NodeInterface, Integer> vertexMap = new HashMap<>();
+        ArrayList<NodeInterface> vertexList = new ArrayList<>();
+        HashMap<ObservableValue, Integer> valueMap = new HashMap<>();
+        ArrayList<ObservableValue> valueList = new ArrayList<>();
+        for (Node n : nodes)
+            addVertex(n, vertexMap, vertexList, valueMap, valueList);
+        for (Signal s : model.getSignals())
+            addValue(s.getValue(), valueMap, valueList);
+
+        // collect the nodes without a delay by following the observers of all values
+        for (int v = 0; v < valueList.size(); v++) {
+            ObservableValue ov = valueList.get(v);
+            if (ov instanceof CommonBusValue)
+                return "model contains a bus";
+            for (Observer o : ov.getObservers()) {
+                if (o instanceof NodeWithoutDelay)
+                    addVertex((NodeInterface) o, vertexMap, vertexList, valueMap, valueList);
+                else if (o instanceof NodeInterface && !(o instanceof Node))
+                    return "model contains unsupported element " + o.getClass().getSimpleName();
+            }
+        }
+
+        // a node without delay is calculated by the thread which writes its inputs
+        final int vertexCount = vertexList.size();
+        final int valueCount = valueList.size();
+        UnionFind clusters = new UnionFind(vertexCount);
+        int[] driver = new int[valueCount];
+        Arrays.fill(driver, -1);
+        for (int i = 0; i < vertexCount; i++)
+            for (ObservableValue ov : vertexList.get(i).getOutputs()) {
+                int v = valueMap.get(ov);
+                if (driver[v] >= 0) {
+                    // the parts of a splitter output are written by different nodes without delay
+                    if (!(vertexList.get(i) instanceof NodeWithoutDelay && vertexList.get(driver[v]) instanceof NodeWithoutDelay))
+                        return "value " + ov.getName() + " has more than one driver";
+                    clusters.union(i, driver[v]);
+                }
+                driver[v] = i;
+            }
+        for (int v = 0; v < valueCount; v++)
+            if (driver[v] >= 0)
+                for (Observer o : valueList.get(v).getObservers())
+                    if (o instanceof NodeWithoutDelay)
+                        clusters.union(vertexMap.get(o), driver[v]);
+
+        final int clusterCount = clusters.enumerate();
+        if (clusterCount < 2)
+            return "model is too small";
+        partitions = Math.min(requested, clusterCount);
+
+        ModelPartitioner partitioner = new ModelPartitioner(clusterCount);
+        for (int i = 0; i < vertexCount; i++) {
+            NodeInterface n = vertexList.get(i);
+            if (n instanceof Node) {
+                partitioner.addWeight(clusters.get(i), 1);
+                if (!isThreadSafe(n))
+                    partitioner.pin(clusters.get(i));
+            }
+        }
+
+        // values without a driver are written between the steps, so they are not part of a net
+        boolean[] inNet = new boolean[clusterCount];
+        int[] members = new int[clusterCount];
+        for (int v = 0; v < valueCount; v++)
+            if (driver[v] >= 0) {
+                int size = 0;
+                members[size++] = clusters.get(driver[v]);
+                inNet[members[0]] = true;
+                for (Observer o : valueList.get(v).getObservers()) {
+                    Integer vertex = vertexMap.get(o);
+                    if (vertex != null) {
+                        int c = clusters.get(vertex);
+                        if (!inNet[c]) {
+                            inNet[c] = true;
+                            members[size++] = c;
+                        }
+                    }
+                }
+                for (int j = 0; j < size; j++)
+                    inNet[members[j]] = false;
+                partitioner.addNet(Arrays.copyOf(members, size));
+            }
+
+        int[] part = partitioner.partition(partitions);
+        cutNets = partitioner.getCutNets();
+
+        schedulers = new NodeScheduler[partitions];
+        for (int p = 0; p < partitions; p++)
+            schedulers[p] = new NodeScheduler(model.getScheduler());
+
+        partitionOf = new int[nodes.length];
+        int[] size = new int[partitions];
+        NodeScheduler[] nodeSchedulers = new NodeScheduler[nodes.length];
+        for (int id = 0; id < nodes.length; id++) {
+            int p = part[clusters.get(vertexMap.get(nodes[id]))];
+            partitionOf[id] = p;
+            nodeSchedulers[id] = schedulers[p];
+            size[p]++;
+        }
+        act = new int[partitions][];
+        for (int p = 0; p < partitions; p++)
+            act[p] = new int[size[p]];
+        inAct = new boolean[nodes.length];
+
+        values = valueList.toArray(new ObservableValue[valueCount]);
+        for (int v = 0; v < valueCount; v++)
+            if (driver[v] >= 0)
+                values[v].freeze(schedulers[part[clusters.get(driver[v])]]);
+            else
+                values[v].freeze(schedulers[0]);
+        model.setNodeSchedulers(nodeSchedulers);
+        return null;
+    }
+
+    private static boolean isThreadSafe(NodeInterface n) {
+        final String name = n.getClass().getName();
+        return name.startsWith("de.neemann.digital.core.") && !name.startsWith("de.neemann.digital.core.extern.");
+    }
+
+    private static void addVertex(NodeInterface n, HashMap<NodeInterface, Integer> vertexMap, ArrayList<NodeInterface> vertexList,
+                                  HashMap<ObservableValue, Integer> valueMap, ArrayList<ObservableValue> valueList) throws PinException {
+        if (vertexMap.containsKey(n))
+            return;
+        vertexMap.put(n, vertexList.size());
+        vertexList.add(n);
+        for (ObservableValue ov : n.getOutputs())
+            addValue(ov, valueMap, valueList);
+    }
+
+    private static void addValue(ObservableValue ov, HashMap<ObservableValue, Integer> valueMap, ArrayList<ObservableValue> valueList) {
+        if (!valueMap.containsKey(ov)) {
+            valueMap.put(ov, valueList.size());
+            valueList.add(ov);
+        }
+    }
+
+    private void startWorkers() {
+        barrier = new Barrier(partitions);
+        workers = new Worker[partitions - 1];
+        for (int p = 1; p < partitions; p++) {
+            workers[p - 1] = new Worker(p);
+            workers[p - 1].start();
+        }
+    }
+
+    /**
+     * Performs a step.
+     * All changes of the inputs are propagated through the whole model.
+     *
+     * @throws NodeException NodeException
+     */
+    public void doStep() throws NodeException {
+        if (!partitioned) {
+            model.doStep();
+            return;
+        }
+        if (closed)
+            throw new IllegalStateException("partitioned model is closed");
+
+        // nodes scheduled before the model was partitioned
+        NodeScheduler scheduler = model.getScheduler();
+        final int[] next = scheduler.getNext();
+        for (int i = 0; i < scheduler.getNextSize(); i++)
+            schedulers[partitionOf[next[i]]].add(next[i]);
+        scheduler.clearNext();
+
+        microSteps = 0;
+        if (getScheduledCount() > 0) {
+            stepCounter++;
+            for (Worker w : workers)
+                w.wakeUp();
+            calcStep(0);
+
+            Throwable t = error;
+            if (t != null) {
+                error = null;
+                if (t instanceof NodeException)
+                    throw (NodeException) t;
+                if (t instanceof RuntimeException)
+                    throw (RuntimeException) t;
+                if (t instanceof Error)
+                    throw (Error) t;
+                throw new RuntimeException(t);
+            }
+        }
+        model.stepCompleted(microSteps);
+    }
+
+    /**
+     * @return true if there are nodes to update
+     */
+    boolean needsUpdate() {
+        return model.getScheduler().getNextSize() > 0 || getScheduledCount() > 0;
+    }
+
+    private int getScheduledCount() {
+        int count = 0;
+        for (NodeScheduler s : schedulers)
+            count += s.getNextSize();
+        return count;
+    }
+
+    private void calcStep(int p) {
+        final NodeScheduler scheduler = schedulers[p];
+        final int[] a = act[p];
+        do {
+            // collect the nodes of this partition scheduled by all partitions
+            int size = 0;
+            for (NodeScheduler s : schedulers) {
+                final int[] next = s.getNext();
+                final int nextSize = s.getNextSize();
+                for (int i = 0; i < nextSize; i++) {
+                    final int id = next[i];
+                    if (partitionOf[id] == p && !inAct[id]) {
+                        inAct[id] = true;
+                        a[size++] = id;
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++)
+                inAct[a[i]] = false;
+
+            try {
+                for (int i = 0; i < size; i++)
+                    nodes[a[i]].readInputs();
+            } catch (Throwable e) {
+                setError(e);
+            }
+            barrier.await(null);
+
+            scheduler.nextMicroStep();
+            try {
+                for (int i = 0; i < size; i++)
+                    nodes[a[i]].writeOutputs();
+            } catch (Throwable e) {
+                setError(e);
+            }
+            barrier.await(microStepCompleted);
+        } while (more);
+    }
+
+    private synchronized void setError(Throwable e) {
+        if (error == null)
+            error = e;
+    }
+
+    private void microStepCompleted() {
+        microSteps++;
+        more = error == null && getScheduledCount() > 0;
+        if (more && microSteps > MAX_LOOP_COUNTER) {
+            setError(new NodeException(Lang.get("err_seemsToOscillate")));
+            more = false;
+        }
+    }
+
+    /**
+     * Stops the threads.
+     * After that the model can be used by the event driven {@link Model#doStep()} again.
+     */
+    public void close() {
+        if (!partitioned || closed)
+            return;
+        closed = true;
+        for (Worker w : workers) {
+            LockSupport.unpark(w);
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        NodeScheduler scheduler = model.getScheduler();
+        for (NodeScheduler s : schedulers) {
+            final int[] next = s.getNext();
+            for (int i = 0; i < s.getNextSize(); i++)
+                scheduler.add(next[i]);
+        }
+        for (ObservableValue v : values)
+            v.freeze(scheduler);
+        model.setNodeSchedulers(null);
+    }
+
+    private final class Worker extends Thread {
+        private final int partition;
+        private volatile boolean parked;
+        private int seen;
+
+        private Worker(int partition) {
+            super("partition " + partition);
+            this.partition = partition;
+            seen = stepCounter;
+            setDaemon(true);
+        }
+
+        private void wakeUp() {
+            if (parked)
+                LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                // spin for a while to catch the next step without a context switch, then park
+                int spins = 0;
+                while (stepCounter == seen) {
+                    if (closed)
+                        return;
+                    if (++spins > IDLE_SPIN_LIMIT) {
+                        parked = true;
+                        if (stepCounter == seen && !closed)
+                            LockSupport.park(this);
+                        parked = false;
+                    }
+                }
+                seen++;
+                calcStep(partition);
+            }
+        }
+    }
+
+    /**
+     * A sense reversing barrier which spins instead of blocking, because the
+     * threads meet twice per micro step.
+     */
+    private static final class Barrier {
+        private final int parties;
+        private final AtomicInteger arrived = new AtomicInteger();
+        private volatile int generation;
+
+        private Barrier(int parties) {
+            this.parties = parties;
+        }
+
+        private void await(Runnable lastArrived) {
+            final int g = generation;
+            if (arrived.incrementAndGet() == parties) {
+                arrived.set(0);
+                if (lastArrived != null)
+                    lastArrived.run();
+                generation = g + 1;
+            } else {
+                int spins = 0;
+                while (generation == g)
+                    if (++spins > SPIN_LIMIT)
+                        Thread.yield();
+            }
+        }
+    }
+
+    private static final class UnionFind {
+        private final int[] parent;
+        private final int[] cluster;
+
+        private UnionFind(int size) {
+            parent = new int[size];
+            cluster = new int[size];
+            for (int i = 0; i < size; i++)
+                parent[i] = i;
+        }
+
+        private int find(int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+
+        private void union(int a, int b) {
+            parent[find(a)] = find(b);
+        }
+
+        private int enumerate() {
+            Arrays.fill(cluster, -1);
+            int count = 0;
+            for (int i = 0; i < parent.length; i++) {
+                int r = find(i);
+                if (cluster[r] < 0)
+                    cluster[r] = count++;
+                cluster[i] = cluster[r];
+            }
+            return count;
+        }
+
+        private int get(int i) {
+            return cluster[i];
+        }
+    }
+}
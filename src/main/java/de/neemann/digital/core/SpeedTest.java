@@ -18,6 +18,9 @@ import java.util.ArrayList;
 public class SpeedTest {
     private static final int LOOPCOUNTER = 10000;
     private final Model model;
+    private double compiledFrequency;
+    private double partitionedFrequency;
+    private int partitions;
 
     /**
      * Creates a new Speed test instance
@@ -29,7 +32,12 @@ public class SpeedTest {
     }
 
     /**
-     * Calculates and returns the maximal frequency in Hz
+     * Calculates and returns the maximal frequency in Hz.
+     * The frequency is measured using the event driven model. If the model is suitable
+     * for the levelized {@link CompiledModel}, its frequency is measured also and can
+     * be obtained by {@link #getCompiledFrequency()}. If more than one processor is available,
+     * the frequency of the {@link PartitionedModel} is measured and can be obtained by
+     * {@link #getPartitionedFrequency()}.
      *
      * @return the maximal frequency in Hz
      * @throws NodeException NodeException
@@ -45,6 +53,33 @@ public class SpeedTest {
         Clock clock = clocks.get(0);
         model.init();
         ObservableValue clockValue = clock.getOutputs().get(0);
+
+        double frequency = measure(clockValue, model::doStep);
+        System.out.println("freq  :" + frequency);
+
+        CompiledModel compiledModel = new CompiledModel(model);
+        if (compiledModel.isCompiled()) {
+            compiledFrequency = measure(clockValue, compiledModel::doStep);
+            System.out.println("freq levelized:" + compiledFrequency);
+        } else
+            System.out.println("levelized engine not usable: " + compiledModel.getNotCompiledReason());
+
+        PartitionedModel partitionedModel = new PartitionedModel(model, Runtime.getRuntime().availableProcessors());
+        if (partitionedModel.isPartitioned()) {
+            try {
+                partitions = partitionedModel.getPartitions();
+                partitionedFrequency = measure(clockValue, partitionedModel::doStep);
+                System.out.println("freq partitioned:" + partitionedFrequency + ", threads: " + partitions + ", cut nets: " + partitionedModel.getCutNets());
+            } finally {
+                partitionedModel.close();
+            }
+        } else
+            System.out.println("partitioned engine not usable: " + partitionedModel.getNotPartitionedReason());
+
+        return frequency;
+    }
+
+    private double measure(ObservableValue clockValue, SyncAccess.ModelRun step) throws NodeException {
         int state = (int) clockValue.getValue();
 
         long aktTime;
@@ -54,7 +89,7 @@ public class SpeedTest {
             for (int i = 0; i < LOOPCOUNTER; i++) {
                 state = 1 - state;
                 clockValue.setValue(state);
-                model.doStep();
+                step.run();
             }
             loops++;
             aktTime = System.currentTimeMillis();
@@ -63,12 +98,36 @@ public class SpeedTest {
         long cycles = ((long) loops) * LOOPCOUNTER / 2;
         double time = (aktTime - starTime) / 1000.0;
 
-        double frequency = cycles / time;
-
         System.out.println("cycles: " + cycles);
         System.out.println("time  : " + time + "s");
-        System.out.println("freq  :" + frequency);
 
-        return frequency;
+        return cycles / time;
+    }
+
+    /**
+     * Returns the maximal frequency reached by the levelized engine.
+     * Only available after {@link #calculate()} was called.
+     *
+     * @return the maximal frequency in Hz or zero if the levelized engine could not be used
+     */
+    public double getCompiledFrequency() {
+        return compiledFrequency;
+    }
+
+    /**
+     * Returns the maximal frequency reached by the partitioned engine.
+     * Only available after {@link #calculate()} was called.
+     *
+     * @return the maximal frequency in Hz or zero if the partitioned engine could not be used
+     */
+    public double getPartitionedFrequency() {
+        return partitionedFrequency;
+    }
+
+    /**
+     * @return the number of threads used by the partitioned engine
+     */
+    public int getPartitions() {
+        return partitions;
     }
 }
@@ -651,6 +651,31 @@ public final class Keys {
     public static final Key<File> SETTINGS_IVERILOG_PATH
             = new Key.KeyFile("iverilogPath", new File("iverilog")).setSecondary();
 
+    /**
+     * The maximum number of variables the exact minimizer is used for
+     */
+    public static final Key<Integer> SETTINGS_EXACT_MINIMIZER_MAX_VARS =
+            new Key.KeyInteger("exactMinimizerMaxVars", 12)
+                    .setComboBoxValues(new Integer[]{6, 8, 10, 12})
+                    .setMin(4)
+                    .setMax(12);
+
+    /**
+     * The maximum number of search nodes used to select the primes of the exact minimizer
+     */
+    public static final Key<Integer> SETTINGS_PRIME_SEARCH_MAX_NODES =
+            new Key.KeyInteger("primeSearchMaxNodes", 1000000)
+                    .setComboBoxValues(new Integer[]{100000, 1000000, 10000000})
+                    .setMin(1000);
+
+    /**
+     * The number of threads used to calculate the steps of a simulation
+     */
+    public static final Key<Integer> SETTINGS_SIMULATION_THREADS =
+            new Key.KeyInteger("simulationThreads", 1)
+                    .setComboBoxValues(new Integer[]{1, 2, 4, 8})
+                    .setMin(1);
+
     /**
      * Avoid component tooltips in the main panel
      */
@@ -10,6 +10,8 @@ import de.neemann.digital.hdl.hgs.HGSArray;
 import de.neemann.digital.lang.Lang;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -235,6 +237,73 @@ public class DataField implements HGSArray {
         fireChanged(-1);
     }
 
+    /**
+     * Sets the data from the given buffer.
+     * Every word occupies the smallest number of bytes which can hold the given number of bits,
+     * and the bytes of a word are read in the byte order of the buffer.
+     * If the buffer ends within a word, the missing bytes are zero.
+     * The position of the buffer is not modified.
+     *
+     * @param buffer   the buffer to read the words from
+     * @param dataBits the number of bits of a word
+     */
+    public void setDataFrom(ByteBuffer buffer, int dataBits) {
+        final int bytesPerWord = (dataBits + 7) / 8;
+        final long mask = Bits.mask(dataBits);
+        final ByteBuffer b = buffer.duplicate().order(buffer.order());
+        final int words = Math.min(size, b.remaining() / bytesPerWord);
+        long[] d = new long[size];
+        switch (bytesPerWord) {
+            case 1:
+                for (int i = 0; i < words; i++)
+                    d[i] = b.get() & mask;
+                break;
+            case 2:
+                for (int i = 0; i < words; i++)
+                    d[i] = b.getShort() & mask;
+                break;
+            case 4:
+                for (int i = 0; i < words; i++)
+                    d[i] = b.getInt() & mask;
+                break;
+            case 8:
+                for (int i = 0; i < words; i++)
+                    d[i] = b.getLong() & mask;
+                break;
+            default:
+                for (int i = 0; i < words; i++)
+                    d[i] = readWord(b, bytesPerWord) & mask;
+        }
+        if (words < size && b.hasRemaining())
+            d[words] = readWord(b, b.remaining()) & mask;
+        data = d;
+        fireChanged(-1);
+    }
+
+    private static long readWord(ByteBuffer b, int bytes) {
+        long w = 0;
+        if (b.order() == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0; i < bytes; i++)
+                w = (w << 8) | (b.get() & 0xff);
+        } else {
+            for (int i = 0; i < bytes; i++)
+                w |= (b.get() & 0xffL) << (i * 8);
+        }
+        return w;
+    }
+
+    /**
+     * Returns the number of words stored in the given number of bytes
+     *
+     * @param bytes    the number of bytes
+     * @param dataBits the number of bits of a word
+     * @return the number of words, a partial word at the end counts as a word
+     */
+    static int getWordCount(int bytes, int dataBits) {
+        final int bytesPerWord = (dataBits + 7) / 8;
+        return (bytes + bytesPerWord - 1) / bytesPerWord;
+    }
+
     @Override
     public int hgsArraySize() {
         return data.length;
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.memory;
+
+import de.neemann.digital.lang.Lang;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the contents of a memory from a file.
+ * Supported are the "v2.0 raw" text format, Intel HEX files and raw binary images.
+ * Binary images and Intel HEX files are rejected if they contain data beyond the end of
+ * the memory, so the size of the byte image is bounded by the size of the memory.
+ */
+public final class DataFieldImporter {
+    private static final int MAX_IMAGE_SIZE = Integer.MAX_VALUE - 8;
+
+    private DataFieldImporter() {
+    }
+
+    /**
+     * Reads a file.
+     * Files ending with ".bin" are read as little endian binary images. All other files are
+     * read as Intel HEX files if they start with a colon, and in the "v2.0 raw" format otherwise.
+     *
+     * @param file     the file to read
+     * @param dataBits the number of bits of a memory word
+     * @param addrBits the number of address bits of the memory
+     * @return the data read
+     * @throws IOException IOException
+     */
+    public static DataField read(File file, int dataBits, int addrBits) throws IOException {
+        if (file.getName().toLowerCase().endsWith(".bin"))
+            return readBinary(file, dataBits, addrBits, ByteOrder.LITTLE_ENDIAN);
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"))) {
+            br.mark(1);
+            int c = br.read();
+            br.reset();
+            if (c == ':')
+                return readIntelHex(br, dataBits, addrBits, ByteOrder.LITTLE_ENDIAN);
+            else
+                return new DataField(br);
+        }
+    }
+
+    /**
+     * Reads a raw binary image.
+     * Every word occupies the smallest number of bytes which can hold the given number of bits.
+     * The file is read to the heap and closed before the words are unpacked, so it is not locked
+     * after this method has returned.
+     *
+     * @param file     the file to read
+     * @param dataBits the number of bits of a memory word
+     * @param addrBits the number of address bits of the memory
+     * @param order    the byte order of the words
+     * @return the data read
+     * @throws IOException IOException
+     */
+    public static DataField readBinary(File file, int dataBits, int addrBits, ByteOrder order) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize > getMaxImageSize(dataBits, addrBits))
+                throw new IOException(Lang.get("err_memoryImageTooLarge_N", 1L << addrBits));
+            buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0)
+                    break;
+        }
+        buffer.flip();
+        buffer.order(order);
+        DataField df = new DataField(DataField.getWordCount(buffer.remaining(), dataBits));
+        df.setDataFrom(buffer, dataBits);
+        return df;
+    }
+
+    private static long getMaxImageSize(int dataBits, int addrBits) {
+        final long bytesPerWord = (dataBits + 7) / 8;
+        return Math.min(MAX_IMAGE_SIZE, bytesPerWord << addrBits);
+    }
+
+    /**
+     * Reads an Intel HEX file.
+     * The data records are written to a byte image, which is packed to words afterwards.
+     * The extended segment and extended linear address records are supported.
+     *
+     * @param reader   the reader
+     * @param dataBits the number of bits of a memory word
+     * @param addrBits the number of address bits of the memory
+     * @param order    the byte order used to pack the bytes to words
+     * @return the data read
+     * @throws IOException IOException
+     */
+    public static DataField readIntelHex(Reader reader, int dataBits, int addrBits, ByteOrder order) throws IOException {
+        final long maxImageSize = getMaxImageSize(dataBits, addrBits);
+        BufferedReader br = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        byte[] image = new byte[1024];
+        int imageSize = 0;
+        long base = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+
+            byte[] rec = decodeRecord(line, lineNumber);
+            final int count = rec[0] & 0xff;
+            final int offset = ((rec[1] & 0xff) << 8) | (rec[2] & 0xff);
+            switch (rec[3]) {
+                case 0: // data
+                    final long end = base + offset + count;
+                    if (end > maxImageSize)
+                        throw new IOException(Lang.get("err_intelHexAddressOutOfMemoryInLine_N0_N1", lineNumber, 1L << addrBits));
+                    if (end > image.length)
+                        image = Arrays.copyOf(image, (int) Math.min(maxImageSize, Math.max(end, image.length * 2L)));
+                    System.arraycopy(rec, 4, image, (int) (base + offset), count);
+                    imageSize = Math.max(imageSize, (int) end);
+                    break;
+                case 1: // end of file
+                    return createDataField(image, imageSize, dataBits, order);
+                case 2: // extended segment address
+                    base = (long) getAddressField(rec, count, lineNumber) << 4;
+                    break;
+                case 4: // extended linear address
+                    base = (long) getAddressField(rec, count, lineNumber) << 16;
+                    break;
+                case 3: // start segment address
+                case 5: // start linear address
+                    break;
+                default:
+                    throw new IOException(Lang.get("err_invalidIntelHexRecordInLine_N", lineNumber));
+            }
+        }
+        return createDataField(image, imageSize, dataBits, order);
+    }
+
+    private static DataField createDataField(byte[] image, int imageSize, int dataBits, ByteOrder order) {
+        ByteBuffer buffer = ByteBuffer.wrap(image, 0, imageSize).order(order);
+        DataField df = new DataField(DataField.getWordCount(imageSize, dataBits));
+        df.setDataFrom(buffer, dataBits);
+        return df;
+    }
+
+    private static int getAddressField(byte[] rec, int count, int lineNumber) throws IOException {
+        if (count != 2)
+            throw new IOException(Lang.get("err_invalidIntelHexRecordInLine_N", lineNumber));
+        return ((rec[4] & 0xff) << 8) | (rec[5] & 0xff);
+    }
+
+    /**
+     * Decodes a record and checks its length and its checksum.
+     * The returned array contains the byte count, the two address bytes, the record type, the data and
+     * the checksum.
+     */
+    private static byte[] decodeRecord(String line, int lineNumber) throws IOException {
+        if (line.charAt(0) != ':' || (line.length() & 1) == 0 || line.length() < 11)
+            throw new IOException(Lang.get("err_invalidIntelHexRecordInLine_N", lineNumber));
+        byte[] rec = new byte[(line.length() - 1) / 2];
+        int sum = 0;
+        for (int i = 0; i < rec.length; i++) {
+            int hi = Character.digit(line.charAt(i * 2 + 1), 16);
+            int lo = Character.digit(line.charAt(i * 2 + 2), 16);
+            if (hi < 0 || lo < 0)
+                throw new IOException(Lang.get("err_invalidIntelHexRecordInLine_N", lineNumber));
+            rec[i] = (byte) ((hi << 4) | lo);
+            sum += rec[i];
+        }
+        if ((sum & 0xff) != 0 || (rec[0] & 0xff) != rec.length - 5)
+            throw new IOException(Lang.get("err_invalidIntelHexRecordInLine_N", lineNumber));
+        return rec;
+    }
+}
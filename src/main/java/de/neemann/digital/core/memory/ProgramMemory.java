@@ -22,4 +22,14 @@ public interface ProgramMemory {
      */
     void setProgramMemory(DataField dataField);
 
+    /**
+     * @return the number of bits of a memory word
+     */
+    int getDataBits();
+
+    /**
+     * @return the number of address bits of the memory
+     */
+    int getAddrBits();
+
 }
@@ -46,6 +46,13 @@ public abstract class AbstractBusHandler {
      */
     public abstract List<ObservableValue> getInputs();
 
+    /**
+     * Used to calculate the state of the net.
+     *
+     * @return the outputs connected to the net as an array
+     */
+    abstract ObservableValue[] getDrivers();
+
     /**
      * @return the resistor connected to the net, Dot return null, return {@link de.neemann.digital.core.element.PinDescription.PullResistor#none} instead.
      */
@@ -70,6 +77,9 @@ public abstract class AbstractBusHandler {
     /**
      * recalculates the state of the net
      * Also calls {@link AbstractBusHandler#set(long, long)} with the new value.
+     * The value, the high z state and the burn condition are calculated for all bits in parallel
+     * in a single pass over the drivers: A bit is in a burn condition if one driver drives a one
+     * and another driver drives a zero.
      */
     void recalculate() {
         long value = 0;
@@ -79,17 +89,18 @@ public abstract class AbstractBusHandler {
             set(0, -1);
         } else {
             long highz = -1;
-            for (ObservableValue input : getInputs()) {
-                highz &= input.getHighZ();
-                value |= input.getValue();
+            long zeros = 0;
+            for (ObservableValue input : getDrivers()) {
+                final long v = input.getValue();
+                final long z = input.getHighZ();
+                highz &= z;
+                value |= v;
+                zeros |= ~(v | z);
             }
 
             // check for a burn condition!
-            for (ObservableValue input : getInputs()) {
-                long bothDefine = ~(highz | input.getHighZ());
-                if ((value & bothDefine) != (input.getValue() & bothDefine))
-                    burn = State.burn;
-            }
+            if ((value & zeros) != 0)
+                burn = State.burn;
 
             switch (getResistor()) {
                 case pullUp:
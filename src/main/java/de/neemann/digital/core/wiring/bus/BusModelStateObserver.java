@@ -21,11 +21,13 @@ import java.util.HashSet;
 public final class BusModelStateObserver implements ModelStateObserverTyped {
     private final ArrayList<AbstractBusHandler> busList;
     private final HashSet<Switch.RealSwitch> closedSwitches;
+    private final HashMap<CommonBusValue, ArrayList<Switch.RealSwitch>> switchesAtNet;
     private int version;
 
     BusModelStateObserver() {
         busList = new ArrayList<>();
         closedSwitches = new HashSet<>();
+        switchesAtNet = new HashMap<>();
     }
 
     @Override
@@ -62,63 +64,112 @@ public final class BusModelStateObserver implements ModelStateObserverTyped {
 
     /**
      * Closes or opens a switch.
-     * Is used to reconfigure a net with switches
+     * Is used to reconfigure a net with switches.
+     * Only the nets connected to the switch are reconfigured: Closing a switch merges the
+     * nets on both contacts, opening a switch splits the net at most into two nets.
      *
      * @param realSwitch the switch
      * @param closed     true if switch is closed
      */
     public void setClosed(Switch.RealSwitch realSwitch, boolean closed) {
         if (closed) {
-            closedSwitches.add(realSwitch);
+            if (closedSwitches.add(realSwitch)) {
+                addSwitch(realSwitch.getInput1(), realSwitch);
+                addSwitch(realSwitch.getInput2(), realSwitch);
+                connect(realSwitch.getInput1(), realSwitch.getInput2());
+            }
         } else {
-            closedSwitches.remove(realSwitch);
-            realSwitch.getInput1().resetHandler();
-            realSwitch.getInput2().resetHandler();
+            if (closedSwitches.remove(realSwitch)) {
+                switchesAtNet.get(realSwitch.getInput1()).remove(realSwitch);
+                switchesAtNet.get(realSwitch.getInput2()).remove(realSwitch);
+                disconnect(realSwitch.getInput1(), realSwitch.getInput2());
+            }
         }
-        reconfigureNets();
+    }
+
+    private void addSwitch(CommonBusValue net, Switch.RealSwitch realSwitch) {
+        switchesAtNet.computeIfAbsent(net, n -> new ArrayList<>()).add(realSwitch);
     }
 
     /**
-     * Reconfiguration of the nets.
-     * If a switch is closed the nets on both contacts of the switch are connected to a single
-     * common net, After that the state of the new merged nets are updated.
-     * Needs to be called every time a switch has changed.
+     * Merges the nets of the two given values.
+     * The smaller net is added to the larger one, and only the merged net is recalculated.
      */
-    private void reconfigureNets() {
-        busList.removeIf(abstractBusHandler -> abstractBusHandler instanceof ConnectedBusHandler);
-        HashMap<CommonBusValue, ConnectedBusHandler> netMap = new HashMap<>();
-        ArrayList<ConnectedBusHandler> createdHandlers = new ArrayList<>();
-        for (Switch.RealSwitch s : closedSwitches) {
-            ConnectedBusHandler h1 = netMap.get(s.getInput1());
-            ConnectedBusHandler h2 = netMap.get(s.getInput2());
-            if (h1 == null) {
-                if (h2 == null) {
-                    ConnectedBusHandler h = new ConnectedBusHandler(this);
-                    createdHandlers.add(h);
-                    h.addNet(s.getInput1());
-                    h.addNet(s.getInput2());
-                    netMap.put(s.getInput1(), h);
-                    netMap.put(s.getInput2(), h);
-                } else {
-                    h2.addNet(s.getInput1());
-                    netMap.put(s.getInput1(), h2);
+    private void connect(CommonBusValue v1, CommonBusValue v2) {
+        AbstractBusHandler h1 = v1.getHandler();
+        AbstractBusHandler h2 = v2.getHandler();
+        if (h1 == h2)
+            return;
+
+        ConnectedBusHandler h;
+        if (h1 instanceof ConnectedBusHandler) {
+            h = (ConnectedBusHandler) h1;
+            if (h2 instanceof ConnectedBusHandler) {
+                ConnectedBusHandler c2 = (ConnectedBusHandler) h2;
+                if (c2.getValues().size() > h.getValues().size()) {
+                    c2 = h;
+                    h = (ConnectedBusHandler) h2;
                 }
-            } else {
-                if (h2 == null) {
-                    h1.addNet(s.getInput2());
-                    netMap.put(s.getInput2(), h1);
-                } else {
-                    if (h1 != h2) {
-                        // merge the nets
-                        h1.addNet(h2);
-                        for (CommonBusValue v : h2.getValues())
-                            netMap.put(v, h1);
-                        createdHandlers.remove(h2);
-                    }
+                busList.remove(c2);
+                h.addNet(c2);
+            } else
+                h.addNet(v2);
+        } else if (h2 instanceof ConnectedBusHandler) {
+            h = (ConnectedBusHandler) h2;
+            h.addNet(v1);
+        } else {
+            h = new ConnectedBusHandler(this);
+            h.addNet(v1);
+            h.addNet(v2);
+        }
+        h.recalculate();
+    }
+
+    /**
+     * Splits the net of the two given values if they are no longer connected.
+     * Since a single switch was opened, the net splits at most into two parts, which are
+     * found by a search along the closed switches starting at both contacts.
+     */
+    private void disconnect(CommonBusValue v1, CommonBusValue v2) {
+        AbstractBusHandler old = v1.getHandler();
+        if (!(old instanceof ConnectedBusHandler))
+            return;
+
+        ArrayList<CommonBusValue> net1 = collectNet(v1);
+        if (net1.size() == ((ConnectedBusHandler) old).getValues().size())
+            return;
+
+        busList.remove(old);
+        setNet(net1);
+        setNet(collectNet(v2));
+    }
+
+    private ArrayList<CommonBusValue> collectNet(CommonBusValue start) {
+        ArrayList<CommonBusValue> net = new ArrayList<>();
+        HashSet<CommonBusValue> visited = new HashSet<>();
+        net.add(start);
+        visited.add(start);
+        for (int i = 0; i < net.size(); i++) {
+            ArrayList<Switch.RealSwitch> switches = switchesAtNet.get(net.get(i));
+            if (switches != null)
+                for (Switch.RealSwitch s : switches) {
+                    if (visited.add(s.getInput1()))
+                        net.add(s.getInput1());
+                    if (visited.add(s.getInput2()))
+                        net.add(s.getInput2());
                 }
-            }
         }
-        for (ConnectedBusHandler h : createdHandlers)
+        return net;
+    }
+
+    private void setNet(ArrayList<CommonBusValue> net) {
+        if (net.size() == 1)
+            net.get(0).resetHandler();
+        else {
+            ConnectedBusHandler h = new ConnectedBusHandler(this);
+            for (CommonBusValue v : net)
+                h.addNet(v);
             h.recalculate();
+        }
     }
 }
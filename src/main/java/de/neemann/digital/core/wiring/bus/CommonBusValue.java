@@ -53,6 +53,13 @@ public final class CommonBusValue extends ObservableValue implements NodeInterfa
         this.handler = handler;
     }
 
+    /**
+     * @return the handler which calculates the nets state
+     */
+    AbstractBusHandler getHandler() {
+        return handler;
+    }
+
     /**
      * Resets the handler. So this net is isolated to a single simple net.
      */
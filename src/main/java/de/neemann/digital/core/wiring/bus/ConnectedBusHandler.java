@@ -10,7 +10,7 @@ import de.neemann.digital.core.ObservableValues;
 import de.neemann.digital.core.element.PinDescription;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,6 +21,7 @@ public final class ConnectedBusHandler extends AbstractBusHandler {
     private PinDescription.PullResistor resistor = PinDescription.PullResistor.none;
     private ArrayList<CommonBusValue> values;
     private ArrayList<ObservableValue> inputs;
+    private ObservableValue[] drivers;
 
     /**
      * Creates a new instance
@@ -40,7 +41,8 @@ public final class ConnectedBusHandler extends AbstractBusHandler {
      */
     public void addNet(CommonBusValue commonBusValue) {
         values.add(commonBusValue);
-        inputs.addAll(Arrays.asList(commonBusValue.getInputs()));
+        Collections.addAll(inputs, commonBusValue.getInputs());
+        drivers = null;
 
         if (!commonBusValue.getResistor().equals(PinDescription.PullResistor.none)) {
             if (resistor.equals(PinDescription.PullResistor.none)) {
@@ -72,6 +74,13 @@ public final class ConnectedBusHandler extends AbstractBusHandler {
         return inputs;
     }
 
+    @Override
+    ObservableValue[] getDrivers() {
+        if (drivers == null)
+            drivers = inputs.toArray(new ObservableValue[inputs.size()]);
+        return drivers;
+    }
+
     @Override
     public PinDescription.PullResistor getResistor() {
         return resistor;
@@ -18,6 +18,7 @@ import java.util.List;
 public final class SingleBusHandler extends AbstractBusHandler {
     private final ObservableValue output;
     private final PinDescription.PullResistor resistor;
+    private final ObservableValue[] drivers;
     private final List<ObservableValue> inputs;
 
     /**
@@ -32,6 +33,7 @@ public final class SingleBusHandler extends AbstractBusHandler {
         super(obs);
         this.output = output;
         this.resistor = resistor;
+        this.drivers = inputs;
         this.inputs = Arrays.asList(inputs);
     }
 
@@ -40,6 +42,11 @@ public final class SingleBusHandler extends AbstractBusHandler {
         return inputs;
     }
 
+    @Override
+    ObservableValue[] getDrivers() {
+        return drivers;
+    }
+
     @Override
     public PinDescription.PullResistor getResistor() {
         return resistor;
@@ -11,14 +11,20 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
- * Stores values in a table
+ * Stores values in a table.
+ * The rows are stored in a ring buffer, so if a maximum size is set, the oldest
+ * row is dropped in constant time.
  */
 public class ValueTable extends Observable implements Iterable<Value[]> {
+    private static final int INITIAL_CAPACITY = 16;
 
     private final String[] names;
-    private final ArrayList<Value[]> values;
+    private Value[][] values;
+    private int first;
+    private int size;
     private ArrayList<Integer> tableRowIndex;
     private final long[] max;
     private int maxSize = 0;
@@ -39,7 +45,7 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      */
     public ValueTable(String... names) {
         this.names = names;
-        values = new ArrayList<>();
+        values = new Value[INITIAL_CAPACITY][];
         max = new long[names.length];
     }
 
@@ -50,7 +56,10 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      */
     public ValueTable(ValueTable toCopy) {
         this.names = toCopy.names;
-        values = (ArrayList<Value[]>) toCopy.values.clone();
+        values = new Value[Math.max(INITIAL_CAPACITY, toCopy.size)][];
+        for (int i = 0; i < toCopy.size; i++)
+            values[i] = toCopy.getRow(i);
+        size = toCopy.size;
         max = toCopy.max.clone();
     }
 
@@ -58,7 +67,7 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      * @return number of rows
      */
     public int getRows() {
-        return values.size();
+        return size;
     }
 
     /**
@@ -66,7 +75,7 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      */
     public int getTableRows() {
         if (tableRowIndex == null)
-            return values.size();
+            return size;
         else
             return tableRowIndex.size();
     }
@@ -78,17 +87,23 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      * @return this for chained calls
      */
     public ValueTable add(Value[] row) {
-        if (maxSize > 0 && values.size() >= maxSize) {
+        if (maxSize > 0 && size >= maxSize) {
 
             if (tableRowIndex != null)
                 throw new RuntimeException("delete not allowed if table index is present");
 
-            while (values.size() >= maxSize)
-                values.remove(0);
+            while (size >= maxSize) {
+                values[first] = null;
+                first = (first + 1) % values.length;
+                size--;
+            }
         }
         if (tableRowIndex != null)
-            tableRowIndex.add(values.size());
-        values.add(row);
+            tableRowIndex.add(size);
+        if (size == values.length)
+            grow();
+        values[index(size)] = row;
+        size++;
 
         checkMax(row);
 
@@ -97,6 +112,28 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
         return this;
     }
 
+    private void grow() {
+        int capacity = values.length * 2;
+        if (maxSize > 0 && maxSize > size)
+            capacity = Math.min(capacity, maxSize);
+        Value[][] v = new Value[capacity][];
+        for (int i = 0; i < size; i++)
+            v[i] = getRow(i);
+        values = v;
+        first = 0;
+    }
+
+    private int index(int row) {
+        int i = first + row;
+        if (i >= values.length)
+            i -= values.length;
+        return i;
+    }
+
+    private Value[] getRow(int row) {
+        return values[index(row)];
+    }
+
     /**
      * omit the last added value in a table representation
      *
@@ -105,7 +142,7 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
     public ValueTable omitInTable() {
         if (tableRowIndex == null) {
             tableRowIndex = new ArrayList<>();
-            for (int i = 0; i < values.size(); i++)
+            for (int i = 0; i < size; i++)
                 tableRowIndex.add(i);
         }
         tableRowIndex.remove(tableRowIndex.size() - 1);
@@ -126,7 +163,7 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      * @return the value stored at the given position
      */
     public Value getValue(int rowIndex, int columnIndex) {
-        return values.get(rowIndex)[columnIndex];
+        return getRow(rowIndex)[columnIndex];
     }
 
     /**
@@ -138,9 +175,9 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      */
     public Value getTableValue(int rowIndex, int columnIndex) {
         if (tableRowIndex == null)
-            return values.get(rowIndex)[columnIndex];
+            return getRow(rowIndex)[columnIndex];
         else
-            return values.get(tableRowIndex.get(rowIndex))[columnIndex];
+            return getRow(tableRowIndex.get(rowIndex))[columnIndex];
     }
 
     /**
@@ -164,7 +201,21 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
 
     @Override
     public Iterator<Value[]> iterator() {
-        return values.iterator();
+        return new Iterator<Value[]>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Value[] next() {
+                if (row >= size)
+                    throw new NoSuchElementException();
+                return getRow(row++);
+            }
+        };
     }
 
     /**
@@ -214,7 +265,9 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
      * clear all values
      */
     public void clear() {
-        values.clear();
+        Arrays.fill(values, null);
+        first = 0;
+        size = 0;
         Arrays.fill(max, 0);
         fireHasChanged();
     }
@@ -238,14 +291,14 @@ public class ValueTable extends Observable implements Iterable<Value[]> {
         sb.append("\n");
 
         if (tableRowIndex == null)
-            for (Value[] row : values) {
+            for (Value[] row : this) {
                 for (Value v : row)
                     sb.append(v.toString()).append(" ");
                 sb.append("\n");
             }
         else
             for (int i : tableRowIndex) {
-                for (Value v : values.get(i))
+                for (Value v : getRow(i))
                     sb.append(v.toString()).append(" ");
                 sb.append("\n");
             }
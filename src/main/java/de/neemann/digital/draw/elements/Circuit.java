@@ -56,6 +56,7 @@ public class Circuit {
     private transient ArrayList<CircRect> recs;
     private transient ArrayList<ChangedListener> listeners;
     private transient File origin;
+    private transient CircuitIndex index;
 
     /**
      * Creates a proper configured XStream instance
@@ -135,8 +136,8 @@ public class Circuit {
             if (circuit.version == 0) {
                 // convert to version 1
                 for (Wire w : circuit.getWires()) {
-                    w.p1 = w.p1.mul(2);
-                    w.p2 = w.p2.mul(2);
+                    w.setP1(w.p1.mul(2));
+                    w.setP2(w.p2.mul(2));
                 }
                 for (VisualElement e : circuit.getElements())
                     e.setPos(e.getPos().mul(2));
@@ -232,10 +233,7 @@ public class Circuit {
      * @param modelSync   sync interface to access the model. Is locked while drawing circuit
      */
     public void drawTo(Graphic graphic, Collection<Drawable> highLighted, Style highlight, SyncAccess modelSync) {
-        if (!dotsPresent) {
-            new DotCreator(wires).applyDots();
-            dotsPresent = true;
-        }
+        createDots();
 
         // reads the models state which is a fast operation
         modelSync.access(() -> {
@@ -256,7 +254,25 @@ public class Circuit {
             graphic.closeGroup();
         }
 
-        // plot debugging rectangles
+        drawDebugRects(graphic);
+    }
+
+    /**
+     * Creates the dots at the wire junctions if necessary
+     */
+    void createDots() {
+        if (!dotsPresent) {
+            new DotCreator(wires).applyDots();
+            dotsPresent = true;
+        }
+    }
+
+    /**
+     * Plots the debugging rectangles
+     *
+     * @param graphic the graphic instance used
+     */
+    void drawDebugRects(Graphic graphic) {
         if (recs != null)
             for (CircRect r : recs)
                 r.drawTo(graphic);
@@ -318,11 +334,11 @@ public class Circuit {
      */
     public ArrayList<Movable> getElementsToMove(Vector min, Vector max) {
         ArrayList<Movable> m = new ArrayList<>();
-        for (VisualElement vp : visualElements)
+        for (VisualElement vp : getIndex().getElements(visualElements, min, max))
             if (vp.matches(min, max))
                 m.add(vp);
 
-        for (Wire w : wires) {
+        for (Wire w : getIndex().getWires(wires, min, max)) {
             if (w.p1.inside(min, max))
                 m.add(w.getMovableP1());
             if (w.p2.inside(min, max))
@@ -343,11 +359,11 @@ public class Circuit {
      */
     public ArrayList<Drawable> getElementsToHighlight(Vector min, Vector max) {
         ArrayList<Drawable> m = new ArrayList<>();
-        for (VisualElement vp : visualElements)
+        for (VisualElement vp : getIndex().getElements(visualElements, min, max))
             if (vp.matches(min, max))
                 m.add(vp);
 
-        for (Wire w : wires) {
+        for (Wire w : getIndex().getWires(wires, min, max)) {
             if (w.p1.inside(min, max) || w.p2.inside(min, max))
                 m.add(w);
         }
@@ -369,11 +385,11 @@ public class Circuit {
      */
     public ArrayList<Movable> getElementsToCopy(Vector min, Vector max, ShapeFactory shapeFactory) {
         ArrayList<Movable> m = new ArrayList<>();
-        for (VisualElement vp : visualElements)
+        for (VisualElement vp : getIndex().getElements(visualElements, min, max))
             if (vp.matches(min, max))
                 m.add(new VisualElement(vp).setShapeFactory(shapeFactory));
 
-        for (Wire w : wires)
+        for (Wire w : getIndex().getWires(wires, min, max))
             if (w.p1.inside(min, max) && w.p2.inside(min, max))
                 m.add(new Wire(w));
 
@@ -391,20 +407,9 @@ public class Circuit {
      * @param max lower right corner of the rectangle
      */
     public void delete(Vector min, Vector max) {
-        Iterator<VisualElement> veIt = visualElements.iterator();
-        while (veIt.hasNext())
-            if (veIt.next().matches(min, max))
-                veIt.remove();
-
-        boolean wireDeleted = false;
-        Iterator<Wire> wIt = wires.iterator();
-        while (wIt.hasNext()) {
-            Wire w = wIt.next();
-            if (w.p1.inside(min, max) || w.p2.inside(min, max)) {
-                wIt.remove();
-                wireDeleted = true;
-            }
-        }
+        visualElements.removeIf(ve -> ve.matches(min, max));
+
+        boolean wireDeleted = wires.removeIf(w -> w.p1.inside(min, max) || w.p2.inside(min, max));
 
         if (wireDeleted) {
             WireConsistencyChecker checker = new WireConsistencyChecker(wires);
@@ -447,7 +452,7 @@ public class Circuit {
      * @return the first element or null if there is no element at the given position
      */
     public VisualElement getElementAt(Vector pos) {
-        for (VisualElement element : visualElements) {
+        for (VisualElement element : getIndex().getElements(visualElements, pos, pos)) {
             if (element.matches(pos, false))
                 return element;
         }
@@ -463,7 +468,7 @@ public class Circuit {
      */
     public List<VisualElement> getElementListAt(Vector pos, boolean includeText) {
         ArrayList<VisualElement> list = new ArrayList<>();
-        for (VisualElement element : visualElements) {
+        for (VisualElement element : getIndex().getElements(visualElements, pos, pos)) {
             if (element.matches(pos, includeText))
                 list.add(element);
         }
@@ -551,12 +556,19 @@ public class Circuit {
      * @return the matching wire or null
      */
     public Wire getWireAt(Vector pos, int radius) {
-        for (Wire w : wires)
+        Vector r = new Vector(radius, radius);
+        for (Wire w : getIndex().getWires(wires, pos.sub(r), pos.add(r)))
             if (w.contains(pos, radius))
                 return w;
         return null;
     }
 
+    CircuitIndex getIndex() {
+        if (index == null)
+            index = new CircuitIndex();
+        return index;
+    }
+
     /**
      * Find specific visual elements
      *
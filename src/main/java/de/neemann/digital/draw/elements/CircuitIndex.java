@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+import de.neemann.digital.draw.graphics.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * The spatial index of the elements and the wires of a circuit.
+ * Elements and wires are modified in place, e.g. while they are moved with the mouse, so
+ * the index is not updated on every change. Instead every element and every wire increments
+ * its own version number if its position or its shape changes. The index keeps the items and
+ * their versions it was built from and compares them with the lists of this circuit before
+ * every query, so changes made to other circuits do not matter. If an item was added, removed
+ * or changed, the index is rebuilt. As long as the circuit changes between two queries, the
+ * queries fall back to a linear search, so an index is only built if the circuit is at rest.
+ */
+final class CircuitIndex {
+    private final Layer<VisualElement> elements = new Layer<>(VisualElement::getGeometryVersion, CircuitIndex::getElementBox);
+    private final Layer<Wire> wires = new Layer<>(Wire::getGeometryVersion, CircuitIndex::getWireBox);
+
+    /**
+     * Stores the bounding box of the given element, including its texts, in the given array
+     *
+     * @param ve  the element
+     * @param box the array to store min x, min y, max x and max y
+     */
+    static void getElementBox(VisualElement ve, int[] box) {
+        GraphicMinMax m = ve.getMinMax(false);
+        GraphicMinMax t = ve.getMinMax(true);
+        box[0] = Math.min(m.getMin().x, t.getMin().x);
+        box[1] = Math.min(m.getMin().y, t.getMin().y);
+        box[2] = Math.max(m.getMax().x, t.getMax().x);
+        box[3] = Math.max(m.getMax().y, t.getMax().y);
+    }
+
+    /**
+     * Stores the bounding box of the given wire in the given array
+     *
+     * @param w   the wire
+     * @param box the array to store min x, min y, max x and max y
+     */
+    static void getWireBox(Wire w, int[] box) {
+        box[0] = Math.min(w.p1.x, w.p2.x);
+        box[1] = Math.min(w.p1.y, w.p2.y);
+        box[2] = Math.max(w.p1.x, w.p2.x);
+        box[3] = Math.max(w.p1.y, w.p2.y);
+    }
+
+    /**
+     * Returns the elements which may intersect the given rectangle, in the order of the given list.
+     * The elements need to be checked by the caller.
+     *
+     * @param list the elements of the circuit
+     * @param min  upper left corner of the rectangle
+     * @param max  lower right corner of the rectangle
+     * @return the elements
+     */
+    List<VisualElement> getElements(List<VisualElement> list, Vector min, Vector max) {
+        return elements.get(list, min, max);
+    }
+
+    /**
+     * Returns the wires which may intersect the given rectangle, in the order of the given list.
+     * The wires need to be checked by the caller.
+     *
+     * @param list the wires of the circuit
+     * @param min  upper left corner of the rectangle
+     * @param max  lower right corner of the rectangle
+     * @return the wires
+     */
+    List<Wire> getWires(List<Wire> list, Vector min, Vector max) {
+        return wires.get(list, min, max);
+    }
+
+    private static final class Hits implements IntConsumer {
+        private int[] ids = new int[16];
+        private int count;
+
+        @Override
+        public void accept(int id) {
+            if (count == ids.length)
+                ids = Arrays.copyOf(ids, count * 2);
+            ids[count++] = id;
+        }
+    }
+
+    private interface BoxProvider<T> {
+        void getBox(T item, int[] box);
+    }
+
+    private static final class Layer<T> {
+        private final ToIntFunction<T> version;
+        private final BoxProvider<T> boxProvider;
+        private Object[] items;
+        private int[] versions;
+        private RTree tree;
+
+        private Layer(ToIntFunction<T> version, BoxProvider<T> boxProvider) {
+            this.version = version;
+            this.boxProvider = boxProvider;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> get(List<T> list, Vector min, Vector max) {
+            if (!isValid(list))
+                return list;
+
+            Hits hits = new Hits();
+            tree.query(min.x, min.y, max.x, max.y, hits);
+            Arrays.sort(hits.ids, 0, hits.count);
+
+            ArrayList<T> result = new ArrayList<>(hits.count);
+            for (int i = 0; i < hits.count; i++)
+                result.add((T) items[hits.ids[i]]);
+            return result;
+        }
+
+        /**
+         * Checks if the tree matches the given list.
+         * If the list has not changed since the last call, the tree is created.
+         */
+        private boolean isValid(List<T> list) {
+            if (matches(list)) {
+                if (tree == null)
+                    build();
+                return true;
+            }
+            items = list.toArray();
+            versions = new int[items.length];
+            readVersions();
+            tree = null;
+            return false;
+        }
+
+        private boolean matches(List<T> list) {
+            if (items == null || items.length != list.size())
+                return false;
+            for (int i = 0; i < items.length; i++) {
+                T item = list.get(i);
+                if (item != items[i] || version.applyAsInt(item) != versions[i])
+                    return false;
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void readVersions() {
+            for (int i = 0; i < items.length; i++)
+                versions[i] = version.applyAsInt((T) items[i]);
+        }
+
+        private void build() {
+            final int n = items.length;
+            int[] x1 = new int[n];
+            int[] y1 = new int[n];
+            int[] x2 = new int[n];
+            int[] y2 = new int[n];
+            int[] box = new int[4];
+            for (int i = 0; i < n; i++) {
+                @SuppressWarnings("unchecked")
+                T item = (T) items[i];
+                boxProvider.getBox(item, box);
+                x1[i] = box[0];
+                y1[i] = box[1];
+                x2[i] = box[2];
+                y2[i] = box[3];
+            }
+            tree = new RTree(x1, y1, x2, y2);
+            // computing the bounds may create the shapes of the elements
+            readVersions();
+        }
+    }
+}
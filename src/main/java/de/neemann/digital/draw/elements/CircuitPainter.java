@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import de.neemann.digital.core.SyncAccess;
+import de.neemann.digital.draw.graphics.Graphic;
+import de.neemann.digital.draw.graphics.GraphicHash;
+import de.neemann.digital.draw.graphics.Style;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.shapes.Drawable;
+import de.neemann.digital.draw.shapes.ObservableValueReader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static de.neemann.digital.draw.shapes.GenericShape.SIZE;
+
+/**
+ * Paints the visible part of a circuit.
+ * Only the elements and wires which intersect the visible rectangle are read from the model
+ * and drawn. While drawing, a hash of the drawing operations of every item is computed.
+ * If the model has changed, the items are hashed again by {@link #update(Collection, Style, SyncAccess)},
+ * which returns the regions covered by all items whose hash has changed.
+ * Only these regions need to be redrawn by {@link #redraw(Graphic, Region)}.
+ * The state of the visible items can also be read by the simulation thread using
+ * {@link #readObservableValues()}, which never blocks. All other methods wait until
+ * this reading is complete.
+ */
+public final class CircuitPainter {
+    // elements may draw some text outside of their bounding box
+    private static final int CULL_MARGIN = SIZE * 4;
+    // space needed by the line thickness and the antialiasing
+    private static final int LINE_MARGIN = SIZE / 2;
+    private static final int MAX_REGIONS = 16;
+
+    private final ArrayList<Item> items = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private Circuit circuit;
+    private int drawnElements;
+    private int drawnWires;
+
+    /**
+     * Draws all elements and wires of the circuit which intersect the given rectangle.
+     *
+     * @param circuit     the circuit to draw
+     * @param graphic     the graphic instance used
+     * @param min         upper left corner of the visible rectangle
+     * @param max         lower right corner of the visible rectangle
+     * @param highLighted a list of Drawables to highlight
+     * @param highlight   style used to draw the highlighted elements
+     * @param modelSync   sync interface to access the model. Is locked while reading the models state
+     */
+    public void paint(Circuit circuit, Graphic graphic, Vector min, Vector max, Collection<Drawable> highLighted, Style highlight, SyncAccess modelSync) {
+        lock.lock();
+        try {
+            paintLocked(circuit, graphic, min, max, highLighted, highlight, modelSync);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void paintLocked(Circuit circuit, Graphic graphic, Vector min, Vector max, Collection<Drawable> highLighted, Style highlight, SyncAccess modelSync) {
+        this.circuit = circuit;
+        circuit.createDots();
+
+        final Vector cMin = min.add(-CULL_MARGIN, -CULL_MARGIN);
+        final Vector cMax = max.add(CULL_MARGIN, CULL_MARGIN);
+        items.clear();
+        int[] box = new int[4];
+        for (Wire w : circuit.getIndex().getWires(circuit.getWires(), cMin, cMax)) {
+            CircuitIndex.getWireBox(w, box);
+            if (intersects(box, cMin, cMax))
+                items.add(new Item(w, w, true));
+        }
+        for (VisualElement ve : circuit.getIndex().getElements(circuit.getElements(), cMin, cMax)) {
+            CircuitIndex.getElementBox(ve, box);
+            if (intersects(box, cMin, cMax))
+                items.add(new Item(ve, ve.getShape(), false));
+        }
+
+        // reads the models state which is a fast operation
+        modelSync.access(this::readItems);
+
+        drawnElements = 0;
+        drawnWires = 0;
+        for (Item i : items)
+            i.style = highLighted.contains(i.drawable) ? highlight : null;
+        drawItems(graphic, null);
+    }
+
+    /**
+     * Reads the models state of the items drawn by the last call of
+     * {@link #paint(Circuit, Graphic, Vector, Vector, Collection, Style, SyncAccess)} and
+     * returns the regions which need to be redrawn because the appearance of an item has changed.
+     *
+     * @param highLighted a list of Drawables to highlight
+     * @param highlight   style used to draw the highlighted elements
+     * @param modelSync   sync interface to access the model. Is locked while reading the models state
+     * @return the regions to redraw, empty if nothing has changed
+     */
+    public List<Region> update(Collection<Drawable> highLighted, Style highlight, SyncAccess modelSync) {
+        lock.lock();
+        try {
+            modelSync.access(this::readItems);
+            return getDirtyRegions(highLighted, highlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the regions which need to be redrawn because the appearance of an item has changed.
+     * The models state is not read. Instead the state read by the last call of
+     * {@link #readObservableValues()} is used.
+     *
+     * @param highLighted a list of Drawables to highlight
+     * @param highlight   style used to draw the highlighted elements
+     * @return the regions to redraw, empty if nothing has changed
+     */
+    public List<Region> update(Collection<Drawable> highLighted, Style highlight) {
+        lock.lock();
+        try {
+            return getDirtyRegions(highLighted, highlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the models state of the items drawn by the last call of
+     * {@link #paint(Circuit, Graphic, Vector, Vector, Collection, Style, SyncAccess)}.
+     * Needs to be called by a thread which holds the model lock, typically by the simulation
+     * thread after a step is complete. Does nothing if the painter is busy.
+     *
+     * @return true if the state was read, false if the painter was busy
+     */
+    public boolean readObservableValues() {
+        if (!lock.tryLock())
+            return false;
+        try {
+            readItems();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void readItems() {
+        for (Item i : items)
+            i.reader.readObservableValues();
+    }
+
+    private List<Region> getDirtyRegions(Collection<Drawable> highLighted, Style highlight) {
+        drawnElements = 0;
+        drawnWires = 0;
+        ArrayList<Region> regions = new ArrayList<>();
+        for (Item i : items) {
+            Style style = highLighted.contains(i.drawable) ? highlight : null;
+            GraphicHash h = new GraphicHash(null);
+            i.drawable.drawTo(h, style);
+            if (h.getHash() != i.hash || style != i.style) {
+                Region r = i.getRegion();
+                i.set(h, style);
+                Region n = i.getRegion();
+                if (r == null)
+                    r = n;
+                else if (n != null)
+                    r = r.union(n);
+                if (r != null)
+                    addRegion(regions, r);
+            }
+        }
+
+        if (regions.size() > MAX_REGIONS) {
+            Region all = regions.get(0);
+            for (Region r : regions)
+                all = all.union(r);
+            regions.clear();
+            regions.add(all);
+        }
+        return regions;
+    }
+
+    private static void addRegion(ArrayList<Region> regions, Region region) {
+        int i = 0;
+        while (i < regions.size()) {
+            Region r = regions.get(i);
+            if (r.intersects(region)) {
+                region = region.union(r);
+                regions.remove(i);
+                i = 0;
+            } else
+                i++;
+        }
+        regions.add(region);
+    }
+
+    /**
+     * Draws all the items which intersect the given region.
+     * The region needs to be cleared and clipped by the caller.
+     *
+     * @param graphic the graphic instance used
+     * @param region  the region to redraw
+     */
+    public void redraw(Graphic graphic, Region region) {
+        lock.lock();
+        try {
+            drawItems(graphic, region);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drawItems(Graphic graphic, Region region) {
+        graphic.openGroup();
+        for (Item i : items)
+            if (i.isWire && (region == null || region.intersects(i.getRegion()))) {
+                i.draw(graphic);
+                drawnWires++;
+            }
+        graphic.closeGroup();
+        for (Item i : items)
+            if (!i.isWire && (region == null || region.intersects(i.getRegion()))) {
+                graphic.openGroup();
+                i.draw(graphic);
+                graphic.closeGroup();
+                drawnElements++;
+            }
+
+        circuit.drawDebugRects(graphic);
+    }
+
+    private static boolean intersects(int[] box, Vector min, Vector max) {
+        return box[0] <= max.x && min.x <= box[2] && box[1] <= max.y && min.y <= box[3];
+    }
+
+    /**
+     * @return the number of elements drawn since the last paint or update
+     */
+    public int getDrawnElements() {
+        return drawnElements;
+    }
+
+    /**
+     * @return the number of wires drawn since the last paint or update
+     */
+    public int getDrawnWires() {
+        return drawnWires;
+    }
+
+    /**
+     * A rectangular region of the circuit
+     */
+    public static final class Region {
+        private final Vector min;
+        private final Vector max;
+
+        private Region(Vector min, Vector max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        private Region union(Region r) {
+            return new Region(Vector.min(min, r.min), Vector.max(max, r.max));
+        }
+
+        private boolean intersects(Region r) {
+            return r != null && r.min.x <= max.x && min.x <= r.max.x && r.min.y <= max.y && min.y <= r.max.y;
+        }
+
+        /**
+         * @return the upper left corner of the region
+         */
+        public Vector getMin() {
+            return min;
+        }
+
+        /**
+         * @return the lower right corner of the region
+         */
+        public Vector getMax() {
+            return max;
+        }
+    }
+
+    private static final class Item {
+        private final Drawable drawable;
+        private final ObservableValueReader reader;
+        private final boolean isWire;
+        private Style style;
+        private long hash;
+        private Region region;
+
+        private Item(Drawable drawable, ObservableValueReader reader, boolean isWire) {
+            this.drawable = drawable;
+            this.reader = reader;
+            this.isWire = isWire;
+        }
+
+        private void draw(Graphic graphic) {
+            GraphicHash h = new GraphicHash(graphic);
+            drawable.drawTo(h, style);
+            set(h, style);
+        }
+
+        private void set(GraphicHash h, Style style) {
+            this.style = style;
+            hash = h.getHash();
+            if (h.getMin() == null)
+                region = null;
+            else
+                region = new Region(h.getMin().add(-LINE_MARGIN, -LINE_MARGIN), h.getMax().add(LINE_MARGIN, LINE_MARGIN));
+        }
+
+        private Region getRegion() {
+            return region;
+        }
+    }
+}
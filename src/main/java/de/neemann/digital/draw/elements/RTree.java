@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A static R-tree of rectangles identified by their index.
+ * The tree is bulk loaded by the sort tile recursive method: The rectangles are sorted
+ * in vertical slices by their x coordinate and within every slice by their y coordinate.
+ * Then every group of {@link #NODE_SIZE} rectangles forms a leaf, and every group of
+ * {@link #NODE_SIZE} nodes forms a node of the next level.
+ */
+final class RTree {
+    private static final int NODE_SIZE = 16;
+
+    private final int[] ids;
+    // the bounding boxes of every level, level zero contains the rectangles in the order of ids
+    private final int[][] minX;
+    private final int[][] minY;
+    private final int[][] maxX;
+    private final int[][] maxY;
+
+    /**
+     * Creates a new tree. The rectangle i is given by the i-th entry of the arrays.
+     *
+     * @param x1 the minimal x coordinates
+     * @param y1 the minimal y coordinates
+     * @param x2 the maximal x coordinates
+     * @param y2 the maximal y coordinates
+     */
+    RTree(int[] x1, int[] y1, int[] x2, int[] y2) {
+        final int n = x1.length;
+        ids = sortTileRecursive(x1, y1, x2, y2);
+
+        int levels = 1;
+        for (int size = n; size > NODE_SIZE; size = (size + NODE_SIZE - 1) / NODE_SIZE)
+            levels++;
+        minX = new int[levels][];
+        minY = new int[levels][];
+        maxX = new int[levels][];
+        maxY = new int[levels][];
+
+        minX[0] = new int[n];
+        minY[0] = new int[n];
+        maxX[0] = new int[n];
+        maxY[0] = new int[n];
+        for (int i = 0; i < n; i++) {
+            final int id = ids[i];
+            minX[0][i] = x1[id];
+            minY[0][i] = y1[id];
+            maxX[0][i] = x2[id];
+            maxY[0][i] = y2[id];
+        }
+
+        for (int l = 1; l < levels; l++) {
+            final int lower = minX[l - 1].length;
+            final int size = (lower + NODE_SIZE - 1) / NODE_SIZE;
+            minX[l] = new int[size];
+            minY[l] = new int[size];
+            maxX[l] = new int[size];
+            maxY[l] = new int[size];
+            for (int i = 0; i < size; i++) {
+                final int start = i * NODE_SIZE;
+                final int end = Math.min(start + NODE_SIZE, lower);
+                minX[l][i] = min(minX[l - 1], start, end);
+                minY[l][i] = min(minY[l - 1], start, end);
+                maxX[l][i] = max(maxX[l - 1], start, end);
+                maxY[l][i] = max(maxY[l - 1], start, end);
+            }
+        }
+    }
+
+    private static int[] sortTileRecursive(int[] x1, int[] y1, int[] x2, int[] y2) {
+        final int n = x1.length;
+        // the keys contain the doubled center coordinate in the upper and the id in the lower bits
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = ((long) x1[i] + x2[i]) << 32 | i;
+        Arrays.sort(keys);
+
+        final int leaves = (n + NODE_SIZE - 1) / NODE_SIZE;
+        final int slices = (int) Math.ceil(Math.sqrt(leaves));
+        final int sliceSize = slices * NODE_SIZE;
+        for (int s = 0; s < n; s += sliceSize) {
+            final int e = Math.min(s + sliceSize, n);
+            for (int i = s; i < e; i++) {
+                final int id = (int) keys[i];
+                keys[i] = ((long) y1[id] + y2[id]) << 32 | id;
+            }
+            Arrays.sort(keys, s, e);
+        }
+
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++)
+            sorted[i] = (int) keys[i];
+        return sorted;
+    }
+
+    private static int min(int[] values, int start, int end) {
+        int m = values[start];
+        for (int i = start + 1; i < end; i++)
+            m = Math.min(m, values[i]);
+        return m;
+    }
+
+    private static int max(int[] values, int start, int end) {
+        int m = values[start];
+        for (int i = start + 1; i < end; i++)
+            m = Math.max(m, values[i]);
+        return m;
+    }
+
+    /**
+     * Calls the consumer with the index of every rectangle which intersects the given rectangle.
+     * The order of the indices is not specified.
+     *
+     * @param x1    the minimal x coordinate
+     * @param y1    the minimal y coordinate
+     * @param x2    the maximal x coordinate
+     * @param y2    the maximal y coordinate
+     * @param found the consumer
+     */
+    void query(int x1, int y1, int x2, int y2, IntConsumer found) {
+        final int top = minX.length - 1;
+        for (int i = 0; i < minX[top].length; i++)
+            query(top, i, x1, y1, x2, y2, found);
+    }
+
+    private void query(int level, int i, int x1, int y1, int x2, int y2, IntConsumer found) {
+        if (maxX[level][i] < x1 || x2 < minX[level][i] || maxY[level][i] < y1 || y2 < minY[level][i])
+            return;
+        if (level == 0)
+            found.accept(ids[i]);
+        else {
+            final int start = i * NODE_SIZE;
+            final int end = Math.min(start + NODE_SIZE, minX[level - 1].length);
+            for (int c = start; c < end; c++)
+                query(level - 1, c, x1, y1, x2, y2, found);
+        }
+    }
+}
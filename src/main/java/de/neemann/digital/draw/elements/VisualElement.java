@@ -28,6 +28,7 @@ public class VisualElement implements Drawable, Movable, AttributeListener {
     private static final int PIN = 2;
 
     private transient GraphicMinMax minMax;
+    private transient int geometryVersion;
     private transient GraphicMinMax minMaxText;
     private transient IOState ioState;
     private transient InteractorInterface interactor;
@@ -110,6 +111,16 @@ public class VisualElement implements Drawable, Movable, AttributeListener {
         transform = null;
         minMax = null;
         minMaxText = null;
+        geometryVersion++;
+    }
+
+    /**
+     * The version is incremented every time the position or the shape of this element is changed.
+     *
+     * @return the version of the geometry of this element
+     */
+    int getGeometryVersion() {
+        return geometryVersion;
     }
 
     /**
@@ -47,6 +47,7 @@ public class Wire implements Drawable, Movable, ObservableValueReader {
     private transient boolean p2Dot;
     private transient int bits;
     private transient boolean isConnectedToSplitter;
+    private transient int geometryVersion;
 
     /**
      * Creates anew wire
@@ -131,6 +132,7 @@ public class Wire implements Drawable, Movable, ObservableValueReader {
     public void move(Vector delta) {
         p1 = p1.add(delta);
         p2 = p2.add(delta);
+        geometryVersion++;
     }
 
     @Override
@@ -146,6 +148,7 @@ public class Wire implements Drawable, Movable, ObservableValueReader {
      */
     public void setP1(Vector p1) {
         this.p1 = p1;
+        geometryVersion++;
     }
 
     /**
@@ -156,6 +159,16 @@ public class Wire implements Drawable, Movable, ObservableValueReader {
      */
     public void setP2(Vector p2) {
         this.p2 = p2;
+        geometryVersion++;
+    }
+
+    /**
+     * The version is incremented every time a point of this wire is changed by a method of this class.
+     *
+     * @return the version of the geometry of this wire
+     */
+    int getGeometryVersion() {
+        return geometryVersion;
     }
 
     /**
@@ -297,6 +310,7 @@ public class Wire implements Drawable, Movable, ObservableValueReader {
             @Override
             public void move(Vector delta) {
                 p1 = p1.add(delta);
+                geometryVersion++;
             }
 
             @Override
@@ -314,6 +328,7 @@ public class Wire implements Drawable, Movable, ObservableValueReader {
             @Override
             public void move(Vector delta) {
                 p2 = p2.add(delta);
+                geometryVersion++;
             }
 
             @Override
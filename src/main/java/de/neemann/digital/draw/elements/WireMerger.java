@@ -9,7 +9,10 @@ import de.neemann.digital.draw.graphics.Vector;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Merges colinear wires
@@ -91,6 +94,7 @@ public class WireMerger {
         private int wireClass;
         private int s1;
         private int s2;
+        private int number;
 
         /**
          * Creates a new instance
@@ -162,45 +166,69 @@ public class WireMerger {
 
     }
 
+    /**
+     * The wires of a single wire class.
+     * The wires are stored in a map ordered by their first coordinate. The wires in the map do
+     * not overlap, so the wires overlapping a new wire are found without visiting all wires.
+     * Every wire gets a number in the order it was added. If a changed wire overlaps more than
+     * one wire, the wire with the smallest number is merged first, and the wires are returned
+     * ordered by their numbers. So the result is the same as if the wires were kept in a list.
+     */
     private class WireContainer {
         private int wireClass;
-        private ArrayList<SimpleWire> wires;
+        private TreeMap<Integer, SimpleWire> wires;
+        private int nextNumber;
 
         WireContainer(int wireClass) {
             this.wireClass = wireClass;
-            wires = new ArrayList<>();
+            wires = new TreeMap<>();
         }
 
         public void add(SimpleWire newSimpleWire) {
-            wires.add(newSimpleWire);
-            simplify(newSimpleWire);
-        }
-
-        private void simplify(SimpleWire changedWire) {
-            for (SimpleWire wire : wires) {
-                if (!wire.equals(changedWire)) {
-                    if (wire.tryMerge(changedWire)) {
-                        wires.remove(changedWire);
-                        simplify(wire);
-                        return;
-                    }
-                }
+            newSimpleWire.number = nextNumber++;
+            SimpleWire changedWire = newSimpleWire;
+            SimpleWire wire;
+            while ((wire = firstOverlapping(changedWire)) != null) {
+                wires.remove(wire.s1);
+                wire.tryMerge(changedWire);
+                changedWire = wire;
+            }
+            wires.put(changedWire.s1, changedWire);
+        }
+
+        /**
+         * Returns the wire with the smallest number which overlaps the given wire.
+         * The ends of the wires ascend together with their starts, so the search stops at
+         * the first wire which ends before the given wire starts.
+         */
+        private SimpleWire firstOverlapping(SimpleWire changedWire) {
+            SimpleWire first = null;
+            for (SimpleWire wire : wires.headMap(changedWire.s2, true).descendingMap().values()) {
+                if (wire.s2 < changedWire.s1)
+                    break;
+                if (first == null || wire.number < first.number)
+                    first = wire;
             }
+            return first;
         }
 
         public void addTo(ArrayList<Wire> list) {
-            for (SimpleWire sw : wires)
+            ArrayList<SimpleWire> ordered = new ArrayList<>(wires.values());
+            ordered.sort(Comparator.comparingInt(sw -> sw.number));
+            for (SimpleWire sw : ordered)
                 list.add(handler.toWire(sw));
         }
 
         public void protect(int s) {
-            int len = wires.size();
-            for (int i = 0; i < len; i++) {
-                SimpleWire sw = wires.get(i);
+            Map.Entry<Integer, SimpleWire> e = wires.lowerEntry(s);
+            if (e != null) {
+                SimpleWire sw = e.getValue();
                 if (sw.containsAsInner(s)) {
                     int s2 = sw.s2;
                     sw.s2 = s;
-                    wires.add(new SimpleWire(wireClass, s, s2));
+                    SimpleWire newWire = new SimpleWire(wireClass, s, s2);
+                    newWire.number = nextNumber++;
+                    wires.put(s, newWire);
                 }
             }
         }
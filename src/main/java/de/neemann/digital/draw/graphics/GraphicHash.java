@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.graphics;
+
+/**
+ * Computes a hash of all the drawing operations and the bounding box of the drawn items.
+ * If two sequences of drawing operations have the same hash, they will produce the same pixels.
+ * If a parent is given, all operations are also passed to the parent, so that an item can
+ * be drawn and hashed at once.
+ */
+public final class GraphicHash implements Graphic {
+    private static final long PRIME = 0x100000001b3L;
+
+    private final Graphic parent;
+    private final GraphicMinMax minMax;
+    private long hash = 0xcbf29ce484222325L;
+
+    /**
+     * Creates a new instance
+     *
+     * @param parent the graphic to draw to, maybe null
+     */
+    public GraphicHash(Graphic parent) {
+        this.parent = parent;
+        minMax = new GraphicMinMax(true, parent);
+    }
+
+    private void add(long value) {
+        hash = (hash ^ value) * PRIME;
+    }
+
+    private void add(VectorInterface v) {
+        add(Float.floatToIntBits(v.getXFloat()));
+        add(Float.floatToIntBits(v.getYFloat()));
+    }
+
+    private void add(Style style) {
+        add(style.getThickness());
+        add(style.isFilled() ? 1 : 0);
+        add(style.getColor().getRGB());
+        add(style.getFontSize());
+        add(style.getFontStyle());
+        final float[] dash = style.getDash();
+        if (dash != null)
+            for (float d : dash)
+                add(Float.floatToIntBits(d));
+    }
+
+    @Override
+    public void drawLine(VectorInterface p1, VectorInterface p2, Style style) {
+        add(1);
+        add(p1);
+        add(p2);
+        add(style);
+        minMax.drawLine(p1, p2, style);
+        if (parent != null)
+            parent.drawLine(p1, p2, style);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p, Style style) {
+        add(p.isClosed() ? 2 : 3);
+        for (int i = 0; i < p.size(); i++) {
+            add(p.get(i));
+            if (p.isBezierStart(i))
+                add(i);
+        }
+        add(style);
+        minMax.drawPolygon(p, style);
+        if (parent != null)
+            parent.drawPolygon(p, style);
+    }
+
+    @Override
+    public void drawCircle(VectorInterface p1, VectorInterface p2, Style style) {
+        add(4);
+        add(p1);
+        add(p2);
+        add(style);
+        minMax.drawCircle(p1, p2, style);
+        if (parent != null)
+            parent.drawCircle(p1, p2, style);
+    }
+
+    @Override
+    public void drawText(VectorInterface p1, VectorInterface p2, String text, Orientation orientation, Style style) {
+        add(5);
+        add(p1);
+        add(p2);
+        if (text != null)
+            for (int i = 0; i < text.length(); i++)
+                add(text.charAt(i));
+        add(orientation.ordinal());
+        add(style);
+        minMax.drawText(p1, p2, text, orientation, style);
+        if (parent != null)
+            parent.drawText(p1, p2, text, orientation, style);
+    }
+
+    @Override
+    public void openGroup() {
+        if (parent != null)
+            parent.openGroup();
+    }
+
+    @Override
+    public void closeGroup() {
+        if (parent != null)
+            parent.closeGroup();
+    }
+
+    @Override
+    public boolean isFlagSet(String name) {
+        return parent != null && parent.isFlagSet(name);
+    }
+
+    /**
+     * @return the hash of all drawing operations
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the upper left corner of the drawn items, null if nothing was drawn
+     */
+    public Vector getMin() {
+        return minMax.getMin();
+    }
+
+    /**
+     * @return the lower right corner of the drawn items, null if nothing was drawn
+     */
+    public Vector getMax() {
+        return minMax.getMax();
+    }
+}
@@ -12,8 +12,8 @@ import de.neemann.digital.core.element.Element;
 import de.neemann.digital.draw.elements.Circuit;
 import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.elements.VisualElement;
+import de.neemann.digital.draw.model.CircuitTemplate;
 import de.neemann.digital.draw.model.ModelCreator;
-import de.neemann.digital.draw.model.NetList;
 import de.neemann.digital.lang.Lang;
 
 /**
@@ -26,7 +26,8 @@ public class CustomElement implements Element {
 
     private final Circuit circuit;
     private final ElementLibrary library;
-    private NetList netList;
+    private ElementLibrary.ElementTypeDescriptionCustom description;
+    private CircuitTemplate template;
 
     /**
      * Creates a new custom element
@@ -52,13 +53,28 @@ public class CustomElement implements Element {
      * @throws ElementNotFoundException ElementNotFoundException
      */
     public ModelCreator getModelCreator(String subName, int depth, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
-        if (netList == null)
-            netList = new NetList(circuit);
-
         if (depth > MAX_DEPTH)
             throw new NodeException(Lang.get("err_recursiveNestingAt_N0", circuit.getOrigin()));
 
-        return new ModelCreator(circuit, library, true, new NetList(netList, containingVisualElement), subName, depth, containingVisualElement);
+        return new ModelCreator(getTemplate(), library, subName, depth, containingVisualElement);
+    }
+
+    private CircuitTemplate getTemplate() throws PinException {
+        if (description != null)
+            return description.getTemplate();
+        if (template == null)
+            template = new CircuitTemplate(circuit);
+        return template;
+    }
+
+    /**
+     * Sets the description this element was created by.
+     * The description holds the template which is shared by all instances of the circuit.
+     *
+     * @param description the description
+     */
+    void setDescription(ElementLibrary.ElementTypeDescriptionCustom description) {
+        this.description = description;
     }
 
     @Override
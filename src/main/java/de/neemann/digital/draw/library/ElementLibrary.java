@@ -8,6 +8,7 @@ package de.neemann.digital.draw.library;
 import de.neemann.digital.core.arithmetic.*;
 import de.neemann.digital.core.arithmetic.Comparator;
 import de.neemann.digital.core.basic.*;
+import de.neemann.digital.core.element.Element;
 import de.neemann.digital.core.element.ElementAttributes;
 import de.neemann.digital.core.element.ElementFactory;
 import de.neemann.digital.core.element.ElementTypeDescription;
@@ -25,6 +26,7 @@ import de.neemann.digital.core.wiring.*;
 import de.neemann.digital.draw.elements.Circuit;
 import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.elements.Tunnel;
+import de.neemann.digital.draw.model.CircuitTemplate;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.gui.Settings;
 import de.neemann.digital.gui.components.data.DummyElement;
@@ -343,7 +345,7 @@ public class ElementLibrary implements Iterable<ElementLibrary.ElementContainer>
      * @param rootLibraryPath the path
      * @throws IOException IOException
      */
-    public void setRootFilePath(File rootLibraryPath) throws IOException {
+    public synchronized void setRootFilePath(File rootLibraryPath) throws IOException {
         if (rootLibraryPath == null) {
             if (this.rootLibraryPath != null) {
                 this.rootLibraryPath = null;
@@ -386,19 +388,20 @@ public class ElementLibrary implements Iterable<ElementLibrary.ElementContainer>
      * @param elementName the name
      * @return the node or null
      */
-    public LibraryNode getElementNodeOrNull(String elementName) {
+    public synchronized LibraryNode getElementNodeOrNull(String elementName) {
         return map.get(elementName);
     }
 
     /**
      * Returns a {@link ElementTypeDescription} by a given name.
      * If not found its tried to load it.
+     * The library is used as a cache which is shared by all threads, so this method is synchronized.
      *
      * @param elementName the elements name
      * @return the {@link ElementTypeDescription}
      * @throws ElementNotFoundException ElementNotFoundException
      */
-    public ElementTypeDescription getElementType(String elementName) throws ElementNotFoundException {
+    public synchronized ElementTypeDescription getElementType(String elementName) throws ElementNotFoundException {
         try {
             LibraryNode node = map.get(elementName);
             if (node != null)
@@ -510,7 +513,7 @@ public class ElementLibrary implements Iterable<ElementLibrary.ElementContainer>
      * @param name the elements name
      * @throws IOException IOException
      */
-    public void invalidateElement(File name) throws IOException {
+    public synchronized void invalidateElement(File name) throws IOException {
         LibraryNode n = map.get(name.getName());
         if (n != null)
             n.invalidate();
@@ -525,7 +528,7 @@ public class ElementLibrary implements Iterable<ElementLibrary.ElementContainer>
      *
      * @throws IOException IOException
      */
-    public void updateEntries() throws IOException {
+    public synchronized void updateEntries() throws IOException {
         rescanFolder();
     }
 
@@ -590,6 +593,7 @@ public class ElementLibrary implements Iterable<ElementLibrary.ElementContainer>
         private final File file;
         private final Circuit circuit;
         private String description;
+        private CircuitTemplate template;
 
         /**
          * Creates a new element
@@ -633,6 +637,28 @@ public class ElementLibrary implements Iterable<ElementLibrary.ElementContainer>
             return circuit;
         }
 
+        /**
+         * Returns the template which is used to create the instances of the circuit.
+         * It is created on first use and dropped together with this description if
+         * the element is invalidated.
+         *
+         * @return the template
+         * @throws PinException PinException
+         */
+        public synchronized CircuitTemplate getTemplate() throws PinException {
+            if (template == null)
+                template = new CircuitTemplate(circuit);
+            return template;
+        }
+
+        @Override
+        public Element createElement(ElementAttributes elementAttributes) {
+            Element element = super.createElement(elementAttributes);
+            if (element instanceof CustomElement)
+                ((CustomElement) element).setDescription(this);
+            return element;
+        }
+
         /**
          * Sets a custom description for this field
          *
@@ -36,7 +36,7 @@ public class LibraryNode implements Iterable<LibraryNode> {
     private final String name;
     private final File file;
     private final boolean isHidden;
-    private ElementTypeDescription description;
+    private volatile ElementTypeDescription description;
     private String toolTipText;
     private ImageIcon icon;
     private ElementLibrary library;
@@ -153,24 +153,32 @@ public class LibraryNode implements Iterable<LibraryNode> {
     }
 
     /**
-     * Returns the description of the element
+     * Returns the description of the element.
+     * If the description is not loaded yet, it is loaded while holding the lock of
+     * the library, so a circuit is parsed only once even if used by several threads.
      *
      * @return the description
      * @throws IOException IOException
      */
     public ElementTypeDescription getDescription() throws IOException {
-        if (description == null) {
-            if (!unique)
-                throw new IOException(Lang.get("err_file_N0_ExistsTwiceBelow_N1", file.getName(), library.getRootFilePath()));
-            try {
-                description = library.importElement(file);
-            } catch (IOException e) {
-                descriptionImportError = true;
-                throw e;
+        ElementTypeDescription d = description;
+        if (d != null)
+            return d;
+
+        synchronized (library) {
+            if (description == null) {
+                if (!unique)
+                    throw new IOException(Lang.get("err_file_N0_ExistsTwiceBelow_N1", file.getName(), library.getRootFilePath()));
+                try {
+                    description = library.importElement(file);
+                } catch (IOException e) {
+                    descriptionImportError = true;
+                    throw e;
+                }
+                library.fireLibraryChanged(this);
             }
-            library.fireLibraryChanged(this);
+            return description;
         }
-        return description;
     }
 
     /**
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.model;
+
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.element.ElementTypeDescription;
+import de.neemann.digital.core.element.PinDescriptions;
+import de.neemann.digital.draw.elements.*;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * The connectivity of a circuit which does not depend on the instance the circuit is used in.
+ * It holds the nets of the circuit, the pins of all elements and the net every pin is connected to.
+ * The connectivity is not modified after the creation of the template, so the template of an
+ * embedded circuit is created once and shared by all of its instances, also if models are
+ * created concurrently.
+ */
+public final class CircuitTemplate {
+    private final Circuit circuit;
+    private final NetList netList;
+    private final ArrayList<VisualElement> elements;
+    private final Pin[][] pins;
+    private final int[][] pinNets;
+    private final ElementTypeDescription[] inputTypes;
+    private final PinDescriptions[] inputs;
+
+    /**
+     * Creates the template of the given circuit
+     *
+     * @param circuit the circuit
+     * @throws PinException PinException
+     */
+    public CircuitTemplate(Circuit circuit) throws PinException {
+        this.circuit = circuit;
+        netList = new NetList(circuit);
+        elements = new ArrayList<>(circuit.getElements());
+
+        IdentityHashMap<Net, Integer> netIndex = new IdentityHashMap<>();
+        for (Net n : netList)
+            netIndex.put(n, netIndex.size());
+
+        inputTypes = new ElementTypeDescription[elements.size()];
+        inputs = new PinDescriptions[elements.size()];
+        pins = new Pin[elements.size()][];
+        pinNets = new int[elements.size()][];
+        for (int e = 0; e < elements.size(); e++) {
+            Pins elementPins = elements.get(e).getPins();
+            pins[e] = new Pin[elementPins.size()];
+            pinNets[e] = new int[elementPins.size()];
+            for (int p = 0; p < elementPins.size(); p++) {
+                Pin pin = elementPins.get(p);
+                pins[e][p] = pin;
+                Net net = netList.getNetOfPos(pin.getPos());
+                pinNets[e][p] = net == null ? -1 : netIndex.get(net);
+            }
+        }
+    }
+
+    /**
+     * @return the circuit
+     */
+    public Circuit getCircuit() {
+        return circuit;
+    }
+
+    /**
+     * @return the number of elements in the circuit
+     */
+    public int getElementCount() {
+        return elements.size();
+    }
+
+    /**
+     * Returns the visual element with the given index
+     *
+     * @param index the index
+     * @return the visual element
+     */
+    public VisualElement getElement(int index) {
+        return elements.get(index);
+    }
+
+    /**
+     * Creates new pins of the element with the given index
+     *
+     * @param index the index of the element
+     * @return the pins
+     */
+    public Pins createPins(int index) {
+        final VisualElement ve = elements.get(index);
+        Pins p = new Pins();
+        for (Pin pin : pins[index])
+            p.add(new Pin(pin.getPos(), pin).setVisualElement(ve));
+        return p;
+    }
+
+    /**
+     * Returns the input description of the element with the given index.
+     * The description is cached, as long as the type of the element does not change.
+     *
+     * @param index       the index of the element
+     * @param elementType the type of the element
+     * @return the input description
+     * @throws NodeException NodeException
+     */
+    synchronized PinDescriptions getInputDescription(int index, ElementTypeDescription elementType) throws NodeException {
+        if (inputTypes[index] != elementType) {
+            inputs[index] = elementType.getInputDescription(elements.get(index).getElementAttributes());
+            inputTypes[index] = elementType;
+        }
+        return inputs[index];
+    }
+
+    /**
+     * Adds the pins of the element with the given index to the matching nets.
+     * The net list must be created by this template.
+     *
+     * @param netList the net list
+     * @param index   the index of the element
+     * @param p       the pins created by {@link #createPins(int)}
+     */
+    void addPins(NetList netList, int index, Pins p) {
+        final int[] nets = pinNets[index];
+        for (int i = 0; i < nets.length; i++)
+            if (nets[i] >= 0)
+                netList.add(nets[i], p.get(i));
+    }
+
+    /**
+     * Creates a new net list containing the nets of this template without any pins.
+     *
+     * @param containingVisualElement the containing visual element, only used to create better error messages
+     * @return the net list
+     */
+    NetList createNetList(VisualElement containingVisualElement) {
+        return new NetList(netList, containingVisualElement);
+    }
+
+    /**
+     * Returns the net list of the template itself.
+     * Only allowed if the template is used a single time.
+     *
+     * @return the net list
+     */
+    NetList getNetList() {
+        return netList;
+    }
+}
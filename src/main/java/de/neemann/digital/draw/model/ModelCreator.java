@@ -63,16 +63,15 @@ public class ModelCreator implements Iterable<ModelEntry> {
      * @throws ElementNotFoundException ElementNotFoundException
      */
     public ModelCreator(Circuit circuit, ElementLibrary library, boolean readAsCustom) throws PinException, NodeException, ElementNotFoundException {
-        this(circuit, library, readAsCustom, new NetList(circuit), "", 0, null);
+        this(new CircuitTemplate(circuit), false, library, readAsCustom, "", 0, null);
     }
 
     /**
-     * Creates a new instance
+     * Creates a new instance of a nested circuit from the given template.
+     * The template is not modified, so it can be used to create all instances of the circuit.
      *
-     * @param circuit                 the circuit to use
+     * @param template                the template of the circuit
      * @param library                 the library to use
-     * @param isNestedCircuit         if true the model is created for use as nested element
-     * @param netList                 the NetList of the model. If known it is not necessary to create it.
      * @param subName                 name of the circuit, used to name unique elements
      * @param depth                   recursion depth, used to detect a circuit which contains itself
      * @param containingVisualElement the topmost containing visual element
@@ -80,9 +79,16 @@ public class ModelCreator implements Iterable<ModelEntry> {
      * @throws NodeException            NodeException
      * @throws ElementNotFoundException ElementNotFoundException
      */
-    public ModelCreator(Circuit circuit, ElementLibrary library, boolean isNestedCircuit, NetList netList, String subName, int depth, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
-        this.circuit = circuit;
-        this.netList = netList;
+    public ModelCreator(CircuitTemplate template, ElementLibrary library, String subName, int depth, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
+        this(template, true, library, true, subName, depth, containingVisualElement);
+    }
+
+    private ModelCreator(CircuitTemplate template, boolean sharedTemplate, ElementLibrary library, boolean isNestedCircuit, String subName, int depth, VisualElement containingVisualElement) throws PinException, NodeException, ElementNotFoundException {
+        this.circuit = template.getCircuit();
+        if (sharedTemplate)
+            netList = template.createNetList(containingVisualElement);
+        else
+            netList = template.getNetList();
         entries = new ArrayList<>();
         if (isNestedCircuit)
             ioMap = new HashMap<>();
@@ -93,12 +99,13 @@ public class ModelCreator implements Iterable<ModelEntry> {
             checkWiresForSplitterConnection(circuit);
 
         try {
-            for (VisualElement ve : circuit.getElements()) {
+            for (int i = 0; i < template.getElementCount(); i++) {
+                VisualElement ve = template.getElement(i);
                 VisualElement cve = ve;
                 if (containingVisualElement != null)
                     cve = containingVisualElement;
 
-                Pins pins = ve.getPins();
+                Pins pins = template.createPins(i);
                 ElementTypeDescription elementType = library.getElementType(ve.getElementName());
                 ElementAttributes attr = ve.getElementAttributes();
                 if (attr.getCleanLabel().contains("*")
@@ -134,17 +141,14 @@ public class ModelCreator implements Iterable<ModelEntry> {
                 }
 
                 if (isNotAIO)
-                    entries.add(new ModelEntry(element, pins, ve, elementType.getInputDescription(ve.getElementAttributes()), isNestedCircuit, circuit.getOrigin(), cve));
+                    entries.add(new ModelEntry(element, pins, ve, template.getInputDescription(i, elementType), isNestedCircuit, circuit.getOrigin(), cve));
 
-                for (Pin p : pins)
-                    netList.add(p);
+                template.addPins(netList, i, pins);
             }
 
             // connect all custom elements to the parents net
             ArrayList<ModelCreator> modelCreators = new ArrayList<>();
-            Iterator<ModelEntry> it = entries.iterator();
-            while (it.hasNext()) {
-                ModelEntry me = it.next();
+            for (ModelEntry me : entries) {
                 if (me.getElement() instanceof CustomElement) {        // at first look for custom elements
                     CustomElement ce = (CustomElement) me.getElement();
                     ModelCreator child = ce.getModelCreator(
@@ -197,10 +201,10 @@ public class ModelCreator implements Iterable<ModelEntry> {
                     // remove connected nets form child
                     for (Net childNet : netMatch.keySet())
                         child.remove(childNet);
-
-                    it.remove();
                 }
             }
+            // the custom elements are replaced by their content
+            entries.removeIf(me -> me.getElement() instanceof CustomElement);
             for (ModelCreator md : modelCreators) {       // put the elements of the custom element to the parent
                 entries.addAll(md.entries);
                 netList.add(md.netList);
@@ -65,6 +65,22 @@ public class Net {
         labelSet = new HashSet<>();
     }
 
+    /**
+     * Creates a net containing the given connected wires
+     *
+     * @param wires the wires
+     */
+    Net(ArrayList<Wire> wires) {
+        points = new HashSet<>();
+        for (Wire w : wires) {
+            points.add(w.p1);
+            points.add(w.p2);
+        }
+        pins = new ArrayList<>();
+        this.wires = wires;
+        labelSet = new HashSet<>();
+    }
+
     /**
      * Tries to add the given wire to this net
      *
@@ -95,6 +111,13 @@ public class Net {
         return points.contains(vector);
     }
 
+    /**
+     * @return the end points of the wires of this net
+     */
+    Collection<Vector> getPoints() {
+        return points;
+    }
+
     /**
      * Add all wires of the given net to this net
      *
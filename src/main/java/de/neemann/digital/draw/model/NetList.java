@@ -11,14 +11,25 @@ import de.neemann.digital.draw.graphics.Vector;
 import de.neemann.digital.lang.Lang;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 /**
- * Holds all the nets in a circuit
+ * Holds all the nets in a circuit.
+ * The nets are created by a union-find over the wire end points, so a circuit with many
+ * wires is processed in nearly linear time. The positions of the nets are stored in a hash
+ * map, which is used to find the net of a pin or a tunnel. Also the net a pin is added to
+ * is stored, so the net of a pin is found without searching all nets.
  */
 public class NetList implements Iterable<Net> {
 
     private final ArrayList<Net> netList;
+    private HashMap<Vector, Net> pointIndex;
+    private final HashMap<Pin, Net> pinIndex;
+    private boolean containsForeignNets;
 
     /**
      * Creates a net list from the given circuit
@@ -27,17 +38,13 @@ public class NetList implements Iterable<Net> {
      * @throws PinException PinException
      */
     public NetList(Circuit circuit) throws PinException {
-        netList = new ArrayList<>();
-        for (Wire w : circuit.getWires())
-            add(w);
+        netList = createNets(circuit.getWires());
+        pointIndex = createPointIndex();
+        pinIndex = new HashMap<>();
 
         for (VisualElement ve : circuit.getElements())
             if (ve.equalsDescription(Tunnel.DESCRIPTION)) {
-                Vector pos = ve.getPos();
-                Net found = null;
-                for (Net n : netList)
-                    if (n.contains(pos))
-                        found = n;
+                Net found = pointIndex.get(ve.getPos());
 
                 String label = ve.getElementAttributes().get(Keys.NETNAME).trim();
                 if (found == null) {
@@ -60,23 +67,95 @@ public class NetList implements Iterable<Net> {
             mergeLabels();
     }
 
-    //modification of loop variable j is intended!
-    //CHECKSTYLE.OFF: ModifiedControlVariable
+    /**
+     * Joins the wires which share an end point.
+     * The order of the nets is the same as if the wires were added one after the other
+     * to a list of nets: A wire which is not connected to an existing net creates a new
+     * net at the end of the list, and if a wire connects two nets, the joined net takes
+     * the position of the later one.
+     */
+    private static ArrayList<Net> createNets(List<Wire> wires) {
+        HashMap<Vector, Integer> pointIds = new HashMap<>();
+        UnionFind points = new UnionFind(wires.size() * 2);
+        int[] order = new int[wires.size() * 2];
+        int[] wirePoint = new int[wires.size()];
+        for (int w = 0; w < wires.size(); w++) {
+            Wire wire = wires.get(w);
+            Integer id1 = pointIds.get(wire.p1);
+            Integer id2 = pointIds.get(wire.p2);
+            if (id1 == null && id2 == null) {
+                id1 = points.add();
+                order[id1] = w;
+                pointIds.put(wire.p1, id1);
+                if (!wire.p2.equals(wire.p1))
+                    pointIds.put(wire.p2, id1);
+            } else if (id1 == null) {
+                pointIds.put(wire.p1, id2);
+                id1 = id2;
+            } else if (id2 == null) {
+                pointIds.put(wire.p2, id1);
+            } else {
+                final int r1 = points.find(id1);
+                final int r2 = points.find(id2);
+                if (r1 != r2) {
+                    final int keep = Math.max(order[r1], order[r2]);
+                    order[points.union(r1, r2)] = keep;
+                }
+            }
+            wirePoint[w] = id1;
+        }
+
+        HashMap<Integer, ArrayList<Wire>> netWires = new HashMap<>();
+        for (int w = 0; w < wires.size(); w++)
+            netWires.computeIfAbsent(points.find(wirePoint[w]), r -> new ArrayList<>()).add(wires.get(w));
+
+        ArrayList<Integer> roots = new ArrayList<>(netWires.keySet());
+        roots.sort(Comparator.comparingInt(r -> order[r]));
+        ArrayList<Net> nets = new ArrayList<>(roots.size());
+        for (int r : roots)
+            nets.add(new Net(netWires.get(r)));
+        return nets;
+    }
+
+    private HashMap<Vector, Net> createPointIndex() {
+        HashMap<Vector, Net> index = new HashMap<>();
+        for (Net n : netList)
+            for (Vector p : n.getPoints())
+                index.put(p, n);
+        return index;
+    }
+
+    /**
+     * Nets with a common label are joined. The joined net takes the position of the first one.
+     */
     private void mergeLabels() {
-        boolean wasMerge;
-        do {
-            wasMerge = false;
-            for (int i = 0; i < netList.size() - 1; i++)
-                for (int j = i + 1; j < netList.size(); j++)
-                    if (netList.get(i).matchesLabel(netList.get(j))) {
-                        netList.get(i).addAllPointsFrom(netList.get(j));
-                        netList.remove(j);
-                        j--;
-                        wasMerge = true;
-                    }
-        } while (wasMerge);
+        UnionFind nets = new UnionFind(netList.size());
+        HashMap<String, Integer> labelOwner = new HashMap<>();
+        for (int i = 0; i < netList.size(); i++) {
+            nets.add();
+            for (String l : netList.get(i).getLabels()) {
+                Integer owner = labelOwner.putIfAbsent(l, i);
+                if (owner != null)
+                    nets.union(nets.find(owner), nets.find(i));
+            }
+        }
+
+        ArrayList<Net> merged = new ArrayList<>();
+        for (int i = 0; i < netList.size(); i++) {
+            final int r = nets.find(i);
+            final Net net = netList.get(i);
+            if (r == i)
+                merged.add(net);
+            else {
+                Net root = netList.get(r);
+                root.addAllPointsFrom(net);
+                for (Vector p : net.getPoints())
+                    pointIndex.put(p, root);
+            }
+        }
+        netList.clear();
+        netList.addAll(merged);
     }
-    //CHECKSTYLE.ON: ModifiedControlVariable
 
     /**
      * Creates a copy of the given net list
@@ -85,9 +164,15 @@ public class NetList implements Iterable<Net> {
      * @param visualElement the containing visual element, only used to create better error messages
      */
     public NetList(NetList toCopy, VisualElement visualElement) {
-        netList = new ArrayList<>();
-        for (Net net : toCopy)
-            netList.add(new Net(net, visualElement));
+        netList = new ArrayList<>(toCopy.size());
+        pinIndex = new HashMap<>();
+        for (Net net : toCopy) {
+            Net copy = new Net(net, visualElement);
+            netList.add(copy);
+            for (Pin p : copy.getPins())
+                pinIndex.put(p, copy);
+        }
+        containsForeignNets = toCopy.containsForeignNets;
     }
 
     /**
@@ -97,6 +182,10 @@ public class NetList implements Iterable<Net> {
      */
     public void add(NetList netList) {
         this.netList.addAll(netList.netList);
+        pinIndex.putAll(netList.pinIndex);
+        // the added nets belong to an other circuit, so the positions are not unique anymore
+        containsForeignNets = true;
+        pointIndex = null;
     }
 
     /**
@@ -105,32 +194,37 @@ public class NetList implements Iterable<Net> {
      * @param pin the pin to add
      */
     public void add(Pin pin) {
-        for (Net net : netList)
-            if (net.contains(pin.getPos()))
+        if (containsForeignNets) {
+            for (Net net : netList)
+                if (net.contains(pin.getPos())) {
+                    net.add(pin);
+                    pinIndex.put(pin, net);
+                }
+        } else {
+            Net net = getPointIndex().get(pin.getPos());
+            if (net != null) {
                 net.add(pin);
-    }
-
-    private void add(Wire w) {
-        for (Net net : netList) {
-            Vector added = net.tryMerge(w);
-            if (added != null) {
-                netChanged(net, added);
-                return;
+                pinIndex.put(pin, net);
             }
         }
-        netList.add(new Net(w));
     }
 
-    private void netChanged(Net changedNet, Vector added) {
-        for (Net n : netList) {
-            if (n != changedNet) {
-                if (n.contains(added)) {
-                    n.addAllPointsFrom(changedNet);
-                    netList.remove(changedNet);
-                    return;
-                }
-            }
-        }
+    /**
+     * Adds a pin to the net with the given index
+     *
+     * @param netIndex the index of the net
+     * @param pin      the pin to add
+     */
+    void add(int netIndex, Pin pin) {
+        Net net = netList.get(netIndex);
+        net.add(pin);
+        pinIndex.put(pin, net);
+    }
+
+    private HashMap<Vector, Net> getPointIndex() {
+        if (pointIndex == null)
+            pointIndex = createPointIndex();
+        return pointIndex;
     }
 
     /**
@@ -152,9 +246,16 @@ public class NetList implements Iterable<Net> {
      * @return the net or null if not found
      */
     public Net getNetOfPin(Pin p) {
+        Net net = pinIndex.get(p);
+        if (net != null && net.containsPin(p))
+            return net;
+
+        // the pin was moved to an other net
         for (Net n : netList)
-            if (n.containsPin(p))
+            if (n.containsPin(p)) {
+                pinIndex.put(p, n);
                 return n;
+            }
         return null;
     }
 
@@ -165,6 +266,8 @@ public class NetList implements Iterable<Net> {
      * @return the net
      */
     public Net getNetOfPos(Vector pos) {
+        if (!containsForeignNets)
+            return getPointIndex().get(pos);
         for (Net n : netList)
             if (n.contains(pos))
                 return n;
@@ -177,6 +280,50 @@ public class NetList implements Iterable<Net> {
      * @param childNet the net to remove
      */
     public void remove(Net childNet) {
-        netList.remove(childNet);
+        if (netList.remove(childNet)) {
+            if (pointIndex != null)
+                for (Vector p : childNet.getPoints())
+                    pointIndex.remove(p, childNet);
+            for (Pin p : childNet.getPins())
+                pinIndex.remove(p, childNet);
+        }
+    }
+
+    /**
+     * A simple union-find structure over integer ids.
+     */
+    private static final class UnionFind {
+        private int[] parent;
+        private int size;
+
+        private UnionFind(int capacity) {
+            parent = new int[Math.max(capacity, 1)];
+        }
+
+        private int add() {
+            if (size == parent.length)
+                parent = Arrays.copyOf(parent, size * 2);
+            parent[size] = size;
+            return size++;
+        }
+
+        private int find(int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+
+        /**
+         * Joins the sets of the given roots. The smaller id becomes the new root.
+         *
+         * @return the new root
+         */
+        private int union(int r1, int r2) {
+            final int root = Math.min(r1, r2);
+            parent[Math.max(r1, r2)] = root;
+            return root;
+        }
     }
 }
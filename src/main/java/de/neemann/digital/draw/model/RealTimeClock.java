@@ -31,6 +31,7 @@ public class RealTimeClock implements ModelStateObserverTyped {
     private final ScheduledThreadPoolExecutor executor;
     private final ErrorStopper stopper;
     private final StatusInterface status;
+    private final GuiModelObserver guiObserver;
     private final int frequency;
     private final ObservableValue output;
     private Runner runner;
@@ -41,14 +42,16 @@ public class RealTimeClock implements ModelStateObserverTyped {
      * @param model     the model
      * @param clock     the clock element which is modify
      * @param executor  the executor used to schedule the update
-     * @param stopper   used to stop the model if an error is detected
-     * @param status    allows sending messages to the status line
+     * @param stopper     used to stop the model if an error is detected
+     * @param status      allows sending messages to the status line
+     * @param guiObserver the observer which repaints the circuit, used to report the dropped frames
      */
-    public RealTimeClock(Model model, Clock clock, ScheduledThreadPoolExecutor executor, ErrorStopper stopper, StatusInterface status) {
+    public RealTimeClock(Model model, Clock clock, ScheduledThreadPoolExecutor executor, ErrorStopper stopper, StatusInterface status, GuiModelObserver guiObserver) {
         this.model = model;
         this.executor = executor;
         this.stopper = stopper;
         this.status = status;
+        this.guiObserver = guiObserver;
         int f = clock.getFrequency();
         if (f < 1) f = 1;
         this.frequency = f;
@@ -133,7 +136,7 @@ public class RealTimeClock implements ModelStateObserverTyped {
         ThreadRunner() {
             thread = new Thread(() -> {
                 LOGGER.debug("thread start");
-                FrequencyCalculator frequency = new FrequencyCalculator(status);
+                FrequencyCalculator frequency = new FrequencyCalculator(status, guiObserver);
                 try {
                     while (!Thread.interrupted()) {
                         model.accessNEx(() -> {
@@ -156,15 +159,22 @@ public class RealTimeClock implements ModelStateObserverTyped {
         }
     }
 
+    /**
+     * Reports the achieved clock frequency and the frames the GUI has dropped since the last report
+     */
     private static final class FrequencyCalculator {
         private static final long MIN_COUNTER = 50000;
         private final StatusInterface status;
+        private final GuiModelObserver guiObserver;
         private long checkCounter;
         private int counter;
         private long time;
+        private long droppedFrames;
 
-        private FrequencyCalculator(StatusInterface status) {
+        private FrequencyCalculator(StatusInterface status, GuiModelObserver guiObserver) {
             this.status = status;
+            this.guiObserver = guiObserver;
+            droppedFrames = guiObserver.getDroppedFrames();
             time = System.currentTimeMillis();
             counter = 0;
             checkCounter = MIN_COUNTER;
@@ -176,7 +186,9 @@ public class RealTimeClock implements ModelStateObserverTyped {
                 long t = System.currentTimeMillis();
                 if (t - time > 2000) {
                     final long l = counter / (t - time) / 2;
-                    status.setStatus(l + " kHz");
+                    final long dropped = guiObserver.getDroppedFrames();
+                    status.setStatus(Lang.get("msg_frequency_N_droppedFrames_N", l, dropped - droppedFrames));
+                    droppedFrames = dropped;
                     time = t;
                     counter = 0;
                     checkCounter = MIN_COUNTER;
@@ -11,22 +11,34 @@ import de.neemann.digital.core.Observer;
 import de.neemann.digital.gui.components.CircuitComponent;
 
 import javax.swing.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This observer is added to the model if real time timers are started.
- * This observer paints the CircuitComponent after a step is calculated.
  * It is registered to all elements which visual representation depends on a model value.
  * This listener method only sets a flag if there was a change.
- * For repainting it is also registered to the model to repaint the circuit if the step is complete.
+ * It is also registered to the model: If a step is complete and a new frame is requested,
+ * the simulation thread copies the state of the visible elements to the circuit component
+ * and publishes a new snapshot version. A timer in the event dispatch thread paints the
+ * latest snapshot at a fixed frame rate and requests the next one. So the simulation never
+ * waits for the GUI, and the GUI never waits for the model.
  */
 public class GuiModelObserver implements Observer, ModelStateObserverTyped {
     private static final long TIMEOUT = 100;
+    private static final int FRAME_RATE = 60;
+    private static final long FRAME_NANOS = 1000000000L / FRAME_RATE;
     private final CircuitComponent component;
     private final ModelEvent type;
-    private final AtomicBoolean paintPending = new AtomicBoolean();
-    private long lastUpdateTime;
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final Timer timer;
+    private volatile boolean snapshotRequested = true;
+    // accessed by the simulation thread only
+    private long lastSnapshotTime;
     private boolean changed = false;
+    // accessed by the event dispatch thread only
+    private long paintedVersion;
+    private long lastFrameTime;
 
     /**
      * Creates a new instance.
@@ -37,7 +49,8 @@ public class GuiModelObserver implements Observer, ModelStateObserverTyped {
     public GuiModelObserver(CircuitComponent component, ModelEvent type) {
         this.component = component;
         this.type = type;
-        this.lastUpdateTime = System.currentTimeMillis();
+        this.lastSnapshotTime = System.currentTimeMillis();
+        timer = new Timer(1000 / FRAME_RATE, e -> frame());
     }
 
     @Override
@@ -47,22 +60,49 @@ public class GuiModelObserver implements Observer, ModelStateObserverTyped {
 
     @Override
     public void handleEvent(ModelEvent event) {
-        long time = System.currentTimeMillis();
-        boolean timeOut = time - lastUpdateTime > TIMEOUT;
-        if ((changed || timeOut) && event == type) {
-            if (paintPending.compareAndSet(false, true)) {
-                lastUpdateTime = time;
-                SwingUtilities.invokeLater(() -> {
-                    component.paintImmediately();
-                    paintPending.set(false);
-                });
+        if (event == type) {
+            if (snapshotRequested) {
+                long time = System.currentTimeMillis();
+                boolean timeOut = time - lastSnapshotTime > TIMEOUT;
+                if ((changed || timeOut) && component.takeSnapshot()) {
+                    lastSnapshotTime = time;
+                    changed = false;
+                    snapshotRequested = false;
+                    snapshotVersion.incrementAndGet();
+                }
             }
-            changed = false;
+        } else if (event == ModelEvent.STARTED)
+            timer.start();
+        else if (event == ModelEvent.STOPPED)
+            timer.stop();
+    }
+
+    private void frame() {
+        long now = System.nanoTime();
+        if (lastFrameTime != 0) {
+            long missed = (now - lastFrameTime) / FRAME_NANOS - 1;
+            if (missed > 0)
+                droppedFrames.addAndGet(missed);
+        }
+        lastFrameTime = now;
+
+        long version = snapshotVersion.get();
+        if (version != paintedVersion) {
+            paintedVersion = version;
+            component.paintSnapshot();
+            snapshotRequested = true;
         }
     }
 
+    /**
+     * @return the number of frames dropped because the event dispatch thread was busy
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
     @Override
     public ModelEvent[] getEvents() {
-        return new ModelEvent[]{type};
+        return new ModelEvent[]{type, ModelEvent.STARTED, ModelEvent.STOPPED};
     }
 }
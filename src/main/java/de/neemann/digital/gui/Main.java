@@ -974,10 +974,18 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
                         model.setWindowPosManager(windowPosManager);
                         SpeedTest speedTest = new SpeedTest(model);
                         String frequency = format.format(speedTest.calculate() / 1000);
+                        String text;
+                        if (speedTest.getCompiledFrequency() > 0)
+                            text = Lang.get("msg_frequencyLevelized_N_N", frequency, format.format(speedTest.getCompiledFrequency() / 1000));
+                        else
+                            text = Lang.get("msg_frequency_N", frequency);
+                        if (speedTest.getPartitionedFrequency() > 0)
+                            text += "\n" + Lang.get("msg_frequencyPartitioned_N_N", format.format(speedTest.getPartitionedFrequency() / 1000), speedTest.getPartitions());
+                        final String message = text;
                         circuitComponent.getCircuit().clearState();
                         SwingUtilities.invokeLater(() -> {
                             windowPosManager.closeAll();
-                            JOptionPane.showMessageDialog(Main.this, Lang.get("msg_frequency_N", frequency));
+                            JOptionPane.showMessageDialog(Main.this, message);
                         });
                     } finally {
                         model.close();
@@ -1086,13 +1094,17 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
             @Override
             public void actionPerformed(ActionEvent e) {
                 try {
-                    Model model = new ModelCreator(circuitComponent.getCircuit(), library).createModel(false);
+                    final Circuit circuit = circuitComponent.getCircuit();
+                    Model model = new ModelCreator(circuit, library).createModel(false);
                     try {
                         if (model.isInvalidSignal())
                             new ErrorMessage(Lang.get("msg_invalidSignalsAnalysed")).show(Main.this);
                         else
                             new TableDialog(Main.this,
-                                    new ModelAnalyser(model).analyse(),
+                                    new ModelAnalyser(model)
+                                            .setParallel(() -> new ModelCreator(circuit, library).createModel(false),
+                                                    Runtime.getRuntime().availableProcessors())
+                                            .analyse(),
                                     library,
                                     shapeFactory,
                                     getBaseFileName())
@@ -1211,6 +1223,8 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
             }
 
             model = modelCreator.createModel(true);
+            if (updateEvent != ModelEvent.MICROSTEP)
+                model.setPartitions(Settings.getInstance().get(Keys.SETTINGS_SIMULATION_THREADS));
 
             time = System.currentTimeMillis() - time;
             LOGGER.debug("model creation: " + time + " ms");
@@ -1220,11 +1234,12 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
             statusLabel.setText(Lang.get("msg_N_nodes", model.size()));
 
             realTimeClockRunning = false;
+            GuiModelObserver gmo = new GuiModelObserver(circuitComponent, updateEvent);
             if (globalRunClock) {
                 int threadRunnerCount = 0;
                 for (Clock c : model.getClocks())
                     if (c.getFrequency() > 0) {
-                        final RealTimeClock realTimeClock = new RealTimeClock(model, c, timerExecutor, this, this);
+                        final RealTimeClock realTimeClock = new RealTimeClock(model, c, timerExecutor, this, this, gmo);
                         model.addObserver(realTimeClock);
                         if (realTimeClock.isThreadRunner()) threadRunnerCount++;
                         realTimeClockRunning = true;
@@ -1251,7 +1266,6 @@ public final class Main extends JFrame implements ClosingWindowListener.ConfirmS
 
             if (realTimeClockRunning) {
                 // if clock is running, enable automatic update of gui
-                GuiModelObserver gmo = new GuiModelObserver(circuitComponent, updateEvent);
                 modelCreator.connectToGui(gmo);
                 model.addObserver(gmo);
             } else
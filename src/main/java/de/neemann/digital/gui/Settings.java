@@ -49,6 +49,9 @@ public final class Settings implements AttributeListener {
         intList.add(Keys.SETTINGS_USE_WIDE_SHAPES);
         intList.add(Keys.SETTINGS_LANGUAGE);
         intList.add(Keys.SETTINGS_EXPRESSION_FORMAT);
+        intList.add(Keys.SETTINGS_EXACT_MINIMIZER_MAX_VARS);
+        intList.add(Keys.SETTINGS_PRIME_SEARCH_MAX_NODES);
+        intList.add(Keys.SETTINGS_SIMULATION_THREADS);
         intList.add(Keys.SETTINGS_DEFAULT_TREESELECT);
         intList.add(Keys.SETTINGS_GRID);
         intList.add(Keys.SETTINGS_SHOW_WIRE_BITS);
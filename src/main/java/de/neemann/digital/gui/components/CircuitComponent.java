@@ -127,6 +127,8 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
     private SyncAccess modelSync;
     private boolean isManualScale;
     private boolean graphicsHasChanged = true;
+    private boolean modelHasChanged = false;
+    private boolean snapshotAvailable = false;
     private boolean focusWasLost = false;
     private boolean lockMessageShown = false;
     private boolean antiAlias = true;
@@ -211,6 +213,14 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
             }
         }.setAccelerator("S").enableAcceleratorIn(this);
 
+        new ToolTipAction("debugOverlay") {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showDebugOverlay = !showDebugOverlay;
+                repaint();
+            }
+        }.setAccelerator("F12").enableAcceleratorIn(this);
+
 
         createAdditionalShortcuts(shapeFactory);
 
@@ -765,8 +775,11 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
     }
 
 
+    private final CircuitPainter painter = new CircuitPainter();
     private BufferedImage buffer;
     private int highlightedPaintedSize;
+    private boolean showDebugOverlay;
+    private long frameTime;
 
     @Override
     protected void paintComponent(Graphics g) {
@@ -788,28 +801,34 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
                 buffer = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration().createCompatibleImage(getWidth(), getHeight());
 
             Graphics2D gr2 = buffer.createGraphics();
-            enableAntiAlias(gr2);
-            gr2.setColor(Color.WHITE);
-            gr2.fillRect(0, 0, getWidth(), getHeight());
-
-            if (scaleX > 0.3 && Settings.getInstance().get(Keys.SETTINGS_GRID))
-                drawGrid(gr2);
-
-            gr2.transform(transform);
-
-            GraphicSwing gr = new GraphicSwing(gr2, (int) (2 / scaleX));
-
-            long time = System.currentTimeMillis();
-            circuit.drawTo(gr, highLighted, highLightStyle, modelSync);
-            time = System.currentTimeMillis() - time;
-
-            if (time > 500) antiAlias = false;
-            if (time < 50) antiAlias = true;
-
-//            System.out.println("repaint: " + Long.toString(time) + "ms");
+            long time = System.nanoTime();
+            prepareBuffer(gr2);
+            Vector p1 = getPosVector(0, 0);
+            Vector p2 = getPosVector(getWidth(), getHeight());
+            painter.paint(circuit, new GraphicSwing(gr2, (int) (2 / scaleX)), Vector.min(p1, p2), Vector.max(p1, p2), highLighted, highLightStyle, modelSync);
+            frameTime = System.nanoTime() - time;
+            gr2.dispose();
+
+            final long millis = frameTime / 1000000;
+            if (millis > 500) antiAlias = false;
+            if (millis < 50) antiAlias = true;
 
             highlightedPaintedSize = highLighted.size();
             graphicsHasChanged = false;
+            modelHasChanged = false;
+            snapshotAvailable = false;
+        } else if (modelHasChanged) {
+            long time = System.nanoTime();
+            List<CircuitPainter.Region> regions;
+            if (snapshotAvailable)
+                regions = painter.update(highLighted, highLightStyle);
+            else
+                regions = painter.update(highLighted, highLightStyle, modelSync);
+            for (CircuitPainter.Region r : regions)
+                redraw(r, scaleX);
+            frameTime = System.nanoTime() - time;
+            modelHasChanged = false;
+            snapshotAvailable = false;
         }
 
         g.drawImage(buffer, 0, 0, null);
@@ -821,6 +840,51 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
         GraphicSwing gr = new GraphicSwing(gr2, (int) (2 / scaleX));
         activeMouseController.drawTo(gr);
         gr2.setTransform(oldTrans);
+
+        if (showDebugOverlay)
+            drawDebugOverlay(gr2);
+    }
+
+    /**
+     * Clears the buffer and prepares the graphics to draw the circuit
+     */
+    private void prepareBuffer(Graphics2D gr2) {
+        enableAntiAlias(gr2);
+        gr2.setColor(Color.WHITE);
+        gr2.fillRect(0, 0, getWidth(), getHeight());
+
+        if (transform.getScaleX() > 0.3 && Settings.getInstance().get(Keys.SETTINGS_GRID))
+            drawGrid(gr2);
+
+        gr2.transform(transform);
+    }
+
+    /**
+     * Redraws the given region of the circuit in the buffer
+     */
+    private void redraw(CircuitPainter.Region region, double scaleX) {
+        Point p1 = transform(region.getMin());
+        Point p2 = transform(region.getMax());
+        Rectangle clip = new Rectangle(Math.min(p1.x, p2.x), Math.min(p1.y, p2.y), Math.abs(p2.x - p1.x) + 1, Math.abs(p2.y - p1.y) + 1)
+                .intersection(new Rectangle(0, 0, getWidth(), getHeight()));
+        if (clip.isEmpty())
+            return;
+
+        Graphics2D gr2 = buffer.createGraphics();
+        gr2.clip(clip);
+        prepareBuffer(gr2);
+        painter.redraw(new GraphicSwing(gr2, (int) (2 / scaleX)), region);
+        gr2.dispose();
+    }
+
+    private void drawDebugOverlay(Graphics2D gr2) {
+        String text = String.format("%.2f ms, %d elements, %d wires",
+                frameTime / 1e6, painter.getDrawnElements(), painter.getDrawnWires());
+        FontMetrics fm = gr2.getFontMetrics();
+        gr2.setColor(Color.YELLOW);
+        gr2.fillRect(0, 0, fm.stringWidth(text) + 8, fm.getHeight() + 4);
+        gr2.setColor(Color.BLACK);
+        gr2.drawString(text, 4, fm.getAscent() + 2);
     }
 
     private void drawGrid(Graphics2D gr2) {
@@ -845,12 +909,19 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
         if (delta > max) delta = max;
         double sub = delta / 2.0;
 
+        Rectangle clip = gr2.getClipBounds();
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+
         gr2.setColor(GRID_COLOR);
         for (int x = 0; x <= cx; x++) {
             double xx = p1.getX() + (p2.getX() - p1.getX()) * x / cx - sub;
+            if (xx + delta < clip.x || xx > clip.getMaxX())
+                continue;
             for (int y = 0; y <= cy; y++) {
                 double yy = p1.getY() + (p2.getY() - p1.getY()) * y / cy - sub;
-                gr2.fill(new Rectangle2D.Double(xx, yy, delta, delta));
+                if (yy + delta >= clip.y && yy <= clip.getMaxY())
+                    gr2.fill(new Rectangle2D.Double(xx, yy, delta, delta));
             }
         }
     }
@@ -881,12 +952,25 @@ public class CircuitComponent extends JComponent implements Circuit.ChangedListe
     }
 
     /**
-     * forces a immediately repaint
+     * Reads the state of the visible elements and wires from the model.
+     * Is called from {@link de.neemann.digital.gui.GuiModelObserver} by the simulation thread
+     * which holds the model lock. Never blocks, if the component is busy nothing is read.
+     *
+     * @return true if the state was read
+     */
+    public boolean takeSnapshot() {
+        return painter.readObservableValues();
+    }
+
+    /**
+     * forces a immediately repaint of the state read by {@link #takeSnapshot()}.
      * Is called from {@link de.neemann.digital.gui.GuiModelObserver} if the models data has changed.
-     * Therefore the double buffer is invalidated.
+     * Only the regions of the double buffer which contain changed elements or wires are redrawn,
+     * and the model is not accessed.
      */
-    public void paintImmediately() {
-        graphicsHasChanged = true;
+    public void paintSnapshot() {
+        modelHasChanged = true;
+        snapshotAvailable = true;
         paintImmediately(0, 0, getWidth(), getHeight());
     }
 
@@ -10,6 +10,7 @@ import de.neemann.digital.core.Model;
 import de.neemann.digital.core.ModelEvent;
 import de.neemann.digital.core.SyncAccess;
 import de.neemann.digital.core.memory.DataField;
+import de.neemann.digital.core.memory.DataFieldImporter;
 import de.neemann.digital.gui.SaveAsHelper;
 import de.neemann.digital.lang.Lang;
 import de.neemann.gui.ErrorMessage;
@@ -129,11 +130,11 @@ public class DataEditor extends JDialog {
                     JFileChooser fc = new MyFileChooser();
                     if (fileName != null)
                         fc.setSelectedFile(fileName);
-                    fc.setFileFilter(new FileNameExtensionFilter("hex", "hex"));
+                    fc.setFileFilter(new FileNameExtensionFilter("hex, bin", "hex", "bin"));
                     if (fc.showOpenDialog(DataEditor.this) == JFileChooser.APPROVE_OPTION) {
                         fileName = fc.getSelectedFile();
                         try {
-                            localDataField.setDataFrom(new DataField(fc.getSelectedFile()));
+                            localDataField.setDataFrom(DataFieldImporter.read(fc.getSelectedFile(), dataBits, addrBits));
                             dm.fireEvent(new TableModelEvent(dm));
                         } catch (IOException e1) {
                             new ErrorMessage(Lang.get("msg_errorReadingFile")).addCause(e1).show(DataEditor.this);
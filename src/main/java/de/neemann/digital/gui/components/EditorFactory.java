@@ -14,6 +14,7 @@ import de.neemann.digital.core.extern.Application;
 import de.neemann.digital.core.extern.PortDefinition;
 import de.neemann.digital.core.io.InValue;
 import de.neemann.digital.core.memory.DataField;
+import de.neemann.digital.core.memory.DataFieldImporter;
 import de.neemann.digital.core.memory.ROM;
 import de.neemann.digital.core.memory.rom.ROMManger;
 import de.neemann.digital.draw.elements.PinException;
@@ -594,7 +595,7 @@ public final class EditorFactory {
                         @Override
                         public void actionPerformed(ActionEvent e) {
                             try {
-                                data = new DataField(attr.getFile(ROM.LAST_DATA_FILE_KEY));
+                                data = DataFieldImporter.read(attr.getFile(ROM.LAST_DATA_FILE_KEY), attr.get(Keys.BITS), attr.get(Keys.ADDR_BITS));
                             } catch (IOException e1) {
                                 new ErrorMessage(Lang.get("msg_errorReadingFile")).addCause(e1).show(panel);
                             }
@@ -7,6 +7,7 @@ package de.neemann.digital.gui.components.data;
 
 import de.neemann.digital.core.ModelEvent;
 import de.neemann.digital.core.ModelStateObserverTyped;
+import de.neemann.digital.core.ObservableValue;
 import de.neemann.digital.core.Signal;
 import de.neemann.digital.data.Value;
 import de.neemann.digital.data.ValueTable;
@@ -14,7 +15,9 @@ import de.neemann.digital.data.ValueTable;
 import java.util.ArrayList;
 
 /**
- * Observer to create measurement data
+ * Observer to create measurement data.
+ * If a signal has not changed since the last sample, the value of the last sample is
+ * reused, so a sample only allocates the values which have changed.
  */
 public class ValueTableObserver implements ModelStateObserverTyped {
 
@@ -23,6 +26,7 @@ public class ValueTableObserver implements ModelStateObserverTyped {
     private final ArrayList<Signal> signals;
 
     private Value[] manualSample;
+    private Value[] lastSample;
 
     /**
      * Creates a new instance
@@ -46,14 +50,17 @@ public class ValueTableObserver implements ModelStateObserverTyped {
 
     @Override
     public void handleEvent(ModelEvent event) {
-        if (event == ModelEvent.STARTED)
+        if (event == ModelEvent.STARTED) {
             logData.clear();
+            lastSample = null;
+        }
 
         if (event == ModelEvent.MANUALCHANGE && type == ModelEvent.MICROSTEP) {
             if (manualSample == null)
                 manualSample = new Value[logData.getColumns()];
             for (int i = 0; i < logData.getColumns(); i++)
                 manualSample[i] = new Value(signals.get(i).getValue());
+            lastSample = manualSample;
         }
 
         if (event == type) {
@@ -62,12 +69,22 @@ public class ValueTableObserver implements ModelStateObserverTyped {
                 manualSample = null;
             }
             Value[] row = new Value[logData.getColumns()];
-            for (int i = 0; i < logData.getColumns(); i++)
-                row[i] = new Value(signals.get(i).getValue());
+            for (int i = 0; i < row.length; i++) {
+                ObservableValue ov = signals.get(i).getValue();
+                if (lastSample != null && isUnchanged(lastSample[i], ov))
+                    row[i] = lastSample[i];
+                else
+                    row[i] = new Value(ov);
+            }
             logData.add(row);
+            lastSample = row;
         }
     }
 
+    private static boolean isUnchanged(Value v, ObservableValue ov) {
+        return v.getValue() == ov.getValue() && (v.getType() == Value.Type.HIGHZ) == ov.isHighZ();
+    }
+
     @Override
     public ModelEvent[] getEvents() {
         return new ModelEvent[]{type, ModelEvent.STARTED, ModelEvent.MANUALCHANGE};
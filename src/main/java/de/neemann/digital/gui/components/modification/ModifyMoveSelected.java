@@ -85,8 +85,8 @@ public class ModifyMoveSelected implements Modification {
                 ve.setPos(transform.transform(ve.getPos()));
             } else if (m instanceof Wire) {
                 Wire w = (Wire) m;
-                w.p1 = transform.transform(w.p1);
-                w.p2 = transform.transform(w.p2);
+                w.setP1(transform.transform(w.p1));
+                w.setP2(transform.transform(w.p2));
             } else {
                 Vector p = m.getPos();
                 Vector t = transform.transform(p);
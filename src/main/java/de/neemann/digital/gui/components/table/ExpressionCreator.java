@@ -11,12 +11,15 @@ import de.neemann.digital.analyse.expression.ExpressionException;
 import de.neemann.digital.analyse.expression.Variable;
 import de.neemann.digital.analyse.expression.format.FormatterException;
 import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.Espresso;
 import de.neemann.digital.analyse.quinemc.TableReducer;
+import de.neemann.digital.analyse.quinemc.primeselector.BranchAndBound;
 import de.neemann.digital.gui.Main;
 import de.neemann.digital.lang.Lang;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -30,7 +33,34 @@ public class ExpressionCreator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExpressionCreator.class);
     private static final int MAX_INPUTS_ALLOWED = 12;
 
+    /**
+     * The default number of variables up to which the exact minimizer is used
+     */
+    public static final int DEFAULT_EXACT_MAX_VARS = MAX_INPUTS_ALLOWED;
+
     private final TruthTable theTable;
+    private Minimizer minimizer = Minimizer.EXACT;
+    private int exactMaxVars = DEFAULT_EXACT_MAX_VARS;
+    private long maxSearchNodes = BranchAndBound.DEFAULT_MAX_NODES;
+    private final List<String> notMinimal = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * The minimizer to use
+     */
+    public enum Minimizer {
+        /**
+         * The heuristic minimizer is used if the table has more variables than the exact minimizer is allowed to handle
+         */
+        AUTOMATIC,
+        /**
+         * The exact Quine-McCluskey minimizer is used
+         */
+        EXACT,
+        /**
+         * The heuristic Espresso minimizer is used
+         */
+        HEURISTIC
+    }
 
     /**
      * Creates a new instance
@@ -41,6 +71,53 @@ public class ExpressionCreator {
         this.theTable = theTable;
     }
 
+    /**
+     * Sets the minimizer to use.
+     * The default is the exact minimizer.
+     *
+     * @param minimizer the minimizer
+     * @return this for chained calls
+     */
+    public ExpressionCreator setMinimizer(Minimizer minimizer) {
+        this.minimizer = minimizer;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of variables the exact minimizer is used for in automatic mode.
+     * Outside the experimental mode the exact minimizer is never used for more than 12 variables.
+     *
+     * @param exactMaxVars the number of variables
+     * @return this for chained calls
+     */
+    public ExpressionCreator setExactMaxVars(int exactMaxVars) {
+        this.exactMaxVars = exactMaxVars;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of search nodes the exact minimizer uses to select the primes
+     *
+     * @param maxSearchNodes the maximum number of search nodes
+     * @return this for chained calls
+     */
+    public ExpressionCreator setMaxSearchNodes(long maxSearchNodes) {
+        this.maxSearchNodes = maxSearchNodes;
+        return this;
+    }
+
+    /**
+     * Returns the names of the results for which the exact minimizer reached its search limit.
+     * The expressions found for these results are not necessarily minimal.
+     *
+     * @return the names of the results, in no particular order
+     */
+    public List<String> getNotMinimalResults() {
+        synchronized (notMinimal) {
+            return new ArrayList<>(notMinimal);
+        }
+    }
+
     /**
      * Creates the expressions
      *
@@ -51,6 +128,7 @@ public class ExpressionCreator {
      */
     public void create(ExpressionListener listener) throws ExpressionException, FormatterException, AnalyseException {
         final List<Variable> vars = Collections.unmodifiableList(theTable.getVars());
+        notMinimal.clear();
         long time = System.currentTimeMillis();
         if (theTable.getResultCount() > 100) {
             ExecutorService ex = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
@@ -91,16 +169,42 @@ public class ExpressionCreator {
                 localVars = tr.getVars();
             }
         }
-        if (!Main.isExperimentalMode() && localVars.size() > MAX_INPUTS_ALLOWED)
+        final boolean heuristic = useHeuristic(localVars.size());
+        if (heuristic && localVars.size() > Espresso.MAX_VARS)
+            throw new AnalyseException(Lang.get("err_toManyInputsIn_N0_max_N1_is_N2", resultName, Espresso.MAX_VARS, localVars.size()));
+        if (!heuristic && !Main.isExperimentalMode() && localVars.size() > MAX_INPUTS_ALLOWED)
             throw new AnalyseException(Lang.get("err_toManyInputsIn_N0_max_N1_is_N2", resultName, MAX_INPUTS_ALLOWED, localVars.size()));
 
 
         listener = new CheckResultListener(listener, localVars, boolTable);
 
-        getMinimizer(localVars.size()).minimize(localVars, boolTable, resultName, listener);
+        if (heuristic)
+            new MinimizerEspresso().minimize(localVars, boolTable, resultName, listener);
+        else {
+            MinimizerQuineMcCluskey qmc = createExactMinimizer(localVars.size())
+                    .setMaxSearchNodes(maxSearchNodes);
+            qmc.minimize(localVars, boolTable, resultName, listener);
+            if (!qmc.isMinimal()) {
+                LOGGER.info(resultName + " is not proven to be minimal");
+                notMinimal.add(resultName);
+            }
+        }
+    }
+
+    private boolean useHeuristic(int size) {
+        switch (minimizer) {
+            case HEURISTIC:
+                return true;
+            case EXACT:
+                return false;
+            default:
+                if (Main.isExperimentalMode())
+                    return size > exactMaxVars;
+                return size > Math.min(exactMaxVars, MAX_INPUTS_ALLOWED);
+        }
     }
 
-    private MinimizerInterface getMinimizer(int size) {
+    private MinimizerQuineMcCluskey createExactMinimizer(int size) {
         if (size <= 4)
             return new MinimizerQuineMcCluskeyExam();
         else {
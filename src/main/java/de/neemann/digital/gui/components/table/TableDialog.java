@@ -32,6 +32,7 @@ import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.gui.Main;
 import de.neemann.digital.gui.SaveAsHelper;
+import de.neemann.digital.gui.Settings;
 import de.neemann.digital.gui.components.AttributeDialog;
 import de.neemann.digital.gui.components.ElementOrderer;
 import de.neemann.digital.gui.components.karnaugh.KarnaughMapDialog;
@@ -40,6 +41,7 @@ import de.neemann.digital.gui.components.table.hardware.GenerateFile;
 import de.neemann.digital.gui.components.table.hardware.HardwareDescriptionGenerator;
 import de.neemann.digital.lang.Lang;
 import de.neemann.gui.ErrorMessage;
+import de.neemann.gui.LineBreaker;
 import de.neemann.gui.MyFileChooser;
 import de.neemann.gui.Screen;
 import de.neemann.gui.ToolTipAction;
@@ -82,6 +84,7 @@ public class TableDialog extends JDialog {
     private final HashMap<String, HardwareDescriptionGenerator> availGenerators = new HashMap<>();
     private final JMenu hardwareMenu;
     private JCheckBoxMenuItem createJK;
+    private ExpressionCreator.Minimizer minimizer;
     private File filename;
     private TruthTableTableModel model;
     private int columnIndex;
@@ -334,9 +337,41 @@ public class TableDialog extends JDialog {
         createJK.addActionListener(e -> calculateExpressions());
         fileMenu.add(createJK);
 
+        fileMenu.add(createMinimizerMenu());
+
         return fileMenu;
     }
 
+    private JMenu createMinimizerMenu() {
+        try {
+            minimizer = ExpressionCreator.Minimizer.valueOf(PREFS.get("minimizer", ExpressionCreator.Minimizer.EXACT.name()));
+        } catch (IllegalArgumentException e) {
+            minimizer = ExpressionCreator.Minimizer.EXACT;
+        }
+
+        JMenu minimizerMenu = new JMenu(Lang.get("menu_table_minimizer"));
+        ButtonGroup group = new ButtonGroup();
+        addMinimizer(minimizerMenu, group, ExpressionCreator.Minimizer.AUTOMATIC,
+                Lang.get("menu_table_minimizer_auto"), Lang.get("menu_table_minimizer_auto_tt"));
+        addMinimizer(minimizerMenu, group, ExpressionCreator.Minimizer.EXACT,
+                Lang.get("menu_table_minimizer_exact"), Lang.get("menu_table_minimizer_exact_tt"));
+        addMinimizer(minimizerMenu, group, ExpressionCreator.Minimizer.HEURISTIC,
+                Lang.get("menu_table_minimizer_heuristic"), Lang.get("menu_table_minimizer_heuristic_tt"));
+        return minimizerMenu;
+    }
+
+    private void addMinimizer(JMenu menu, ButtonGroup group, ExpressionCreator.Minimizer m, String name, String toolTip) {
+        JRadioButtonMenuItem item = new JRadioButtonMenuItem(name, m == minimizer);
+        item.setToolTipText(toolTip);
+        item.addActionListener(e -> {
+            minimizer = m;
+            PREFS.put("minimizer", m.name());
+            calculateExpressions();
+        });
+        group.add(item);
+        menu.add(item);
+    }
+
     private JMenu createSetMenu() {
         JMenu setMenu = new JMenu(Lang.get("menu_table_set"));
         setMenu.add(new ToolTipAction(Lang.get("menu_table_setXTo0")) {
@@ -558,10 +593,21 @@ public class TableDialog extends JDialog {
                 expressionListener = new ExpressionListenerJK(expressionListener);
 
             lastGeneratedExpressions = new ExpressionListenerStore(expressionListener);
-            new ExpressionCreator(model.getTable()).create(lastGeneratedExpressions);
+            ExpressionCreator creator = new ExpressionCreator(model.getTable())
+                    .setMinimizer(minimizer)
+                    .setExactMaxVars(Settings.getInstance().get(Keys.SETTINGS_EXACT_MINIMIZER_MAX_VARS))
+                    .setMaxSearchNodes(Settings.getInstance().get(Keys.SETTINGS_PRIME_SEARCH_MAX_NODES));
+            creator.create(lastGeneratedExpressions);
 
             kvMap.setResult(model.getTable(), lastGeneratedExpressions.getResults());
 
+            List<String> notMinimal = creator.getNotMinimalResults();
+            if (!notMinimal.isEmpty())
+                JOptionPane.showMessageDialog(this,
+                        new LineBreaker().toHTML().breakLines(Lang.get("msg_resultNotMinimal_N", notMinimal)),
+                        Lang.get("msg_warning"),
+                        JOptionPane.WARNING_MESSAGE);
+
         } catch (ExpressionException | FormatterException | AnalyseException e1) {
             lastGeneratedExpressions = null;
             new ErrorMessage(Lang.get("msg_errorDuringCalculation")).addCause(e1).show(this);
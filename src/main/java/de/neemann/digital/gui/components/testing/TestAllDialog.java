@@ -49,6 +49,8 @@ public class TestAllDialog extends JDialog {
 
         table.getColumnModel().getColumn(1).setCellRenderer(new StateRenderer());
         getContentPane().add(new JScrollPane(table));
+        JLabel summaryLabel = new JLabel(" ");
+        getContentPane().add(summaryLabel, BorderLayout.SOUTH);
         pack();
         setLocationRelativeTo(frame);
 
@@ -69,9 +71,24 @@ public class TestAllDialog extends JDialog {
         });
 
         folderTestRunner.startTests(
-                (f, row) -> SwingUtilities.invokeLater(() -> tableModel.messageChanged(row)),
+                new FolderTestRunner.FileChangedListener() {
+                    @Override
+                    public void messageChanged(FolderTestRunner.FileToTest f, int row) {
+                        SwingUtilities.invokeLater(() -> tableModel.messageChanged(row));
+                    }
+
+                    @Override
+                    public void allFilesTested(FolderTestRunner.Summary summary) {
+                        SwingUtilities.invokeLater(() -> summaryLabel.setText(Lang.get("msg_testSummary_N0_N1_N2_N3",
+                                summary.getFileCount(),
+                                summary.getTime() / 1000.0,
+                                String.format("%.1f", summary.getFilesPerSecond()),
+                                String.format("%.0f", summary.getRowsPerSecond()))));
+                    }
+                },
                 shapeFactory,
-                library);
+                library,
+                Runtime.getRuntime().availableProcessors());
     }
 
     private void openCircuit(JTable table, Frame frame, ElementLibrary library) {
@@ -110,7 +127,7 @@ public class TestAllDialog extends JDialog {
 
         @Override
         public int getColumnCount() {
-            return 2;
+            return 3;
         }
 
         @Override
@@ -118,8 +135,10 @@ public class TestAllDialog extends JDialog {
             switch (i) {
                 case 0:
                     return Lang.get("msg_testFile");
-                default:
+                case 1:
                     return Lang.get("msg_testResult");
+                default:
+                    return Lang.get("msg_testTime");
             }
         }
 
@@ -139,8 +158,12 @@ public class TestAllDialog extends JDialog {
             switch (col) {
                 case 0:
                     return file.getName();
-                default:
+                case 1:
                     return file;
+                default:
+                    if (file.getStatus() == FolderTestRunner.FileToTest.Status.unknown && file.getTime() == 0)
+                        return "";
+                    return Lang.get("msg_testTime_N", file.getTime());
             }
         }
 
@@ -159,7 +182,7 @@ public class TestAllDialog extends JDialog {
         }
 
         private void messageChanged(int row) {
-            TableModelEvent te = new TableModelEvent(this, row, row, 1);
+            TableModelEvent te = new TableModelEvent(this, row, row, TableModelEvent.ALL_COLUMNS);
             for (TableModelListener l : listener)
                 l.tableChanged(te);
         }
@@ -142,8 +142,10 @@ public class ValueTableDialog extends JDialog {
                     tabName += " " + Lang.get("msg_test_missingLines");
 
                 tp.addTab(tabName, tabIcon, new JScrollPane(createTable(testExecutor.getResult())));
+                String toolTip = Lang.get("msg_testRows_N0_rowsPerSecond_N1", testExecutor.getTestedRows(), testExecutor.getRowsPerSecond());
                 if (testExecutor.toManyResults())
-                    tp.setToolTipTextAt(i, new LineBreaker().toHTML().breakLines(Lang.get("msg_test_missingLines_tt")));
+                    toolTip = Lang.get("msg_test_missingLines_tt") + " " + toolTip;
+                tp.setToolTipTextAt(i, new LineBreaker().toHTML().breakLines(toolTip));
                 resultTableData.add(testExecutor.getResult());
                 i++;
             } finally {
@@ -64,7 +64,6 @@ public class Context {
             this.code = new StringBuilder();
         else
             this.code = null;
-        map = new HashMap<>();
     }
 
     /**
@@ -74,7 +73,7 @@ public class Context {
      * @return true if value is present
      */
     public boolean contains(String name) {
-        if (map.containsKey(name))
+        if (map != null && map.containsKey(name))
             return true;
         else {
             if (parent != null)
@@ -92,7 +91,7 @@ public class Context {
      * @throws HGSEvalException HGSEvalException
      */
     public Object getVar(String name) throws HGSEvalException {
-        Object v = map.get(name);
+        Object v = map == null ? null : map.get(name);
         if (v == null) {
             if (parent == null) {
                 InnerFunction builtIn = BUILT_IN.get(name);
@@ -115,7 +114,7 @@ public class Context {
      * @throws HGSEvalException HGSEvalException
      */
     public void setVar(String name, Object val) throws HGSEvalException {
-        if (map.containsKey(name))
+        if (map != null && map.containsKey(name))
             map.put(name, val);
         else {
             if (parent != null)
@@ -134,7 +133,9 @@ public class Context {
      * @throws HGSEvalException HGSEvalException
      */
     public Context declareVar(String name, Object value) throws HGSEvalException {
-        if (map.containsKey(name))
+        if (map == null)
+            map = new HashMap<>();
+        else if (map.containsKey(name))
             throw new HGSEvalException("Variable '" + name + "' already declared!");
         map.put(name, value);
         return this;
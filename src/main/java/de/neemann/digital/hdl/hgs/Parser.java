@@ -12,6 +12,7 @@ import de.neemann.digital.hdl.hgs.refs.*;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static de.neemann.digital.hdl.hgs.Tokenizer.Token.*;
 
@@ -20,8 +21,12 @@ import static de.neemann.digital.hdl.hgs.Tokenizer.Token.*;
  */
 public class Parser {
 
+    private static final ConcurrentHashMap<String, Statement> JAR_CACHE = new ConcurrentHashMap<>();
+
     /**
      * Creates a statement from the jar file using ClassLoader.getSystemResourceAsStream(path).
+     * The parsed statements do not hold any state, so every file is parsed only once and the
+     * statement is shared by all callers.
      *
      * @param path the path of the file to load
      * @return the statement
@@ -29,6 +34,17 @@ public class Parser {
      * @throws ParserException ParserException
      */
     public static Statement createFromJar(String path) throws IOException, ParserException {
+        Statement s = JAR_CACHE.get(path);
+        if (s == null) {
+            s = parseFromJar(path);
+            Statement present = JAR_CACHE.putIfAbsent(path, s);
+            if (present != null)
+                s = present;
+        }
+        return s;
+    }
+
+    private static Statement parseFromJar(String path) throws IOException, ParserException {
         InputStream in = ClassLoader.getSystemResourceAsStream(path);
         if (in == null)
             throw new FileNotFoundException("file not found: " + path);
@@ -10,16 +10,20 @@ import de.neemann.digital.hdl.hgs.Expression;
 import de.neemann.digital.hdl.hgs.HGSEvalException;
 import de.neemann.digital.hdl.hgs.HGSMap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.HashMap;
 
 /**
  * Used to call a java function from the template code.
- * Uses reflection to invoke the methods.
+ * The methods are found by reflection, but are invoked by method handles which
+ * are created once per class, so a call does not go through {@link Method#invoke}.
  * All public methods which are declared in the given class are available via a
  * {@link HGSMap} instance obtained by calling {@link JavaClass#createMap(Object)}.
  * See {@link de.neemann.digital.hdl.vhdl.lib.VHDLTemplate} as an example.
@@ -60,6 +64,8 @@ public final class JavaClass<T> {
 
     private static final class MyMethod<T> {
         private final Method method;
+        private final MethodHandle handle;
+        private final int firstArg;
         private final boolean isStatic;
         private final boolean addContext;
         private final int argCount;
@@ -75,6 +81,9 @@ public final class JavaClass<T> {
             javaArgCount = argTypes.length;
             addContext = (argTypes.length > 0 && argTypes[0].isAssignableFrom(Context.class));
 
+            firstArg = isStatic ? 0 : 1;
+            handle = createHandle(method, firstArg + javaArgCount);
+
             isVarArgs = method.isVarArgs();
             if (isVarArgs) {
                 argCount = -1;
@@ -96,10 +105,12 @@ public final class JavaClass<T> {
                 throw new HGSEvalException("Wrong number of arguments! expected: "
                         + argCount + ", but found:" + args.size());
 
-            Object[] a = new Object[javaArgCount];
-            int i = 0;
+            Object[] a = new Object[firstArg + javaArgCount];
+            int i = firstArg;
+            if (!isStatic)
+                a[0] = instance;
             if (addContext) {
-                a[0] = c;
+                a[i] = c;
                 i++;
             }
 
@@ -112,7 +123,7 @@ public final class JavaClass<T> {
                 // ellipsis
                 try {
                     // the fixed args
-                    int fixed = javaArgCount - i - 1;
+                    int fixed = firstArg + javaArgCount - i - 1;
                     for (int n = 0; n < fixed; n++) {
                         a[i] = args.get(n).value(c);
                         i++;
@@ -133,9 +144,29 @@ public final class JavaClass<T> {
             }
 
             try {
-                return method.invoke(instance, a);
-            } catch (RuntimeException | IllegalAccessException | InvocationTargetException e) {
+                return (Object) handle.invokeExact(a);
+            } catch (Exception e) {
                 throw new HGSEvalException("Error invoking the java method " + method.getName() + "!", e);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        /**
+         * Creates a handle which takes all arguments, including the instance if the method
+         * is not static, as a single object array and returns an object.
+         */
+        private static MethodHandle createHandle(Method method, int handleArgCount) {
+            try {
+                return MethodHandles.lookup()
+                        .unreflect(method)
+                        .asFixedArity()
+                        .asType(MethodType.genericMethodType(handleArgCount))
+                        .asSpreader(Object[].class, handleArgCount);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Method " + method.getName() + " is not accessible!", e);
             }
         }
     }
@@ -27,6 +27,10 @@ import de.neemann.digital.hdl.model2.expression.*;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * The context of creating nodes and circuits.
@@ -179,6 +183,72 @@ public class HDLModel implements Iterable<HDLCircuit> {
         return this;
     }
 
+    /**
+     * Applies the given operation to all circuits of this model.
+     * The operation must only modify the circuit it is applied to. Because the circuits
+     * do not share any nets or nodes, the operation is applied to the circuits in parallel.
+     * If the operation fails for more than one circuit, the exception of the first failing
+     * circuit in iteration order is thrown, as it would be if the circuits were processed
+     * one after the other.
+     *
+     * @param operation the operation to apply
+     * @throws HDLException HDLException
+     */
+    public void applyToAllCircuits(CircuitOperation operation) throws HDLException {
+        if (circuitMap.size() < 2) {
+            for (HDLCircuit c : circuitMap.values())
+                operation.apply(c);
+            return;
+        }
+
+        // the tasks return their exceptions, so they are rethrown unchanged
+        ArrayList<Callable<Throwable>> tasks = new ArrayList<>();
+        for (HDLCircuit c : circuitMap.values())
+            tasks.add(() -> {
+                try {
+                    operation.apply(c);
+                    return null;
+                } catch (HDLException | RuntimeException | Error e) {
+                    return e;
+                }
+            });
+        try {
+            for (Future<Throwable> f : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                Throwable t = f.get();
+                if (t != null)
+                    rethrow(t);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HDLException("interrupted", e);
+        } catch (ExecutionException e) {
+            rethrow(e.getCause());
+        }
+    }
+
+    private static void rethrow(Throwable t) throws HDLException {
+        if (t instanceof HDLException)
+            throw (HDLException) t;
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        throw new HDLException("error processing the circuits", (Exception) t);
+    }
+
+    /**
+     * An operation which is applied to a circuit
+     */
+    public interface CircuitOperation {
+        /**
+         * Applies the operation to the given circuit
+         *
+         * @param circuit the circuit
+         * @throws HDLException HDLException
+         */
+        void apply(HDLCircuit circuit) throws HDLException;
+    }
+
     /**
      * Renames the signals in this model
      *
@@ -67,14 +67,12 @@ public class VerilogGenerator implements Closeable {
                 clockIntegrator = board.getClockIntegrator();
 
             HDLModel model = new HDLModel(library).create(circuit, clockIntegrator);
-            for (HDLCircuit hdlCircuit : model)
-                hdlCircuit.applyDefaultOptimizations();
+            model.applyToAllCircuits(HDLCircuit::applyDefaultOptimizations);
 
             HDLModel.Renaming vrename = new VerilogRenaming();
             model.renameLabels(vrename);
 
-            for (HDLCircuit hdlCircuit : model)
-                checkForUniqueNetNames(hdlCircuit);
+            model.applyToAllCircuits(this::checkForUniqueNetNames);
 
             out.println("/*");
             out.println(" * Generated by Digital. Don't modify this file!");
@@ -17,8 +17,6 @@ import de.neemann.digital.hdl.printer.CodePrinter;
 import de.neemann.digital.hdl.vhdl2.Separator;
 import de.neemann.digital.lang.Lang;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -59,21 +57,7 @@ public class VerilogTemplate implements VerilogElement {
     }
 
     private Statement parseFile(String moduleName) throws IOException, ParserException {
-        Statement stmt;
-        String fileName = createFileName(moduleName);
-
-        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(fileName);
-        if (inputStream == null) {
-            throw new IOException("file not present: " + fileName);
-        }
-
-        try (InputStreamReader in = new InputStreamReader(inputStream)) {
-            Parser parser = new Parser(in, fileName);
-
-            stmt = parser.parse();
-        }
-
-        return stmt;
+        return Parser.createFromJar(createFileName(moduleName));
     }
 
     private static String createFileName(String name) {
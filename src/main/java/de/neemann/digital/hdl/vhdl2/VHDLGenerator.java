@@ -71,13 +71,11 @@ public class VHDLGenerator implements Closeable {
                 clockIntegrator = board.getClockIntegrator();
 
             HDLModel model = new HDLModel(library).create(circuit, clockIntegrator);
-            for (HDLCircuit hdlCircuit : model)
-                hdlCircuit.applyDefaultOptimizations();
+            model.applyToAllCircuits(HDLCircuit::applyDefaultOptimizations);
 
             model.renameLabels(new VHDLRenaming());
 
-            for (HDLCircuit hdlCircuit : model)
-                checkForUniqueNetNames(hdlCircuit);
+            model.applyToAllCircuits(this::checkForUniqueNetNames);
 
             out.println("-- generated by Digital. Don't modify this file!");
             out.println("-- Any changes will be lost if this file is regenerated.");
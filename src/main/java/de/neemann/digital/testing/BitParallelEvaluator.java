@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing;
+
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.Node;
+import de.neemann.digital.core.NodeInterface;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.Observer;
+import de.neemann.digital.core.basic.*;
+import de.neemann.digital.core.wiring.bus.CommonBusValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Evaluates a purely combinational circuit made of single bit gates for 64 input vectors at once.
+ * Every value of the circuit is represented by a <code>long</code>, and every bit of this long holds
+ * the value of a different input vector, called a lane. The gates are evaluated lane-wise in
+ * topological order, so one pass calculates the outputs of 64 test rows.
+ * <p>
+ * Since the circuit has no state and no feedback loops, the result is the same as the result of
+ * {@link Model#doStep()}, no matter in which order the input vectors are applied.
+ */
+final class BitParallelEvaluator {
+    /**
+     * The number of lanes evaluated in one pass
+     */
+    static final int LANES = 64;
+
+    private static final int OP_AND = 0;
+    private static final int OP_NAND = 1;
+    private static final int OP_OR = 2;
+    private static final int OP_NOR = 3;
+    private static final int OP_XOR = 4;
+    private static final int OP_XNOR = 5;
+    private static final int OP_NOT = 6;
+
+    private final long[] lanes;
+    private final int[] op;
+    private final int[][] in;
+    private final int[] out;
+    private final int[] inputIndex;
+    private final int[] outputIndex;
+    private final int[] constIndex;
+    private final ObservableValue[] constValue;
+
+    private BitParallelEvaluator(List<ObservableValue> values, int[] op, int[][] in, int[] out,
+                                 int[] inputIndex, int[] outputIndex, int[] constIndex) {
+        lanes = new long[values.size()];
+        this.op = op;
+        this.in = in;
+        this.out = out;
+        this.inputIndex = inputIndex;
+        this.outputIndex = outputIndex;
+        this.constIndex = constIndex;
+        constValue = new ObservableValue[constIndex.length];
+        for (int i = 0; i < constIndex.length; i++)
+            constValue[i] = values.get(constIndex[i]);
+    }
+
+    /**
+     * Creates a new evaluator if the model is suited.
+     * The model is suited if all its nodes are single bit gates from the basic package which
+     * form a circuit without feedback loops, and all the given values are single bit values.
+     *
+     * @param model   the initialized model
+     * @param inputs  the values set by the test
+     * @param outputs the values checked by the test
+     * @return the evaluator or null if the model is not suited
+     */
+    static BitParallelEvaluator create(Model model, List<ObservableValue> inputs, List<ObservableValue> outputs) {
+        List<Node> nodes = model.getNodes();
+        final int gateCount = nodes.size();
+        HashMap<ObservableValue, Integer> valueMap = new HashMap<>();
+        ArrayList<ObservableValue> valueList = new ArrayList<>();
+
+        int[] gateOp = new int[gateCount];
+        int[][] gateIn = new int[gateCount][];
+        int[] gateOut = new int[gateCount];
+        for (int g = 0; g < gateCount; g++) {
+            Node n = nodes.get(g);
+            gateOp[g] = getOperation(n);
+            if (gateOp[g] < 0)
+                return null;
+            final List<ObservableValue> gin;
+            final ObservableValue gout;
+            if (gateOp[g] == OP_NOT) {
+                gin = Arrays.asList(((Not) n).getInput());
+                gout = ((Not) n).getOutput();
+            } else {
+                gin = ((FanIn) n).getInputs();
+                gout = ((FanIn) n).getOutput();
+            }
+            gateIn[g] = new int[gin.size()];
+            for (int i = 0; i < gin.size(); i++)
+                gateIn[g][i] = addValue(gin.get(i), valueMap, valueList);
+            gateOut[g] = addValue(gout, valueMap, valueList);
+        }
+        int[] inputIndex = new int[inputs.size()];
+        for (int i = 0; i < inputIndex.length; i++)
+            inputIndex[i] = addValue(inputs.get(i), valueMap, valueList);
+        int[] outputIndex = new int[outputs.size()];
+        for (int i = 0; i < outputIndex.length; i++)
+            outputIndex[i] = addValue(outputs.get(i), valueMap, valueList);
+
+        // all values need to be plain single bit values, which are not modified by other observers
+        final int valueCount = valueList.size();
+        for (ObservableValue v : valueList) {
+            if (v.getBits() != 1 || v instanceof CommonBusValue)
+                return null;
+            for (Observer o : v.getObservers())
+                if (o instanceof NodeInterface && !(o instanceof Node))
+                    return null;
+        }
+
+        int[] driver = new int[valueCount];
+        Arrays.fill(driver, -1);
+        for (int g = 0; g < gateCount; g++) {
+            if (driver[gateOut[g]] >= 0)
+                return null;
+            driver[gateOut[g]] = g;
+        }
+        for (int i : inputIndex)
+            if (driver[i] >= 0)
+                return null;
+
+        int[] order = sortTopological(gateIn, gateOut, driver);
+        if (order == null)
+            return null;
+
+        // values which are neither driven by a gate nor set by the test are constants
+        boolean[] isInput = new boolean[valueCount];
+        for (int i : inputIndex)
+            isInput[i] = true;
+        int constCount = 0;
+        for (int v = 0; v < valueCount; v++)
+            if (driver[v] < 0 && !isInput[v]) {
+                if (valueList.get(v).isHighZ())
+                    return null;
+                constCount++;
+            }
+        int[] constIndex = new int[constCount];
+        constCount = 0;
+        for (int v = 0; v < valueCount; v++)
+            if (driver[v] < 0 && !isInput[v])
+                constIndex[constCount++] = v;
+
+        int[] op = new int[gateCount];
+        int[][] in = new int[gateCount][];
+        int[] out = new int[gateCount];
+        for (int i = 0; i < gateCount; i++) {
+            op[i] = gateOp[order[i]];
+            in[i] = gateIn[order[i]];
+            out[i] = gateOut[order[i]];
+        }
+        return new BitParallelEvaluator(valueList, op, in, out, inputIndex, outputIndex, constIndex);
+    }
+
+    private static int[] sortTopological(int[][] gateIn, int[] gateOut, int[] driver) {
+        final int gateCount = gateOut.length;
+        int[] inDegree = new int[gateCount];
+        ArrayList<ArrayList<Integer>> dependents = new ArrayList<>(driver.length);
+        for (int v = 0; v < driver.length; v++)
+            dependents.add(new ArrayList<>());
+        for (int g = 0; g < gateCount; g++)
+            for (int v : gateIn[g]) {
+                dependents.get(v).add(g);
+                if (driver[v] >= 0)
+                    inDegree[g]++;
+            }
+
+        int[] order = new int[gateCount];
+        int ordered = 0;
+        for (int g = 0; g < gateCount; g++)
+            if (inDegree[g] == 0)
+                order[ordered++] = g;
+        int pos = 0;
+        while (pos < ordered) {
+            int g = order[pos++];
+            for (int d : dependents.get(gateOut[g]))
+                if (--inDegree[d] == 0)
+                    order[ordered++] = d;
+        }
+        if (ordered < gateCount)
+            return null;
+        return order;
+    }
+
+    private static int addValue(ObservableValue ov, HashMap<ObservableValue, Integer> valueMap, ArrayList<ObservableValue> valueList) {
+        Integer i = valueMap.get(ov);
+        if (i == null) {
+            i = valueList.size();
+            valueMap.put(ov, i);
+            valueList.add(ov);
+        }
+        return i;
+    }
+
+    private static int getOperation(Node n) {
+        Class<?> c = n.getClass();
+        if (c == And.class) return OP_AND;
+        if (c == NAnd.class) return OP_NAND;
+        if (c == Or.class) return OP_OR;
+        if (c == NOr.class) return OP_NOR;
+        if (c == XOr.class) return OP_XOR;
+        if (c == XNOr.class) return OP_XNOR;
+        if (c == Not.class) return OP_NOT;
+        return -1;
+    }
+
+    /**
+     * Sets the lanes of an input
+     *
+     * @param input the index of the input
+     * @param value the lanes, bit n holds the value of lane n
+     */
+    void setInput(int input, long value) {
+        lanes[inputIndex[input]] = value;
+    }
+
+    /**
+     * Evaluates all lanes
+     */
+    void evaluate() {
+        for (int i = 0; i < constIndex.length; i++)
+            lanes[constIndex[i]] = (constValue[i].getValue() & 1) == 0 ? 0 : -1;
+
+        for (int g = 0; g < op.length; g++) {
+            final int[] inputs = in[g];
+            long r;
+            switch (op[g]) {
+                case OP_AND:
+                case OP_NAND:
+                    r = -1;
+                    for (int v : inputs)
+                        r &= lanes[v];
+                    break;
+                case OP_OR:
+                case OP_NOR:
+                    r = 0;
+                    for (int v : inputs)
+                        r |= lanes[v];
+                    break;
+                case OP_XOR:
+                case OP_XNOR:
+                    r = 0;
+                    for (int v : inputs)
+                        r ^= lanes[v];
+                    break;
+                default:
+                    r = lanes[inputs[0]];
+            }
+            switch (op[g]) {
+                case OP_NAND:
+                case OP_NOR:
+                case OP_XNOR:
+                case OP_NOT:
+                    r = ~r;
+                    break;
+                default:
+            }
+            lanes[out[g]] = r;
+        }
+    }
+
+    /**
+     * Returns the lanes of an output
+     *
+     * @param output the index of the output
+     * @return the lanes, bit n holds the value of lane n
+     */
+    long getOutput(int output) {
+        return lanes[outputIndex[output]];
+    }
+}
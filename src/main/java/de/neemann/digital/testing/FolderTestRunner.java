@@ -21,6 +21,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Runs all tests in al circuits in a folder
@@ -28,6 +31,7 @@ import java.util.Comparator;
 public class FolderTestRunner {
     private final ArrayList<FileToTest> files;
     private Thread thread;
+    private volatile Summary summary;
 
     /**
      * Creates a new instance
@@ -60,7 +64,24 @@ public class FolderTestRunner {
      * @param library             the element library
      */
     public void startTests(FileChangedListener fileChangedListener, ShapeFactory shapeFactory, ElementLibrary library) {
-        thread = new Thread(new TestRunner(files, fileChangedListener, shapeFactory, library));
+        startTests(fileChangedListener, shapeFactory, library, 1);
+    }
+
+    /**
+     * Starts all the tests.
+     * The test execution is done in new threads, so this method returns immediately.
+     * If more than one thread is used, the files are tested concurrently by a pool of worker threads.
+     * Every worker loads its circuit and creates its own model. The element library is shared,
+     * so a custom element is loaded only once.
+     * The listener is called from the worker threads.
+     *
+     * @param fileChangedListener the listsener to notify if a file status changed
+     * @param shapeFactory        the shape factory
+     * @param library             the element library
+     * @param threads             the number of threads to use
+     */
+    public void startTests(FileChangedListener fileChangedListener, ShapeFactory shapeFactory, ElementLibrary library, int threads) {
+        thread = new Thread(new TestRunner(files, fileChangedListener, shapeFactory, library, threads));
         thread.setDaemon(true);
         thread.start();
     }
@@ -81,6 +102,13 @@ public class FolderTestRunner {
         return files;
     }
 
+    /**
+     * @return the summary of the last test run or null if the tests are not finished yet
+     */
+    public Summary getSummary() {
+        return summary;
+    }
+
     /**
      * Describes the file to test
      */
@@ -112,7 +140,8 @@ public class FolderTestRunner {
         private final String name;
         private String message = "-";
         private FileToTest.Status status = FileToTest.Status.unknown;
-        private int rowCount;
+        private long rowCount;
+        private long time;
 
 
         private FileToTest(int rootLength, File file) {
@@ -153,81 +182,174 @@ public class FolderTestRunner {
             return file;
         }
 
-        private void setTestRows(int rowCount) {
+        private void setTestRows(long rowCount) {
             this.rowCount = rowCount;
         }
 
         /**
          * @return the number of test case rows
          */
-        public int getRowCount() {
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        private void setTime(long time) {
+            this.time = time;
+        }
+
+        /**
+         * @return the wall time in milliseconds needed to load and test this file
+         */
+        public long getTime() {
+            return time;
+        }
+    }
+
+    /**
+     * The summary of a test run
+     */
+    public static final class Summary {
+        private final int fileCount;
+        private final long rowCount;
+        private final long time;
+
+        private Summary(ArrayList<FileToTest> files, long time) {
+            this.fileCount = files.size();
+            long rows = 0;
+            for (FileToTest f : files)
+                rows += f.getRowCount();
+            this.rowCount = rows;
+            this.time = time;
+        }
+
+        /**
+         * @return the number of files tested
+         */
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        /**
+         * @return the number of test case rows passed
+         */
+        public long getRowCount() {
             return rowCount;
         }
+
+        /**
+         * @return the wall time of the complete test run in milliseconds
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return the number of files tested per second
+         */
+        public double getFilesPerSecond() {
+            return fileCount * 1000.0 / Math.max(time, 1);
+        }
+
+        /**
+         * @return the number of test case rows passed per second
+         */
+        public double getRowsPerSecond() {
+            return rowCount * 1000.0 / Math.max(time, 1);
+        }
     }
 
-    private static final class TestRunner implements Runnable {
+    private final class TestRunner implements Runnable {
         private final ArrayList<FileToTest> files;
         private final FileChangedListener fileChangedListener;
         private final ShapeFactory shapeFactory;
         private final ElementLibrary library;
+        private final int threads;
 
-        private TestRunner(ArrayList<FileToTest> files, FileChangedListener fileChangedListener, ShapeFactory shapeFactory, ElementLibrary library) {
+        private TestRunner(ArrayList<FileToTest> files, FileChangedListener fileChangedListener, ShapeFactory shapeFactory, ElementLibrary library, int threads) {
             this.files = files;
             this.fileChangedListener = fileChangedListener;
             this.shapeFactory = shapeFactory;
             this.library = library;
+            this.threads = threads;
         }
 
         @Override
         public void run() {
-            for (int i = 0; i < files.size(); i++) {
-                FileToTest f = files.get(i);
+            long time = System.currentTimeMillis();
+            if (threads <= 1 || files.size() <= 1) {
+                for (int i = 0; i < files.size(); i++)
+                    testFile(i);
+            } else {
+                ExecutorService ex = Executors.newFixedThreadPool(Math.min(threads, files.size()), r -> {
+                    Thread t = new Thread(r);
+                    t.setDaemon(true);
+                    return t;
+                });
+                for (int i = 0; i < files.size(); i++) {
+                    final int n = i;
+                    ex.submit(() -> testFile(n));
+                }
+                ex.shutdown();
                 try {
-                    Circuit circuit = Circuit.loadCircuit(f.file, shapeFactory);
-                    ArrayList<TestCase> testCases = new ArrayList<>();
-                    for (VisualElement el : circuit.getElements()) {
-                        if (el.equalsDescription(TestCaseElement.TESTCASEDESCRIPTION)) {
-                            String label = el.getElementAttributes().getCleanLabel();
-                            TestCaseDescription testData = el.getElementAttributes().get(TestCaseElement.TESTDATA);
-                            testCases.add(new TestCase(label, testData));
-                        }
+                    ex.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+                } catch (InterruptedException e) {
+                    ex.shutdownNow();
+                    return;
+                }
+            }
+            summary = new Summary(files, System.currentTimeMillis() - time);
+            fileChangedListener.allFilesTested(summary);
+        }
+
+        private void testFile(int i) {
+            FileToTest f = files.get(i);
+            long time = System.currentTimeMillis();
+            try {
+                Circuit circuit = Circuit.loadCircuit(f.file, shapeFactory);
+                ArrayList<TestCase> testCases = new ArrayList<>();
+                for (VisualElement el : circuit.getElements()) {
+                    if (el.equalsDescription(TestCaseElement.TESTCASEDESCRIPTION)) {
+                        String label = el.getElementAttributes().getCleanLabel();
+                        TestCaseDescription testData = el.getElementAttributes().get(TestCaseElement.TESTDATA);
+                        testCases.add(new TestCase(label, testData));
                     }
-                    if (testCases.isEmpty())
-                        setMessage(f, i, Lang.get("err_noTestData"), FileToTest.Status.unknown);
-                    else {
-                        Model model = new ModelCreator(circuit, library).createModel(false);
-                        StringBuilder sb = new StringBuilder();
-                        int rowCount = 0;
-                        for (TestCase tc : testCases) {
-                            try {
-                                TestExecutor te = new TestExecutor(tc.testData).create(model);
-                                if (te.allPassed()) {
-                                    rowCount += te.getResult().getRows();
-                                } else {
-                                    if (sb.length() > 0)
-                                        sb.append("; ");
-                                    sb.append(Lang.get("msg_test_N_Failed", tc.label));
-                                }
-                            } catch (TestingDataException | NodeException e) {
+                }
+                if (testCases.isEmpty())
+                    setMessage(f, i, time, Lang.get("err_noTestData"), FileToTest.Status.unknown);
+                else {
+                    Model model = new ModelCreator(circuit, library).createModel(false);
+                    StringBuilder sb = new StringBuilder();
+                    long rowCount = 0;
+                    for (TestCase tc : testCases) {
+                        try {
+                            TestExecutor te = new TestExecutor(tc.testData).create(model);
+                            if (te.allPassed()) {
+                                rowCount += te.getTestedRows();
+                            } else {
                                 if (sb.length() > 0)
                                     sb.append("; ");
-                                sb.append(tc.label).append(": ").append(e.getMessage());
+                                sb.append(Lang.get("msg_test_N_Failed", tc.label));
                             }
+                        } catch (TestingDataException | NodeException | RuntimeException e) {
+                            if (sb.length() > 0)
+                                sb.append("; ");
+                            sb.append(tc.label).append(": ").append(e.getMessage());
                         }
-                        if (sb.length() == 0) {
-                            f.setTestRows(rowCount);
-                            setMessage(f, i, Lang.get("msg_testPassed_N", rowCount), FileToTest.Status.passed);
-                        } else
-                            setMessage(f, i, sb.toString(), FileToTest.Status.failed);
                     }
-
-                } catch (IOException | NodeException | ElementNotFoundException | PinException e) {
-                    setMessage(f, i, e.getMessage(), FileToTest.Status.error);
+                    f.setTestRows(rowCount);
+                    if (sb.length() == 0)
+                        setMessage(f, i, time, Lang.get("msg_testPassed_N", rowCount), FileToTest.Status.passed);
+                    else
+                        setMessage(f, i, time, sb.toString(), FileToTest.Status.failed);
                 }
+
+            } catch (IOException | NodeException | ElementNotFoundException | PinException | RuntimeException e) {
+                setMessage(f, i, time, e.getMessage(), FileToTest.Status.error);
             }
         }
 
-        private void setMessage(FileToTest f, int i, String message, FileToTest.Status status) {
+        private void setMessage(FileToTest f, int i, long startTime, String message, FileToTest.Status status) {
+            f.setTime(System.currentTimeMillis() - startTime);
             f.setMessage(message, status);
             fileChangedListener.messageChanged(f, i);
         }
@@ -254,5 +376,13 @@ public class FolderTestRunner {
          * @param row the row index
          */
         void messageChanged(FileToTest f, int row);
+
+        /**
+         * Called if all files are tested
+         *
+         * @param summary the summary of the test run
+         */
+        default void allFilesTested(Summary summary) {
+        }
     }
 }
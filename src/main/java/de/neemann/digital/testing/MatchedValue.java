@@ -29,6 +29,19 @@ public class MatchedValue extends Value {
         mask = (1L << found.getBits()) - 1;
     }
 
+    /**
+     * Creates a new instance
+     *
+     * @param expected the expected value
+     * @param found    the found value
+     * @param bits     the number of bits of the found value
+     */
+    MatchedValue(Value expected, long found, int bits) {
+        super(found);
+        this.expected = expected;
+        mask = (1L << bits) - 1;
+    }
+
     /**
      * @return true if test is passed
      */
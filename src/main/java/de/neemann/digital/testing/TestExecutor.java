@@ -15,6 +15,7 @@ import de.neemann.digital.data.ValueTable;
 import de.neemann.digital.lang.Lang;
 import de.neemann.digital.testing.parser.Context;
 import de.neemann.digital.testing.parser.LineEmitter;
+import de.neemann.digital.testing.parser.LineListener;
 import de.neemann.digital.testing.parser.ParserException;
 
 import java.util.ArrayList;
@@ -23,10 +24,17 @@ import java.util.HashSet;
 /**
  * Stores the test results created by a single {@link TestCaseDescription} instance.
  * The class also performs the tests.
+ * If the model is a purely combinational circuit made of single bit gates, the rows are
+ * collected and checked 64 at a time by a {@link BitParallelEvaluator}.
+ * <p>
+ * The rows are checked as they are emitted by the {@link LineEmitter}. The first rows are stored
+ * completely. After that, only the failing rows and a few rows before and after them are stored,
+ * so the memory used does not depend on the length of the test.
  */
 public class TestExecutor {
     private static final int MAX_RESULTS = 1 << 10;
     private static final int ERR_RESULTS = MAX_RESULTS * 2;
+    private static final int CONTEXT_ROWS = 8;
 
     private final ArrayList<String> names;
     private final LineEmitter lines;
@@ -36,6 +44,18 @@ public class TestExecutor {
     private boolean toManyResults = false;
     private ArrayList<TestSignal> inputs;
     private ArrayList<TestSignal> outputs;
+    private BitParallelEvaluator evaluator;
+    private Value[][] batch;
+    private int batchSize;
+    // the last rows which are not stored, shown as the context of a failing row
+    private final Value[][] context = new Value[CONTEXT_ROWS][];
+    private final boolean[] contextOmitted = new boolean[CONTEXT_ROWS];
+    private int contextStart;
+    private int contextSize;
+    private int trailingContext;
+    private long testedRows;
+    private long failedRows;
+    private long time;
 
     /**
      * Creates a new testing result
@@ -108,8 +128,18 @@ public class TestExecutor {
 
         model.init();
 
+        LineListener listener = values -> checkRow(model, values);
+        evaluator = BitParallelEvaluator.create(model, getValues(inputs), getValues(outputs));
+        if (evaluator != null) {
+            batch = new Value[BitParallelEvaluator.LANES][];
+            batchSize = 0;
+            listener = values -> addToBatch(model, values);
+        }
+
+        long start = System.nanoTime();
         try {
-            lines.emitLines(new LineListenerResolveDontCare(values -> checkRow(model, values), inputs), new Context());
+            lines.emitLines(new LineListenerResolveDontCare(listener, inputs), new Context());
+            flushBatch();
         } catch (ParserException e) {
             throw new TestingDataException(Lang.get("err_errorParsingTestdata"), e);
         } catch (RuntimeException e) {
@@ -118,16 +148,147 @@ public class TestExecutor {
                 exception = e;
             }
         }
+        time = System.nanoTime() - start;
+        if (contextSize > 0)
+            toManyResults = true;
 
         return this;
     }
 
+    private static ArrayList<ObservableValue> getValues(ArrayList<TestSignal> signals) {
+        ArrayList<ObservableValue> values = new ArrayList<>(signals.size());
+        for (TestSignal s : signals)
+            values.add(s.value);
+        return values;
+    }
+
     private void addTo(HashSet<String> signals, String name) throws TestingDataException {
         if (signals.contains(name))
             throw new TestingDataException(Lang.get("err_nameUsedTwice_N", name));
         signals.add(name);
     }
 
+    private void addToBatch(Model model, Value[] row) {
+        for (TestSignal in : inputs)
+            if (row[in.index].getType() != Value.Type.NORMAL) {
+                // clocks and high z values are applied to the model
+                flushBatch();
+                checkRow(model, row);
+                return;
+            }
+
+        // the row array is reused by the don't care resolver
+        batch[batchSize++] = row.clone();
+        if (batchSize == BitParallelEvaluator.LANES)
+            flushBatch();
+    }
+
+    private void flushBatch() {
+        if (batchSize == 0)
+            return;
+
+        for (int i = 0; i < inputs.size(); i++) {
+            final int index = inputs.get(i).index;
+            long lanes = 0;
+            for (int l = 0; l < batchSize; l++)
+                lanes |= (batch[l][index].getValue() & 1) << l;
+            evaluator.setInput(i, lanes);
+        }
+        evaluator.evaluate();
+
+        long failed = 0;
+        for (int o = 0; o < outputs.size(); o++) {
+            final int index = outputs.get(o).index;
+            final long found = evaluator.getOutput(o);
+            for (int l = 0; l < batchSize; l++) {
+                Value expected = batch[l][index];
+                if (expected.getType() != Value.Type.DONTCARE
+                        && (expected.getType() != Value.Type.NORMAL || ((expected.getValue() ^ (found >>> l)) & 1) != 0))
+                    failed |= 1L << l;
+            }
+        }
+        if (failed != 0)
+            allPassed = false;
+        testedRows += batchSize;
+        failedRows += Long.bitCount(failed);
+
+        final long contextMask = (1L << CONTEXT_ROWS) - 1;
+        for (int l = 0; l < batchSize; l++) {
+            final boolean ok = (failed & (1L << l)) == 0;
+            // a passing row is only needed if it is stored or if it is the context of a failing row
+            final boolean needed = !ok || results.getRows() < MAX_RESULTS || trailingContext > 0
+                    || l >= batchSize - CONTEXT_ROWS || ((failed >>> l >>> 1) & contextMask) != 0;
+            if (needed) {
+                Value[] row = batch[l];
+                Value[] res = new Value[row.length];
+                for (TestSignal in : inputs)
+                    res[in.index] = row[in.index];
+                for (int o = 0; o < outputs.size(); o++) {
+                    final TestSignal out = outputs.get(o);
+                    res[out.index] = new MatchedValue(row[out.index], (evaluator.getOutput(o) >>> l) & 1, 1);
+                }
+                addResult(res, ok, false);
+            } else
+                skipResult();
+        }
+        batchSize = 0;
+    }
+
+    /**
+     * Stores a result row.
+     * If the table is full, the row is kept as the context of the next failing row.
+     *
+     * @param row     the row
+     * @param ok      true if the row has passed
+     * @param omitted true if the row is not shown in the table
+     */
+    private void addResult(Value[] row, boolean ok, boolean omitted) {
+        if (results.getRows() < MAX_RESULTS)
+            addToTable(row, omitted);
+        else if (results.getRows() >= ERR_RESULTS)
+            toManyResults = true;
+        else if (!ok) {
+            for (int i = 0; i < contextSize; i++) {
+                final int c = (contextStart + i) % CONTEXT_ROWS;
+                addToTable(context[c], contextOmitted[c]);
+                context[c] = null;
+            }
+            contextSize = 0;
+            addToTable(row, omitted);
+            trailingContext = CONTEXT_ROWS;
+        } else if (trailingContext > 0) {
+            addToTable(row, omitted);
+            trailingContext--;
+        } else {
+            if (contextSize == CONTEXT_ROWS) {
+                contextStart = (contextStart + 1) % CONTEXT_ROWS;
+                contextSize--;
+                toManyResults = true;
+            }
+            final int c = (contextStart + contextSize) % CONTEXT_ROWS;
+            context[c] = row;
+            contextOmitted[c] = omitted;
+            contextSize++;
+        }
+    }
+
+    private void addToTable(Value[] row, boolean omitted) {
+        results.add(row);
+        if (omitted)
+            results.omitInTable();
+    }
+
+    /**
+     * Is called instead of {@link #addResult(Value[], boolean, boolean)} if a passing row is not needed.
+     */
+    private void skipResult() {
+        toManyResults = true;
+        trailingContext = 0;
+        for (int i = 0; i < CONTEXT_ROWS; i++)
+            context[i] = null;
+        contextSize = 0;
+    }
+
     private void checkRow(Model model, Value[] row) {
         Value[] res = new Value[row.length];
 
@@ -183,22 +344,42 @@ public class TestExecutor {
             }
         }
 
-        if (results.getRows() < (ok ? MAX_RESULTS : ERR_RESULTS))
-            results.add(res);
-        else
-            toManyResults = true;
+        testedRows++;
+        if (!ok)
+            failedRows++;
+        addResult(res, ok, false);
     }
 
     private void addClockRow(int cols) {
-        if (results.getRows() < ERR_RESULTS) {
-            Value[] r = new Value[cols];
-            for (TestSignal out : outputs)
-                r[out.index] = new Value(out.value);
-            for (TestSignal in : inputs)
-                r[in.index] = new Value(in.value);
-            results.add(r).omitInTable();
-        } else
-            toManyResults = true;
+        Value[] r = new Value[cols];
+        for (TestSignal out : outputs)
+            r[out.index] = new Value(out.value);
+        for (TestSignal in : inputs)
+            r[in.index] = new Value(in.value);
+        addResult(r, true, true);
+    }
+
+    /**
+     * @return the number of rows checked
+     */
+    public long getTestedRows() {
+        return testedRows;
+    }
+
+    /**
+     * @return the number of rows which have failed
+     */
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    /**
+     * @return the number of rows checked per second
+     */
+    public long getRowsPerSecond() {
+        if (time <= 0)
+            return 0;
+        return testedRows * 1000000000L / time;
     }
 
     /**
@@ -11,9 +11,17 @@ import java.util.HashMap;
 
 /**
  * The context of the calculations.
+ * The variables declared by the test data are resolved to slots by the parser, so
+ * they are accessed by index without any hashing or boxing. Variables set via
+ * {@link #setVar(String, long)} which are not known to the parser are stored in a map.
  */
 public class Context {
+    private static final String[] NO_SLOTS = new String[0];
+
     private final Context parent;
+    private final String[] slotNames;
+    private final long[] slots;
+    private final boolean[] slotSet;
     private HashMap<String, Long> map;
 
     /**
@@ -29,7 +37,20 @@ public class Context {
      * @param parent the parents context
      */
     public Context(Context parent) {
+        this(parent, NO_SLOTS);
+    }
+
+    /**
+     * Creates an empty context with slots for the given variables
+     *
+     * @param parent    the parents context
+     * @param slotNames the names of the variables stored in slots
+     */
+    Context(Context parent, String[] slotNames) {
         this.parent = parent;
+        this.slotNames = slotNames;
+        slots = new long[slotNames.length];
+        slotSet = new boolean[slotNames.length];
     }
 
     /**
@@ -40,6 +61,9 @@ public class Context {
      * @throws ParserException if the variable does not exist
      */
     public long getVar(String name) throws ParserException {
+        int slot = indexOf(name);
+        if (slot >= 0 && slotSet[slot])
+            return slots[slot];
         if (map == null || !map.containsKey(name)) {
             if (parent == null)
                 throw new ParserException(Lang.get("err_variable_N0_notFound", name));
@@ -56,9 +80,55 @@ public class Context {
      * @return this for chained calls
      */
     public Context setVar(String varName, long value) {
-        if (map == null)
-            map = new HashMap<>();
-        map.put(varName, value);
+        int slot = indexOf(varName);
+        if (slot >= 0)
+            setSlot(slot, value);
+        else {
+            if (map == null)
+                map = new HashMap<>();
+            map.put(varName, value);
+        }
         return this;
     }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < slotNames.length; i++)
+            if (slotNames[i].equals(name))
+                return i;
+        return -1;
+    }
+
+    /**
+     * @param slot the slot
+     * @return true if the slot holds a value
+     */
+    boolean isSlotSet(int slot) {
+        return slotSet[slot];
+    }
+
+    /**
+     * @param slot the slot
+     * @return the value stored in the slot
+     */
+    long getSlot(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Stores a value in a slot
+     *
+     * @param slot  the slot
+     * @param value the value
+     */
+    void setSlot(int slot, long value) {
+        slots[slot] = value;
+        slotSet[slot] = true;
+    }
+
+    /**
+     * @return the parent context, maybe null
+     */
+    Context getParent() {
+        return parent;
+    }
 }
@@ -9,11 +9,13 @@ import de.neemann.digital.lang.Lang;
 
 /**
  * Repeats some inner table rows.
+ * The loop variable is stored in the first slot of the context created for the loop,
+ * so an iteration does not allocate anything.
  */
 public class LineEmitterRepeat implements LineEmitter {
     private static final long MAX_LOOPS = 1L << 24;
 
-    private final String name;
+    private final String[] names;
     private final int size;
     private final LineEmitter inner;
 
@@ -26,7 +28,19 @@ public class LineEmitterRepeat implements LineEmitter {
      * @throws ParserException if there are to many iterations
      */
     public LineEmitterRepeat(String name, long size, LineEmitter inner) throws ParserException {
-        this.name = name;
+        this(new String[]{name}, size, inner);
+    }
+
+    /**
+     * Creates a new loop
+     *
+     * @param names the variables declared in the loop, the first one is the loop variable
+     * @param size  number of iterations
+     * @param inner the lines to repeat
+     * @throws ParserException if there are to many iterations
+     */
+    LineEmitterRepeat(String[] names, long size, LineEmitter inner) throws ParserException {
+        this.names = names;
         this.size = (int) size;
         this.inner = inner;
 
@@ -36,9 +50,9 @@ public class LineEmitterRepeat implements LineEmitter {
 
     @Override
     public void emitLines(LineListener listener, Context conext) throws ParserException {
-        Context c = new Context(conext);
+        Context c = new Context(conext, names);
         for (int i = 0; i < size; i++) {
-            c.setVar(name, i);
+            c.setSlot(0, i);
             inner.emitLines(listener, c);
         }
     }
@@ -35,6 +35,8 @@ public class Parser {
     private final Tokenizer tok;
     private LineEmitter emitter;
     private HashMap<String, Function> functions = new HashMap<>();
+    private final ArrayList<Variable> variables = new ArrayList<>();
+    private VariableScope scope;
 
     /**
      * Creates a new instance
@@ -58,8 +60,18 @@ public class Parser {
      */
     public Parser parse() throws IOException, ParserException {
         parseHeader();
-        emitter = parseRows(null);
+        scope = new VariableScope(null);
+        final LineEmitter rows = parseRows(null);
         expect(Tokenizer.Token.EOF);
+
+        for (Variable v : variables)
+            v.resolve();
+        final String[] rootNames = scope.getNames();
+        if (rootNames.length == 0)
+            emitter = rows;
+        else
+            emitter = (listener, context) -> rows.emitLines(listener, new Context(context, rootNames));
+        scope = null;
         return this;
     }
 
@@ -111,18 +123,20 @@ public class Parser {
                 case LET:
                     tok.consume();
                     expect(Tokenizer.Token.IDENT);
-                    final String varName=tok.getIdent();
+                    final int slot = scope.declare(tok.getIdent());
                     expect(Tokenizer.Token.EQUAL);
                     final Expression intValue = parseExpression();
                     expect(Tokenizer.Token.SEMICOLON);
-                    list.add((listener, context) -> context.setVar(varName, intValue.value(context)));
+                    list.add((listener, context) -> context.setSlot(slot, intValue.value(context)));
                     break;
                 case REPEAT:
                     tok.consume();
                     expect(Tokenizer.Token.OPEN);
                     long count = parseInt();
                     expect(Tokenizer.Token.CLOSE);
-                    list.add(new LineEmitterRepeat("n", count, parseSingleRow()));
+                    enterScope("n");
+                    LineEmitter row = parseSingleRow();
+                    list.add(new LineEmitterRepeat(leaveScope(), count, row));
                     break;
                 case LOOP:
                     tok.consume();
@@ -132,7 +146,9 @@ public class Parser {
                     expect(Tokenizer.Token.COMMA);
                     count = parseInt();
                     expect(Tokenizer.Token.CLOSE);
-                    list.add(new LineEmitterRepeat(var, count, parseRows(Tokenizer.Token.LOOP)));
+                    enterScope(var);
+                    LineEmitter rows = parseRows(Tokenizer.Token.LOOP);
+                    list.add(new LineEmitterRepeat(leaveScope(), count, rows));
                     break;
                 default:
                     throw newUnexpectedToken(t);
@@ -140,6 +156,17 @@ public class Parser {
         }
     }
 
+    private void enterScope(String loopVar) {
+        scope = new VariableScope(scope);
+        scope.declare(loopVar);
+    }
+
+    private String[] leaveScope() {
+        String[] names = scope.getNames();
+        scope = scope.getParent();
+        return names;
+    }
+
     private LineEmitter parseSingleRow() throws IOException, ParserException {
         LineEmitterSimple line = null;
         while (true) {
@@ -409,7 +436,7 @@ public class Parser {
                     expect(Tokenizer.Token.CLOSE);
                     return findFunction(name, args);
                 } else
-                    return (c) -> c.getVar(name);
+                    return createVariable(name);
             case NUMBER:
                 long num = convToLong(tok.getIdent());
                 return (c) -> num;
@@ -431,6 +458,14 @@ public class Parser {
         }
     }
 
+    private Expression createVariable(String name) {
+        if (scope == null)
+            return (c) -> c.getVar(name);
+        Variable v = new Variable(name, scope);
+        variables.add(v);
+        return v;
+    }
+
     private Expression findFunction(String name, ArrayList<Expression> args) throws ParserException {
         Function f = functions.get(name);
         if (f == null)
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+import de.neemann.digital.lang.Lang;
+
+/**
+ * Reads a variable.
+ * After the parser has completed all scopes, the variable is resolved to the slot it
+ * occupies in each enclosing scope. At runtime the contexts are searched from the
+ * innermost to the outermost scope, which gives the same result as a lookup by name.
+ */
+final class Variable implements Expression {
+    private static final int[] UNRESOLVED = new int[0];
+
+    private final String name;
+    private final VariableScope scope;
+    private int[] slots = UNRESOLVED;
+
+    /**
+     * Creates a new variable
+     *
+     * @param name  the name of the variable
+     * @param scope the scope the variable is used in
+     */
+    Variable(String name, VariableScope scope) {
+        this.name = name;
+        this.scope = scope;
+    }
+
+    /**
+     * Resolves the variable to the slots of the enclosing scopes.
+     * Needs to be called after all scopes are complete.
+     */
+    void resolve() {
+        int depth = 0;
+        for (VariableScope s = scope; s != null; s = s.getParent())
+            depth++;
+        int[] r = new int[depth];
+        int i = 0;
+        for (VariableScope s = scope; s != null; s = s.getParent())
+            r[i++] = s.getSlot(name);
+        slots = r;
+    }
+
+    @Override
+    public long value(Context c) throws ParserException {
+        Context context = c;
+        for (int slot : slots) {
+            if (context == null)
+                break;
+            if (slot >= 0 && context.isSlotSet(slot))
+                return context.getSlot(slot);
+            context = context.getParent();
+        }
+        if (context == null)
+            throw new ParserException(Lang.get("err_variable_N0_notFound", name));
+        return context.getVar(name);
+    }
+}
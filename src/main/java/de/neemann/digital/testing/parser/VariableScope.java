@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.testing.parser;
+
+import java.util.ArrayList;
+
+/**
+ * The variables declared in the top level of the test data or in a loop.
+ * Used by the parser to assign a slot to every variable. At runtime, every scope
+ * is represented by a {@link Context} which stores the variables in its slots.
+ */
+final class VariableScope {
+    private final VariableScope parent;
+    private final ArrayList<String> names;
+
+    /**
+     * Creates a new scope
+     *
+     * @param parent the enclosing scope, null if this is the top level scope
+     */
+    VariableScope(VariableScope parent) {
+        this.parent = parent;
+        names = new ArrayList<>();
+    }
+
+    /**
+     * Declares a variable in this scope.
+     * If the variable is already declared, its slot is reused.
+     *
+     * @param name the name of the variable
+     * @return the slot of the variable
+     */
+    int declare(String name) {
+        int slot = names.indexOf(name);
+        if (slot < 0) {
+            slot = names.size();
+            names.add(name);
+        }
+        return slot;
+    }
+
+    /**
+     * @param name the name of the variable
+     * @return the slot of the variable or -1 if it is not declared in this scope
+     */
+    int getSlot(String name) {
+        return names.indexOf(name);
+    }
+
+    /**
+     * @return the names of the variables in this scope in slot order
+     */
+    String[] getNames() {
+        return names.toArray(new String[names.size()]);
+    }
+
+    /**
+     * @return the enclosing scope, null if this is the top level scope
+     */
+    VariableScope getParent() {
+        return parent;
+    }
+}
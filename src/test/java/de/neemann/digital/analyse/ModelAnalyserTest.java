@@ -7,15 +7,21 @@ package de.neemann.digital.analyse;
 
 import de.neemann.digital.analyse.expression.Variable;
 import de.neemann.digital.analyse.quinemc.BoolTable;
-import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
 import de.neemann.digital.analyse.quinemc.ThreeStateValue;
+import de.neemann.digital.analyse.parser.Parser;
+import de.neemann.digital.builder.circuit.CircuitBuilder;
 import de.neemann.digital.core.Model;
+import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.model.ModelCreator;
+import de.neemann.digital.draw.shapes.ShapeFactory;
 import de.neemann.digital.integration.ToBreakRunner;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static de.neemann.digital.analyse.quinemc.ThreeStateValue.one;
 import static de.neemann.digital.analyse.quinemc.ThreeStateValue.zero;
@@ -181,7 +187,60 @@ public class ModelAnalyserTest extends TestCase {
         checkTable(getInner(Y4), zero, zero, zero, zero, zero, zero, zero, one);
     }
 
-    private BoolTableByteArray getInner(BoolTable table) {
+    public void testParallelSimpleFiller() throws Exception {
+        assertTrue(checkParallel("A^B^C^D^E^F^G^H^I^J^K^L^M^N", "(A+B)(C+D)(E+F)(G+H)(I+J)(K+L)(M+N)") > 0);
+    }
+
+    public void testParallelDependantFiller() throws Exception {
+        assertTrue(checkParallel("A^B^C^D^E^F^G^H^I^J^K^L^M^N", "C^D^E^F^G^H^I^J^K^L^M^N^O^P",
+                "(A+C)(D+E)(F+G)(H+I)(J+K)(L+M)(N+P)") > 0);
+    }
+
+    public void testSmallDependantFillerIsSerial() throws Exception {
+        assertEquals(0, checkParallel("A B + C", "B C + D", "C D + E", "D E + F", "E F + G", "F G + H",
+                "G H + I", "H I + J", "I J + K", "J K + L", "K L + M", "L M + A"));
+    }
+
+    public void testParallelBacktrack() throws Exception {
+        ToBreakRunner br = new ToBreakRunner("dig/analyze/analyzeBacktrack.dig", false);
+        TruthTable serial = new ModelAnalyser(br.getModel()).analyse();
+        TruthTable parallel = new ModelAnalyser(new ModelCreator(br.getCircuit(), br.getLibrary()).createModel(false))
+                .setParallel(() -> new ModelCreator(br.getCircuit(), br.getLibrary()).createModel(false), 4)
+                .analyse();
+        assertEquals(serial.toString(), parallel.toString());
+    }
+
+    // returns the number of models created for the worker threads
+    private int checkParallel(String... functions) throws Exception {
+        ElementLibrary library = new ElementLibrary();
+        CircuitBuilder cb = new CircuitBuilder(new ShapeFactory(library));
+        for (int i = 0; i < functions.length; i++)
+            cb.addCombinatorial("Y" + i, new Parser(functions[i]).parse().get(0));
+        Circuit circuit = cb.createCircuit();
+
+        TruthTable serial = new ModelAnalyser(new ModelCreator(circuit, library).createModel(false)).analyse();
+        AtomicInteger created = new AtomicInteger();
+        TruthTable parallel = new ModelAnalyser(new ModelCreator(circuit, library).createModel(false))
+                .setParallel(() -> {
+                    created.incrementAndGet();
+                    return new ModelCreator(circuit, library).createModel(false);
+                }, 4)
+                .analyse();
+
+        assertEquals(serial.getRows(), parallel.getRows());
+        assertEquals(serial.getResultCount(), parallel.getResultCount());
+        for (int r = 0; r < serial.getResultCount(); r++) {
+            assertEquals(serial.getResultName(r), parallel.getResultName(r));
+            BoolTable s = serial.getResult(r);
+            BoolTable p = parallel.getResult(r);
+            assertEquals(s.size(), p.size());
+            for (int i = 0; i < s.size(); i++)
+                assertEquals(s.get(i), p.get(i));
+        }
+        return created.get();
+    }
+
+    private BoolTable getInner(BoolTable table) {
         assertTrue(table instanceof BoolTableExpanded);
         return ((BoolTableExpanded) table).getBoolTable();
     }
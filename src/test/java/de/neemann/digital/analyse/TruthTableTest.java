@@ -7,11 +7,20 @@ package de.neemann.digital.analyse;
 
 import de.neemann.digital.analyse.expression.ContextFiller;
 import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.quinemc.BoolTable;
+import de.neemann.digital.analyse.quinemc.BoolTableBitArray;
 import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.EditableBoolTable;
 import junit.framework.TestCase;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.zip.GZIPOutputStream;
 
 /**
  */
@@ -86,4 +95,82 @@ public class TruthTableTest extends TestCase {
                 "2\n" +
                 "1\n", w.toString());
     }
+
+    public void testBinary() throws Exception {
+        TruthTable t = new TruthTable(5).addResult("Y").addResult("Z");
+        EditableBoolTable y = (EditableBoolTable) t.getResult(0);
+        EditableBoolTable z = (EditableBoolTable) t.getResult(1);
+        for (int i = 0; i < t.getRows(); i++) {
+            y.set(i, i % 3);
+            z.set(i, (i / 2) % 2);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        t.saveBinary(out);
+        TruthTable read = TruthTable.readBinary(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(t.toString(), read.toString());
+        assertTrue(read.getResult(0) instanceof BoolTableByteArray);
+    }
+
+    public void testBinaryInvalidCounts() throws Exception {
+        checkInvalidBinary(-1, 0);
+        checkInvalidBinary(31, 0);
+        checkInvalidBinary(1, -1);
+    }
+
+    private static void checkInvalidBinary(int varCount, int resultCount) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeUTF("DigitalTruthTable");
+            data.writeInt(1);
+            data.writeInt(varCount);
+            for (int i = 0; i < varCount; i++)
+                data.writeUTF("V" + i);
+            data.writeInt(resultCount);
+        }
+        try {
+            TruthTable.readBinary(new ByteArrayInputStream(out.toByteArray()));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("number"));
+        }
+    }
+
+    public void testLargeTableFile() throws Exception {
+        TruthTable t = new TruthTable(16).addResult();
+        BoolTable result = t.getResult(0);
+        assertTrue(result instanceof BoolTableBitArray);
+        for (int i = 0; i < t.getRows(); i++)
+            ((EditableBoolTable) result).set(i, i % 7 == 0 ? 2 : i % 5 % 2);
+
+        File file = File.createTempFile("truthTable", ".tru");
+        try {
+            t.save(file);
+            TruthTable read = TruthTable.readFromFile(file);
+            assertEquals(16, read.getVars().size());
+            assertEquals("Y", read.getResultName(0));
+            BoolTable r = read.getResult(0);
+            assertTrue(r instanceof BoolTableBitArray);
+            for (int i = 0; i < t.getRows(); i++)
+                assertEquals(result.get(i), r.get(i));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testSmallTableFile() throws Exception {
+        TruthTable t = new TruthTable(3).addResult();
+        BoolTableByteArray result = (BoolTableByteArray) t.getResult(0);
+        for (int i = 0; i < t.getRows(); i++)
+            result.set(i, i % 3);
+
+        File file = File.createTempFile("truthTable", ".tru");
+        try {
+            t.save(file);
+            assertEquals(t.toString(), TruthTable.readFromFile(file).toString());
+        } finally {
+            file.delete();
+        }
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import de.neemann.digital.analyse.expression.Variable;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class BoolTableBitArrayTest extends TestCase {
+
+    public void testSetGet() {
+        BoolTableBitArray t = new BoolTableBitArray(100);
+        assertEquals(100, t.size());
+        assertEquals(2, t.getWordCount());
+        for (int i = 0; i < 100; i++)
+            t.set(i, i % 3);
+        for (int i = 0; i < 100; i++)
+            assertEquals(ThreeStateValue.value(i % 3), t.get(i));
+
+        t.set(5, true);
+        assertEquals(ThreeStateValue.one, t.get(5));
+        t.set(5, false);
+        assertEquals(ThreeStateValue.zero, t.get(5));
+    }
+
+    public void testSetXTo() {
+        BoolTableBitArray t = new BoolTableBitArray(70);
+        for (int i = 0; i < 70; i++)
+            t.set(i, i % 3);
+        t.setXTo(1);
+        for (int i = 0; i < 70; i++)
+            assertEquals(i % 3 == 0 ? ThreeStateValue.zero : ThreeStateValue.one, t.get(i));
+    }
+
+    public void testSetAllTo() {
+        BoolTableBitArray t = new BoolTableBitArray(70);
+        t.setAllTo(2);
+        for (int i = 0; i < 70; i++)
+            assertEquals(ThreeStateValue.dontCare, t.get(i));
+        // the unused bits of the last word are not set
+        assertEquals(0x3f, t.getDontCareWord(1));
+        t.setAllTo(1);
+        assertEquals(0x3f, t.getOnesWord(1));
+        assertEquals(0, t.getDontCareWord(1));
+    }
+
+    public void testCreate() {
+        assertTrue(EditableBoolTable.create(16) instanceof BoolTableByteArray);
+        assertTrue(EditableBoolTable.create(EditableBoolTable.BIT_ARRAY_THRESHOLD) instanceof BoolTableBitArray);
+    }
+
+    public void testQuineMcCluskeyFill() throws Exception {
+        Random r = new Random(1);
+        for (int n = 0; n < 20; n++) {
+            int vars = 8;
+            BoolTableByteArray bytes = new BoolTableByteArray(1 << vars);
+            BoolTableBitArray bits = new BoolTableBitArray(1 << vars);
+            for (int i = 0; i < bytes.size(); i++) {
+                int v = r.nextInt(3);
+                bytes.set(i, v);
+                bits.set(i, v);
+            }
+            String fromBytes = new QuineMcCluskey(Variable.vars(vars)).fillTableWith(bytes).toString();
+            String fromBits = new QuineMcCluskey(Variable.vars(vars)).fillTableWith(bits).toString();
+            assertEquals(fromBytes, fromBits);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc;
+
+import de.neemann.digital.analyse.expression.ContextFiller;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.expression.format.FormatToExpression;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class EspressoTest extends TestCase {
+
+    public void testSimple() throws Exception {
+        ArrayList<Variable> vars = Variable.vars(3);
+        BoolTableByteArray t = new BoolTableByteArray(new byte[]{1, 1, 0, 0, 1, 2, 2, 0});
+        assertEquals("!B", FormatToExpression.FORMATTER_JAVA.format(minimize(vars, t)));
+    }
+
+    public void testConstants() throws Exception {
+        ArrayList<Variable> vars = Variable.vars(3);
+        assertEquals("false", FormatToExpression.FORMATTER_JAVA.format(minimize(vars, new BoolTableByteArray(8))));
+        BoolTableByteArray one = new BoolTableByteArray(8);
+        one.setAllTo(1);
+        assertEquals("true", FormatToExpression.FORMATTER_JAVA.format(minimize(vars, one)));
+    }
+
+    public void testRandom() throws Exception {
+        Random r = new Random(1);
+        for (int n = 0; n < 50; n++) {
+            int varCount = 4 + r.nextInt(6);
+            ArrayList<Variable> vars = Variable.vars(varCount);
+            BoolTableByteArray t = new BoolTableByteArray(1 << varCount);
+            for (int i = 0; i < t.size(); i++)
+                t.set(i, r.nextInt(3));
+
+            Expression e = minimize(vars, t);
+            check(vars, t, e);
+
+            // the result should not be much worse than the exact solution
+            if (varCount > 5)
+                continue;
+            Expression exact = new QuineMcCluskey(vars).fillTableWith(t).simplify().getExpression();
+            List<TableRow> rows = new Espresso(varCount, t).minimize();
+            assertTrue(rows.size() <= countTerms(exact) * 3 / 2 + 1);
+        }
+    }
+
+    public void testLarge() throws Exception {
+        int varCount = 20;
+        ArrayList<Variable> vars = Variable.vars(varCount);
+        BoolTableBitArray t = new BoolTableBitArray(1 << varCount);
+        Random r = new Random(2);
+        for (int i = 0; i < t.size(); i++) {
+            boolean y = ((i >> 19) & (i >> 18) & 1) != 0
+                    || ((i >> 17) & ~(i >> 16) & 1) != 0
+                    || (i & 0x3f) == 0x2a
+                    || ((i >> 8) & 7) == 5;
+            if (y)
+                t.set(i, 1);
+            else if (r.nextInt(100) == 0)
+                t.set(i, 2);
+        }
+
+        long time = System.currentTimeMillis();
+        Expression e = minimize(vars, t);
+        time = System.currentTimeMillis() - time;
+        assertTrue("took " + time + " ms", time < 20000);
+
+        check(vars, t, e);
+        assertEquals(4, countTerms(e));
+    }
+
+    public void testToManyVars() {
+        try {
+            new Espresso(Espresso.MAX_VARS + 1, new BoolTableBitArray(2));
+            fail();
+        } catch (ExpressionException e) {
+            assertTrue(true);
+        }
+    }
+
+    private static Expression minimize(List<Variable> vars, BoolTable t) throws ExpressionException {
+        Expression e = QuineMcCluskey.addAnd(null, new Espresso(vars.size(), t).minimize(), vars);
+        if (e == null)
+            return de.neemann.digital.analyse.expression.Constant.ZERO;
+        return e;
+    }
+
+    private static int countTerms(Expression e) throws Exception {
+        String s = FormatToExpression.FORMATTER_JAVA.format(e);
+        return s.split("\\|\\|").length;
+    }
+
+    private static void check(List<Variable> vars, BoolTable t, Expression e) throws ExpressionException {
+        ContextFiller cf = new ContextFiller(vars);
+        for (int i = 0; i < t.size(); i++) {
+            ThreeStateValue v = t.get(i);
+            if (v != ThreeStateValue.dontCare)
+                assertEquals("row " + i, v.bool(), e.calculate(cf.setContextTo(i)));
+        }
+    }
+}
@@ -221,6 +221,18 @@ public class QuineMcCluskeyTest extends TestCase {
         }.create();
     }
 
+    public void testLargeTable() throws Exception {
+        // large enough to combine the first level in parallel
+        int n = 13;
+        byte[] tab = new byte[1 << n];
+        for (int i = 0; i < tab.length; i++)
+            if ((i & (1 << (n - 1))) != 0 || (i & 3) == 3)
+                tab[i] = 1;
+
+        Expression e = createExpression(n, tab);
+        assertEquals("A || (L && M)", FormatToExpression.FORMATTER_JAVA.format(e));
+    }
+
     private Expression createExpression(int n, byte[] tab) throws ExpressionException {
         ArrayList<Variable> v = vars(n);
         return new QuineMcCluskey(v)
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.analyse.quinemc.primeselector;
+
+import de.neemann.digital.analyse.expression.ContextFiller;
+import de.neemann.digital.analyse.expression.Expression;
+import de.neemann.digital.analyse.expression.ExpressionException;
+import de.neemann.digital.analyse.expression.Variable;
+import de.neemann.digital.analyse.expression.format.FormatterException;
+import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import de.neemann.digital.analyse.quinemc.FullVariantDontCareCreator;
+import de.neemann.digital.analyse.quinemc.QuineMcCluskey;
+import de.neemann.digital.analyse.quinemc.TableRow;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static de.neemann.digital.analyse.expression.Variable.vars;
+
+public class BranchAndBoundTest extends TestCase {
+
+    /**
+     * The branch and bound search has to find the same solutions in the same order as the brute force search.
+     */
+    public void testSameAsBruteForce() throws ExpressionException, FormatterException {
+        new FullVariantDontCareCreator() {
+            @Override
+            public void handleTable(int n, byte[] tab) throws ExpressionException {
+                compare(n, tab);
+            }
+        }.create();
+        new FullVariantDontCareCreator(4, 997) {
+            @Override
+            public void handleTable(int n, byte[] tab) throws ExpressionException {
+                compare(n, tab);
+            }
+        }.create();
+    }
+
+    private static void compare(int n, byte[] tab) throws ExpressionException {
+        ArrayList<Variable> v = vars(n);
+
+        BruteForceGetAll bf = new BruteForceGetAll();
+        new QuineMcCluskey(v).fillTableWith(new BoolTableByteArray(tab)).simplify(bf);
+
+        BranchAndBound bb = new BranchAndBound();
+        new QuineMcCluskey(v).fillTableWith(new BoolTableByteArray(tab)).simplify(bb);
+
+        assertEquals(toString(bf.getAllSolutions(), v), toString(bb.getAllSolutions(), v));
+        assertFalse(bb.isBudgetExhausted());
+    }
+
+    private static String toString(ArrayList<ArrayList<TableRow>> solutions, ArrayList<Variable> v) {
+        if (solutions == null)
+            return "null";
+        StringBuilder sb = new StringBuilder();
+        for (ArrayList<TableRow> s : solutions)
+            sb.append(QuineMcCluskey.addAnd(null, s, v)).append("\n");
+        return sb.toString();
+    }
+
+    public void testCyclic() throws ExpressionException {
+        // cyclic chart without essential primes, two minimal solutions
+        ArrayList<Variable> v = vars(3);
+        BranchAndBound bb = new BranchAndBound();
+        new QuineMcCluskey(v)
+                .fillTableWith(new BoolTableByteArray(new byte[]{1, 1, 1, 0, 0, 1, 1, 1}))
+                .simplify(bb);
+        assertEquals(2, bb.getAllSolutions().size());
+        for (ArrayList<TableRow> s : bb.getAllSolutions())
+            assertEquals(3, s.size());
+    }
+
+    public void testLargeWithNodeBudget() throws ExpressionException {
+        ArrayList<Variable> v = vars(9);
+        byte[] tab = new byte[1 << 9];
+        Random r = new Random(1);
+        for (int i = 0; i < tab.length; i++)
+            tab[i] = (byte) r.nextInt(3);
+
+        BranchAndBound bb = new BranchAndBound(10000, 10);
+        Expression e = new QuineMcCluskey(v)
+                .fillTableWith(new BoolTableByteArray(tab))
+                .simplify(bb)
+                .getExpression();
+        assertTrue(bb.isBudgetExhausted());
+        assertTrue(bb.getAllSolutions().size() <= 10);
+
+        // the result does not depend on the speed of the machine
+        BranchAndBound bb2 = new BranchAndBound(10000, 10);
+        Expression e2 = new QuineMcCluskey(v)
+                .fillTableWith(new BoolTableByteArray(tab))
+                .simplify(bb2)
+                .getExpression();
+        assertEquals(e.toString(), e2.toString());
+
+        ContextFiller context = new ContextFiller(v);
+        for (int i = 0; i < tab.length; i++)
+            if (tab[i] <= 1)
+                assertEquals(tab[i] == 1, e.calculate(context.setContextTo(i)));
+    }
+}
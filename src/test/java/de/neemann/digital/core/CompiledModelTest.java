@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.integration.ToBreakRunner;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class CompiledModelTest extends TestCase {
+
+    public void testCounterSplitter() throws Exception {
+        checkSameBehaviour("dig/CounterSplitter.dig", 2500);
+    }
+
+    public void testRunToBreak() throws Exception {
+        checkSameBehaviour("dig/runToBreak.dig", 1100);
+    }
+
+    public void testMultiBitCounter() throws Exception {
+        checkSameBehaviour("dig/analyze/multiBitCounter.dig", 100);
+    }
+
+    public void testFallbackOnSwitches() throws Exception {
+        Model model = new ToBreakRunner("dig/test/fet/d-ff.dig").getModel();
+        CompiledModel cm = new CompiledModel(model);
+        assertFalse(cm.isCompiled());
+        assertNotNull(cm.getNotCompiledReason());
+    }
+
+    private void checkSameBehaviour(String file, int clocks) throws Exception {
+        Model event = new ToBreakRunner(file).getModel();
+        Model levelized = new ToBreakRunner(file).getModel();
+        CompiledModel cm = new CompiledModel(levelized);
+        assertTrue(cm.getNotCompiledReason(), cm.isCompiled());
+
+        ObservableValue clkEvent = event.getClocks().get(0).getClockOutput();
+        ObservableValue clkLevelized = levelized.getClocks().get(0).getClockOutput();
+
+        List<Node> eventNodes = event.getNodes();
+        List<Node> levelizedNodes = levelized.getNodes();
+        assertEquals(eventNodes.size(), levelizedNodes.size());
+
+        for (int i = 0; i < clocks; i++) {
+            clkEvent.setBool(!clkEvent.getBool());
+            event.doStep();
+            clkLevelized.setBool(!clkLevelized.getBool());
+            cm.doStep();
+
+            for (int n = 0; n < eventNodes.size(); n++) {
+                ObservableValues eo = eventNodes.get(n).getOutputs();
+                ObservableValues lo = levelizedNodes.get(n).getOutputs();
+                for (int o = 0; o < eo.size(); o++) {
+                    assertEquals(eo.get(o).getValue(), lo.get(o).getValue());
+                    assertEquals(eo.get(o).getHighZ(), lo.get(o).getHighZ());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.element.ElementAttributes;
+import junit.framework.TestCase;
+
+public class NodeSchedulerTest extends TestCase {
+
+    public void testScheduler() {
+        NodeScheduler s = new NodeScheduler(100);
+        s.add(3);
+        s.add(70);
+        s.add(3);
+        assertEquals(2, s.getNextSize());
+
+        s.nextMicroStep();
+        assertEquals(2, s.getActSize());
+        assertEquals(3, s.getAct()[0]);
+        assertEquals(70, s.getAct()[1]);
+        assertEquals(0, s.getNextSize());
+
+        s.add(70);
+        s.add(99);
+        s.add(99);
+        assertEquals(2, s.getNextSize());
+        assertEquals(2, s.getAndResetHighWaterMark());
+
+        s.clearNext();
+        assertEquals(0, s.getNextSize());
+        s.add(99);
+        assertEquals(1, s.getNextSize());
+    }
+
+    public void testStepStatistics() throws Exception {
+        ObservableValue in = new ObservableValue("in", 1);
+        Model model = new Model();
+        ObservableValue v = in;
+        for (int i = 0; i < 10; i++) {
+            Not not = model.add(new Not(new ElementAttributes()));
+            not.setInputs(v.asList());
+            v = not.getOutput();
+        }
+        model.init();
+
+        in.setBool(true);
+        model.doStep();
+        assertEquals(10, model.getMicroStepsOfLastStep());
+        assertEquals(1, model.getQueueHighWaterMarkOfLastStep());
+        assertTrue(v.getBool());
+    }
+}
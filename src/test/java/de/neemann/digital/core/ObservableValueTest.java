@@ -5,6 +5,8 @@
  */
 package de.neemann.digital.core;
 
+import de.neemann.digital.core.basic.Not;
+import de.neemann.digital.core.element.ElementAttributes;
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
@@ -100,4 +102,27 @@ public class ObservableValueTest extends TestCase {
             return c;
         }
     }
+
+    public void testFrozenObservers() throws Exception {
+        ObservableValue in = new ObservableValue("in", 1);
+        Model model = new Model();
+        Not not = model.add(new Not(new ElementAttributes()));
+        not.setInputs(in.asList());
+        model.init();
+        in.freeze(model.getScheduler());
+        assertTrue(not.getOutput().getBool());
+
+        final int[] count = new int[1];
+        in.addObserver(() -> count[0]++);
+        in.setBool(true);
+        assertEquals(1, count[0]);
+        assertTrue(model.needsUpdate());
+        model.doStep();
+        assertFalse(not.getOutput().getBool());
+
+        in.removeObserver(not);
+        in.setBool(false);
+        assertEquals(2, count[0]);
+        assertFalse(model.needsUpdate());
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core;
+
+import de.neemann.digital.draw.elements.PinException;
+import de.neemann.digital.integration.ToBreakRunner;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class PartitionedModelTest extends TestCase {
+
+    public void testCounterSplitter() throws Exception {
+        checkSameBehaviour("dig/CounterSplitter.dig", 2500);
+    }
+
+    public void testLightChase() throws Exception {
+        checkSameBehaviour("dig/test/vhdl/lightChase.dig", 1000);
+    }
+
+    public void testMultiBitCounter() throws Exception {
+        checkSameBehaviour("dig/analyze/multiBitCounter.dig", 100);
+    }
+
+    public void testFallbackOnSwitches() throws Exception {
+        Model model = new ToBreakRunner("dig/test/fet/d-ff.dig").getModel();
+        PartitionedModel pm = new PartitionedModel(model, 2);
+        assertFalse(pm.isPartitioned());
+        assertNotNull(pm.getNotPartitionedReason());
+    }
+
+    private void checkSameBehaviour(String file, int clocks) throws Exception {
+        Model event = new ToBreakRunner(file).getModel();
+        Model partitioned = new ToBreakRunner(file).getModel();
+        PartitionedModel pm = new PartitionedModel(partitioned, 3);
+        assertTrue(pm.getNotPartitionedReason(), pm.isPartitioned());
+
+        ObservableValue clkEvent = event.getClocks().get(0).getClockOutput();
+        ObservableValue clkPartitioned = partitioned.getClocks().get(0).getClockOutput();
+
+        List<Node> eventNodes = event.getNodes();
+        List<Node> partitionedNodes = partitioned.getNodes();
+        assertEquals(eventNodes.size(), partitionedNodes.size());
+
+        try {
+            for (int i = 0; i < clocks; i++) {
+                // the second half is calculated by the event driven model again
+                if (i == clocks / 2)
+                    pm.close();
+
+                clkEvent.setBool(!clkEvent.getBool());
+                event.doStep();
+                clkPartitioned.setBool(!clkPartitioned.getBool());
+                if (i < clocks / 2)
+                    pm.doStep();
+                else
+                    partitioned.doStep();
+
+                assertSameOutputs(eventNodes, partitionedNodes);
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void testModelPartitions() throws Exception {
+        final String file = "dig/CounterSplitter.dig";
+        Model event = new ToBreakRunner(file).getModel();
+        Model partitioned = new ToBreakRunner(file, false).getModel();
+        partitioned.setPartitions(3);
+        partitioned.init(true);
+        assertTrue(partitioned.isPartitioned());
+
+        ObservableValue clkEvent = event.getClocks().get(0).getClockOutput();
+        ObservableValue clkPartitioned = partitioned.getClocks().get(0).getClockOutput();
+        try {
+            for (int i = 0; i < 400; i++) {
+                // a micro step observer needs the event driven model
+                if (i == 200) {
+                    partitioned.addObserver(event1 -> {
+                    }, ModelEvent.MICROSTEP);
+                    assertFalse(partitioned.isPartitioned());
+                }
+
+                final int eventCounter = event.getStepCounter();
+                final int partitionedCounter = partitioned.getStepCounter();
+                clkEvent.setBool(!clkEvent.getBool());
+                event.doStep();
+                clkPartitioned.setBool(!clkPartitioned.getBool());
+                assertTrue(partitioned.needsUpdate());
+                partitioned.doStep();
+                assertFalse(partitioned.needsUpdate());
+
+                assertSameOutputs(event.getNodes(), partitioned.getNodes());
+                assertTrue(event.getMicroStepsOfLastStep() > 0);
+                assertEquals(event.getMicroStepsOfLastStep(), partitioned.getMicroStepsOfLastStep());
+                assertEquals(event.getStepCounter() - eventCounter, partitioned.getStepCounter() - partitionedCounter);
+
+                // a step without anything to do
+                partitioned.doStep();
+                assertEquals(0, partitioned.getMicroStepsOfLastStep());
+            }
+        } finally {
+            partitioned.close();
+        }
+    }
+
+    public void testModelPartitionsMicroStep() throws Exception {
+        final String file = "dig/CounterSplitter.dig";
+        Model partitioned = new ToBreakRunner(file, false).getModel();
+        partitioned.setPartitions(2);
+        partitioned.init(true);
+        assertTrue(partitioned.isPartitioned());
+
+        ObservableValue clk = partitioned.getClocks().get(0).getClockOutput();
+        clk.setBool(!clk.getBool());
+        partitioned.doMicroStep(false);
+        assertFalse(partitioned.isPartitioned());
+        while (partitioned.needsUpdate())
+            partitioned.doMicroStep(false);
+        partitioned.close();
+    }
+
+    private static void assertSameOutputs(List<Node> eventNodes, List<Node> partitionedNodes) throws PinException {
+        for (int n = 0; n < eventNodes.size(); n++) {
+            ObservableValues eo = eventNodes.get(n).getOutputs();
+            ObservableValues po = partitionedNodes.get(n).getOutputs();
+            for (int o = 0; o < eo.size(); o++) {
+                assertEquals(eo.get(o).getValue(), po.get(o).getValue());
+                assertEquals(eo.get(o).getHighZ(), po.get(o).getHighZ());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.memory;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class DataFieldImporterTest extends TestCase {
+
+    public void testByteBuffer() {
+        byte[] bytes = {0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07};
+
+        DataField df = new DataField(4);
+        df.setDataFrom(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), 16);
+        assertEquals(0x0201, df.getDataWord(0));
+        assertEquals(0x0403, df.getDataWord(1));
+        assertEquals(0x0605, df.getDataWord(2));
+        assertEquals(0x07, df.getDataWord(3));
+
+        df.setDataFrom(ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN), 12);
+        assertEquals(0x0102, df.getDataWord(0));
+        assertEquals(0x0304, df.getDataWord(1));
+
+        df.setDataFrom(ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN), 24);
+        assertEquals(0x010203, df.getDataWord(0));
+        assertEquals(0x040506, df.getDataWord(1));
+        assertEquals(0x07, df.getDataWord(2));
+        assertEquals(0, df.getDataWord(3));
+
+        df.setDataFrom(ByteBuffer.wrap(bytes), 4);
+        assertEquals(0x1, df.getDataWord(0));
+        assertEquals(0x4, df.getDataWord(3));
+    }
+
+    public void testBinaryFile() throws IOException {
+        File f = File.createTempFile("image", ".bin");
+        try {
+            try (FileOutputStream out = new FileOutputStream(f)) {
+                out.write(new byte[]{(byte) 0xff, 0x00, 0x34, 0x12});
+            }
+            DataField df = DataFieldImporter.read(f, 16, 8);
+            assertEquals(2, df.size());
+            assertEquals(0x00ff, df.getDataWord(0));
+            assertEquals(0x1234, df.getDataWord(1));
+
+            df = DataFieldImporter.readBinary(f, 8, 8, ByteOrder.LITTLE_ENDIAN);
+            assertEquals(4, df.size());
+            assertEquals(0xff, df.getDataWord(0));
+            assertEquals(0x12, df.getDataWord(3));
+
+            try {
+                DataFieldImporter.readBinary(f, 8, 1, ByteOrder.LITTLE_ENDIAN);
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("2"));
+            }
+        } finally {
+            assertTrue(f.delete());
+        }
+    }
+
+    public void testIntelHex() throws IOException {
+        String hex = ":0400000001020304F2\n"
+                + ":020000040001F9\n"
+                + ":02000200AABB97\n"
+                + ":00000001FF\n";
+        DataField df = DataFieldImporter.readIntelHex(new StringReader(hex), 8, 17, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x10004, df.size());
+        assertEquals(0x01, df.getDataWord(0));
+        assertEquals(0x04, df.getDataWord(3));
+        assertEquals(0, df.getDataWord(4));
+        assertEquals(0xAA, df.getDataWord(0x10002));
+        assertEquals(0xBB, df.getDataWord(0x10003));
+
+        df = DataFieldImporter.readIntelHex(new StringReader(hex), 16, 16, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x0201, df.getDataWord(0));
+        assertEquals(0xBBAA, df.getDataWord(0x8001));
+    }
+
+    public void testIntelHexChecksum() {
+        try {
+            DataFieldImporter.readIntelHex(new StringReader(":0400000001020304F3\n"), 8, 8, ByteOrder.LITTLE_ENDIAN);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("1"));
+        }
+    }
+
+    public void testIntelHexOutOfMemory() throws IOException {
+        String hex = ":020000040800F2\n"
+                + ":0400000001020304F2\n"
+                + ":00000001FF\n";
+        try {
+            DataFieldImporter.readIntelHex(new StringReader(hex), 8, 24, ByteOrder.LITTLE_ENDIAN);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("2"));
+        }
+
+        // the last word of the memory is accepted
+        hex = ":02FFFE000102FE\n"
+                + ":00000001FF\n";
+        DataField df = DataFieldImporter.readIntelHex(new StringReader(hex), 16, 15, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x8000, df.size());
+        assertEquals(0x0201, df.getDataWord(0x7fff));
+        try {
+            DataFieldImporter.readIntelHex(new StringReader(hex), 16, 14, ByteOrder.LITTLE_ENDIAN);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("1"));
+        }
+    }
+}
@@ -60,4 +60,34 @@ public class DataBusTest extends TestCase {
 
     }
 
+    public void testPartialHighZ() throws PinException, NodeException {
+        ObservableValue a = new ObservableValue("a", 4).setToHighZ();
+        ObservableValue b = new ObservableValue("b", 4).setToHighZ();
+        ObservableValue c = new ObservableValue("c", 4).setToHighZ();
+        Model m = new Model();
+        ObservableValue out = new DataBus(null, m, a, b, c).getReadableOutput();
+
+        // the drivers define disjoint bits
+        a.set(0b0011, 0b1100);
+        b.set(0b0100, 0b0011);
+        m.doStep();
+        assertEquals(0b0111, out.getValue());
+        assertEquals(0b0000, out.getHighZ());
+
+        // bit 3 is not defined, bit 2 is driven to one by a and b
+        a.set(0b0111, 0b1000);
+        b.set(0b0100, 0b1011);
+        m.doStep();
+        assertEquals(0b0111, out.getValue());
+        assertEquals(0b1000, out.getHighZ());
+
+        // bit 0 is driven to one by a and to zero by c
+        c.set(0b0000, 0b1110);
+        try {
+            m.doStep();
+            fail();
+        } catch (BurnException e) {
+            assertTrue(true);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.core.wiring.bus;
+
+import de.neemann.digital.core.BurnException;
+import de.neemann.digital.core.Model;
+import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.ObservableValues;
+import de.neemann.digital.core.switching.Switch;
+import de.neemann.digital.draw.elements.PinException;
+import junit.framework.TestCase;
+
+public class BusModelStateObserverTest extends TestCase {
+
+    private static CommonBusValue createNet(Model m, ObservableValue driver) throws PinException {
+        return (CommonBusValue) new DataBus(null, m, driver).getReadableOutput();
+    }
+
+    private static Switch createSwitch(Model m, CommonBusValue n1, CommonBusValue n2) throws NodeException {
+        Switch s = new Switch(new ObservableValue("o1", 4), new ObservableValue("o2", 4), false);
+        s.setInputs(new ObservableValues(n1, n2));
+        s.init(m);
+        return s;
+    }
+
+    public void testOpenParallelPath() throws PinException, NodeException {
+        Model m = new Model();
+        ObservableValue da = new ObservableValue("a", 4).setToHighZ();
+        CommonBusValue a = createNet(m, da);
+        CommonBusValue b = createNet(m, new ObservableValue("b", 4).setToHighZ());
+        CommonBusValue c = createNet(m, new ObservableValue("c", 4).setToHighZ());
+        Switch ab = createSwitch(m, a, b);
+        Switch bc = createSwitch(m, b, c);
+        Switch ac = createSwitch(m, a, c);
+
+        ab.setClosed(true);
+        bc.setClosed(true);
+        ac.setClosed(true);
+        assertSame(a.getHandler(), b.getHandler());
+        assertSame(a.getHandler(), c.getHandler());
+
+        // a and b are still connected via c
+        ab.setClosed(false);
+        assertSame(a.getHandler(), b.getHandler());
+        assertSame(a.getHandler(), c.getHandler());
+
+        da.setValue(5);
+        m.doStep();
+        assertEquals(5, b.getValue());
+        assertEquals(0, b.getHighZ());
+    }
+
+    public void testOpenSplitsNet() throws PinException, NodeException {
+        Model m = new Model();
+        ObservableValue da = new ObservableValue("a", 4).setToHighZ();
+        CommonBusValue a = createNet(m, da);
+        CommonBusValue b = createNet(m, new ObservableValue("b", 4).setToHighZ());
+        CommonBusValue c = createNet(m, new ObservableValue("c", 4).setToHighZ());
+        Switch ab = createSwitch(m, a, b);
+        Switch bc = createSwitch(m, b, c);
+
+        ab.setClosed(true);
+        bc.setClosed(true);
+        da.setValue(5);
+        m.doStep();
+        assertEquals(5, c.getValue());
+
+        // a is split from b and c
+        ab.setClosed(false);
+        assertNotSame(a.getHandler(), b.getHandler());
+        assertSame(b.getHandler(), c.getHandler());
+        assertTrue(a.getHandler() instanceof SingleBusHandler);
+        m.doStep();
+        assertEquals(5, a.getValue());
+        assertEquals(0xf, c.getHighZ());
+
+        // c is split from b
+        bc.setClosed(false);
+        assertNotSame(b.getHandler(), c.getHandler());
+        assertTrue(b.getHandler() instanceof SingleBusHandler);
+        assertTrue(c.getHandler() instanceof SingleBusHandler);
+
+        // merge again
+        ab.setClosed(true);
+        bc.setClosed(true);
+        m.doStep();
+        assertSame(a.getHandler(), c.getHandler());
+        assertEquals(5, c.getValue());
+    }
+
+    public void testCloseMergesDrivers() throws PinException, NodeException {
+        Model m = new Model();
+        ObservableValue da = new ObservableValue("a", 4).setToHighZ();
+        ObservableValue db = new ObservableValue("b", 4).setToHighZ();
+        CommonBusValue a = createNet(m, da);
+        CommonBusValue b = createNet(m, db);
+        Switch ab = createSwitch(m, a, b);
+
+        da.setValue(1);
+        db.setValue(2);
+        m.doStep();
+        assertEquals(1, a.getValue());
+        assertEquals(2, b.getValue());
+
+        ab.setClosed(true);
+        assertSame(a.getHandler(), b.getHandler());
+        try {
+            m.doStep();
+            fail();
+        } catch (BurnException e) {
+            assertTrue(true);
+        }
+
+        // the same value on both drivers is no burn condition
+        db.setValue(1);
+        m.doStep();
+        assertEquals(1, b.getValue());
+
+        // open the switch while the values differ
+        db.setValue(2);
+        ab.setClosed(false);
+        m.doStep();
+        assertEquals(1, a.getValue());
+        assertEquals(2, b.getValue());
+    }
+}
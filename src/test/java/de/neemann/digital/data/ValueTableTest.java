@@ -61,4 +61,26 @@ public class ValueTableTest extends TestCase {
         assertTrue(new Value(3).isEqualTo(t.getTableValue(1,0)));
         assertTrue(new Value(5).isEqualTo(t.getTableValue(2,0)));
     }
+
+    public void testMaxSize() {
+        ValueTable t = new ValueTable("A").setMaxSize(20);
+        for (int i = 0; i < 100; i++)
+            t.add(new Value[]{new Value(i)});
+        assertEquals(20, t.getRows());
+        for (int i = 0; i < 20; i++)
+            assertEquals(80 + i, t.getValue(i, 0).getValue());
+
+        ValueTable copy = new ValueTable(t);
+        t.add(new Value[]{new Value(100)});
+        assertEquals(20, copy.getRows());
+        int n = 80;
+        for (Value[] row : copy)
+            assertEquals(n++, row[0].getValue());
+        assertEquals(100, n);
+
+        t.clear();
+        assertEquals(0, t.getRows());
+        t.add(new Value[]{new Value(7)});
+        assertEquals(7, t.getValue(0, 0).getValue());
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.SyncAccess;
+import de.neemann.digital.core.basic.And;
+import de.neemann.digital.draw.graphics.GraphicMinMax;
+import de.neemann.digital.draw.graphics.Style;
+import de.neemann.digital.draw.graphics.Vector;
+import de.neemann.digital.draw.library.ElementLibrary;
+import de.neemann.digital.draw.shapes.Drawable;
+import de.neemann.digital.draw.shapes.ShapeFactory;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class CircuitPainterTest extends TestCase {
+    private static final Set<Drawable> NONE = Collections.emptySet();
+
+    public void testCullingAndDirtyRegions() {
+        ShapeFactory shapeFactory = new ShapeFactory(new ElementLibrary());
+        Circuit c = new Circuit();
+        ObservableValue[] values = new ObservableValue[100];
+        for (int i = 0; i < 100; i++) {
+            Vector pos = new Vector(i * 200, 0);
+            c.add(new VisualElement(And.DESCRIPTION.getName()).setShapeFactory(shapeFactory).setPos(pos));
+            Wire w = new Wire(pos.add(60, 20), pos.add(120, 20));
+            values[i] = new ObservableValue("v" + i, 1);
+            w.setValue(values[i]);
+            c.getWires().add(w);
+        }
+
+        CircuitPainter painter = new CircuitPainter();
+        painter.paint(c, new GraphicMinMax(), new Vector(0, 0), new Vector(1000, 200), NONE, null, SyncAccess.NOSYNC);
+        final int elements = painter.getDrawnElements();
+        final int wires = painter.getDrawnWires();
+        assertTrue(elements >= 5 && elements < 10);
+        assertTrue(wires >= 5 && wires < 10);
+
+        // nothing has changed
+        assertTrue(painter.update(NONE, null, SyncAccess.NOSYNC).isEmpty());
+
+        // a value which is not visible has changed
+        values[50].setValue(1);
+        assertTrue(painter.update(NONE, null, SyncAccess.NOSYNC).isEmpty());
+
+        // a visible value has changed
+        values[2].setValue(1);
+        List<CircuitPainter.Region> regions = painter.update(NONE, null, SyncAccess.NOSYNC);
+        assertEquals(1, regions.size());
+        CircuitPainter.Region r = regions.get(0);
+        assertTrue(r.getMin().x <= 460 && r.getMax().x >= 520);
+        assertTrue(r.getMax().x < 600);
+
+        // the wire and the gate it is connected to
+        painter.redraw(new GraphicMinMax(), r);
+        assertEquals(1, painter.getDrawnWires());
+        assertEquals(1, painter.getDrawnElements());
+
+        // a highlighted element needs to be redrawn
+        regions = painter.update(Collections.singleton(c.getElements().get(0)), Style.HIGHLIGHT, SyncAccess.NOSYNC);
+        assertEquals(1, regions.size());
+        assertTrue(regions.get(0).getMax().x < 200);
+    }
+
+    public void testSnapshot() {
+        Circuit c = new Circuit();
+        Wire w = new Wire(new Vector(0, 0), new Vector(100, 0));
+        ObservableValue value = new ObservableValue("v", 1);
+        w.setValue(value);
+        c.getWires().add(w);
+
+        CircuitPainter painter = new CircuitPainter();
+        painter.paint(c, new GraphicMinMax(), new Vector(0, 0), new Vector(1000, 1000), NONE, null, SyncAccess.NOSYNC);
+
+        // the value is not read until a snapshot is taken
+        value.setValue(1);
+        assertTrue(painter.update(NONE, null).isEmpty());
+        assertTrue(painter.readObservableValues());
+        assertEquals(1, painter.update(NONE, null).size());
+        assertTrue(painter.update(NONE, null).isEmpty());
+    }
+}
@@ -11,13 +11,16 @@ import de.neemann.digital.core.io.In;
 import de.neemann.digital.core.io.InValue;
 import de.neemann.digital.core.memory.DataField;
 import de.neemann.digital.core.memory.ROM;
+import de.neemann.digital.draw.graphics.Vector;
 import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.shapes.ShapeFactory;
+import de.neemann.digital.gui.components.modification.ModifyMoveSelected;
 import junit.framework.TestCase;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 
 public class CircuitTest extends TestCase {
 
@@ -57,4 +60,67 @@ public class CircuitTest extends TestCase {
         assertEquals(0x8fff0000ffff0000L, in.getElementAttributes().get(Keys.INPUT_DEFAULT).getValue());
     }
 
+    public void testWireAtIndexed() {
+        Circuit c = new Circuit();
+        for (int i = 0; i < 100; i++)
+            c.add(new Wire(new Vector(0, i * 20), new Vector(100, i * 20)));
+
+        // the first query is linear, the second creates the index
+        for (int n = 0; n < 3; n++) {
+            Wire w = c.getWireAt(new Vector(50, 400), 5);
+            assertNotNull(w);
+            assertEquals(400, w.p1.y);
+            assertNull(c.getWireAt(new Vector(50, 410), 5));
+        }
+
+        // a moved wire is found at its new position
+        Wire w = c.getWireAt(new Vector(50, 400), 5);
+        w.move(new Vector(0, 5));
+        assertNull(c.getWireAt(new Vector(50, 400), 3));
+        assertSame(w, c.getWireAt(new Vector(50, 405), 3));
+        assertSame(w, c.getWireAt(new Vector(50, 405), 3));
+
+        ArrayList<Movable> m = c.getElementsToMove(new Vector(-10, 30), new Vector(10, 70));
+        assertEquals(2, m.size());
+        assertEquals(new Vector(0, 40), m.get(0).getPos());
+        assertEquals(new Vector(0, 60), m.get(1).getPos());
+
+        c.delete(new Vector(-10, 30), new Vector(10, 70));
+        assertNull(c.getWireAt(new Vector(50, 40), 5));
+        assertNull(c.getWireAt(new Vector(50, 40), 5));
+        assertNotNull(c.getWireAt(new Vector(50, 80), 5));
+    }
+
+    public void testWireAtIndexedRotate() {
+        Circuit c = new Circuit();
+        for (int i = 0; i < 100; i++)
+            c.add(new Wire(new Vector(0, i * 20), new Vector(100, i * 20)));
+        Circuit other = new Circuit();
+        other.add(new Wire(new Vector(0, 0), new Vector(100, 0)));
+
+        // create the index
+        Wire w = c.getWireAt(new Vector(90, 400), 3);
+        assertSame(w, c.getWireAt(new Vector(90, 400), 3));
+
+        // changes of an other circuit do not matter
+        other.getWires().get(0).move(new Vector(0, 20));
+        assertSame(w, c.getWireAt(new Vector(90, 400), 3));
+
+        // a rotated wire is found at its new position
+        ArrayList<Movable> sel = new ArrayList<>();
+        sel.add(w);
+        ModifyMoveSelected.rotateElements(sel, new Vector(50, 400));
+        for (int n = 0; n < 2; n++) {
+            assertNull(c.getWireAt(new Vector(90, 400), 3));
+            assertSame(w, c.getWireAt(new Vector(50, 430), 3));
+        }
+
+        // a wire replaced in the list is found
+        Wire r = new Wire(new Vector(200, 0), new Vector(300, 0));
+        c.getWires().set(c.getWires().indexOf(w), r);
+        for (int n = 0; n < 2; n++) {
+            assertNull(c.getWireAt(new Vector(50, 430), 3));
+            assertSame(r, c.getWireAt(new Vector(250, 0), 3));
+        }
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.draw.elements;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+public class RTreeTest extends TestCase {
+
+    public void testEmpty() {
+        RTree tree = new RTree(new int[0], new int[0], new int[0], new int[0]);
+        tree.query(-100, -100, 100, 100, id -> fail());
+    }
+
+    public void testRandom() {
+        Random r = new Random(1);
+        for (int n : new int[]{1, 15, 16, 17, 300, 5000}) {
+            int[] x1 = new int[n];
+            int[] y1 = new int[n];
+            int[] x2 = new int[n];
+            int[] y2 = new int[n];
+            for (int i = 0; i < n; i++) {
+                x1[i] = r.nextInt(2000) - 1000;
+                y1[i] = r.nextInt(2000) - 1000;
+                x2[i] = x1[i] + r.nextInt(100);
+                y2[i] = y1[i] + r.nextInt(100);
+            }
+            RTree tree = new RTree(x1, y1, x2, y2);
+
+            for (int q = 0; q < 200; q++) {
+                int qx1 = r.nextInt(2200) - 1100;
+                int qy1 = r.nextInt(2200) - 1100;
+                int qx2 = qx1 + r.nextInt(300);
+                int qy2 = qy1 + r.nextInt(300);
+
+                TreeSet<Integer> expected = new TreeSet<>();
+                for (int i = 0; i < n; i++)
+                    if (x1[i] <= qx2 && qx1 <= x2[i] && y1[i] <= qy2 && qy1 <= y2[i])
+                        expected.add(i);
+
+                TreeSet<Integer> found = new TreeSet<>();
+                tree.query(qx1, qy1, qx2, qy2, id -> assertTrue(found.add(id)));
+                assertEquals(expected, found);
+            }
+        }
+    }
+}
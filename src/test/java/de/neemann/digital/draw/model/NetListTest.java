@@ -7,11 +7,14 @@ package de.neemann.digital.draw.model;
 
 import de.neemann.digital.core.element.Keys;
 import de.neemann.digital.draw.elements.Circuit;
+import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.elements.VisualElement;
 import de.neemann.digital.draw.elements.Wire;
 import de.neemann.digital.draw.graphics.Vector;
 import junit.framework.TestCase;
 
+import java.util.Iterator;
+
 /**
  */
 public class NetListTest extends TestCase {
@@ -91,5 +94,59 @@ public class NetListTest extends TestCase {
         assertEquals(1, ns.size());
     }
 
-}
+    public void testOrder() throws Exception {
+        Circuit c = new Circuit();
+        c.getWires().add(new Wire(new Vector(0, 0), new Vector(1, 0)));
+        c.getWires().add(new Wire(new Vector(0, 5), new Vector(1, 5)));
+        c.getWires().add(new Wire(new Vector(0, 9), new Vector(1, 9)));
+        c.getWires().add(new Wire(new Vector(1, 0), new Vector(1, 5)));
+
+        NetList ns = new NetList(c);
+        assertEquals(2, ns.size());
+        // the joined net takes the position of the later net
+        Iterator<Net> it = ns.iterator();
+        Net n1 = it.next();
+        Net n2 = it.next();
+        assertTrue(n1.contains(new Vector(0, 0)));
+        assertTrue(n1.contains(new Vector(0, 5)));
+        assertEquals(3, n1.getWires().size());
+        assertTrue(n2.contains(new Vector(0, 9)));
+
+        assertSame(n1, ns.getNetOfPos(new Vector(1, 5)));
+        assertSame(n2, ns.getNetOfPos(new Vector(1, 9)));
+        assertNull(ns.getNetOfPos(new Vector(2, 2)));
+    }
 
+    public void testTunnelOrder() throws Exception {
+        Circuit c = new Circuit();
+        c.add(new Wire(new Vector(1, 1), new Vector(2, 1)));
+        c.add(new Wire(new Vector(1, 4), new Vector(2, 4)));
+        addTunnel(c, new Vector(2, 4), "B");
+        c.add(new Wire(new Vector(3, 4), new Vector(4, 4)));
+        addTunnel(c, new Vector(3, 4), "B");
+
+        NetList ns = new NetList(c);
+        assertEquals(2, ns.size());
+        Iterator<Net> it = ns.iterator();
+        assertTrue(it.next().contains(new Vector(1, 1)));
+        Net joined = it.next();
+        assertTrue(joined.contains(new Vector(1, 4)));
+        assertTrue(joined.contains(new Vector(4, 4)));
+        assertSame(joined, ns.getNetOfPos(new Vector(4, 4)));
+
+        ns.remove(joined);
+        assertNull(ns.getNetOfPos(new Vector(4, 4)));
+    }
+
+    public void testTunnelNotConnected() throws Exception {
+        Circuit c = new Circuit();
+        c.add(new Wire(new Vector(1, 1), new Vector(2, 1)));
+        addTunnel(c, new Vector(3, 1), "A");
+        try {
+            new NetList(c);
+            fail();
+        } catch (PinException e) {
+            assertTrue(true);
+        }
+    }
+}
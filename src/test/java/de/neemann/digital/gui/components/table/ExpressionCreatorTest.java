@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018 Helmut Neemann
+ * Use of this source code is governed by the GPL v3 license
+ * that can be found in the LICENSE file.
+ */
+package de.neemann.digital.gui.components.table;
+
+import de.neemann.digital.analyse.AnalyseException;
+import de.neemann.digital.analyse.TruthTable;
+import de.neemann.digital.analyse.expression.format.FormatToExpression;
+import de.neemann.digital.analyse.quinemc.BoolTableBitArray;
+import de.neemann.digital.analyse.quinemc.BoolTableByteArray;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.Random;
+
+public class ExpressionCreatorTest extends TestCase {
+
+    private static TruthTable createTable(int vars) {
+        BoolTableBitArray t = new BoolTableBitArray(1 << vars);
+        for (int i = 0; i < t.size(); i++)
+            t.set(i, (i & 3) == 3 || (i >> (vars - 2)) == 2 || i == t.size() - 2);
+        return new TruthTable(vars).addResult("Y", t);
+    }
+
+    public void testAutomaticUsesHeuristic() throws Exception {
+        ExpressionListenerStore els = new ExpressionListenerStore(null);
+        new ExpressionCreator(createTable(14))
+                .setMinimizer(ExpressionCreator.Minimizer.AUTOMATIC)
+                .create(els);
+        assertEquals("(A && C && D && E && F && G && H && I && J && K && L && M) || (A && !B) || (M && N)", FormatToExpression.FORMATTER_JAVA.format(els.getFirst()));
+    }
+
+    public void testAutomaticExactMaxVarsLimited() throws Exception {
+        ExpressionListenerStore els = new ExpressionListenerStore(null);
+        new ExpressionCreator(createTable(13))
+                .setMinimizer(ExpressionCreator.Minimizer.AUTOMATIC)
+                .setExactMaxVars(14)
+                .create(els);
+        assertNotNull(els.getFirst());
+    }
+
+    public void testExactLimit() throws Exception {
+        try {
+            new ExpressionCreator(createTable(14))
+                    .create(new ExpressionListenerStore(null));
+            fail();
+        } catch (AnalyseException e) {
+            assertTrue(true);
+        }
+    }
+
+    public void testHeuristic() throws Exception {
+        ExpressionListenerStore els = new ExpressionListenerStore(null);
+        new ExpressionCreator(createTable(6))
+                .setMinimizer(ExpressionCreator.Minimizer.HEURISTIC)
+                .create(els);
+        assertEquals("(A && C && D && E) || (A && !B) || (E && F)", FormatToExpression.FORMATTER_JAVA.format(els.getFirst()));
+    }
+
+    public void testNotMinimal() throws Exception {
+        BoolTableByteArray t = new BoolTableByteArray(1 << 9);
+        Random r = new Random(1);
+        for (int i = 0; i < t.size(); i++)
+            t.set(i, r.nextInt(3));
+        TruthTable tt = new TruthTable(9).addResult("Y", t);
+
+        ExpressionCreator ec = new ExpressionCreator(tt).setMaxSearchNodes(1000);
+        ec.create(new ExpressionListenerStore(null));
+        assertEquals(Collections.singletonList("Y"), ec.getNotMinimalResults());
+
+        ec = new ExpressionCreator(createTable(6));
+        ec.create(new ExpressionListenerStore(null));
+        assertTrue(ec.getNotMinimalResults().isEmpty());
+    }
+}
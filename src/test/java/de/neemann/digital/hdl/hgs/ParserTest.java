@@ -454,6 +454,16 @@ public class ParserTest extends TestCase {
         }
     }
 
+    public static final class TestClassThrows {
+        public static void fail() {
+            throw new IllegalStateException("myFail");
+        }
+
+        public static void error() {
+            throw new AssertionError("myError");
+        }
+    }
+
     public void testJavaClass() throws ParserException, IOException, HGSEvalException {
         JavaClass<TestClass> jc = new JavaClass<>(TestClass.class);
         TestClass t = new TestClass();
@@ -481,6 +491,40 @@ public class ParserTest extends TestCase {
     }
 
 
+    public void testJavaClassError() throws ParserException, IOException {
+        JavaClass<TestClassStatic> jcs = new JavaClass<>(TestClassStatic.class);
+        try {
+            exec("<? z.set(\"a\"); ?>", new Context().declareVar("z", jcs.createMap(null)));
+            fail();
+        } catch (HGSEvalException e) {
+            assertTrue(e.getMessage().contains("set"));
+        }
+    }
+
+    public void testJavaClassException() throws ParserException, IOException {
+        JavaClass<TestClassThrows> jc = new JavaClass<>(TestClassThrows.class);
+        try {
+            exec("<? z.fail(); ?>", new Context().declareVar("z", jc.createMap(null)));
+            fail();
+        } catch (HGSEvalException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("myFail", e.getCause().getMessage());
+        }
+        try {
+            exec("<? z.error(); ?>", new Context().declareVar("z", jc.createMap(null)));
+            fail();
+        } catch (HGSEvalException e) {
+            fail();
+        } catch (AssertionError e) {
+            assertEquals("myError", e.getMessage());
+        }
+    }
+
+    public void testCreateFromJarIsCached() throws IOException, ParserException {
+        Statement s = Parser.createFromJar("vhdl2/DIG_Add.tem");
+        assertSame(s, Parser.createFromJar("vhdl2/DIG_Add.tem"));
+    }
+
     public void testPanic() throws IOException, ParserException, HGSEvalException {
         Statement s = new Parser("<? if (i>1) panic(\"myError\"); ?>").parse();
 
@@ -16,6 +16,7 @@ import de.neemann.digital.integration.ToBreakRunner;
 import junit.framework.TestCase;
 
 import java.io.IOException;
+import java.util.TreeMap;
 
 public class HDLModelTest extends TestCase {
 
@@ -349,4 +350,54 @@ public class HDLModelTest extends TestCase {
                 "end circuit main\n", cp.toString());
     }
 
-}
\ No newline at end of file
+    public void testApplyToAllCircuits() throws IOException, PinException, HDLException, NodeException, ElementNotFoundException {
+        ToBreakRunner br = new ToBreakRunner("../../main/dig/processor/HDLExample.dig", false);
+
+        HDLModel serial = new HDLModel(br.getLibrary()).create(br.getCircuit(), null);
+        for (HDLCircuit c : serial)
+            c.applyDefaultOptimizations();
+
+        HDLModel parallel = new HDLModel(br.getLibrary()).create(br.getCircuit(), null);
+        parallel.applyToAllCircuits(HDLCircuit::applyDefaultOptimizations);
+
+        TreeMap<String, String> expected = print(serial);
+        assertTrue(expected.size() > 2);
+        assertEquals(expected, print(parallel));
+    }
+
+    public void testApplyToAllCircuitsError() throws IOException, PinException, HDLException, NodeException, ElementNotFoundException {
+        ToBreakRunner br = new ToBreakRunner("../../main/dig/processor/HDLExample.dig", false);
+        HDLModel model = new HDLModel(br.getLibrary()).create(br.getCircuit(), null);
+        try {
+            model.applyToAllCircuits(c -> {
+                if (c == model.getMain())
+                    throw new HDLException("main failed");
+            });
+            fail();
+        } catch (HDLException e) {
+            assertEquals("main failed", e.getMessage());
+        }
+
+        IllegalStateException ise = new IllegalStateException("main failed");
+        try {
+            model.applyToAllCircuits(c -> {
+                if (c == model.getMain())
+                    throw ise;
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(ise, e);
+        }
+    }
+
+    private static TreeMap<String, String> print(HDLModel model) throws IOException {
+        TreeMap<String, String> map = new TreeMap<>();
+        for (HDLCircuit c : model) {
+            CodePrinterStr cp = new CodePrinterStr();
+            c.print(cp);
+            map.put(c.getElementName(), cp.toString());
+        }
+        return map;
+    }
+
+}
@@ -10,6 +10,7 @@ import de.neemann.digital.core.NodeException;
 import de.neemann.digital.draw.elements.PinException;
 import de.neemann.digital.draw.library.ElementLibrary;
 import de.neemann.digital.draw.library.ElementNotFoundException;
+import de.neemann.digital.draw.model.CircuitTemplate;
 import junit.framework.TestCase;
 
 import java.io.File;
@@ -116,4 +117,28 @@ public class TestNesting extends TestCase {
         te.check(0, 1, 0, 0);  // Red
         te.check(1, 1, 0, 0);
     }
+
+    /**
+     * The template of a nested circuit is shared by all of its instances
+     * and is dropped if the circuit is invalidated.
+     */
+    public void testTemplateShared() throws Exception {
+        ElementLibrary library = new ElementLibrary();
+        library.setRootFilePath(new File(Resources.getRoot(), "dig"));
+        TestExecuter.createFromFile("dig/trafficLight.dig", library);
+
+        ElementLibrary.ElementTypeDescriptionCustom msjk =
+                (ElementLibrary.ElementTypeDescriptionCustom) library.getElementType("MS-JK.dig");
+        CircuitTemplate template = msjk.getTemplate();
+        assertSame(template, msjk.getTemplate());
+
+        // a second model uses the same template
+        TestExecuter.createFromFile("dig/trafficLight.dig", library);
+        assertSame(template, ((ElementLibrary.ElementTypeDescriptionCustom) library.getElementType("MS-JK.dig")).getTemplate());
+
+        library.invalidateElement(msjk.getFile());
+        ElementLibrary.ElementTypeDescriptionCustom reloaded =
+                (ElementLibrary.ElementTypeDescriptionCustom) library.getElementType("MS-JK.dig");
+        assertNotSame(template, reloaded.getTemplate());
+    }
 }
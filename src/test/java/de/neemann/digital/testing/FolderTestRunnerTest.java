@@ -36,4 +36,27 @@ public class FolderTestRunnerTest extends TestCase {
 
         ft.waitUntilFinished();
     }
-}
\ No newline at end of file
+
+    public void testFolderTestParallel() throws InterruptedException, IOException {
+        File f = new File(Resources.getRoot(), "dig/test/arith");
+        FolderTestRunner ft = new FolderTestRunner(f);
+
+        ElementLibrary library = new ElementLibrary();
+        library.setRootFilePath(f.getParentFile());
+        ShapeFactory shapeFactory = new ShapeFactory(library);
+        ft.startTests((fileToTest, row) -> {
+        }, shapeFactory, library, 4);
+        ft.waitUntilFinished();
+
+        for (int i = 0; i < ROWS.length; i++) {
+            FolderTestRunner.FileToTest fileToTest = ft.getFiles().get(i);
+            assertEquals("row " + i, ROWS[i], fileToTest.getRowCount());
+            assertEquals(FolderTestRunner.FileToTest.Status.passed, fileToTest.getStatus());
+        }
+
+        FolderTestRunner.Summary summary = ft.getSummary();
+        assertNotNull(summary);
+        assertEquals(5, summary.getFileCount());
+        assertEquals(8 + 512 + 4 + 4 + 512, summary.getRowCount());
+    }
+}
@@ -12,6 +12,8 @@ import de.neemann.digital.builder.BuilderException;
 import de.neemann.digital.builder.circuit.CircuitBuilder;
 import de.neemann.digital.core.Model;
 import de.neemann.digital.core.NodeException;
+import de.neemann.digital.core.ObservableValue;
+import de.neemann.digital.core.Signal;
 import de.neemann.digital.data.ValueTable;
 import de.neemann.digital.draw.elements.Circuit;
 import de.neemann.digital.draw.elements.PinException;
@@ -122,4 +124,57 @@ public class TestResultTest extends TestCase {
         assertTrue(te.allPassed());
     }
 
+    public void testResultBitParallel() throws Exception {
+        Model model = getModel("A*B*C*D*E*F*G");
+        ArrayList<ObservableValue> in = new ArrayList<>();
+        for (Signal s : model.getInputs())
+            in.add(s.getValue());
+        ArrayList<ObservableValue> out = new ArrayList<>();
+        for (Signal s : model.getOutputs())
+            out.add(s.getValue());
+        assertNotNull(BitParallelEvaluator.create(model, in, out));
+
+        // the rows are checked in two batches
+        TestCaseDescription data = new TestCaseDescription(
+                "A B C D E F G Y\n"
+                        + "loop(n,128)\n"
+                        + "bits(7,n) 0\n"
+                        + "end loop\n");
+        TestExecutor te = new TestExecutor(data).create(model);
+        ValueTable tr = te.getResult();
+        assertEquals(128, tr.getRows());
+        assertFalse(te.allPassed());
+        for (int r = 0; r < 127; r++)
+            assertTrue(((MatchedValue) tr.getValue(r, 7)).isPassed());
+        assertFalse(((MatchedValue) tr.getValue(127, 7)).isPassed());
+        assertEquals(1, tr.getValue(127, 6).getValue());
+    }
+
+    public void testResultContext() throws Exception {
+        Model model = getModel("A*B");
+        TestCaseDescription data = new TestCaseDescription(
+                "A B Y\n"
+                        + "loop(n,5000)\n"
+                        + "0 1 0\n"
+                        + "end loop\n"
+                        + "1 1 0\n"
+                        + "loop(n,20)\n"
+                        + "1 0 0\n"
+                        + "end loop\n");
+        TestExecutor te = new TestExecutor(data).create(model);
+        assertFalse(te.allPassed());
+        assertTrue(te.toManyResults());
+        assertEquals(5021, te.getTestedRows());
+        assertEquals(1, te.getFailedRows());
+
+        // the first rows, the failing row and eight rows before and after it
+        ValueTable tr = te.getResult();
+        assertEquals(1024 + 8 + 1 + 8, tr.getRows());
+        assertTrue(((MatchedValue) tr.getValue(1031, 2)).isPassed());
+        assertEquals(0, tr.getValue(1031, 0).getValue());
+        assertFalse(((MatchedValue) tr.getValue(1032, 2)).isPassed());
+        assertEquals(1, tr.getValue(1033, 0).getValue());
+        assertEquals(0, tr.getValue(1033, 1).getValue());
+    }
+
 }
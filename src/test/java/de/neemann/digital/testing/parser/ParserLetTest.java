@@ -9,6 +9,7 @@ import de.neemann.digital.data.Value;
 import junit.framework.TestCase;
 
 import java.io.IOException;
+import java.util.ArrayList;
 
 public class ParserLetTest extends TestCase {
 
@@ -62,5 +63,35 @@ public class ParserLetTest extends TestCase {
         }
     }
 
+    public void testScopes() throws IOException, ParserException {
+        Parser parser = new Parser(
+                "A B\n"
+                        + "let a=5;\n"
+                        + "loop(n,3)\n"
+                        + "  (a) (c)\n"
+                        + "  let a=n+10;\n"
+                        + "end loop\n"
+                        + "(a) (c)").parse();
+        ArrayList<Value[]> lines = new ArrayList<>();
+        parser.getLines().emitLines(lines::add, new Context().setVar("c", 7));
 
+        assertEquals(4, lines.size());
+        // the first iteration reads the outer variable, the later ones the variable of the loop
+        assertEquals(5, lines.get(0)[0].getValue());
+        assertEquals(10, lines.get(1)[0].getValue());
+        assertEquals(11, lines.get(2)[0].getValue());
+        assertEquals(5, lines.get(3)[0].getValue());
+        for (Value[] l : lines)
+            assertEquals(7, l[1].getValue());
+    }
+
+    public void testUnknownVariable() throws IOException, ParserException {
+        Parser parser = new Parser("A\nloop(n,3)\n(m)\nend loop").parse();
+        try {
+            new LineCollector(parser);
+            fail();
+        } catch (ParserException e) {
+            assertTrue(e.getMessage().contains("m"));
+        }
+    }
 }